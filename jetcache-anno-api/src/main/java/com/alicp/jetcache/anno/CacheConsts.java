@@ -15,6 +15,8 @@ public interface CacheConsts {
     CacheType DEFAULT_CACHE_TYPE = CacheType.REMOTE;
     int DEFAULT_LOCAL_LIMIT = 100;
     boolean DEFAULT_CACHE_NULL_VALUE = false;
+    double DEFAULT_EARLY_REFRESH_BETA = 0;
+    int DEFAULT_BROADCAST_VALUE_MAX_BYTES = 0;
     String DEFAULT_SERIAL_POLICY = SerialPolicy.JAVA;
     boolean DEFAULT_MULTI = false;
 
@@ -117,4 +117,21 @@ public @interface Cached {
      */
     String postCondition() default CacheConsts.UNDEFINED_STRING;
 
+    /**
+     * Enable probabilistic early refresh (XFetch) when the value is positive. A reader may reload the value
+     * in background shortly before it expires, the chance grows as the expire time approaches and as the method
+     * gets slower, other readers keep getting the current value. 1.0 is a good start, larger value refreshes
+     * earlier. It doesn't need @CacheRefresh.
+     * @return the beta of early refresh, 0 means disabled
+     */
+    double earlyRefreshBeta() default CacheConsts.DEFAULT_EARLY_REFRESH_BETA;
+
+    /**
+     * Only for CacheType.BOTH. If positive, when the cache is updated other nodes receive the new value
+     * (if its encoded size is not larger than this) and put it into their local cache, instead of removing
+     * the key from local cache. Works when a CacheMessagePublisher and a CacheMessageSubscriber are configured.
+     * @return the max bytes of a broadcast value, 0 means disabled
+     */
+    int broadcastValueMaxBytes() default CacheConsts.DEFAULT_BROADCAST_VALUE_MAX_BYTES;
+
 }
@@ -41,6 +41,8 @@ public class CacheConfigUtil {
         cc.setSerialPolicy(anno.serialPolicy());
         cc.setKeyConvertor(anno.keyConvertor());
         cc.setKey(anno.key());
+        cc.setEarlyRefreshBeta(anno.earlyRefreshBeta());
+        cc.setBroadcastValueMaxBytes(anno.broadcastValueMaxBytes());
         cc.setDefineMethod(m);
 
         CacheRefresh cacheRefresh = m.getAnnotation(CacheRefresh.class);
@@ -13,6 +13,7 @@ import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -255,15 +256,15 @@ public class CacheHandler implements InvocationHandler {
     }
 
     private static Object loadAndCount(CacheInvokeContext context, Cache cache, Object key) throws Throwable {
-        long t = System.currentTimeMillis();
+        long t = System.nanoTime();
         Object v = null;
         boolean success = false;
         try {
             v = invokeOrigin(context);
             success = true;
         } finally {
-            t = System.currentTimeMillis() - t;
-            CacheLoadEvent event = new CacheLoadEvent(cache, t, key, v, success);
+            t = System.nanoTime() - t;
+            CacheLoadEvent event = new CacheLoadEvent(cache, TimeUnit.NANOSECONDS.toMillis(t), t, key, v, success);
             while (cache instanceof ProxyCache) {
                 cache = ((ProxyCache) cache).getTargetCache();
             }
@@ -15,6 +15,7 @@ import com.alicp.jetcache.anno.method.CacheHandler;
 import com.alicp.jetcache.anno.method.CacheInvokeConfig;
 import com.alicp.jetcache.anno.method.CacheInvokeContext;
 import com.alicp.jetcache.embedded.EmbeddedCacheBuilder;
+import com.alicp.jetcache.embedded.OffHeapCacheBuilder;
 import com.alicp.jetcache.external.ExternalCacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -132,6 +133,7 @@ public class CacheContext {
                     .addCache(local, remote)
                     .useExpireOfSubCache(useExpireOfSubCache)
                     .cacheNullValue(cachedAnnoConfig.isCacheNullValue())
+                    .broadcastValueMaxBytes(cachedAnnoConfig.getBroadcastValueMaxBytes())
                     .buildCache();
         }
         cache.config().setRefreshPolicy(cachedAnnoConfig.getRefreshPolicy());
@@ -143,6 +145,9 @@ public class CacheContext {
             cache.config().setCachePenetrationProtect(protectConfig.isPenetrationProtect());
             cache.config().setPenetrationProtectTimeout(protectConfig.getPenetrationProtectTimeout());
         }
+        if (cachedAnnoConfig.getEarlyRefreshBeta() > 0) {
+            cache.config().setEarlyRefreshBeta(cachedAnnoConfig.getEarlyRefreshBeta());
+        }
 
         if (configProvider.getCacheMonitorManager() != null) {
             configProvider.getCacheMonitorManager().addMonitors(area, cacheName, cache);
@@ -203,10 +208,29 @@ public class CacheContext {
             cacheBuilder.expireAfterWrite(cachedAnnoConfig.getExpire(), cachedAnnoConfig.getTimeUnit());
         }
         processKeyConvertor(cachedAnnoConfig, cacheBuilder);
+        if (cacheBuilder instanceof OffHeapCacheBuilder) {
+            processValueEncoder(cachedAnnoConfig, (OffHeapCacheBuilder) cacheBuilder);
+        }
         cacheBuilder.setCacheNullValue(cachedAnnoConfig.isCacheNullValue());
         return cacheBuilder.buildCache();
     }
 
+    private void processValueEncoder(CachedAnnoConfig cachedAnnoConfig, OffHeapCacheBuilder cacheBuilder) {
+        if (!CacheConsts.isUndefined(cachedAnnoConfig.getSerialPolicy())) {
+            cacheBuilder.setValueEncoder(configProvider.parseValueEncoder(cachedAnnoConfig.getSerialPolicy()));
+            cacheBuilder.setValueDecoder(configProvider.parseValueDecoder(cachedAnnoConfig.getSerialPolicy()));
+        } else {
+            if (cacheBuilder.getConfig().getValueEncoder() instanceof ParserFunction) {
+                ParserFunction<Object, byte[]> f = (ParserFunction<Object, byte[]>) cacheBuilder.getConfig().getValueEncoder();
+                cacheBuilder.setValueEncoder(configProvider.parseValueEncoder(f.getValue()));
+            }
+            if (cacheBuilder.getConfig().getValueDecoder() instanceof ParserFunction) {
+                ParserFunction<byte[], Object> f = (ParserFunction<byte[], Object>) cacheBuilder.getConfig().getValueDecoder();
+                cacheBuilder.setValueDecoder(configProvider.parseValueDecoder(f.getValue()));
+            }
+        }
+    }
+
     private void processKeyConvertor(CachedAnnoConfig cachedAnnoConfig, AbstractCacheBuilder cacheBuilder) {
         if (!CacheConsts.isUndefined(cachedAnnoConfig.getKeyConvertor())) {
             cacheBuilder.setKeyConvertor(configProvider.parseKeyConvertor(cachedAnnoConfig.getKeyConvertor()));
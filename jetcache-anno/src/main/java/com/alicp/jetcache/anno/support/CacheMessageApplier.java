@@ -0,0 +1,124 @@
+package com.alicp.jetcache.anno.support;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheUtil;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.MultiLevelCache;
+import com.alicp.jetcache.embedded.AbstractEmbeddedCache;
+import com.alicp.jetcache.external.ExternalCacheConfig;
+import com.alicp.jetcache.support.CacheMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Apply the {@link CacheMessage}s of other nodes to the upper (local) levels of the {@link MultiLevelCache}
+ * registered with the same area and cacheName, the last (remote) level is shared so it is not touched.
+ * Updated keys are removed by one removeAll per cache in a batch, TYPE_PUT messages carrying values
+ * (see {@link com.alicp.jetcache.MultiLevelCacheConfig#getBroadcastValueMaxBytes()}) are decoded by the
+ * valueDecoder of the remote level and put into the local levels. The last message of a key in a batch wins.
+ * <p>
+ * The keys are already converted by the key convertor of the first level (see {@link DefaultCacheMonitorManager}),
+ * so they are written to the inner map of the embedded levels directly instead of being converted again.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheMessageApplier implements Consumer<List<CacheMessage>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheMessageApplier.class);
+
+    private final SimpleCacheManager cacheManager;
+
+    public CacheMessageApplier(SimpleCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void accept(List<CacheMessage> messages) {
+        // key -> encoded value, or null for invalidation
+        Map<String, Map<String, Map<Object, byte[]>>> updatesOfCaches = new LinkedHashMap<>();
+        for (CacheMessage m : messages) {
+            if (m.getArea() == null || m.getCacheName() == null || m.getKeys() == null) {
+                continue;
+            }
+            Map<Object, byte[]> updates = updatesOfCaches.computeIfAbsent(m.getArea(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(m.getCacheName(), k -> new LinkedHashMap<>());
+            Object[] keys = m.getKeys();
+            Object[] values = m.getType() == CacheMessage.TYPE_PUT ? m.getValues() : null;
+            for (int i = 0; i < keys.length; i++) {
+                updates.put(keys[i], values != null && i < values.length ? (byte[]) values[i] : null);
+            }
+        }
+        updatesOfCaches.forEach((area, caches) -> caches.forEach((cacheName, updates) -> {
+            Cache cache = cacheManager.getCacheWithoutCreate(area, cacheName);
+            if (cache != null) {
+                try {
+                    applyToLocal(cache, updates);
+                } catch (Throwable e) {
+                    logger.error("apply cache message error. area={}, cacheName={}", area, cacheName, e);
+                }
+            }
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyToLocal(Cache cache, Map<Object, byte[]> updates) {
+        Cache c = CacheUtil.getAbstractCache(cache);
+        if (!(c instanceof MultiLevelCache)) {
+            return;
+        }
+        MultiLevelCache mc = (MultiLevelCache) c;
+        Cache[] caches = mc.caches();
+        Set<Object> removedKeys = new HashSet<>();
+        long now = System.currentTimeMillis();
+        updates.forEach((key, value) -> {
+            CacheValueHolder holder = value == null ? null : decode(caches[caches.length - 1], value);
+            if (holder == null || holder.getExpireTime() <= now) {
+                removedKeys.add(key);
+                return;
+            }
+            for (int i = 0; i < caches.length - 1; i++) {
+                long expire = mc.config().isUseExpireOfSubCache() ? caches[i].config().getExpireAfterWriteInMillis()
+                        : holder.getExpireTime() - now;
+                Cache level = CacheUtil.getAbstractCache(caches[i]);
+                if (level instanceof AbstractEmbeddedCache) {
+                    ((AbstractEmbeddedCache) level).putConverted(key, holder.getValue(), expire);
+                } else {
+                    caches[i].PUT(key, holder.getValue(), expire, TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+        if (!removedKeys.isEmpty()) {
+            for (int i = 0; i < caches.length - 1; i++) {
+                Cache level = CacheUtil.getAbstractCache(caches[i]);
+                if (level instanceof AbstractEmbeddedCache) {
+                    ((AbstractEmbeddedCache) level).removeAllConverted(removedKeys);
+                } else {
+                    caches[i].removeAll(removedKeys);
+                }
+            }
+        }
+    }
+
+    private CacheValueHolder decode(Cache remote, byte[] value) {
+        if (!(remote.config() instanceof ExternalCacheConfig)) {
+            return null;
+        }
+        try {
+            Object holder = ((ExternalCacheConfig) remote.config()).getValueDecoder().apply(value);
+            return holder instanceof CacheValueHolder ? (CacheValueHolder) holder : null;
+        } catch (Exception e) {
+            logger.warn("decode broadcast value error, invalidate the key instead", e);
+            return null;
+        }
+    }
+}
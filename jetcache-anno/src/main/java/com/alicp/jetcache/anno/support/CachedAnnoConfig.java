@@ -28,6 +28,8 @@ public class CachedAnnoConfig extends CacheAnnoConfig {
     private Function<Object, Boolean> postConditionEvaluator;
     private RefreshPolicy refreshPolicy;
     private PenetrationProtectConfig penetrationProtectConfig;
+    private double earlyRefreshBeta;
+    private int broadcastValueMaxBytes;
 
     public boolean isEnabled() {
         return enabled;
@@ -133,4 +135,20 @@ public class CachedAnnoConfig extends CacheAnnoConfig {
     public void setLocalExpire(long localExpire) {
         this.localExpire = localExpire;
     }
+
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    public int getBroadcastValueMaxBytes() {
+        return broadcastValueMaxBytes;
+    }
+
+    public void setBroadcastValueMaxBytes(int broadcastValueMaxBytes) {
+        this.broadcastValueMaxBytes = broadcastValueMaxBytes;
+    }
 }
@@ -1,6 +1,7 @@
 package com.alicp.jetcache.anno.support;
 
 import com.alicp.jetcache.support.CacheMessagePublisher;
+import com.alicp.jetcache.support.CacheMessageSubscriber;
 import com.alicp.jetcache.support.StatInfo;
 import com.alicp.jetcache.support.StatInfoLogger;
 
@@ -24,6 +25,7 @@ public class ConfigProvider extends AbstractLifecycle {
     protected CacheMonitorManager cacheMonitorManager;
     private Consumer<StatInfo> metricsCallback = new StatInfoLogger(false);
     private CacheMessagePublisher cacheMessagePublisher;
+    private CacheMessageSubscriber cacheMessageSubscriber;
 
     private CacheMonitorManager defaultCacheMonitorManager = new DefaultCacheMonitorManager();
 
@@ -40,6 +42,7 @@ public class ConfigProvider extends AbstractLifecycle {
     public void doInit() {
         initDefaultCacheMonitorInstaller();
         cacheContext = newContext();
+        initCacheMessageSubscriber();
     }
 
     protected void initDefaultCacheMonitorInstaller() {
@@ -54,8 +57,17 @@ public class ConfigProvider extends AbstractLifecycle {
         }
     }
 
+    protected void initCacheMessageSubscriber() {
+        if (cacheMessageSubscriber != null) {
+            cacheMessageSubscriber.subscribe(new CacheMessageApplier(cacheManager));
+        }
+    }
+
     @Override
     public void doShutdown() {
+        if (cacheMessageSubscriber != null) {
+            cacheMessageSubscriber.close();
+        }
         shutdownDefaultCacheMonitorInstaller();
         cacheManager.rebuild();
     }
@@ -141,4 +153,8 @@ public class ConfigProvider extends AbstractLifecycle {
     public void setCacheMessagePublisher(CacheMessagePublisher cacheMessagePublisher) {
         this.cacheMessagePublisher = cacheMessagePublisher;
     }
+
+    public void setCacheMessageSubscriber(CacheMessageSubscriber cacheMessageSubscriber) {
+        this.cacheMessageSubscriber = cacheMessageSubscriber;
+    }
 }
@@ -6,23 +6,31 @@ package com.alicp.jetcache.anno.support;
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheMonitor;
 import com.alicp.jetcache.CacheUtil;
+import com.alicp.jetcache.CacheValueHolder;
 import com.alicp.jetcache.MultiLevelCache;
+import com.alicp.jetcache.MultiLevelCacheConfig;
 import com.alicp.jetcache.event.CachePutAllEvent;
 import com.alicp.jetcache.event.CachePutEvent;
 import com.alicp.jetcache.event.CacheRemoveAllEvent;
 import com.alicp.jetcache.event.CacheRemoveEvent;
+import com.alicp.jetcache.external.ExternalCacheConfig;
 import com.alicp.jetcache.support.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.annotation.Resource;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
 public class DefaultCacheMonitorManager extends AbstractLifecycle implements CacheMonitorManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultCacheMonitorManager.class);
+
     private DefaultMetricsManager defaultMetricsManager;
 
     @Resource
@@ -42,25 +50,30 @@ public class DefaultCacheMonitorManager extends AbstractLifecycle implements Cac
 
     protected void addCacheUpdateMonitor(String area, String cacheName, Cache cache) {
         if (cacheMessagePublisher != null) {
+            Function<Object, Object> keyConvertor = localKeyConvertor(cache);
             CacheMonitor monitor = event -> {
                 if (event instanceof CachePutEvent) {
                     CacheMessage m = new CacheMessage();
                     CachePutEvent e = (CachePutEvent) event;
                     m.setType(CacheMessage.TYPE_PUT);
-                    m.setKeys(new Object[]{e.getKey()});
+                    m.setKeys(convertKeys(keyConvertor, new Object[]{e.getKey()}));
+                    byte[] value = broadcastValue(cache, e);
+                    if (value != null) {
+                        m.setValues(new Object[]{value});
+                    }
                     cacheMessagePublisher.publish(area, cacheName, m);
                 } else if (event instanceof CacheRemoveEvent) {
                     CacheMessage m = new CacheMessage();
                     CacheRemoveEvent e = (CacheRemoveEvent) event;
                     m.setType(CacheMessage.TYPE_REMOVE);
-                    m.setKeys(new Object[]{e.getKey()});
+                    m.setKeys(convertKeys(keyConvertor, new Object[]{e.getKey()}));
                     cacheMessagePublisher.publish(area, cacheName, m);
                 } else if (event instanceof CachePutAllEvent) {
                     CacheMessage m = new CacheMessage();
                     CachePutAllEvent e = (CachePutAllEvent) event;
                     m.setType(CacheMessage.TYPE_PUT_ALL);
                     if (e.getMap() != null) {
-                        m.setKeys(e.getMap().keySet().toArray());
+                        m.setKeys(convertKeys(keyConvertor, e.getMap().keySet().toArray()));
                     }
                     cacheMessagePublisher.publish(area, cacheName, m);
                 } else if (event instanceof CacheRemoveAllEvent) {
@@ -68,7 +81,7 @@ public class DefaultCacheMonitorManager extends AbstractLifecycle implements Cac
                     CacheRemoveAllEvent e = (CacheRemoveAllEvent) event;
                     m.setType(CacheMessage.TYPE_REMOVE_ALL);
                     if (e.getKeys() != null) {
-                        m.setKeys(e.getKeys().toArray());
+                        m.setKeys(convertKeys(keyConvertor, e.getKeys().toArray()));
                     }
                     cacheMessagePublisher.publish(area, cacheName, m);
                 }
@@ -77,6 +90,55 @@ public class DefaultCacheMonitorManager extends AbstractLifecycle implements Cac
         }
     }
 
+    /**
+     * Keys in the messages are converted by the key convertor of the local level, so other nodes can remove them
+     * from their local level directly, and they are smaller than the original keys in most cases.
+     */
+    private static Function<Object, Object> localKeyConvertor(Cache cache) {
+        Cache c = CacheUtil.getAbstractCache(cache);
+        if (c instanceof MultiLevelCache && ((MultiLevelCache) c).caches().length > 0) {
+            c = CacheUtil.getAbstractCache(((MultiLevelCache) c).caches()[0]);
+        }
+        return c.config().getKeyConvertor();
+    }
+
+    /**
+     * Encode the value as the remote level does if the value broadcast of the MultiLevelCache is enabled.
+     *
+     * @return null if the value should not be broadcast
+     */
+    private static byte[] broadcastValue(Cache cache, CachePutEvent e) {
+        Cache c = CacheUtil.getAbstractCache(cache);
+        if (!(c instanceof MultiLevelCache)) {
+            return null;
+        }
+        MultiLevelCacheConfig config = ((MultiLevelCache) c).config();
+        Cache[] caches = ((MultiLevelCache) c).caches();
+        if (config.getBroadcastValueMaxBytes() <= 0 || !e.getResult().isSuccess()
+                || !(caches[caches.length - 1].config() instanceof ExternalCacheConfig)) {
+            return null;
+        }
+        ExternalCacheConfig remoteConfig = (ExternalCacheConfig) caches[caches.length - 1].config();
+        long expire = e.getExpireAfterWriteInMillis() > 0 ? e.getExpireAfterWriteInMillis()
+                : config.getExpireAfterWriteInMillis();
+        try {
+            byte[] bytes = (byte[]) remoteConfig.getValueEncoder().apply(new CacheValueHolder(e.getValue(), expire));
+            return bytes.length <= config.getBroadcastValueMaxBytes() ? bytes : null;
+        } catch (Exception ex) {
+            logger.warn("encode broadcast value error, fall back to invalidation", ex);
+            return null;
+        }
+    }
+
+    private static Object[] convertKeys(Function<Object, Object> keyConvertor, Object[] keys) {
+        if (keyConvertor != null) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keyConvertor.apply(keys[i]);
+            }
+        }
+        return keys;
+    }
+
     protected void addMetricsMonitor(String area, String cacheName, Cache cache) {
         if (defaultMetricsManager != null) {
             cache = CacheUtil.getAbstractCache(cache);
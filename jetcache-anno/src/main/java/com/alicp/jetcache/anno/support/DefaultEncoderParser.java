@@ -5,6 +5,8 @@ package com.alicp.jetcache.anno.support;
 
 import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.anno.SerialPolicy;
+import com.alicp.jetcache.support.AbstractValueEncoder;
+import com.alicp.jetcache.support.EnvelopeValueEncoder;
 import com.alicp.jetcache.support.JavaValueDecoder;
 import com.alicp.jetcache.support.JavaValueEncoder;
 import com.alicp.jetcache.support.KryoValueDecoder;
@@ -52,13 +54,19 @@ public class DefaultEncoderParser implements EncoderParser {
         if ("false".equalsIgnoreCase(params.get("useIdentityNumber"))) {
             useIdentityNumber = false;
         }
+        AbstractValueEncoder encoder;
         if (SerialPolicy.KRYO.equalsIgnoreCase(valueEncoder)) {
-            return new KryoValueEncoder(useIdentityNumber);
+            encoder = new KryoValueEncoder(useIdentityNumber);
         } else if (SerialPolicy.JAVA.equalsIgnoreCase(valueEncoder)) {
-            return new JavaValueEncoder(useIdentityNumber);
+            encoder = new JavaValueEncoder(useIdentityNumber);
         } else {
             throw new CacheConfigException("not supported:" + valueEncoder);
         }
+        // the decoders read the envelope by the identity number, no decoder parameter is needed
+        if ("true".equalsIgnoreCase(params.get("envelope"))) {
+            return new EnvelopeValueEncoder(encoder);
+        }
+        return encoder;
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.alicp.jetcache.anno.support;
 
 import com.alicp.jetcache.anno.method.SpringCacheContext;
 import com.alicp.jetcache.support.CacheMessagePublisher;
+import com.alicp.jetcache.support.CacheMessageSubscriber;
 import com.alicp.jetcache.support.StatInfo;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,4 +82,10 @@ public class SpringConfigProvider extends ConfigProvider implements ApplicationC
         super.setCacheMessagePublisher(cacheMessagePublisher);
     }
 
+    @Autowired(required = false)
+    @Override
+    public void setCacheMessageSubscriber(CacheMessageSubscriber cacheMessageSubscriber) {
+        super.setCacheMessageSubscriber(cacheMessageSubscriber);
+    }
+
 }
@@ -3,16 +3,24 @@ package com.alicp.jetcache;
 import com.alicp.jetcache.embedded.AbstractEmbeddedCache;
 import com.alicp.jetcache.event.*;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.JetCacheExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -28,6 +36,14 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     private volatile ConcurrentHashMap<Object, LoaderLock> loaderMap;
 
+    /**
+     * Smoothed cost of the loader in nanos, it's the "delta" of the early refresh decision. Updated without
+     * lock, a lost update only delays the average a little.
+     */
+    private volatile long loadCostNanos;
+
+    private final Set<Object> earlyRefreshKeys = ConcurrentHashMap.newKeySet();
+
     ConcurrentHashMap<Object, LoaderLock> initOrGetLoaderMap() {
         if (loaderMap == null) {
             synchronized (this) {
@@ -81,25 +97,98 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
     }
 
     public void notify(CacheEvent e) {
+        if (e instanceof CacheLoadEvent && ((CacheLoadEvent) e).isSuccess()) {
+            recordLoadCost(((CacheLoadEvent) e).getNanos());
+        }
         List<CacheMonitor> monitors = config().getMonitors();
         for (CacheMonitor m : monitors) {
             m.afterOperation(e);
         }
     }
 
+    void notifyNegativeLookup(K key, boolean falsePositive) {
+        if (isMonitored()) {
+            notify(new CacheNegativeLookupEvent(this, key, falsePositive));
+        }
+    }
+
+    void recordLoadCost(long nanos) {
+        long old = loadCostNanos;
+        loadCostNanos = old == 0 ? nanos : old + (nanos - old) / 8;
+    }
+
+    long getLoadCostNanos() {
+        return loadCostNanos;
+    }
+
+    /**
+     * Build the holder of a value to put. With stale-while-revalidate, expireAfterWrite is the soft expire time and
+     * the holder lives staleWhileRevalidate longer, use {@link #hardExpireInMillis(long)} as the ttl of the store.
+     */
+    protected CacheValueHolder<V> buildHolder(V value, long expireAfterWriteInMillis) {
+        long stale = config().getStaleWhileRevalidateInMillis();
+        if (stale <= 0) {
+            return new CacheValueHolder<>(value, expireAfterWriteInMillis);
+        }
+        CacheValueHolder<V> holder = new CacheValueHolder<>(value, expireAfterWriteInMillis + stale);
+        holder.setSoftExpireTime(holder.getAccessTime() + expireAfterWriteInMillis);
+        return holder;
+    }
+
+    protected long hardExpireInMillis(long expireAfterWriteInMillis) {
+        return expireAfterWriteInMillis + Math.max(0, config().getStaleWhileRevalidateInMillis());
+    }
+
+    static boolean isStale(CacheValueHolder<?> holder, long now) {
+        return holder != null && holder.getSoftExpireTime() > 0 && now >= holder.getSoftExpireTime();
+    }
+
+    /**
+     * Called by do_GET for a holder which is not (hard) expired. If the holder is stale, the caller still
+     * returns it and a background reload is started with the configured loader, only one for a key at a time.
+     */
+    protected void checkStale(K key, CacheValueHolder<?> holder, long now) {
+        if (!isStale(holder, now)) {
+            return;
+        }
+        CacheLoader<K, V> loader = config().getLoader();
+        if (loader == null) {
+            return;
+        }
+        CacheLoader<K, V> newLoader = CacheUtil.createProxyLoader(this, loader, this::notify);
+        earlyRefresh(this, key, newLoader, (loadedValue) -> {
+            if (needUpdate(loadedValue, config().isCacheNullValue(), newLoader)) {
+                PUT(key, loadedValue);
+            }
+        });
+    }
+
+    /**
+     * The monitor list is copy-on-write, so this is a single volatile read whose answer only changes
+     * when a monitor is added or removed. Without monitors the operations skip timing, future callback
+     * and event allocation.
+     */
+    protected boolean isMonitored() {
+        return !config().getMonitors().isEmpty();
+    }
+
     @Override
     public final CacheGetResult<V> GET(K key) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         CacheGetResult<V> result;
         if (key == null) {
             result = new CacheGetResult<V>(CacheResultCode.FAIL, CacheResult.MSG_ILLEGAL_ARGUMENT, null);
         } else {
             result = do_GET(key);
         }
-        result.future().thenRun(() -> {
-            CacheGetEvent event = new CacheGetEvent(this, System.currentTimeMillis() - t, key, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CacheGetEvent event = new CacheGetEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, key, result);
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -107,17 +196,21 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final MultiGetResult<K, V> GET_ALL(Set<? extends K> keys) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         MultiGetResult<K, V> result;
         if (keys == null) {
             result = new MultiGetResult<>(CacheResultCode.FAIL, CacheResult.MSG_ILLEGAL_ARGUMENT, null);
         } else {
             result = do_GET_ALL(keys);
         }
-        result.future().thenRun(() -> {
-            CacheGetAllEvent event = new CacheGetAllEvent(this, System.currentTimeMillis() - t, keys, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CacheGetAllEvent event = new CacheGetAllEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, keys, result);
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -136,19 +229,42 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 expireAfterWrite, timeUnit, this);
     }
 
-    private static <K, V> boolean needUpdate(V loadedValue, boolean cacheNullWhenLoaderReturnNull, Function<K, V> loader) {
+    @Override
+    public final CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                         boolean cacheNullWhenLoaderReturnNull) {
+        return computeIfAbsentAsyncImpl(key, loader, cacheNullWhenLoaderReturnNull,
+                0, null, this);
+    }
+
+    @Override
+    public final CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                         boolean cacheNullWhenLoaderReturnNull,
+                                                         long expireAfterWrite, TimeUnit timeUnit) {
+        return computeIfAbsentAsyncImpl(key, loader, cacheNullWhenLoaderReturnNull,
+                expireAfterWrite, timeUnit, this);
+    }
+
+    private static <K, V> boolean needUpdate(V loadedValue, boolean cacheNullWhenLoaderReturnNull, Function<K, ?> loader) {
         if (loadedValue == null && !cacheNullWhenLoaderReturnNull) {
             return false;
         }
         if (loader instanceof CacheLoader && ((CacheLoader<K, V>) loader).vetoCacheUpdate()) {
             return false;
         }
+        if (loader instanceof AsyncCacheLoader && ((AsyncCacheLoader<K, V>) loader).vetoCacheUpdate()) {
+            return false;
+        }
         return true;
     }
 
     static <K, V> V computeIfAbsentImpl(K key, Function<K, V> loader, boolean cacheNullWhenLoaderReturnNull,
                                                long expireAfterWrite, TimeUnit timeUnit, Cache<K, V> cache) {
         AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+        NegativeLookupFilter<K> filter = cache.config().getNegativeLookupFilter();
+        if (filter != null && !filter.mightContain(key)) {
+            abstractCache.notifyNegativeLookup(key, false);
+            return null;
+        }
         CacheLoader<K, V> newLoader = CacheUtil.createProxyLoader(cache, loader, abstractCache::notify);
         CacheGetResult<V> r;
         if (cache instanceof RefreshCache) {
@@ -159,17 +275,16 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
             r = cache.GET(key);
         }
         if (r.isSuccess()) {
+            double beta = cache.config().getEarlyRefreshBeta();
+            if (isStale(r.getHolder(), System.currentTimeMillis())
+                    || beta > 0 && shouldRefreshEarly(r.getHolder(), abstractCache.getLoadCostNanos(), beta)) {
+                earlyRefresh(abstractCache, key, newLoader, buildCacheUpdater(key, newLoader,
+                        cacheNullWhenLoaderReturnNull, expireAfterWrite, timeUnit, cache));
+            }
             return r.getValue();
         } else {
-            Consumer<V> cacheUpdater = (loadedValue) -> {
-                if(needUpdate(loadedValue, cacheNullWhenLoaderReturnNull, newLoader)) {
-                    if (timeUnit != null) {
-                        cache.PUT(key, loadedValue, expireAfterWrite, timeUnit).waitForResult();
-                    } else {
-                        cache.PUT(key, loadedValue).waitForResult();
-                    }
-                }
-            };
+            Consumer<V> cacheUpdater = buildCacheUpdater(key, newLoader, cacheNullWhenLoaderReturnNull,
+                    expireAfterWrite, timeUnit, cache);
 
             V loadedValue;
             if (cache.config().isCachePenetrationProtect()) {
@@ -178,11 +293,200 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 loadedValue = newLoader.apply(key);
                 cacheUpdater.accept(loadedValue);
             }
+            if (filter != null) {
+                updateNegativeLookupFilter(abstractCache, filter, key, loadedValue);
+            }
 
             return loadedValue;
         }
     }
 
+    private static <K, V> void updateNegativeLookupFilter(AbstractCache<K, V> abstractCache,
+                                                          NegativeLookupFilter<K> filter, K key, V loadedValue) {
+        if (loadedValue != null) {
+            // the update may be vetoed, so don't depend on PUT
+            filter.put(key);
+        } else {
+            abstractCache.notifyNegativeLookup(key, true);
+        }
+    }
+
+    private static <K, V> Consumer<V> buildCacheUpdater(K key, CacheLoader<K, V> loader,
+                                                        boolean cacheNullWhenLoaderReturnNull,
+                                                        long expireAfterWrite, TimeUnit timeUnit, Cache<K, V> cache) {
+        return (loadedValue) -> {
+            if(needUpdate(loadedValue, cacheNullWhenLoaderReturnNull, loader)) {
+                CacheResult putResult;
+                if (timeUnit != null) {
+                    putResult = cache.PUT(key, loadedValue, expireAfterWrite, timeUnit);
+                } else {
+                    putResult = cache.PUT(key, loadedValue);
+                }
+                if (!isWriteBehind(cache)) {
+                    putResult.waitForResult();
+                }
+            }
+        };
+    }
+
+    /**
+     * The PUT result of a write-behind cache is completed when the write is flushed, the loader should not wait for
+     * it. Reads of the cache see the buffered write at once.
+     */
+    static boolean isWriteBehind(Cache<?, ?> cache) {
+        return cache.config().getWriteBehindPolicy() != null;
+    }
+
+    /**
+     * The XFetch decision: refresh when now - delta * beta * ln(random) >= expireTime, delta is the load cost.
+     * The soft expire time is used if there is one.
+     * The closer the entry is to expiring and the more expensive the load, the more likely a reader refreshes it,
+     * so the refresh is spread over readers before expiration instead of all of them missing at once.
+     */
+    static boolean shouldRefreshEarly(CacheValueHolder<?> holder, long loadCostNanos, double beta) {
+        if (holder == null || loadCostNanos <= 0) {
+            return false;
+        }
+        double deltaMillis = loadCostNanos / 1_000_000.0;
+        double gap = -deltaMillis * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        long expireTime = holder.getSoftExpireTime() > 0 ? holder.getSoftExpireTime() : holder.getExpireTime();
+        return System.currentTimeMillis() + gap >= expireTime;
+    }
+
+    private static <K, V> void earlyRefresh(AbstractCache<K, V> abstractCache, K key, CacheLoader<K, V> loader,
+                                            Consumer<V> cacheUpdater) {
+        Object refreshKey = buildLoaderLockKey(abstractCache, key);
+        if (!abstractCache.earlyRefreshKeys.add(refreshKey)) {
+            return;
+        }
+        try {
+            JetCacheExecutor.heavyIOExecutor().execute(() -> {
+                try {
+                    cacheUpdater.accept(loader.apply(key));
+                } catch (Throwable e) {
+                    logger.error("early refresh error: key=" + key, e);
+                } finally {
+                    abstractCache.earlyRefreshKeys.remove(refreshKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            abstractCache.earlyRefreshKeys.remove(refreshKey);
+            throw e;
+        }
+    }
+
+    static <K, V> CompletionStage<V> computeIfAbsentAsyncImpl(K key, Function<K, CompletionStage<V>> loader,
+                                                              boolean cacheNullWhenLoaderReturnNull,
+                                                              long expireAfterWrite, TimeUnit timeUnit,
+                                                              Cache<K, V> cache) {
+        AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+        NegativeLookupFilter<K> filter = cache.config().getNegativeLookupFilter();
+        if (filter != null && !filter.mightContain(key)) {
+            abstractCache.notifyNegativeLookup(key, false);
+            return CompletableFuture.completedFuture(null);
+        }
+        AsyncCacheLoader<K, V> newLoader = CacheUtil.createProxyAsyncLoader(cache, loader, abstractCache::notify);
+        if (cache instanceof RefreshCache) {
+            ((RefreshCache<K, V>) cache).addOrUpdateAsyncRefreshTask(key, newLoader);
+        }
+        Function<V, CompletionStage<V>> cacheUpdater = loadedValue -> {
+            if (filter != null) {
+                updateNegativeLookupFilter(abstractCache, filter, key, loadedValue);
+            }
+            if (!needUpdate(loadedValue, cacheNullWhenLoaderReturnNull, newLoader)) {
+                return CompletableFuture.completedFuture(loadedValue);
+            }
+            CacheResult putResult;
+            if (timeUnit != null) {
+                putResult = cache.PUT(key, loadedValue, expireAfterWrite, timeUnit);
+            } else {
+                putResult = cache.PUT(key, loadedValue);
+            }
+            if (isWriteBehind(cache)) {
+                return CompletableFuture.completedFuture(loadedValue);
+            }
+            return putResult.future().handle((d, ex) -> loadedValue);
+        };
+        return cache.GET(key).future().exceptionally(ResultData::new).thenCompose(r -> {
+            if (r.getResultCode() == CacheResultCode.SUCCESS) {
+                return CompletableFuture.completedFuture((V) r.getData());
+            }
+            if (cache.config().isCachePenetrationProtect()) {
+                return asyncSynchronizedLoad(cache.config(), abstractCache, key, newLoader, cacheUpdater);
+            } else {
+                return newLoader.apply(key).thenCompose(cacheUpdater);
+            }
+        });
+    }
+
+    /**
+     * The non-blocking version of synchronizedLoad. The first caller of a key loads it, other callers (sync or async)
+     * share the result of the same LoaderLock instead of parking a thread.
+     */
+    static <K, V> CompletionStage<V> asyncSynchronizedLoad(CacheConfig config, AbstractCache<K, V> abstractCache,
+                                                           K key, AsyncCacheLoader<K, V> newLoader,
+                                                           Function<V, CompletionStage<V>> cacheUpdater) {
+        ConcurrentHashMap<Object, LoaderLock> loaderMap = abstractCache.initOrGetLoaderMap();
+        Object lockKey = buildLoaderLockKey(abstractCache, key);
+        boolean create[] = new boolean[1];
+        LoaderLock ll = loaderMap.computeIfAbsent(lockKey, (unusedKey) -> {
+            create[0] = true;
+            LoaderLock loaderLock = new LoaderLock();
+            loaderLock.signal = new CountDownLatch(1);
+            loaderLock.future = new CompletableFuture<>();
+            return loaderLock;
+        });
+        if (create[0]) {
+            CompletionStage<V> stage = abstractCache.GET(key).future().exceptionally(ResultData::new).thenCompose(r -> {
+                if (r.getResultCode() == CacheResultCode.SUCCESS) {
+                    return CompletableFuture.completedFuture((V) r.getData());
+                }
+                return newLoader.apply(key).thenCompose(cacheUpdater);
+            });
+            return stage.whenComplete((v, ex) -> {
+                if (ex == null) {
+                    ll.value = v;
+                    ll.success = true;
+                }
+                ll.signal.countDown();
+                loaderMap.remove(lockKey);
+                ll.future.complete(null);
+            });
+        }
+
+        CompletableFuture<V> result = new CompletableFuture<>();
+        ll.future.thenRun(() -> {
+            if (ll.success) {
+                result.complete((V) ll.value);
+            } else {
+                // the loader failed, retry and maybe become the new loader
+                asyncSynchronizedLoad(config, abstractCache, key, newLoader, cacheUpdater)
+                        .whenComplete((v, ex) -> complete(result, v, ex));
+            }
+        });
+        Duration timeout = config.getPenetrationProtectTimeout();
+        if (timeout != null && !result.isDone()) {
+            // the timer only hands off, the loader may do blocking work in apply
+            ScheduledFuture<?> timer = JetCacheExecutor.defaultExecutor().schedule(() -> {
+                if (!result.isDone()) {
+                    logger.info("loader wait timeout:" + timeout);
+                    JetCacheExecutor.heavyIOExecutor().execute(() ->
+                            newLoader.apply(key).whenComplete((v, ex) -> complete(result, v, ex)));
+                }
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            result.whenComplete((v, ex) -> timer.cancel(false));
+        }
+        return result;
+    }
+
+    private static <V> void complete(CompletableFuture<V> future, V value, Throwable ex) {
+        if (ex == null) {
+            future.complete(value);
+        } else {
+            future.completeExceptionally(ex);
+        }
+    }
+
     static <K, V> V synchronizedLoad(CacheConfig config, AbstractCache<K,V> abstractCache,
                                      K key, Function<K, V> newLoader, Consumer<V> cacheUpdater) {
         ConcurrentHashMap<Object, LoaderLock> loaderMap = abstractCache.initOrGetLoaderMap();
@@ -193,6 +497,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                 create[0] = true;
                 LoaderLock loaderLock = new LoaderLock();
                 loaderLock.signal = new CountDownLatch(1);
+                loaderLock.future = new CompletableFuture<>();
                 loaderLock.loaderThread = Thread.currentThread();
                 return loaderLock;
             });
@@ -214,6 +519,7 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
                     if (create[0]) {
                         ll.signal.countDown();
                         loaderMap.remove(lockKey);
+                        ll.future.complete(null);
                     }
                 }
             } else {
@@ -242,6 +548,125 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
         }
     }
 
+    /**
+     * The batch version of synchronizedLoad. Missing keys not being loaded by other threads are claimed together,
+     * re-checked with one GET_ALL and loaded with one loadAll, the loaded values are passed to cacheUpdater
+     * together. Only keys claimed by other threads are waited for.
+     */
+    static <K, V> Map<K, V> synchronizedLoadAll(CacheConfig config, AbstractCache<K, V> abstractCache,
+                                                Set<K> keys, CacheLoader<K, V> newLoader,
+                                                Consumer<Map<K, V>> cacheUpdater) {
+        ConcurrentHashMap<Object, LoaderLock> loaderMap = abstractCache.initOrGetLoaderMap();
+        Map<K, V> result = new HashMap<>();
+        Map<K, Object> createdLocks = new LinkedHashMap<>();
+        Set<K> reentryKeys = new LinkedHashSet<>();
+        Map<K, LoaderLock> waitLocks = new LinkedHashMap<>();
+        for (K key : keys) {
+            Object lockKey = buildLoaderLockKey(abstractCache, key);
+            boolean create[] = new boolean[1];
+            LoaderLock ll = loaderMap.computeIfAbsent(lockKey, (unusedKey) -> {
+                create[0] = true;
+                LoaderLock loaderLock = new LoaderLock();
+                loaderLock.signal = new CountDownLatch(1);
+                loaderLock.future = new CompletableFuture<>();
+                loaderLock.loaderThread = Thread.currentThread();
+                return loaderLock;
+            });
+            if (create[0]) {
+                createdLocks.put(key, lockKey);
+            } else if (ll.loaderThread == Thread.currentThread()) {
+                reentryKeys.add(key);
+            } else {
+                waitLocks.put(key, ll);
+            }
+        }
+
+        if (!createdLocks.isEmpty() || !reentryKeys.isEmpty()) {
+            Set<K> claimedKeys = new LinkedHashSet<>(createdLocks.keySet());
+            claimedKeys.addAll(reentryKeys);
+            Map<K, LoaderLock> claimedLocks = new HashMap<>();
+            createdLocks.forEach((k, lockKey) -> claimedLocks.put(k, loaderMap.get(lockKey)));
+            try {
+                MultiGetResult<K, V> getResult = abstractCache.GET_ALL(claimedKeys);
+                Set<K> keysNeedLoad = new LinkedHashSet<>(claimedKeys);
+                if (getResult.isSuccess() && getResult.getValues() != null) {
+                    getResult.getValues().forEach((k, r) -> {
+                        if (r.isSuccess()) {
+                            result.put(k, r.getValue());
+                            keysNeedLoad.remove(k);
+                        }
+                    });
+                }
+                if (!keysNeedLoad.isEmpty()) {
+                    Map<K, V> loadResult;
+                    try {
+                        loadResult = newLoader.loadAll(keysNeedLoad);
+                    } catch (Throwable e) {
+                        throw new CacheInvokeException(e);
+                    }
+                    for (K k : keysNeedLoad) {
+                        result.put(k, loadResult.get(k));
+                    }
+                    cacheUpdater.accept(loadResult);
+                }
+                claimedLocks.forEach((k, ll) -> {
+                    ll.value = result.get(k);
+                    ll.success = true;
+                });
+            } finally {
+                createdLocks.forEach((k, lockKey) -> {
+                    LoaderLock ll = claimedLocks.get(k);
+                    ll.signal.countDown();
+                    loaderMap.remove(lockKey);
+                    ll.future.complete(null);
+                });
+            }
+        }
+
+        if (!waitLocks.isEmpty()) {
+            Duration timeout = config.getPenetrationProtectTimeout();
+            long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+            Set<K> timeoutKeys = new LinkedHashSet<>();
+            Set<K> retryKeys = new LinkedHashSet<>();
+            for (Map.Entry<K, LoaderLock> en : waitLocks.entrySet()) {
+                LoaderLock ll = en.getValue();
+                try {
+                    if (timeout == null) {
+                        ll.signal.await();
+                    } else if (!ll.signal.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        timeoutKeys.add(en.getKey());
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    logger.warn("loader wait interrupted");
+                    timeoutKeys.add(en.getKey());
+                    continue;
+                }
+                if (ll.success) {
+                    result.put(en.getKey(), (V) ll.value);
+                } else {
+                    retryKeys.add(en.getKey());
+                }
+            }
+            if (!timeoutKeys.isEmpty()) {
+                logger.info("loader wait timeout:" + timeout);
+                Map<K, V> loadResult;
+                try {
+                    loadResult = newLoader.loadAll(timeoutKeys);
+                } catch (Throwable e) {
+                    throw new CacheInvokeException(e);
+                }
+                for (K k : timeoutKeys) {
+                    result.put(k, loadResult.get(k));
+                }
+            }
+            if (!retryKeys.isEmpty()) {
+                result.putAll(synchronizedLoadAll(config, abstractCache, retryKeys, newLoader, cacheUpdater));
+            }
+        }
+        return result;
+    }
+
     private static Object buildLoaderLockKey(Cache c, Object key) {
         if (c instanceof AbstractEmbeddedCache) {
             return ((AbstractEmbeddedCache) c).buildKey(key);
@@ -261,35 +686,64 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         CacheResult result;
         if (key == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
+            NegativeLookupFilter<K> filter = config().getNegativeLookupFilter();
+            if (filter != null && value != null) {
+                filter.put(key);
+            }
+            beforeUpdate(key);
             result = do_PUT(key, value, expireAfterWrite, timeUnit);
         }
-        result.future().thenRun(() -> {
-            CachePutEvent event = new CachePutEvent(this, System.currentTimeMillis() - t, key, value, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CachePutEvent event = new CachePutEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, key, value,
+                        result, timeUnit == null ? 0 : timeUnit.toMillis(expireAfterWrite));
+                notify(event);
+            });
+        }
         return result;
     }
 
     protected abstract CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit);
 
+    /**
+     * Called before a key is put or removed, subclasses may drop their local copies of the key here.
+     */
+    protected void beforeUpdate(K key) {
+    }
+
     @Override
     public final CacheResult PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         CacheResult result;
         if (map == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
+            NegativeLookupFilter<K> filter = config().getNegativeLookupFilter();
+            if (filter != null) {
+                map.forEach((k, v) -> {
+                    if (v != null) {
+                        filter.put(k);
+                    }
+                });
+            }
+            map.keySet().forEach(this::beforeUpdate);
             result = do_PUT_ALL(map, expireAfterWrite, timeUnit);
         }
-        result.future().thenRun(() -> {
-            CachePutAllEvent event = new CachePutAllEvent(this, System.currentTimeMillis() - t, map, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CachePutAllEvent event = new CachePutAllEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, map, result);
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -297,17 +751,22 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult REMOVE(K key) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         CacheResult result;
         if (key == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
+            beforeUpdate(key);
             result = do_REMOVE(key);
         }
-        result.future().thenRun(() -> {
-            CacheRemoveEvent event = new CacheRemoveEvent(this, System.currentTimeMillis() - t, key, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CacheRemoveEvent event = new CacheRemoveEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, key, result);
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -315,17 +774,22 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult REMOVE_ALL(Set<? extends K> keys) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         CacheResult result;
         if (keys == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
+            keys.forEach(this::beforeUpdate);
             result = do_REMOVE_ALL(keys);
         }
-        result.future().thenRun(() -> {
-            CacheRemoveAllEvent event = new CacheRemoveAllEvent(this, System.currentTimeMillis() - t, keys, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CacheRemoveAllEvent event = new CacheRemoveAllEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, keys, result);
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -333,17 +797,23 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     @Override
     public final CacheResult PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        long t = System.currentTimeMillis();
+        boolean monitored = isMonitored();
+        long t = monitored ? System.nanoTime() : 0;
         CacheResult result;
         if (key == null) {
             result = CacheResult.FAIL_ILLEGAL_ARGUMENT;
         } else {
+            beforeUpdate(key);
             result = do_PUT_IF_ABSENT(key, value, expireAfterWrite, timeUnit);
         }
-        result.future().thenRun(() -> {
-            CachePutEvent event = new CachePutEvent(this, System.currentTimeMillis() - t, key, value, result);
-            notify(event);
-        });
+        if (monitored) {
+            result.future().thenRun(() -> {
+                long nanos = System.nanoTime() - t;
+                CachePutEvent event = new CachePutEvent(this, TimeUnit.NANOSECONDS.toMillis(nanos), nanos, key, value,
+                        result, timeUnit == null ? 0 : timeUnit.toMillis(expireAfterWrite));
+                notify(event);
+            });
+        }
         return result;
     }
 
@@ -351,6 +821,13 @@ public abstract class AbstractCache<K, V> implements Cache<K, V> {
 
     static class LoaderLock {
         CountDownLatch signal;
+        /**
+         * completed after signal, so async callers can wait without parking a thread.
+         */
+        CompletableFuture<Void> future;
+        /**
+         * null if the loader is async.
+         */
         Thread loaderThread;
         volatile boolean success;
         volatile Object value;
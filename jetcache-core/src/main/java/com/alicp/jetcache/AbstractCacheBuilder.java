@@ -41,6 +41,9 @@ public abstract class AbstractCacheBuilder<T extends AbstractCacheBuilder<T>> im
         beforeBuild();
         CacheConfig c = getConfig().clone();
         Cache<K, V> cache = buildFunc.apply(c);
+        if (c.getWriteBehindPolicy() != null) {
+            cache = new WriteBehindCache<>(cache);
+        }
         if (c.getLoader() != null) {
             if (c.getRefreshPolicy() == null) {
                 cache = new LoadingCache<>(cache);
@@ -126,6 +129,15 @@ public abstract class AbstractCacheBuilder<T extends AbstractCacheBuilder<T>> im
         getConfig().setRefreshPolicy(refreshPolicy);
     }
 
+    public T writeBehindPolicy(WriteBehindPolicy writeBehindPolicy) {
+        getConfig().setWriteBehindPolicy(writeBehindPolicy);
+        return self();
+    }
+
+    public void setWriteBehindPolicy(WriteBehindPolicy writeBehindPolicy) {
+        getConfig().setWriteBehindPolicy(writeBehindPolicy);
+    }
+
     public T cachePenetrateProtect(boolean cachePenetrateProtect) {
         getConfig().setCachePenetrationProtect(cachePenetrateProtect);
         return self();
@@ -134,4 +146,31 @@ public abstract class AbstractCacheBuilder<T extends AbstractCacheBuilder<T>> im
     public void setCachePenetrateProtect(boolean cachePenetrateProtect) {
         getConfig().setCachePenetrationProtect(cachePenetrateProtect);
     }
+
+    public T earlyRefreshBeta(double earlyRefreshBeta) {
+        getConfig().setEarlyRefreshBeta(earlyRefreshBeta);
+        return self();
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        getConfig().setEarlyRefreshBeta(earlyRefreshBeta);
+    }
+
+    public T staleWhileRevalidate(long staleTime, TimeUnit timeUnit) {
+        getConfig().setStaleWhileRevalidateInMillis(timeUnit.toMillis(staleTime));
+        return self();
+    }
+
+    public void setStaleWhileRevalidateInMillis(long staleWhileRevalidateInMillis) {
+        getConfig().setStaleWhileRevalidateInMillis(staleWhileRevalidateInMillis);
+    }
+
+    public <K> T negativeLookupFilter(NegativeLookupFilter<K> negativeLookupFilter) {
+        getConfig().setNegativeLookupFilter(negativeLookupFilter);
+        return self();
+    }
+
+    public <K> void setNegativeLookupFilter(NegativeLookupFilter<K> negativeLookupFilter) {
+        getConfig().setNegativeLookupFilter(negativeLookupFilter);
+    }
 }
@@ -0,0 +1,55 @@
+package com.alicp.jetcache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * The non-blocking counterpart of {@link CacheLoader}, used by the async API of {@link Cache}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+@FunctionalInterface
+public interface AsyncCacheLoader<K, V> extends Function<K, CompletionStage<V>> {
+
+    CompletionStage<V> loadAsync(K key) throws Throwable;
+
+    @Override
+    default CompletionStage<V> apply(K key) {
+        try {
+            CompletionStage<V> stage = loadAsync(key);
+            if (stage == null) {
+                throw new NullPointerException("loadAsync returns null");
+            }
+            return stage;
+        } catch (Throwable e) {
+            CompletableFuture<V> f = new CompletableFuture<>();
+            f.completeExceptionally(new CacheInvokeException(e.getMessage(), e));
+            return f;
+        }
+    }
+
+    default boolean vetoCacheUpdate() {
+        return false;
+    }
+
+    /**
+     * Adapt a blocking loader, the load runs in the specified executor.
+     */
+    static <K, V> AsyncCacheLoader<K, V> of(CacheLoader<K, V> loader, Executor executor) {
+        return new AsyncCacheLoader<K, V>() {
+            @Override
+            public CompletionStage<V> loadAsync(K key) {
+                return CompletableFuture.supplyAsync(() -> loader.apply(key), executor);
+            }
+
+            @Override
+            public boolean vetoCacheUpdate() {
+                return loader.vetoCacheUpdate();
+            }
+        };
+    }
+}
@@ -7,6 +7,8 @@ import java.io.Closeable;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -457,4 +459,127 @@ public interface Cache<K, V> extends Closeable {
      */
     CacheResult PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit);
 
+    //-----------------------------Async API--------------------------------------------------------
+
+    /**
+     * Gets an entry from the cache without blocking the caller.
+     * <p>The returned stage is completed by the cache implementation (for example the netty thread of lettuce), so
+     * the dependent actions should not block.</p>
+     * <p>If the cache's builder has specified a {@link CacheLoader} and there is no association in the cache
+     * , it will attempt to load the entry.</p>
+     * <p>If error occurs during cache access, the stage completes with null instead of an exception.</p>
+     * @param key the key whose associated value is to be returned
+     * @return a stage of the associated value
+     * @see #get(Object)
+     */
+    default CompletionStage<V> getAsync(K key) {
+        return GET(key).future().handle((r, ex) -> {
+            if (ex == null && r.getResultCode() == CacheResultCode.SUCCESS) {
+                return (V) r.getData();
+            } else {
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Gets a collection of entries from the Cache without blocking the caller.
+     * <p>If the cache's builder has specified a {@link CacheLoader} and there is no association in the cache
+     * , it will attempt to load the entries.</p>
+     * @param keys The keys whose associated values are to be returned.
+     * @return a stage of the entries that were found for the given keys, the same as {@link #getAll(Set)}
+     * @see #getAll(Set)
+     */
+    default CompletionStage<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        return GET_ALL(keys).future().handle((r, ex) -> {
+            if (ex != null) {
+                return null;
+            }
+            return MultiGetResult.unwrapValues((Map<K, CacheGetResult<V>>) r.getOriginData());
+        });
+    }
+
+    /**
+     * Associates the specified value with the specified key in the cache without blocking the caller.
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return a stage completes with true if the value is put successfully
+     * @see #PUT(Object, Object)
+     */
+    default CompletionStage<Boolean> putAsync(K key, V value) {
+        return PUT(key, value).future().handle((r, ex) -> ex == null && r.getResultCode() == CacheResultCode.SUCCESS);
+    }
+
+    /**
+     * Associates the specified value with the specified key in the cache without blocking the caller.
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @param expireAfterWrite the TTL(time to live) of the KV association
+     * @param timeUnit the time unit of expireAfterWrite
+     * @return a stage completes with true if the value is put successfully
+     * @see #PUT(Object, Object, long, TimeUnit)
+     */
+    default CompletionStage<Boolean> putAsync(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        return PUT(key, value, expireAfterWrite, timeUnit).future()
+                .handle((r, ex) -> ex == null && r.getResultCode() == CacheResultCode.SUCCESS);
+    }
+
+    /**
+     * If there is a value associated with the key, return the value;
+     * otherwise use the async loader load the value, update the cache and then return the value.
+     * No thread is blocked while waiting for the cache or the loader.
+     * @param key the key
+     * @param loader the async value loader, see {@link AsyncCacheLoader}
+     * @return a stage of the value
+     * @see CacheConfig#isCacheNullValue()
+     */
+    default CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader) {
+        return computeIfAbsentAsync(key, loader, config().isCacheNullValue());
+    }
+
+    /**
+     * If there is a value associated with the key, return the value;
+     * otherwise use the async loader load the value, update the cache and then return the value.
+     * @param key the key
+     * @param loader the async value loader, see {@link AsyncCacheLoader}
+     * @param cacheNullWhenLoaderReturnNull true if null value returned by loader should put into cache use the key
+     * @return a stage of the value
+     */
+    default CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                    boolean cacheNullWhenLoaderReturnNull) {
+        return computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull, 0, null);
+    }
+
+    /**
+     * If there is a value associated with the key, return the value;
+     * otherwise use the async loader load the value, update the cache and then return the value.
+     * @param key the key
+     * @param loader the async value loader, see {@link AsyncCacheLoader}
+     * @param cacheNullWhenLoaderReturnNull true if null value returned by loader should put into cache use the key
+     * @param expireAfterWrite the TTL(time to live) of the KV association
+     * @param timeUnit the time unit of expireAfterWrite
+     * @return a stage of the value
+     */
+    default CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                    boolean cacheNullWhenLoaderReturnNull, long expireAfterWrite,
+                                                    TimeUnit timeUnit) {
+        // a simple version without penetration protection, AbstractCache overrides it
+        return GET(key).future().handle((r, ex) -> ex == null && r.getResultCode() == CacheResultCode.SUCCESS ? r : null)
+                .thenCompose(r -> {
+                    if (r != null) {
+                        return CompletableFuture.completedFuture((V) r.getData());
+                    }
+                    return loader.apply(key).thenApply(v -> {
+                        if (v != null || cacheNullWhenLoaderReturnNull) {
+                            if (timeUnit == null) {
+                                PUT(key, v);
+                            } else {
+                                PUT(key, v, expireAfterWrite, timeUnit);
+                            }
+                        }
+                        return v;
+                    });
+                });
+    }
+
 }
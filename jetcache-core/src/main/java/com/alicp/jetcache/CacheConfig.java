@@ -3,8 +3,8 @@ package com.alicp.jetcache;
 import com.alicp.jetcache.anno.CacheConsts;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
 /**
@@ -19,11 +19,15 @@ public class CacheConfig<K, V> implements Cloneable {
 
     private CacheLoader<K, V> loader;
 
-    private List<CacheMonitor> monitors = new ArrayList<>();
+    /**
+     * copy-on-write, so AbstractCache can check emptiness on every operation without locking.
+     */
+    private List<CacheMonitor> monitors = new CopyOnWriteArrayList<>();
 
     private boolean cacheNullValue = false;
 
     private RefreshPolicy refreshPolicy;
+    private WriteBehindPolicy writeBehindPolicy;
 
     private int tryLockUnlockCount = 2;
 
@@ -34,16 +38,32 @@ public class CacheConfig<K, V> implements Cloneable {
     private boolean cachePenetrationProtect = false;
     private Duration penetrationProtectTimeout = null;
 
+    /**
+     * beta of the probabilistic early refresh (XFetch) in computeIfAbsent, 0 means disabled.
+     */
+    private double earlyRefreshBeta = 0;
+
+    /**
+     * If positive, expireAfterWrite is the soft expire time and entries are kept this much longer (hard expire).
+     * A stale value is returned immediately and reloaded in background with the loader.
+     */
+    private long staleWhileRevalidateInMillis = 0;
+
+    private NegativeLookupFilter<K> negativeLookupFilter;
+
     @Override
     public CacheConfig clone() {
         try {
             CacheConfig copy = (CacheConfig) super.clone();
             if (monitors != null) {
-                copy.monitors = new ArrayList(this.monitors);
+                copy.monitors = new CopyOnWriteArrayList(this.monitors);
             }
             if (refreshPolicy != null) {
                 copy.refreshPolicy = this.refreshPolicy.clone();
             }
+            if (writeBehindPolicy != null) {
+                copy.writeBehindPolicy = this.writeBehindPolicy.clone();
+            }
             return copy;
         } catch (CloneNotSupportedException e) {
             throw new CacheException(e);
@@ -113,7 +133,7 @@ public class CacheConfig<K, V> implements Cloneable {
     }
 
     public void setMonitors(List<CacheMonitor> monitors) {
-        this.monitors = monitors;
+        this.monitors = monitors == null ? null : new CopyOnWriteArrayList<>(monitors);
     }
 
     public RefreshPolicy getRefreshPolicy() {
@@ -124,6 +144,14 @@ public class CacheConfig<K, V> implements Cloneable {
         this.refreshPolicy = refreshPolicy;
     }
 
+    public WriteBehindPolicy getWriteBehindPolicy() {
+        return writeBehindPolicy;
+    }
+
+    public void setWriteBehindPolicy(WriteBehindPolicy writeBehindPolicy) {
+        this.writeBehindPolicy = writeBehindPolicy;
+    }
+
     public int getTryLockUnlockCount() {
         return tryLockUnlockCount;
     }
@@ -163,4 +191,28 @@ public class CacheConfig<K, V> implements Cloneable {
     public void setPenetrationProtectTimeout(Duration penetrationProtectTimeout) {
         this.penetrationProtectTimeout = penetrationProtectTimeout;
     }
+
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    public long getStaleWhileRevalidateInMillis() {
+        return staleWhileRevalidateInMillis;
+    }
+
+    public void setStaleWhileRevalidateInMillis(long staleWhileRevalidateInMillis) {
+        this.staleWhileRevalidateInMillis = staleWhileRevalidateInMillis;
+    }
+
+    public NegativeLookupFilter<K> getNegativeLookupFilter() {
+        return negativeLookupFilter;
+    }
+
+    public void setNegativeLookupFilter(NegativeLookupFilter<K> negativeLookupFilter) {
+        this.negativeLookupFilter = negativeLookupFilter;
+    }
 }
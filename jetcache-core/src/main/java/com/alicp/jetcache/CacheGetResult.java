@@ -12,6 +12,7 @@ import java.util.concurrent.CompletionStage;
 public class CacheGetResult<V> extends CacheResult {
     private volatile V value;
     private volatile CacheValueHolder<V> holder;
+    private volatile LazyValueHolder<V> lazyHolder;
 
     public static final CacheGetResult NOT_EXISTS_WITHOUT_MSG = new CacheGetResult(CacheResultCode.NOT_EXISTS, null, null);
     public static final CacheGetResult EXPIRED_WITHOUT_MSG = new CacheGetResult(CacheResultCode.EXPIRED, null ,null);
@@ -28,18 +29,43 @@ public class CacheGetResult<V> extends CacheResult {
         super(ex);
     }
 
+    /**
+     * A successful result which decodes the value on first {@link #getValue()}, so the caller only checking the
+     * result code doesn't pay for decoding.
+     */
+    public static <V> CacheGetResult<V> lazy(LazyValueHolder<V> holder) {
+        return new CacheGetResult<>(CompletableFuture.completedFuture(
+                new ResultData(CacheResultCode.SUCCESS, null, holder)));
+    }
+
     public V getValue() {
         waitForResult();
+        decodeLazyHolder();
         return value;
     }
 
     @Override
     protected void fetchResultSuccess(ResultData resultData) {
-        holder = (CacheValueHolder<V>) resultData.getOriginData();
-        value = (V) unwrapValue(holder);
+        Object data = resultData.getRawData();
+        if (data instanceof LazyValueHolder) {
+            lazyHolder = (LazyValueHolder<V>) data;
+        } else {
+            holder = (CacheValueHolder<V>) data;
+            value = (V) unwrapValue(holder);
+        }
         super.fetchResultSuccess(resultData);
     }
 
+    private void decodeLazyHolder() {
+        LazyValueHolder<V> lazy = lazyHolder;
+        if (lazy != null && holder == null) {
+            // the holder is cached by LazyValueHolder, so racing threads get the same one
+            CacheValueHolder<V> h = lazy.get();
+            value = (V) unwrapValue(h);
+            holder = h;
+        }
+    }
+
     static Object unwrapValue(Object holder) {
         // if @Cached or @CacheCache change type from REMOTE to BOTH (or from BOTH to REMOTE),
         // during the dev/publish process, the value type which different application server put into cache server will be different
@@ -61,6 +87,7 @@ public class CacheGetResult<V> extends CacheResult {
 
     protected CacheValueHolder<V> getHolder() {
         waitForResult();
+        decodeLazyHolder();
         return holder;
     }
 }
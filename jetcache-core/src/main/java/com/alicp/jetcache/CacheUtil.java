@@ -6,6 +6,8 @@ import com.alicp.jetcache.event.CacheLoadEvent;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -19,6 +21,9 @@ public class CacheUtil {
     private interface ProxyLoader<K, V> extends CacheLoader<K, V> {
     }
 
+    private interface ProxyAsyncLoader<K, V> extends AsyncCacheLoader<K, V> {
+    }
+
     public static <K, V> ProxyLoader<K, V> createProxyLoader(Cache<K, V> cache,
                                                              CacheLoader<K, V> loader,
                                                              Consumer<CacheEvent> eventConsumer) {
@@ -28,15 +33,15 @@ public class CacheUtil {
         return new ProxyLoader<K, V>() {
             @Override
             public V load(K key) throws Throwable {
-                long t = System.currentTimeMillis();
+                long t = System.nanoTime();
                 V v = null;
                 boolean success = false;
                 try {
                     v = loader.load(key);
                     success = true;
                 } finally {
-                    t = System.currentTimeMillis() - t;
-                    CacheLoadEvent event = new CacheLoadEvent(cache, t, key, v, success);
+                    t = System.nanoTime() - t;
+                    CacheLoadEvent event = new CacheLoadEvent(cache, TimeUnit.NANOSECONDS.toMillis(t), t, key, v, success);
                     eventConsumer.accept(event);
                 }
                 return v;
@@ -44,15 +49,15 @@ public class CacheUtil {
 
             @Override
             public Map<K, V> loadAll(Set<K> keys) throws Throwable {
-                long t = System.currentTimeMillis();
+                long t = System.nanoTime();
                 boolean success = false;
                 Map<K, V> kvMap = null;
                 try {
                     kvMap = loader.loadAll(keys);
                     success = true;
                 } finally {
-                    t = System.currentTimeMillis() - t;
-                    CacheLoadAllEvent event = new CacheLoadAllEvent(cache, t, keys, kvMap, success);
+                    t = System.nanoTime() - t;
+                    CacheLoadAllEvent event = new CacheLoadAllEvent(cache, TimeUnit.NANOSECONDS.toMillis(t), t, keys, kvMap, success);
                     eventConsumer.accept(event);
                 }
                 return kvMap;
@@ -75,15 +80,15 @@ public class CacheUtil {
             return createProxyLoader(cache, (CacheLoader) loader, eventConsumer);
         }
         return k -> {
-            long t = System.currentTimeMillis();
+            long t = System.nanoTime();
             V v = null;
             boolean success = false;
             try {
                 v = loader.apply(k);
                 success = true;
             } finally {
-                t = System.currentTimeMillis() - t;
-                CacheLoadEvent event = new CacheLoadEvent(cache, t, k, v, success);
+                t = System.nanoTime() - t;
+                CacheLoadEvent event = new CacheLoadEvent(cache, TimeUnit.NANOSECONDS.toMillis(t), t, k, v, success);
                 eventConsumer.accept(event);
             }
             return v;
@@ -91,6 +96,33 @@ public class CacheUtil {
     }
 
 
+    public static <K, V> AsyncCacheLoader<K, V> createProxyAsyncLoader(Cache<K, V> cache,
+                                                                     Function<K, CompletionStage<V>> loader,
+                                                                     Consumer<CacheEvent> eventConsumer) {
+        if (loader instanceof ProxyAsyncLoader) {
+            return (ProxyAsyncLoader<K, V>) loader;
+        }
+        return new ProxyAsyncLoader<K, V>() {
+            @Override
+            public CompletionStage<V> loadAsync(K key) {
+                long t = System.nanoTime();
+                AsyncCacheLoader<K, V> l = loader instanceof AsyncCacheLoader ?
+                        (AsyncCacheLoader<K, V>) loader : loader::apply;
+                return l.apply(key).whenComplete((v, ex) -> {
+                    long nanos = System.nanoTime() - t;
+                    CacheLoadEvent event = new CacheLoadEvent(cache, TimeUnit.NANOSECONDS.toMillis(nanos), nanos,
+                            key, v, ex == null);
+                    eventConsumer.accept(event);
+                });
+            }
+
+            @Override
+            public boolean vetoCacheUpdate() {
+                return loader instanceof AsyncCacheLoader && ((AsyncCacheLoader<K, V>) loader).vetoCacheUpdate();
+            }
+        };
+    }
+
     public static <K, V> AbstractCache<K, V> getAbstractCache(Cache<K, V> c) {
         while (c instanceof ProxyCache) {
             c = ((ProxyCache) c).getTargetCache();
@@ -11,7 +11,14 @@ public final class CacheValueHolder<V> implements Serializable {
     private static final long serialVersionUID = -7973743507831565203L;
     private V value;
     private long expireTime;
-    private long accessTime;
+    /**
+     * volatile because local caches update it on read without a lock.
+     */
+    private volatile long accessTime;
+    /**
+     * the value is stale after this time but still readable until expireTime, 0 means no soft expire.
+     */
+    private long softExpireTime;
 
     /**
      * used by kyro
@@ -48,4 +55,12 @@ public final class CacheValueHolder<V> implements Serializable {
     public void setAccessTime(long accessTime) {
         this.accessTime = accessTime;
     }
+
+    public long getSoftExpireTime() {
+        return softExpireTime;
+    }
+
+    public void setSoftExpireTime(long softExpireTime) {
+        this.softExpireTime = softExpireTime;
+    }
 }
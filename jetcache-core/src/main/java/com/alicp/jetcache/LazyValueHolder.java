@@ -0,0 +1,49 @@
+package com.alicp.jetcache;
+
+import java.util.function.Function;
+
+/**
+ * The encoded {@link CacheValueHolder} read from a remote cache, decoded on first access. The decoded holder is
+ * cached, so the bytes are decoded at most once even if several threads read the result.
+ * <p>
+ * {@link CacheGetResult} and {@link ResultData#getOriginData()} resolve it, callers never see this class.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public final class LazyValueHolder<V> {
+
+    private byte[] bytes;
+    private Function<byte[], Object> decoder;
+    private volatile CacheValueHolder<V> holder;
+
+    public LazyValueHolder(byte[] bytes, Function<byte[], Object> decoder) {
+        this.bytes = bytes;
+        this.decoder = decoder;
+    }
+
+    /**
+     * @throws com.alicp.jetcache.support.CacheEncodeException if the bytes can't be decoded
+     */
+    @SuppressWarnings("unchecked")
+    public CacheValueHolder<V> get() {
+        CacheValueHolder<V> h = holder;
+        if (h == null) {
+            synchronized (this) {
+                h = holder;
+                if (h == null) {
+                    h = (CacheValueHolder<V>) decoder.apply(bytes);
+                    holder = h;
+                    bytes = null;
+                    decoder = null;
+                }
+            }
+        }
+        return h;
+    }
+
+    public boolean isDecoded() {
+        return holder != null;
+    }
+}
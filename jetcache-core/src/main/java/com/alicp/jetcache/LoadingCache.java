@@ -1,10 +1,14 @@
 package com.alicp.jetcache;
 
 import com.alicp.jetcache.event.CacheEvent;
+import com.alicp.jetcache.support.JetCacheExecutor;
+
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -50,59 +54,130 @@ public class LoadingCache<K, V> extends SimpleProxyCache<K, V> {
     public Map<K, V> getAll(Set<? extends K> keys) throws CacheInvokeException {
         CacheLoader<K, V> loader = config.getLoader();
         if (loader != null) {
-            MultiGetResult<K, V> r = GET_ALL(keys);
+            Set<? extends K> mightExistKeys = filterKeys(keys);
+            MultiGetResult<K, V> r = GET_ALL(mightExistKeys);
             Map<K, V> kvMap;
             if (r.isSuccess() || r.getResultCode() == CacheResultCode.PART_SUCCESS) {
                 kvMap = r.unwrapValues();
             } else {
                 kvMap = new HashMap<>();
             }
-            Set<K> keysNeedLoad = new LinkedHashSet<>();
-            keys.forEach((k) -> {
-                if (!kvMap.containsKey(k)) {
-                    keysNeedLoad.add(k);
-                }
-            });
-            if (!config.isCachePenetrationProtect()) {
-                if (eventConsumer != null) {
-                    loader = CacheUtil.createProxyLoader(cache, loader, eventConsumer);
-                }
-                Map<K, V> loadResult;
-                try {
-                    loadResult = loader.loadAll(keysNeedLoad);
+            return loadMissingKeys(loader, mightExistKeys, kvMap);
+        } else {
+            return cache.getAll(keys);
+        }
 
-                    CacheLoader<K, V> theLoader = loader;
-                    Map<K, V> updateValues = new HashMap<>();
-                    loadResult.forEach((k,v)->{
-                        if (needUpdate(v, theLoader)){
-                            updateValues.put(k, v);
-                        }
-                    });
-                    // batch put
-                    if (!updateValues.isEmpty()) {
-                        PUT_ALL(updateValues);
-                    }
-                } catch (Throwable e) {
-                    throw new CacheInvokeException(e);
-                }
-                kvMap.putAll(loadResult);
+    }
+
+    /**
+     * Remove the keys which are not in the NegativeLookupFilter, they are not loaded.
+     */
+    private Set<? extends K> filterKeys(Set<? extends K> keys) {
+        NegativeLookupFilter<K> filter = config.getNegativeLookupFilter();
+        if (filter == null) {
+            return keys;
+        }
+        AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+        Set<K> mightExistKeys = new LinkedHashSet<>();
+        for (K k : keys) {
+            if (filter.mightContain(k)) {
+                mightExistKeys.add(k);
             } else {
-                AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
-                loader = CacheUtil.createProxyLoader(cache, loader, eventConsumer);
-                for(K key : keysNeedLoad) {
-                    Consumer<V> cacheUpdater = (v) -> {
-                        if(needUpdate(v, config.getLoader())) {
-                            PUT(key, v);
-                        }
-                    };
-                    V v = AbstractCache.synchronizedLoad(config, abstractCache, key, loader, cacheUpdater);
-                    kvMap.put(key, v);
+                abstractCache.notifyNegativeLookup(k, false);
+            }
+        }
+        return mightExistKeys;
+    }
+
+    /**
+     * Load the keys which are not in kvMap, with penetration protection if it's enabled, and put them to the cache.
+     */
+    private Map<K, V> loadMissingKeys(CacheLoader<K, V> loader, Set<? extends K> keys, Map<K, V> kvMap) {
+        Set<K> keysNeedLoad = new LinkedHashSet<>();
+        keys.forEach((k) -> {
+            if (!kvMap.containsKey(k)) {
+                keysNeedLoad.add(k);
+            }
+        });
+        CacheLoader<K, V> theLoader = CacheUtil.createProxyLoader(cache, loader, eventConsumer);
+        Consumer<Map<K, V>> cacheUpdater = (loadResult) -> {
+            Map<K, V> updateValues = new HashMap<>();
+            loadResult.forEach((k, v) -> {
+                if (needUpdate(v, theLoader)) {
+                    updateValues.put(k, v);
                 }
+            });
+            // batch put
+            if (!updateValues.isEmpty()) {
+                PUT_ALL(updateValues);
+            }
+        };
+        if (!config.isCachePenetrationProtect()) {
+            Map<K, V> loadResult;
+            try {
+                loadResult = theLoader.loadAll(keysNeedLoad);
+            } catch (Throwable e) {
+                throw new CacheInvokeException(e);
             }
-            return kvMap;
+            cacheUpdater.accept(loadResult);
+            kvMap.putAll(loadResult);
         } else {
-            return cache.getAll(keys);
+            AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+            Map<K, V> loadResult = AbstractCache.synchronizedLoadAll(config, abstractCache, keysNeedLoad,
+                    theLoader, cacheUpdater);
+            kvMap.putAll(loadResult);
         }
+        NegativeLookupFilter<K> filter = config.getNegativeLookupFilter();
+        if (filter != null) {
+            AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+            for (K k : keysNeedLoad) {
+                if (kvMap.get(k) != null) {
+                    filter.put(k);
+                } else {
+                    abstractCache.notifyNegativeLookup(k, true);
+                }
+            }
+        }
+        return kvMap;
+    }
 
+    /**
+     * The blocking CacheLoader runs in JetCacheExecutor.heavyIOExecutor(), the caller thread is not blocked.
+     */
+    @Override
+    public CompletionStage<V> getAsync(K key) {
+        CacheLoader<K, V> loader = config.getLoader();
+        if (loader != null) {
+            return AbstractCache.computeIfAbsentAsyncImpl(key,
+                    AsyncCacheLoader.of(loader, JetCacheExecutor.heavyIOExecutor()),
+                    config.isCacheNullValue(), 0, null, this);
+        } else {
+            return cache.getAsync(key);
+        }
+    }
+
+    /**
+     * Same as getAll, the blocking CacheLoader (and the wait of penetration protection) runs in
+     * JetCacheExecutor.heavyIOExecutor().
+     */
+    @Override
+    public CompletionStage<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        CacheLoader<K, V> loader = config.getLoader();
+        if (loader == null) {
+            return cache.getAllAsync(keys);
+        }
+        Set<? extends K> mightExistKeys = filterKeys(keys);
+        return GET_ALL(mightExistKeys).future().exceptionally(ResultData::new).thenCompose(r -> {
+            Map<K, V> kvMap = null;
+            if (r.getResultCode() == CacheResultCode.SUCCESS || r.getResultCode() == CacheResultCode.PART_SUCCESS) {
+                kvMap = MultiGetResult.unwrapValues((Map<K, CacheGetResult<V>>) r.getOriginData());
+            }
+            Map<K, V> result = kvMap == null ? new HashMap<>() : kvMap;
+            if (result.keySet().containsAll(mightExistKeys)) {
+                return CompletableFuture.completedFuture(result);
+            }
+            return CompletableFuture.supplyAsync(() -> loadMissingKeys(loader, mightExistKeys, result),
+                    JetCacheExecutor.heavyIOExecutor());
+        });
     }
 }
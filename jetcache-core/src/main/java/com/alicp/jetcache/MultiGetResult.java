@@ -1,5 +1,9 @@
 package com.alicp.jetcache;
 
+import com.alicp.jetcache.support.CacheEncodeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -11,6 +15,9 @@ import java.util.concurrent.CompletionStage;
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
 public class MultiGetResult<K, V> extends CacheResult {
+
+    private static Logger logger = LoggerFactory.getLogger(MultiGetResult.class);
+
     private volatile Map<K, CacheGetResult<V>> values;
 
     public MultiGetResult(CompletionStage<ResultData> future) {
@@ -44,13 +51,24 @@ public class MultiGetResult<K, V> extends CacheResult {
 
     public Map<K, V> unwrapValues() {
         waitForResult();
+        return unwrapValues(values);
+    }
+
+    /**
+     * A value that fails lazy decoding is left out, so the caller treats the key as a miss (and loads it).
+     */
+    static <K, V> Map<K, V> unwrapValues(Map<K, CacheGetResult<V>> values) {
         if (values == null) {
             return null;
         }
         Map<K, V> m = new HashMap<>();
         values.entrySet().stream().forEach((en) -> {
             if (en.getValue().isSuccess()) {
-                m.put(en.getKey(), en.getValue().getValue());
+                try {
+                    m.put(en.getKey(), en.getValue().getValue());
+                } catch (CacheEncodeException e) {
+                    logger.error("decode value of key " + en.getKey() + " fail, treat it as a miss", e);
+                }
             }
         });
         return m;
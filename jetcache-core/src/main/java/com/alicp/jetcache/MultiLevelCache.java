@@ -1,7 +1,10 @@
 package com.alicp.jetcache;
 
+import com.alicp.jetcache.support.CacheEncodeException;
+
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -75,16 +78,28 @@ public class MultiLevelCache<K, V> extends AbstractCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
-        for (int i = 0; i < caches.length; i++) {
-            Cache cache = caches[i];
-            CacheGetResult result = cache.GET(key);
-            if (result.isSuccess()) {
-                CacheValueHolder<V> holder = unwrapHolder(result.getHolder());
+        return new CacheGetResult<>(GET_caches(0, key));
+    }
+
+    /**
+     * Try the caches one by one, the next level is chained on the future of the previous level,
+     * so no thread is blocked when the lower level is remote.
+     */
+    private CompletionStage<ResultData> GET_caches(int i, K key) {
+        if (i >= caches.length) {
+            return CompletableFuture.completedFuture(
+                    new ResultData(CacheResultCode.NOT_EXISTS, null, null));
+        }
+        Cache cache = caches[i];
+        CompletionStage<ResultData> future = cache.GET(key).future();
+        return future.exceptionally(ResultData::new).thenCompose(r -> {
+            if (r.getResultCode() == CacheResultCode.SUCCESS) {
+                CacheValueHolder<V> holder = unwrapHolder((CacheValueHolder<V>) r.getOriginData());
                 checkResultAndFillUpperCache(key, i, holder);
-                return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
+                return CompletableFuture.completedFuture(new ResultData(CacheResultCode.SUCCESS, null, holder));
             }
-        }
-        return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
+            return GET_caches(i + 1, key);
+        });
     }
 
     private CacheValueHolder<V> unwrapHolder(CacheValueHolder<V> h) {
@@ -102,8 +117,13 @@ public class MultiLevelCache<K, V> extends AbstractCache<K, V> {
 
     private void checkResultAndFillUpperCache(K key, int i, CacheValueHolder<V> h) {
         Objects.requireNonNull(h);
-        long currentExpire = h.getExpireTime();
         long now = System.currentTimeMillis();
+        if (isStale(h, now)) {
+            // don't copy a stale value to upper caches, the reload puts the new value to all levels
+            checkStale(key, h, now);
+            return;
+        }
+        long currentExpire = h.getSoftExpireTime() > 0 ? h.getSoftExpireTime() : h.getExpireTime();
         if (now <= currentExpire) {
             if(config.isUseExpireOfSubCache()){
                 PUT_caches(i, key, h.getValue(), 0, null);
@@ -131,7 +151,14 @@ public class MultiLevelCache<K, V> extends AbstractCache<K, V> {
                     K key = en.getKey();
                     CacheGetResult result = en.getValue();
                     if (result.isSuccess()) {
-                        CacheValueHolder<V> holder = unwrapHolder(result.getHolder());
+                        CacheValueHolder<V> holder;
+                        try {
+                            holder = unwrapHolder(result.getHolder());
+                        } catch (CacheEncodeException e) {
+                            // a value which can't be decoded is a miss of this level
+                            logError("GET_ALL", key, e);
+                            continue;
+                        }
                         checkResultAndFillUpperCache(key, i, holder);
                         resultMap.put(key, new CacheGetResult(CacheResultCode.SUCCESS, null, holder));
                         restKeys.remove(key);
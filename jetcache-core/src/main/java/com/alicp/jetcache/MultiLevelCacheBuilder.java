@@ -49,6 +49,15 @@ public class MultiLevelCacheBuilder<T extends MultiLevelCacheBuilder<T>> extends
         getConfig().setUseExpireOfSubCache(useExpireOfSubCache);
     }
 
+    public T broadcastValueMaxBytes(int broadcastValueMaxBytes) {
+        getConfig().setBroadcastValueMaxBytes(broadcastValueMaxBytes);
+        return self();
+    }
+
+    public void setBroadcastValueMaxBytes(int broadcastValueMaxBytes) {
+        getConfig().setBroadcastValueMaxBytes(broadcastValueMaxBytes);
+    }
+
     @Override
     public T keyConvertor(Function<Object, Object> keyConvertor) {
         throw new UnsupportedOperationException("MultiLevelCache do not need a key convertor");
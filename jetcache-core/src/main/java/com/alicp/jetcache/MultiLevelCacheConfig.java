@@ -11,6 +11,7 @@ import java.util.List;
 public class MultiLevelCacheConfig<K, V> extends CacheConfig<K, V> {
     private List<Cache<K, V>> caches = new ArrayList<>();
     private boolean useExpireOfSubCache;
+    private int broadcastValueMaxBytes;
 
     @Override
     public MultiLevelCacheConfig clone() {
@@ -36,4 +37,17 @@ public class MultiLevelCacheConfig<K, V> extends CacheConfig<K, V> {
     public void setUseExpireOfSubCache(boolean useExpireOfSubCache) {
         this.useExpireOfSubCache = useExpireOfSubCache;
     }
+
+    /**
+     * If positive, the cache messages of PUT carry the value encoded by the valueEncoder of the last (remote)
+     * level when it is not larger than this, other nodes install the value into their local levels instead of
+     * removing the key. Larger values fall back to invalidation.
+     */
+    public int getBroadcastValueMaxBytes() {
+        return broadcastValueMaxBytes;
+    }
+
+    public void setBroadcastValueMaxBytes(int broadcastValueMaxBytes) {
+        this.broadcastValueMaxBytes = broadcastValueMaxBytes;
+    }
 }
@@ -0,0 +1,23 @@
+package com.alicp.jetcache;
+
+/**
+ * Knows which keys may exist, so lookups of keys which never exist skip both the cache and the loader.
+ * Unlike cacheNullValue, nothing is stored in the cache for the missing keys.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ * @see com.alicp.jetcache.support.BloomNegativeLookupFilter
+ */
+public interface NegativeLookupFilter<K> {
+
+    /**
+     * @return false if the key definitely not exists
+     */
+    boolean mightContain(K key);
+
+    /**
+     * Record a key which exists, called when the key is put into the cache.
+     */
+    void put(K key);
+}
@@ -8,9 +8,11 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
@@ -66,6 +68,26 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
                 expireAfterWrite, timeUnit, this);
     }
 
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader) {
+        return computeIfAbsentAsync(key, loader, config().isCacheNullValue());
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                   boolean cacheNullWhenLoaderReturnNull) {
+        return AbstractCache.computeIfAbsentAsyncImpl(key, loader, cacheNullWhenLoaderReturnNull,
+                0, null, this);
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                   boolean cacheNullWhenLoaderReturnNull,
+                                                   long expireAfterWrite, TimeUnit timeUnit) {
+        return AbstractCache.computeIfAbsentAsyncImpl(key, loader, cacheNullWhenLoaderReturnNull,
+                expireAfterWrite, timeUnit, this);
+    }
+
     protected Cache concreteCache() {
         Cache c = getTargetCache();
         while (true) {
@@ -102,6 +124,17 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
     }
 
     protected void addOrUpdateRefreshTask(K key, CacheLoader<K,V> loader) {
+        addOrUpdateRefreshTask(key, loader, null);
+    }
+
+    /**
+     * The refresh is chained on the stage of the async loader, the refresh thread doesn't wait for it.
+     */
+    void addOrUpdateAsyncRefreshTask(K key, AsyncCacheLoader<K, V> asyncLoader) {
+        addOrUpdateRefreshTask(key, null, asyncLoader);
+    }
+
+    private void addOrUpdateRefreshTask(K key, CacheLoader<K,V> loader, AsyncCacheLoader<K, V> asyncLoader) {
         RefreshPolicy refreshPolicy = config.getRefreshPolicy();
         if (refreshPolicy == null) {
             return;
@@ -111,7 +144,7 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
             Object taskId = getTaskId(key);
             RefreshTask refreshTask = taskMap.computeIfAbsent(taskId, tid -> {
                 logger.debug("add refresh task. interval={},  key={}", refreshMillis , key);
-                RefreshTask task = new RefreshTask(taskId, key, loader);
+                RefreshTask task = new RefreshTask(taskId, key, loader, asyncLoader);
                 task.lastAccessTime = System.currentTimeMillis();
                 ScheduledFuture<?> future = JetCacheExecutor.heavyIOExecutor().scheduleWithFixedDelay(
                         task, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
@@ -140,18 +173,40 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
         return super.getAll(keys);
     }
 
+    @Override
+    public CompletionStage<V> getAsync(K key) {
+        if (config.getRefreshPolicy() != null && hasLoader()) {
+            addOrUpdateRefreshTask(key, null);
+        }
+        return super.getAsync(key);
+    }
+
+    @Override
+    public CompletionStage<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        if (config.getRefreshPolicy() != null && hasLoader()) {
+            for (K key : keys) {
+                addOrUpdateRefreshTask(key, null);
+            }
+        }
+        return super.getAllAsync(keys);
+    }
+
     class RefreshTask implements Runnable {
         private Object taskId;
         private K key;
         private CacheLoader<K, V> loader;
+        private AsyncCacheLoader<K, V> asyncLoader;
+        // an async load is running, skip the refresh
+        private final AtomicBoolean asyncLoading = new AtomicBoolean();
 
         private long lastAccessTime;
         private ScheduledFuture future;
 
-        RefreshTask(Object taskId, K key, CacheLoader<K, V> loader) {
+        RefreshTask(Object taskId, K key, CacheLoader<K, V> loader, AsyncCacheLoader<K, V> asyncLoader) {
             this.taskId = taskId;
             this.key = key;
             this.loader = loader;
+            this.asyncLoader = asyncLoader;
         }
 
         private void cancel() {
@@ -161,6 +216,10 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
         }
 
         private void load() throws Throwable {
+            if (asyncLoader != null) {
+                asyncLoad();
+                return;
+            }
             CacheLoader<K,V> l = loader == null? config.getLoader(): loader;
             if (l != null) {
                 l = CacheUtil.createProxyLoader(cache, l, eventConsumer);
@@ -171,6 +230,24 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
             }
         }
 
+        private void asyncLoad() {
+            if (!asyncLoading.compareAndSet(false, true)) {
+                return;
+            }
+            AsyncCacheLoader<K, V> l = CacheUtil.createProxyAsyncLoader(cache, asyncLoader, eventConsumer);
+            l.apply(key).whenComplete((v, ex) -> {
+                try {
+                    if (ex != null) {
+                        logger.error("refresh error: key=" + key, ex);
+                    } else if ((v != null || config.isCacheNullValue()) && !l.vetoCacheUpdate()) {
+                        cache.PUT(key, v);
+                    }
+                } finally {
+                    asyncLoading.set(false);
+                }
+            });
+        }
+
         private void externalLoad(final Cache concreteCache, final long currentTime)
                 throws Throwable {
             byte[] newKey = ((AbstractExternalCache) concreteCache).buildKey(key);
@@ -230,7 +307,7 @@ public class RefreshCache<K, V> extends LoadingCache<K, V> {
         @Override
         public void run() {
             try {
-                if (config.getRefreshPolicy() == null || (loader == null && !hasLoader())) {
+                if (config.getRefreshPolicy() == null || (loader == null && asyncLoader == null && !hasLoader())) {
                     cancel();
                     return;
                 }
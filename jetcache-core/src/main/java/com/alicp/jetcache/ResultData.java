@@ -22,10 +22,18 @@ public class ResultData {
     }
 
     public Object getData() {
-        return CacheGetResult.unwrapValue(data);
+        return CacheGetResult.unwrapValue(getOriginData());
     }
 
     public Object getOriginData() {
+        if (data instanceof LazyValueHolder) {
+            return ((LazyValueHolder) data).get();
+        }
+        return data;
+    }
+
+    // the data without decoding a LazyValueHolder
+    Object getRawData() {
         return data;
     }
 
@@ -2,6 +2,7 @@ package com.alicp.jetcache;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -148,6 +149,44 @@ public class SimpleProxyCache<K, V> implements ProxyCache<K, V> {
         return cache.PUT_IF_ABSENT(key, value, expireAfterWrite, timeUnit);
     }
 
+    @Override
+    public CompletionStage<V> getAsync(K key) {
+        return cache.getAsync(key);
+    }
+
+    @Override
+    public CompletionStage<Map<K, V>> getAllAsync(Set<? extends K> keys) {
+        return cache.getAllAsync(keys);
+    }
+
+    @Override
+    public CompletionStage<Boolean> putAsync(K key, V value) {
+        return cache.putAsync(key, value);
+    }
+
+    @Override
+    public CompletionStage<Boolean> putAsync(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        return cache.putAsync(key, value, expireAfterWrite, timeUnit);
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader) {
+        return cache.computeIfAbsentAsync(key, loader);
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                   boolean cacheNullWhenLoaderReturnNull) {
+        return cache.computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull);
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                   boolean cacheNullWhenLoaderReturnNull,
+                                                   long expireAfterWrite, TimeUnit timeUnit) {
+        return cache.computeIfAbsentAsync(key, loader, cacheNullWhenLoaderReturnNull, expireAfterWrite, timeUnit);
+    }
+
     @Override
     public void close() {
         cache.close();
@@ -0,0 +1,385 @@
+package com.alicp.jetcache;
+
+import com.alicp.jetcache.event.CacheWriteBehindEvent;
+import com.alicp.jetcache.support.JetCacheExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Buffer PUT/REMOVE and write them to the target cache in batches.
+ * <p>
+ * Only the last write of a key is kept in the buffer. The buffer is flushed every half of maxStaleness, or when
+ * batchSize keys are pending, by PUT_ALL (grouped by expire time) and REMOVE_ALL of at most batchSize keys, so
+ * remote caches write a batch in one pipeline. Reads of this cache see the buffered writes. The result of PUT and
+ * REMOVE is completed after the write is flushed, the void methods (put, remove ...) don't wait.
+ * <p>
+ * Flushes are serialized, a key is never written by two flushes at the same time, so the target cache always ends
+ * with the last write. close() flushes all pending writes.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class WriteBehindCache<K, V> implements ProxyCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindCache.class);
+
+    private final Cache<K, V> cache;
+    private final WriteBehindPolicy policy;
+
+    private final ConcurrentHashMap<K, PendingWrite<V>> pending = new ConcurrentHashMap<>();
+    // writes taken from pending by the running flush, still visible to reads until the target is written
+    private final ConcurrentHashMap<K, PendingWrite<V>> flushing = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushTriggered = new AtomicBoolean();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final ScheduledFuture<?> flushFuture;
+    private volatile boolean closed;
+
+    private static final class PendingWrite<V> {
+        final V value;
+        final boolean remove;
+        final long expireAfterWriteInMillis;
+        final CompletableFuture<ResultData> future;
+
+        PendingWrite(V value, boolean remove, long expireAfterWriteInMillis, CompletableFuture<ResultData> future) {
+            this.value = value;
+            this.remove = remove;
+            this.expireAfterWriteInMillis = expireAfterWriteInMillis;
+            this.future = future;
+        }
+    }
+
+    public WriteBehindCache(Cache<K, V> cache) {
+        this.cache = cache;
+        this.policy = cache.config().getWriteBehindPolicy();
+        if (policy == null) {
+            throw new CacheConfigException("no writeBehindPolicy");
+        }
+        if (policy.getMaxStalenessMillis() <= 0 || policy.getBatchSize() <= 0 || policy.getMaxPending() <= 0) {
+            throw new CacheConfigException("maxStaleness, batchSize and maxPending of writeBehindPolicy must be positive");
+        }
+        long interval = Math.max(1, policy.getMaxStalenessMillis() / 2);
+        flushFuture = JetCacheExecutor.heavyIOExecutor().scheduleWithFixedDelay(this::flushQuietly,
+                interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Cache<K, V> getTargetCache() {
+        return cache;
+    }
+
+    @Override
+    public CacheConfig<K, V> config() {
+        return cache.config();
+    }
+
+    /**
+     * @return keys waiting to be flushed
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private PendingWrite<V> findPending(K key) {
+        PendingWrite<V> w = pending.get(key);
+        return w != null ? w : flushing.get(key);
+    }
+
+    private CacheGetResult<V> toGetResult(PendingWrite<V> w) {
+        if (w.remove) {
+            return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
+        }
+        return new CacheGetResult<>(CacheResultCode.SUCCESS, null,
+                new CacheValueHolder<>(w.value, w.expireAfterWriteInMillis));
+    }
+
+    @Override
+    public CacheGetResult<V> GET(K key) {
+        PendingWrite<V> w = key == null ? null : findPending(key);
+        if (w != null) {
+            return toGetResult(w);
+        }
+        return cache.GET(key);
+    }
+
+    @Override
+    public MultiGetResult<K, V> GET_ALL(Set<? extends K> keys) {
+        if (keys == null) {
+            return cache.GET_ALL(null);
+        }
+        Map<K, CacheGetResult<V>> buffered = new HashMap<>();
+        Set<K> rest = new HashSet<>();
+        for (K k : keys) {
+            PendingWrite<V> w = findPending(k);
+            if (w != null) {
+                buffered.put(k, toGetResult(w));
+            } else {
+                rest.add(k);
+            }
+        }
+        if (buffered.isEmpty()) {
+            return cache.GET_ALL(keys);
+        }
+        if (rest.isEmpty()) {
+            return new MultiGetResult<>(CacheResultCode.SUCCESS, null, buffered);
+        }
+        CompletionStage<ResultData> future = cache.GET_ALL(rest).future().handle((d, ex) -> {
+            Map<K, CacheGetResult<V>> m = new HashMap<>(buffered);
+            if (ex == null && (d.getResultCode() == CacheResultCode.SUCCESS
+                    || d.getResultCode() == CacheResultCode.PART_SUCCESS)) {
+                m.putAll((Map<K, CacheGetResult<V>>) d.getOriginData());
+                return new ResultData(d.getResultCode(), d.getMessage(), m);
+            }
+            return new ResultData(CacheResultCode.PART_SUCCESS, ex != null ? ex.getMessage() : d.getMessage(), m);
+        });
+        return new MultiGetResult<>(future);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<K, V> loader, boolean cacheNullWhenLoaderReturnNull) {
+        return AbstractCache.computeIfAbsentImpl(key, loader, cacheNullWhenLoaderReturnNull, 0, null, this);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<K, V> loader, boolean cacheNullWhenLoaderReturnNull,
+                             long expireAfterWrite, TimeUnit timeUnit) {
+        return AbstractCache.computeIfAbsentImpl(key, loader, cacheNullWhenLoaderReturnNull,
+                expireAfterWrite, timeUnit, this);
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                   boolean cacheNullWhenLoaderReturnNull) {
+        return AbstractCache.computeIfAbsentAsyncImpl(key, loader, cacheNullWhenLoaderReturnNull, 0, null, this);
+    }
+
+    @Override
+    public CompletionStage<V> computeIfAbsentAsync(K key, Function<K, CompletionStage<V>> loader,
+                                                   boolean cacheNullWhenLoaderReturnNull,
+                                                   long expireAfterWrite, TimeUnit timeUnit) {
+        return AbstractCache.computeIfAbsentAsyncImpl(key, loader, cacheNullWhenLoaderReturnNull,
+                expireAfterWrite, timeUnit, this);
+    }
+
+    @Override
+    public CacheResult PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        if (key == null) {
+            return CacheResult.FAIL_ILLEGAL_ARGUMENT;
+        }
+        return flushIfClosed(enqueue(key, value, false, timeUnit.toMillis(expireAfterWrite)));
+    }
+
+    @Override
+    public CacheResult PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
+        if (map == null) {
+            return CacheResult.FAIL_ILLEGAL_ARGUMENT;
+        }
+        long expire = timeUnit.toMillis(expireAfterWrite);
+        List<CacheResult> results = new ArrayList<>(map.size());
+        map.forEach((k, v) -> results.add(enqueue(k, v, false, expire)));
+        return flushIfClosed(combine(results));
+    }
+
+    @Override
+    public CacheResult REMOVE(K key) {
+        if (key == null) {
+            return CacheResult.FAIL_ILLEGAL_ARGUMENT;
+        }
+        return flushIfClosed(enqueue(key, null, true, 0));
+    }
+
+    @Override
+    public CacheResult REMOVE_ALL(Set<? extends K> keys) {
+        if (keys == null) {
+            return CacheResult.FAIL_ILLEGAL_ARGUMENT;
+        }
+        List<CacheResult> results = new ArrayList<>(keys.size());
+        keys.forEach(k -> results.add(enqueue(k, null, true, 0)));
+        return flushIfClosed(combine(results));
+    }
+
+    @Override
+    public CacheResult PUT_IF_ABSENT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
+        // the answer depends on the target cache, so the buffered write of the key must reach it first
+        if (key != null && findPending(key) != null) {
+            flush();
+        }
+        return cache.PUT_IF_ABSENT(key, value, expireAfterWrite, timeUnit);
+    }
+
+    @Override
+    public AutoReleaseLock tryLock(K key, long expire, TimeUnit timeUnit) {
+        return cache.tryLock(key, expire, timeUnit);
+    }
+
+    @Override
+    public boolean tryLockAndRun(K key, long expire, TimeUnit timeUnit, Runnable action) {
+        return cache.tryLockAndRun(key, expire, timeUnit, action);
+    }
+
+    private CacheResult flushIfClosed(CacheResult result) {
+        if (closed) {
+            // no background flush after close, write through (after the buffered writes, to keep the order)
+            flush();
+        }
+        return result;
+    }
+
+    private CacheResult combine(List<CacheResult> results) {
+        CompletableFuture<?>[] futures = results.stream()
+                .map(r -> r.future().toCompletableFuture()).toArray(CompletableFuture[]::new);
+        CompletionStage<ResultData> future = CompletableFuture.allOf(futures).handle((v, ex) -> {
+            int fail = 0;
+            for (CompletableFuture<?> f : futures) {
+                ResultData d = (ResultData) f.join();
+                if (d.getResultCode() != CacheResultCode.SUCCESS) {
+                    fail++;
+                }
+            }
+            CacheResultCode code = fail == 0 ? CacheResultCode.SUCCESS :
+                    fail == futures.length ? CacheResultCode.FAIL : CacheResultCode.PART_SUCCESS;
+            return new ResultData(code, null, null);
+        });
+        return new CacheResult(future);
+    }
+
+    private CacheResult enqueue(K key, V value, boolean remove, long expireAfterWriteInMillis) {
+        if (!pending.containsKey(key) && pending.size() >= policy.getMaxPending()) {
+            if (policy.isDropWhenFull()) {
+                notifyEvent(0, 0, 1);
+                return new CacheResult(CacheResultCode.FAIL, "write behind buffer is full");
+            }
+            // back pressure: the writer pays for the flush
+            flush();
+        }
+        PendingWrite<V> w = pending.compute(key, (k, old) -> {
+            if (old != null) {
+                coalescedCount.increment();
+                return new PendingWrite<>(value, remove, expireAfterWriteInMillis, old.future);
+            }
+            return new PendingWrite<>(value, remove, expireAfterWriteInMillis, new CompletableFuture<>());
+        });
+        if (pending.size() >= policy.getBatchSize() && flushTriggered.compareAndSet(false, true)) {
+            JetCacheExecutor.heavyIOExecutor().execute(() -> {
+                flushTriggered.set(false);
+                flushQuietly();
+            });
+        }
+        return new CacheResult(w.future);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable e) {
+            logger.error("write behind flush error", e);
+        }
+    }
+
+    /**
+     * Write all pending writes to the target cache, return after they are written.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            // keys written during the flush are left to the next flush, so a busy writer can't block it forever
+            int rounds = (pending.size() + policy.getBatchSize() - 1) / policy.getBatchSize();
+            for (int i = 0; i < rounds && !pending.isEmpty(); i++) {
+                flushBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBatch() {
+        Map<Long, Map<K, V>> puts = new HashMap<>();
+        Set<K> removes = new HashSet<>();
+        Map<K, PendingWrite<V>> batch = new HashMap<>();
+        Iterator<Map.Entry<K, PendingWrite<V>>> it = pending.entrySet().iterator();
+        while (it.hasNext() && batch.size() < policy.getBatchSize()) {
+            Map.Entry<K, PendingWrite<V>> en = it.next();
+            K k = en.getKey();
+            PendingWrite<V> w = en.getValue();
+            flushing.put(k, w);
+            if (!pending.remove(k, w)) {
+                // replaced by a newer write, flush it next round
+                flushing.remove(k, w);
+                continue;
+            }
+            batch.put(k, w);
+            if (w.remove) {
+                removes.add(k);
+            } else {
+                puts.computeIfAbsent(w.expireAfterWriteInMillis, x -> new HashMap<>()).put(k, w.value);
+            }
+        }
+        int flushed = 0;
+        int dropped = 0;
+        for (Map.Entry<Long, Map<K, V>> en : puts.entrySet()) {
+            CacheResult r = cache.PUT_ALL(en.getValue(), en.getKey(), TimeUnit.MILLISECONDS);
+            int n = complete(en.getValue().keySet(), batch, r);
+            flushed += n;
+            dropped += en.getValue().size() - n;
+        }
+        if (!removes.isEmpty()) {
+            CacheResult r = cache.REMOVE_ALL(removes);
+            int n = complete(removes, batch, r);
+            flushed += n;
+            dropped += removes.size() - n;
+        }
+        if (dropped > 0) {
+            logger.warn("write behind flush failed, {} writes dropped", dropped);
+        }
+        notifyEvent(flushed, (int) coalescedCount.sumThenReset(), dropped);
+    }
+
+    private int complete(Set<K> keys, Map<K, PendingWrite<V>> batch, CacheResult r) {
+        // wait the result, so the next flush of the same key can't overtake this one
+        CacheResultCode code = r.getResultCode();
+        ResultData d = new ResultData(code, r.getMessage(), null);
+        for (K k : keys) {
+            PendingWrite<V> w = batch.get(k);
+            flushing.remove(k, w);
+            w.future.complete(d);
+        }
+        return code == CacheResultCode.SUCCESS ? keys.size() : 0;
+    }
+
+    private void notifyEvent(int flushed, int coalesced, int dropped) {
+        if (flushed == 0 && coalesced == 0 && dropped == 0) {
+            return;
+        }
+        AbstractCache<K, V> abstractCache = CacheUtil.getAbstractCache(cache);
+        if (!abstractCache.isMonitored()) {
+            return;
+        }
+        abstractCache.notify(new CacheWriteBehindEvent(this, flushed, coalesced, dropped, pending.size()));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flushFuture.cancel(false);
+        flushQuietly();
+        cache.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.alicp.jetcache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config of {@link WriteBehindCache}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class WriteBehindPolicy implements Cloneable {
+
+    private long maxStalenessMillis;
+    private int batchSize = 100;
+    private int maxPending = 10000;
+    private boolean dropWhenFull = false;
+
+    public WriteBehindPolicy() {
+    }
+
+    /**
+     * @param maxStaleness how long a write may stay in the buffer before it is flushed
+     */
+    public static WriteBehindPolicy newPolicy(long maxStaleness, TimeUnit timeUnit) {
+        WriteBehindPolicy p = new WriteBehindPolicy();
+        p.maxStalenessMillis = timeUnit.toMillis(maxStaleness);
+        return p;
+    }
+
+    /**
+     * Max keys of a PUT_ALL/REMOVE_ALL sent by a flush, a flush is also triggered when this many keys are pending.
+     */
+    public WriteBehindPolicy batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Max keys in the buffer, when it's full the writer flushes in its own thread (or drops the write if
+     * dropWhenFull is set).
+     */
+    public WriteBehindPolicy maxPending(int maxPending) {
+        this.maxPending = maxPending;
+        return this;
+    }
+
+    public WriteBehindPolicy dropWhenFull(boolean dropWhenFull) {
+        this.dropWhenFull = dropWhenFull;
+        return this;
+    }
+
+    @Override
+    public WriteBehindPolicy clone() {
+        try {
+            return (WriteBehindPolicy) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public long getMaxStalenessMillis() {
+        return maxStalenessMillis;
+    }
+
+    public void setMaxStalenessMillis(long maxStalenessMillis) {
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    public void setMaxPending(int maxPending) {
+        this.maxPending = maxPending;
+    }
+
+    public boolean isDropWhenFull() {
+        return dropWhenFull;
+    }
+
+    public void setDropWhenFull(boolean dropWhenFull) {
+        this.dropWhenFull = dropWhenFull;
+    }
+}
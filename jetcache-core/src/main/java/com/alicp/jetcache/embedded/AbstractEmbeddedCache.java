@@ -41,11 +41,34 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
         return newKey;
     }
 
+    /**
+     * Put a key which is already converted by {@link #buildKey(Object)}, for example a key received from other
+     * nodes. No event is fired.
+     */
+    public void putConverted(Object newKey, V value, long expireAfterWriteInMillis) {
+        innerMap.putValue(newKey, buildHolder(value, expireAfterWriteInMillis));
+    }
+
+    /**
+     * Remove keys which are already converted by {@link #buildKey(Object)}. No event is fired.
+     */
+    public void removeAllConverted(Set<?> newKeys) {
+        innerMap.removeAllValues(newKeys);
+    }
+
     @Override
     protected CacheGetResult<V> do_GET(K key) {
         Object newKey = buildKey(key);
         CacheValueHolder<V> holder = (CacheValueHolder<V>) innerMap.getValue(newKey);
-        return parseHolderResult(holder);
+        return parseHolderResult(key, holder);
+    }
+
+    protected CacheGetResult<V> parseHolderResult(K key, CacheValueHolder<V> holder) {
+        CacheGetResult<V> r = parseHolderResult(holder);
+        if (r.getResultCode() == CacheResultCode.SUCCESS) {
+            checkStale(key, holder, System.currentTimeMillis());
+        }
+        return r;
     }
 
     protected CacheGetResult<V> parseHolderResult(CacheValueHolder<V> holder) {
@@ -55,15 +78,17 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
         } else if (now >= holder.getExpireTime()) {
             return CacheGetResult.EXPIRED_WITHOUT_MSG;
         } else {
-            synchronized (holder) {
+            if (config.isExpireAfterAccess()) {
+                long expireAfterAccess = config.getExpireAfterAccessInMillis();
                 long accessTime = holder.getAccessTime();
-                if (config.isExpireAfterAccess()) {
-                    long expireAfterAccess = config.getExpireAfterAccessInMillis();
-                    if (now >= accessTime + expireAfterAccess) {
-                        return CacheGetResult.EXPIRED_WITHOUT_MSG;
-                    }
+                if (now >= accessTime + expireAfterAccess) {
+                    return CacheGetResult.EXPIRED_WITHOUT_MSG;
+                }
+                // a hot key read by many threads is written at most once per tolerance instead of on every hit,
+                // the access time may lag behind by the tolerance, less than 1% of expireAfterAccess
+                if (now - accessTime > (expireAfterAccess >>> 7)) {
+                    holder.setAccessTime(now);
                 }
-                holder.setAccessTime(now);
             }
 
             return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
@@ -85,7 +110,7 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
             K key = keyList.get(i);
             Object newKey = newKeyList.get(i);
             CacheValueHolder<V> holder = innerResultMap.get(newKey);
-            resultMap.put(key, parseHolderResult(holder));
+            resultMap.put(key, parseHolderResult(key, holder));
         }
         MultiGetResult<K, V> result = new MultiGetResult<>(CacheResultCode.SUCCESS, null, resultMap);
         return result;
@@ -93,7 +118,7 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
 
     @Override
     protected CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
-        CacheValueHolder<V> cacheObject = new CacheValueHolder(value ,timeUnit.toMillis(expireAfterWrite));
+        CacheValueHolder<V> cacheObject = buildHolder(value, timeUnit.toMillis(expireAfterWrite));
         innerMap.putValue(buildKey(key), cacheObject);
         return CacheResult.SUCCESS_WITHOUT_MSG;
     }
@@ -102,7 +127,7 @@ public abstract class AbstractEmbeddedCache<K, V> extends AbstractCache<K, V> {
     protected CacheResult do_PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
         HashMap newKeyMap = new HashMap();
         for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
-            CacheValueHolder<V> cacheObject = new CacheValueHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
+            CacheValueHolder<V> cacheObject = buildHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
             newKeyMap.put(buildKey(en.getKey()), cacheObject);
         }
         innerMap.putAllValues(newKeyMap);
@@ -3,9 +3,11 @@ package com.alicp.jetcache.embedded;
 import com.alicp.jetcache.CacheValueHolder;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -29,11 +31,29 @@ public class CaffeineCache<K, V> extends AbstractEmbeddedCache<K, V> {
         throw new IllegalArgumentException(clazz.getName());
     }
 
+    /**
+     * The sum of the weights of the entries, or the entry count if the cache is not bounded by weight.
+     */
+    public long weightedSize() {
+        cache.cleanUp();
+        Optional<Policy.Eviction<?, ?>> eviction = cache.policy().eviction();
+        if (eviction.isPresent() && eviction.get().weightedSize().isPresent()) {
+            return eviction.get().weightedSize().getAsLong();
+        }
+        return cache.estimatedSize();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected InnerMap createAreaCache() {
         Caffeine<Object, Object> builder = Caffeine.newBuilder();
-        builder.maximumSize(config.getLimit());
+        if (config.getMaximumWeight() > 0) {
+            Weigher weigher = config.getWeigher() == null ? Weighers.sampledSize() : config.getWeigher();
+            builder.maximumWeight(config.getMaximumWeight());
+            builder.weigher((k, v) -> weigher.weigh(k, ((CacheValueHolder) v).getValue()));
+        } else {
+            builder.maximumSize(config.getLimit());
+        }
         final boolean isExpireAfterAccess = config.isExpireAfterAccess();
         final long expireAfterAccess = config.getExpireAfterAccessInMillis();
         builder.expireAfter(new Expiry<Object, CacheValueHolder>() {
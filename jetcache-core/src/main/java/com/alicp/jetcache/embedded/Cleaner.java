@@ -19,7 +19,8 @@ class Cleaner {
 
     static {
         ScheduledExecutorService executorService = JetCacheExecutor.defaultExecutor();
-        executorService.scheduleWithFixedDelay(() -> run(), 60, 60, TimeUnit.SECONDS);
+        // cheap since caches index entries by expire time, only the expiring ones are visited
+        executorService.scheduleWithFixedDelay(() -> run(), 1, 1, TimeUnit.SECONDS);
     }
 
     static void add(LinkedHashMapCache cache) {
@@ -36,4 +36,22 @@ public class EmbeddedCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends Abs
         getConfig().setLimit(limit);
     }
 
+    public T maximumWeight(long maximumWeight) {
+        getConfig().setMaximumWeight(maximumWeight);
+        return self();
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        getConfig().setMaximumWeight(maximumWeight);
+    }
+
+    public T weigher(Weigher weigher) {
+        getConfig().setWeigher(weigher);
+        return self();
+    }
+
+    public void setWeigher(Weigher weigher) {
+        getConfig().setWeigher(weigher);
+    }
+
 }
@@ -10,6 +10,10 @@ import com.alicp.jetcache.anno.CacheConsts;
  */
 public class EmbeddedCacheConfig<K, V> extends CacheConfig<K, V> {
     private int limit = CacheConsts.DEFAULT_LOCAL_LIMIT;
+    private int concurrencyLevel = 1;
+    private long maximumWeight;
+    private Weigher weigher;
+    private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
 
     public int getLimit() {
         return limit;
@@ -19,4 +23,51 @@ public class EmbeddedCacheConfig<K, V> extends CacheConfig<K, V> {
         this.limit = limit;
     }
 
+    /**
+     * Used by {@link LinkedHashMapCache} and {@link OffHeapCache}. If greater than 1 the map is split into segments
+     * which are locked separately, each holds limit/segments entries, so the LRU order is approximate.
+     */
+    public int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    public void setConcurrencyLevel(int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+    }
+
+    /**
+     * Used by {@link LinkedHashMapCache} and {@link CaffeineCache}. If greater than 0 the cache is bounded by the sum
+     * of the weights of the entries instead of the limit of entry count.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * The weigher used with maximumWeight, {@link Weighers#sampledSize()} if not set.
+     */
+    public Weigher getWeigher() {
+        return weigher;
+    }
+
+    public void setWeigher(Weigher weigher) {
+        this.weigher = weigher;
+    }
+
+    /**
+     * Used by {@link LinkedHashMapCache}, {@link CaffeineCache} always uses W-TinyLFU. {@link EvictionPolicy#W_TINY_LFU}
+     * bounds the cache by the limit and can't be used with maximumWeight.
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+        this.evictionPolicy = evictionPolicy;
+    }
+
 }
@@ -0,0 +1,20 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * The eviction policy of {@link LinkedHashMapCache}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public enum EvictionPolicy {
+    /**
+     * Evicts the least recently used entry.
+     */
+    LRU,
+    /**
+     * A small LRU window admits new entries, an entry leaving the window replaces the LRU victim of the main space
+     * only if it is used more frequently, so a scan of keys used once doesn't flush the hot entries.
+     */
+    W_TINY_LFU
+}
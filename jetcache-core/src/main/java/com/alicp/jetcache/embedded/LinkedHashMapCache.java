@@ -3,10 +3,9 @@
  */
 package com.alicp.jetcache.embedded;
 
+import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.CacheResultCode;
 import com.alicp.jetcache.CacheValueHolder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.*;
 
@@ -15,8 +14,6 @@ import java.util.*;
  */
 public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
 
-    private static Logger logger = LoggerFactory.getLogger(LinkedHashMapCache.class);
-
     public LinkedHashMapCache(EmbeddedCacheConfig<K, V> config) {
         super(config);
         addToCleaner();
@@ -28,63 +25,304 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
 
     @Override
     protected InnerMap createAreaCache() {
-        return new LRUMap(config.getLimit(), this);
+        Weigher weigher = null;
+        if (config.getMaximumWeight() > 0) {
+            weigher = config.getWeigher() == null ? Weighers.sampledSize() : config.getWeigher();
+        }
+        boolean tinyLfu = config.getEvictionPolicy() == EvictionPolicy.W_TINY_LFU;
+        if (tinyLfu && config.getMaximumWeight() > 0) {
+            throw new CacheConfigException("W_TINY_LFU doesn't support maximumWeight");
+        }
+        if (config.getConcurrencyLevel() > 1) {
+            return new SegmentedLRUMap(config.getLimit(), config.getMaximumWeight(), weigher, tinyLfu,
+                    config.getConcurrencyLevel());
+        }
+        return new LRUMap(config.getLimit(), config.getMaximumWeight(), weigher, tinyLfu, this);
     }
 
+    /**
+     * LinkedHashMap.class returns a copy of the entries, the values are {@link CacheValueHolder}s in the LRU order
+     * of each segment. Changes to the copy don't affect the cache.
+     */
     @Override
     public <T> T unwrap(Class<T> clazz) {
         if (clazz.equals(LinkedHashMap.class)) {
-            return (T) innerMap;
+            LinkedHashMap map = new LinkedHashMap();
+            if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+                for (LRUMap segment : ((SegmentedLRUMap) innerMap).segments) {
+                    segment.copyTo(map);
+                }
+            } else {
+                ((LRUMap) innerMap).copyTo(map);
+            }
+            return (T) map;
         }
         throw new IllegalArgumentException(clazz.getName());
     }
 
+    /**
+     * The sum of the weights of the entries, or the entry count if the cache is not bounded by weight.
+     */
+    public long weightedSize() {
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            long size = 0;
+            for (LRUMap segment : ((SegmentedLRUMap) innerMap).segments) {
+                size += segment.weightedSize();
+            }
+            return size;
+        } else {
+            return ((LRUMap) innerMap).weightedSize();
+        }
+    }
+
     public void cleanExpiredEntry() {
-        ((LRUMap) innerMap).cleanExpiredEntry();
+        if (innerMap instanceof LinkedHashMapCache.SegmentedLRUMap) {
+            for (LRUMap segment : ((SegmentedLRUMap) innerMap).segments) {
+                segment.cleanExpiredEntry();
+            }
+        } else {
+            ((LRUMap) innerMap).cleanExpiredEntry();
+        }
+    }
+
+    /**
+     * Splits the keys by hash into several {@link LRUMap}s which have their own locks, so threads accessing
+     * different segments don't contend. Each segment evicts its own eldest entry when it holds more than
+     * limit/segments entries, so the LRU order is kept per segment only.
+     */
+    final class SegmentedLRUMap implements InnerMap {
+
+        private final LRUMap[] segments;
+        private final int mask;
+
+        SegmentedLRUMap(int max, long maxWeight, Weigher weigher, boolean tinyLfu, int concurrencyLevel) {
+            int n = 1;
+            while (n < concurrencyLevel && n < (1 << 16)) {
+                n <<= 1;
+            }
+            int segmentMax = Math.max(1, (max + n - 1) / n);
+            long segmentMaxWeight = maxWeight > 0 ? Math.max(1, (maxWeight + n - 1) / n) : 0;
+            this.segments = new LinkedHashMapCache.LRUMap[n];
+            for (int i = 0; i < n; i++) {
+                segments[i] = new LRUMap(segmentMax, segmentMaxWeight, weigher, tinyLfu, new Object());
+            }
+            this.mask = n - 1;
+        }
+
+        private int indexFor(Object key) {
+            int h = key.hashCode();
+            h ^= (h >>> 16);
+            return h & mask;
+        }
+
+        private LRUMap segmentFor(Object key) {
+            return segments[indexFor(key)];
+        }
+
+        @Override
+        public Object getValue(Object key) {
+            return segmentFor(key).getValue(key);
+        }
+
+        @Override
+        public Map getAllValues(Collection keys) {
+            Map values = new HashMap();
+            for (Map.Entry<Integer, List<Object>> en : groupKeys(keys).entrySet()) {
+                values.putAll(segments[en.getKey()].getAllValues(en.getValue()));
+            }
+            return values;
+        }
+
+        @Override
+        public void putValue(Object key, Object value) {
+            segmentFor(key).putValue(key, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void putAllValues(Map map) {
+            Map<Integer, Map> groups = new HashMap<>();
+            Set<Map.Entry> set = map.entrySet();
+            for (Map.Entry en : set) {
+                groups.computeIfAbsent(indexFor(en.getKey()), k -> new HashMap()).put(en.getKey(), en.getValue());
+            }
+            for (Map.Entry<Integer, Map> en : groups.entrySet()) {
+                segments[en.getKey()].putAllValues(en.getValue());
+            }
+        }
+
+        @Override
+        public boolean removeValue(Object key) {
+            return segmentFor(key).removeValue(key);
+        }
+
+        @Override
+        public boolean putIfAbsentValue(Object key, Object value) {
+            return segmentFor(key).putIfAbsentValue(key, value);
+        }
+
+        @Override
+        public void removeAllValues(Collection keys) {
+            for (Map.Entry<Integer, List<Object>> en : groupKeys(keys).entrySet()) {
+                segments[en.getKey()].removeAllValues(en.getValue());
+            }
+        }
+
+        private Map<Integer, List<Object>> groupKeys(Collection keys) {
+            Map<Integer, List<Object>> groups = new HashMap<>();
+            for (Object key : keys) {
+                groups.computeIfAbsent(indexFor(key), k -> new ArrayList<>()).add(key);
+            }
+            return groups;
+        }
     }
 
+    /**
+     * Values of the map are {@link TimerWheel.Node}s which are also linked in a timing wheel by expire time, so
+     * expired entries are found without a scan. The wheel advances when the map is written and when the
+     * {@link Cleaner} runs.
+     * <p>
+     * If maxWeight is greater than 0 the eldest entries are evicted until the sum of the weights is in the bound,
+     * otherwise every entry weighs 1 and the map holds max entries. With the W-TinyLFU policy the map is in
+     * insertion order and the victims are chosen by {@link WindowTinyLfu}.
+     */
     final class LRUMap extends LinkedHashMap implements InnerMap {
 
         private final int max;
+        private final long maxWeight;
+        private final Weigher weigher;
+        private final WindowTinyLfu tinyLfu;
         private Object lock;
+        private final TimerWheel timerWheel = new TimerWheel(System.currentTimeMillis());
+        private long weightedSize;
 
-        public LRUMap(int max, Object lock) {
-            super((int) (max * 1.4f), 0.75f, true);
+        public LRUMap(int max, long maxWeight, Weigher weigher, boolean tinyLfu, Object lock) {
+            super(maxWeight > 0 ? 16 : (int) (max * 1.4f), 0.75f, !tinyLfu);
             this.max = max;
+            this.maxWeight = maxWeight;
+            this.weigher = weigher;
+            this.tinyLfu = tinyLfu ? new WindowTinyLfu(max) : null;
             this.lock = lock;
         }
 
         @Override
         protected boolean removeEldestEntry(Map.Entry eldest) {
-            return size() > max;
+            if (tinyLfu == null && maxWeight <= 0 && size() > max) {
+                unlinked((TimerWheel.Node) eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+
+        private void evictByWeight() {
+            Iterator<Map.Entry> it = entrySet().iterator();
+            while (weightedSize > maxWeight && it.hasNext()) {
+                TimerWheel.Node node = (TimerWheel.Node) it.next().getValue();
+                it.remove();
+                unlinked(node);
+            }
+        }
+
+        private void evictByFrequency() {
+            TimerWheel.Node victim;
+            while ((victim = tinyLfu.evict()) != null) {
+                remove(victim.key);
+                unlinked(victim);
+            }
+        }
+
+        // called after the node is removed from the map
+        private void unlinked(TimerWheel.Node node) {
+            timerWheel.remove(node);
+            weightedSize -= node.weight;
+            if (tinyLfu != null) {
+                tinyLfu.remove(node);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void copyTo(Map target) {
+            synchronized (lock) {
+                // forEach doesn't change the access order
+                forEach((k, node) -> target.put(k, holder(node)));
+            }
+        }
+
+        long weightedSize() {
+            synchronized (lock) {
+                return weightedSize;
+            }
         }
 
         void cleanExpiredEntry() {
             synchronized (lock) {
-                for (Iterator it = entrySet().iterator(); it.hasNext();) {
-                    Map.Entry en = (Map.Entry) it.next();
-                    Object value = en.getValue();
-                    if (value != null && value instanceof CacheValueHolder) {
-                        CacheValueHolder h = (CacheValueHolder) value;
-                        if (System.currentTimeMillis() >= h.getExpireTime()) {
-                            it.remove();
-                        }
-                    } else {
-                        // assert false
-                        if (value == null) {
-                            logger.error("key " + en.getKey() + " is null");
-                        } else {
-                            logger.error("value of key " + en.getKey() + " is not a CacheValueHolder. type=" + value.getClass());
-                        }
-                    }
+                timerWheel.expireNow(System.currentTimeMillis(), this::removeExpired);
+            }
+        }
+
+        private void expireOnWrite() {
+            timerWheel.advance(System.currentTimeMillis(), this::removeExpired);
+        }
+
+        private void removeExpired(TimerWheel.Node node) {
+            // the node is already unlinked from the wheel
+            if (remove(node.key, node)) {
+                unlinked(node);
+            }
+        }
+
+        private Object holder(Object node) {
+            return node == null ? null : ((TimerWheel.Node) node).holder;
+        }
+
+        private Object access(Object key) {
+            Object node = get(key);
+            if (node != null && tinyLfu != null) {
+                tinyLfu.access((TimerWheel.Node) node);
+            }
+            return holder(node);
+        }
+
+        // called before taking the lock, the weigher may walk the object graph of the value
+        @SuppressWarnings("unchecked")
+        private int weigh(Object key, Object value) {
+            return weigher == null ? 1 : weigher.weigh(key, ((CacheValueHolder) value).getValue());
+        }
+
+        private void putNode(Object key, Object value, int weight) {
+            CacheValueHolder holder = (CacheValueHolder) value;
+            TimerWheel.Node node = new TimerWheel.Node(key, holder);
+            node.weight = weight;
+            timerWheel.schedule(node);
+            weightedSize += node.weight;
+            Object old = put(key, node);
+            if (old != null) {
+                if (tinyLfu != null) {
+                    tinyLfu.replace((TimerWheel.Node) old, node);
                 }
+                unlinked((TimerWheel.Node) old);
+            } else if (tinyLfu != null) {
+                tinyLfu.add(node);
+                evictByFrequency();
+            }
+            if (maxWeight > 0) {
+                evictByWeight();
+            }
+        }
+
+        private boolean removeNode(Object key) {
+            Object old = remove(key);
+            if (old != null) {
+                unlinked((TimerWheel.Node) old);
+                return true;
             }
+            return false;
         }
 
         @Override
         public Object getValue(Object key) {
             synchronized (lock) {
-                return get(key);
+                return access(key);
             }
         }
 
@@ -93,7 +331,7 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
             Map values = new HashMap();
             synchronized (lock) {
                 for (Object key : keys) {
-                    Object v = get(key);
+                    Object v = access(key);
                     if (v != null) {
                         values.put(key, v);
                     }
@@ -104,17 +342,26 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
 
         @Override
         public void putValue(Object key, Object value) {
+            int weight = weigh(key, value);
             synchronized (lock) {
-                put(key, value);
+                expireOnWrite();
+                putNode(key, value, weight);
             }
         }
 
         @Override
         public void putAllValues(Map map) {
+            Set<Map.Entry> set = map.entrySet();
+            int[] weights = new int[set.size()];
+            int i = 0;
+            for (Map.Entry en : set) {
+                weights[i++] = weigh(en.getKey(), en.getValue());
+            }
             synchronized (lock) {
-                Set<Map.Entry> set = map.entrySet();
+                expireOnWrite();
+                i = 0;
                 for (Map.Entry en : set) {
-                    put(en.getKey(), en.getValue());
+                    putNode(en.getKey(), en.getValue(), weights[i++]);
                 }
             }
         }
@@ -122,7 +369,7 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
         @Override
         public boolean removeValue(Object key) {
             synchronized (lock) {
-                return remove(key) != null;
+                return removeNode(key);
             }
         }
 
@@ -130,7 +377,7 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
         public void removeAllValues(Collection keys) {
             synchronized (lock) {
                 for (Object k : keys) {
-                    remove(k);
+                    removeNode(k);
                 }
             }
         }
@@ -138,10 +385,12 @@ public class LinkedHashMapCache<K, V> extends AbstractEmbeddedCache<K, V> {
         @Override
         @SuppressWarnings("unchecked")
         public boolean putIfAbsentValue(Object key, Object value) {
+            int weight = weigh(key, value);
             synchronized (lock) {
-                CacheValueHolder h = (CacheValueHolder) get(key);
+                expireOnWrite();
+                CacheValueHolder h = (CacheValueHolder) holder(get(key));
                 if (h == null || parseHolderResult(h).getResultCode() == CacheResultCode.EXPIRED) {
-                    put(key, value);
+                    putNode(key, value, weight);
                     return true;
                 } else {
                     return false;
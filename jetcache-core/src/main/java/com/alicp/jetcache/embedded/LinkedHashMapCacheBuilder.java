@@ -16,4 +16,22 @@ public class LinkedHashMapCacheBuilder<T extends EmbeddedCacheBuilder<T>> extend
     protected LinkedHashMapCacheBuilder() {
         buildFunc((c) -> new LinkedHashMapCache((EmbeddedCacheConfig) c));
     }
+
+    public T concurrencyLevel(int concurrencyLevel) {
+        getConfig().setConcurrencyLevel(concurrencyLevel);
+        return self();
+    }
+
+    public void setConcurrencyLevel(int concurrencyLevel) {
+        getConfig().setConcurrencyLevel(concurrencyLevel);
+    }
+
+    public T evictionPolicy(EvictionPolicy evictionPolicy) {
+        getConfig().setEvictionPolicy(evictionPolicy);
+        return self();
+    }
+
+    public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+        getConfig().setEvictionPolicy(evictionPolicy);
+    }
 }
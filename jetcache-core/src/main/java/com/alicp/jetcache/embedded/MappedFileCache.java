@@ -0,0 +1,46 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * An embedded cache which keeps the entries in memory-mapped files, so they survive a restart of the process.
+ * It is meant to be the level under the heap cache of a {@link com.alicp.jetcache.MultiLevelCache}, the local
+ * level is warm at once after a deploy.
+ * <p>
+ * Values are encoded by the value encoder of the config, keys are converted to bytes as remote caches do. The
+ * access time is not stored, so expire after access works as expire after write. Each cache needs its own
+ * {@link MappedFileCacheConfig#getPath()}, the directory is locked while the cache is open.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class MappedFileCache<K, V> extends AbstractEmbeddedCache<K, V> {
+
+    public MappedFileCache(MappedFileCacheConfig<K, V> config) {
+        super(config);
+    }
+
+    @Override
+    protected InnerMap createAreaCache() {
+        return new MappedFileStore((MappedFileCacheConfig) config);
+    }
+
+    /**
+     * Copy the live entries out of the data files which have too much garbage, also done in the background.
+     */
+    public void compact() {
+        ((MappedFileStore) innerMap).compact();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        throw new IllegalArgumentException(clazz.getName());
+    }
+
+    /**
+     * Flush the files and release the directory.
+     */
+    @Override
+    public void close() {
+        ((MappedFileStore) innerMap).close();
+    }
+}
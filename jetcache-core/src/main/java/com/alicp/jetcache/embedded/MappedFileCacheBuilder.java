@@ -0,0 +1,93 @@
+package com.alicp.jetcache.embedded;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class MappedFileCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends EmbeddedCacheBuilder<T> {
+    public static class MappedFileCacheBuilderImpl extends MappedFileCacheBuilder<MappedFileCacheBuilderImpl> {
+    }
+
+    public static MappedFileCacheBuilderImpl createMappedFileCacheBuilder() {
+        return new MappedFileCacheBuilderImpl();
+    }
+
+    protected MappedFileCacheBuilder() {
+        buildFunc((c) -> new MappedFileCache((MappedFileCacheConfig) c));
+    }
+
+    @Override
+    public MappedFileCacheConfig getConfig() {
+        if (config == null) {
+            config = new MappedFileCacheConfig();
+        }
+        return (MappedFileCacheConfig) config;
+    }
+
+    public T path(String path) {
+        getConfig().setPath(path);
+        return self();
+    }
+
+    public void setPath(String path) {
+        getConfig().setPath(path);
+    }
+
+    public T fileSize(int fileSize) {
+        getConfig().setFileSize(fileSize);
+        return self();
+    }
+
+    public void setFileSize(int fileSize) {
+        getConfig().setFileSize(fileSize);
+    }
+
+    public T capacity(long capacityInBytes) {
+        getConfig().setCapacity(capacityInBytes);
+        return self();
+    }
+
+    public void setCapacity(long capacityInBytes) {
+        getConfig().setCapacity(capacityInBytes);
+    }
+
+    public T compactRatio(double compactRatio) {
+        getConfig().setCompactRatio(compactRatio);
+        return self();
+    }
+
+    public void setCompactRatio(double compactRatio) {
+        getConfig().setCompactRatio(compactRatio);
+    }
+
+    public T compactInterval(long interval, TimeUnit timeUnit) {
+        getConfig().setCompactIntervalInMillis(timeUnit.toMillis(interval));
+        return self();
+    }
+
+    public void setCompactIntervalInMillis(long compactIntervalInMillis) {
+        getConfig().setCompactIntervalInMillis(compactIntervalInMillis);
+    }
+
+    public T valueEncoder(Function<Object, byte[]> valueEncoder) {
+        getConfig().setValueEncoder(valueEncoder);
+        return self();
+    }
+
+    public void setValueEncoder(Function<Object, byte[]> valueEncoder) {
+        getConfig().setValueEncoder(valueEncoder);
+    }
+
+    public T valueDecoder(Function<byte[], Object> valueDecoder) {
+        getConfig().setValueDecoder(valueDecoder);
+        return self();
+    }
+
+    public void setValueDecoder(Function<byte[], Object> valueDecoder) {
+        getConfig().setValueDecoder(valueDecoder);
+    }
+}
@@ -0,0 +1,96 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.support.DecoderMap;
+import com.alicp.jetcache.support.JavaValueEncoder;
+
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class MappedFileCacheConfig<K, V> extends EmbeddedCacheConfig<K, V> {
+
+    public static final int DEFAULT_FILE_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_CAPACITY = 1024L * 1024 * 1024;
+    public static final double DEFAULT_COMPACT_RATIO = 0.5;
+    public static final long DEFAULT_COMPACT_INTERVAL_IN_MILLIS = 10000;
+
+    private String path;
+    private int fileSize = DEFAULT_FILE_SIZE;
+    private long capacity = DEFAULT_CAPACITY;
+    private double compactRatio = DEFAULT_COMPACT_RATIO;
+    private long compactIntervalInMillis = DEFAULT_COMPACT_INTERVAL_IN_MILLIS;
+    private Function<Object, byte[]> valueEncoder = JavaValueEncoder.INSTANCE;
+    private Function<byte[], Object> valueDecoder = DecoderMap.defaultJavaValueDecoder();
+
+    /**
+     * The directory of the data files and the index, used by one cache only.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Size of each data file, an entry larger than a file is not cached.
+     */
+    public int getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(int fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * Max bytes of all data files. When a new file is needed and the capacity is reached, the oldest file is
+     * dropped with the entries in it. The limit of entry count is not used.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * A data file is compacted when this part of it is garbage.
+     */
+    public double getCompactRatio() {
+        return compactRatio;
+    }
+
+    public void setCompactRatio(double compactRatio) {
+        this.compactRatio = compactRatio;
+    }
+
+    public long getCompactIntervalInMillis() {
+        return compactIntervalInMillis;
+    }
+
+    public void setCompactIntervalInMillis(long compactIntervalInMillis) {
+        this.compactIntervalInMillis = compactIntervalInMillis;
+    }
+
+    public Function<Object, byte[]> getValueEncoder() {
+        return valueEncoder;
+    }
+
+    public void setValueEncoder(Function<Object, byte[]> valueEncoder) {
+        this.valueEncoder = valueEncoder;
+    }
+
+    public Function<byte[], Object> getValueDecoder() {
+        return valueDecoder;
+    }
+
+    public void setValueDecoder(Function<byte[], Object> valueDecoder) {
+        this.valueDecoder = valueDecoder;
+    }
+}
@@ -0,0 +1,707 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.CacheException;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The store of {@link MappedFileCache}.
+ * <p>
+ * Entries are appended to data files named data-N, each record is the key, the encoded value and the expire time.
+ * A remove appends a tombstone. The index file is an open addressing hash table of the record positions and
+ * expire times, it is mapped too, so a reopened store serves without reading the data files. If the index is
+ * missing or broken it is rebuilt by reading the data files in order.
+ * <p>
+ * The length of a record is written after its content, a record cut by a crash reads as the end of the file.
+ * Expired entries are dropped when they are read or compacted. A data file is compacted when too much of it is
+ * garbage: its live records are appended to the current file and it is deleted.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+final class MappedFileStore implements InnerMap {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileStore.class);
+
+    private static final long DATA_MAGIC = 0x4A43444154410001L;
+    private static final long INDEX_MAGIC = 0x4A43494E44580001L;
+    private static final String DATA_PREFIX = "data-";
+    private static final String INDEX_FILE = "index";
+    private static final String LOCK_FILE = "lock";
+
+    // a data file starts with the magic, then records aligned to 8 bytes
+    private static final int DATA_HEADER_SIZE = 16;
+    private static final int R_LENGTH = 0;
+    private static final int R_HASH = 4;
+    private static final int R_EXPIRE = 8;
+    private static final int R_KEY_LENGTH = 16;
+    private static final int R_VALUE_LENGTH = 20;
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final int TOMBSTONE = -1;
+
+    // the index starts with the magic and the capacity, then the slots
+    private static final int INDEX_HEADER_SIZE = 16;
+    private static final int S_HASH = 0;
+    private static final int S_FILE = 4;
+    private static final int S_OFFSET = 8;
+    private static final int S_LENGTH = 12;
+    private static final int S_EXPIRE = 16;
+    private static final int SLOT_SIZE = 24;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+    private static final int INITIAL_INDEX_CAPACITY = 1 << 14;
+
+    private final File dir;
+    private final int fileSize;
+    private final int maxFiles;
+    private final double compactRatio;
+    private final MappedFileCacheConfig<?, ?> config;
+
+    private final RandomAccessFile lockFile;
+    private final FileLock lock;
+    private final ScheduledFuture<?> compactFuture;
+
+    // guarded by this
+    private final TreeMap<Integer, DataFile> files = new TreeMap<>();
+    private DataFile current;
+    private MappedByteBuffer index;
+    private int indexCapacity;
+    private int liveSlots;
+    private int deletedSlots;
+    private boolean closed;
+
+    private static final class DataFile {
+        final int id;
+        final File file;
+        final MappedByteBuffer buffer;
+        int writePosition = DATA_HEADER_SIZE;
+        long liveBytes;
+
+        DataFile(int id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    MappedFileStore(MappedFileCacheConfig<?, ?> config) {
+        if (config.getPath() == null) {
+            throw new CacheConfigException("path is required");
+        }
+        if (config.getFileSize() < 4096) {
+            throw new CacheConfigException("fileSize must be at least 4096: " + config.getFileSize());
+        }
+        if (config.getCapacity() < 2L * config.getFileSize()) {
+            throw new CacheConfigException("capacity must be at least 2 files: " + config.getCapacity());
+        }
+        this.config = config;
+        this.dir = new File(config.getPath());
+        this.fileSize = config.getFileSize();
+        this.maxFiles = (int) Math.min(Integer.MAX_VALUE, config.getCapacity() / fileSize);
+        this.compactRatio = config.getCompactRatio();
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new CacheConfigException("can't create directory " + dir);
+            }
+            lockFile = new RandomAccessFile(new File(dir, LOCK_FILE), "rw");
+            FileLock l;
+            try {
+                l = lockFile.getChannel().tryLock();
+            } catch (OverlappingFileLockException e) {
+                l = null;
+            }
+            if (l == null) {
+                lockFile.close();
+                throw new CacheConfigException(dir + " is used by another cache");
+            }
+            lock = l;
+            try {
+                synchronized (this) {
+                    open();
+                }
+            } catch (IOException | RuntimeException e) {
+                // closing the file releases the lock
+                lockFile.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new CacheException("can't open " + dir, e);
+        }
+        long interval = config.getCompactIntervalInMillis();
+        compactFuture = interval > 0 ? JetCacheExecutor.heavyIOExecutor().scheduleWithFixedDelay(
+                this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS) : null;
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() != size) {
+                raf.setLength(size);
+            }
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    // guarded by this
+    private void open() throws IOException {
+        File[] dataFiles = dir.listFiles((d, name) -> name.startsWith(DATA_PREFIX));
+        if (dataFiles != null) {
+            for (File f : dataFiles) {
+                int id;
+                try {
+                    id = Integer.parseInt(f.getName().substring(DATA_PREFIX.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (f.length() != fileSize) {
+                    logger.warn("drop data file of another size: {}", f);
+                    Files.delete(f.toPath());
+                    continue;
+                }
+                DataFile df = new DataFile(id, f, map(f, fileSize));
+                if (df.buffer.getLong(0) != DATA_MAGIC) {
+                    logger.warn("drop broken data file: {}", f);
+                    Files.delete(f.toPath());
+                    continue;
+                }
+                df.writePosition = scanEnd(df);
+                files.put(id, df);
+            }
+        }
+
+        File indexFile = new File(dir, INDEX_FILE);
+        boolean indexLoaded = false;
+        if (indexFile.isFile() && indexFile.length() > INDEX_HEADER_SIZE) {
+            MappedByteBuffer b = map(indexFile, indexFile.length());
+            int capacity = b.getInt(8);
+            if (b.getLong(0) == INDEX_MAGIC && Integer.bitCount(capacity) == 1
+                    && indexFile.length() == INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+                index = b;
+                indexCapacity = capacity;
+                indexLoaded = true;
+            }
+        }
+        if (indexLoaded) {
+            countSlots();
+        } else {
+            if (!files.isEmpty()) {
+                logger.warn("rebuild the index of {}", dir);
+            }
+            createIndex(INITIAL_INDEX_CAPACITY);
+            rebuildIndex();
+        }
+        if (files.isEmpty()) {
+            newFile(1);
+        }
+        current = files.lastEntry().getValue();
+    }
+
+    private int scanEnd(DataFile df) {
+        int pos = DATA_HEADER_SIZE;
+        while (pos + RECORD_HEADER_SIZE <= fileSize) {
+            int length = df.buffer.getInt(pos + R_LENGTH);
+            if (length < RECORD_HEADER_SIZE || (length & 7) != 0 || pos + length > fileSize) {
+                break;
+            }
+            pos += length;
+        }
+        return pos;
+    }
+
+    // check the slots against the data files and count the live bytes of each file
+    private void countSlots() {
+        liveSlots = 0;
+        deletedSlots = 0;
+        for (int i = 0; i < indexCapacity; i++) {
+            int p = slot(i);
+            int fileId = index.getInt(p + S_FILE);
+            if (fileId == EMPTY) {
+                continue;
+            }
+            if (fileId != DELETED) {
+                DataFile df = files.get(fileId);
+                int offset = index.getInt(p + S_OFFSET);
+                if (df != null && offset + index.getInt(p + S_LENGTH) <= df.writePosition) {
+                    df.liveBytes += index.getInt(p + S_LENGTH);
+                    liveSlots++;
+                    continue;
+                }
+                index.putInt(p + S_FILE, DELETED);
+            }
+            deletedSlots++;
+        }
+    }
+
+    private void rebuildIndex() {
+        for (DataFile df : files.values()) {
+            int pos = DATA_HEADER_SIZE;
+            while (pos < df.writePosition) {
+                ByteBuffer b = df.buffer;
+                int length = b.getInt(pos + R_LENGTH);
+                int hash = b.getInt(pos + R_HASH);
+                byte[] key = readKey(df, pos);
+                int i = find(hash, key);
+                if (i >= 0) {
+                    deleteSlot(i);
+                }
+                if (b.getInt(pos + R_VALUE_LENGTH) != TOMBSTONE) {
+                    insertSlot(hash, df, pos, length, b.getLong(pos + R_EXPIRE));
+                }
+                pos += length;
+            }
+        }
+    }
+
+    private void createIndex(int capacity) throws IOException {
+        File tmp = new File(dir, INDEX_FILE + ".tmp");
+        Files.deleteIfExists(tmp.toPath());
+        MappedByteBuffer b = map(tmp, INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        b.putLong(0, INDEX_MAGIC);
+        b.putInt(8, capacity);
+        MappedByteBuffer old = index;
+        int oldCapacity = indexCapacity;
+        index = b;
+        indexCapacity = capacity;
+        liveSlots = 0;
+        deletedSlots = 0;
+        if (old != null) {
+            for (int i = 0; i < oldCapacity; i++) {
+                int p = INDEX_HEADER_SIZE + i * SLOT_SIZE;
+                int fileId = old.getInt(p + S_FILE);
+                if (fileId != EMPTY && fileId != DELETED) {
+                    int q = slot(freeSlot(old.getInt(p + S_HASH)));
+                    for (int j = 0; j < SLOT_SIZE; j += 4) {
+                        index.putInt(q + j, old.getInt(p + j));
+                    }
+                    liveSlots++;
+                }
+            }
+        }
+        b.force();
+        Files.move(tmp.toPath(), new File(dir, INDEX_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private DataFile newFile(int id) throws IOException {
+        File f = new File(dir, DATA_PREFIX + id);
+        Files.deleteIfExists(f.toPath());
+        DataFile df = new DataFile(id, f, map(f, fileSize));
+        df.buffer.putLong(0, DATA_MAGIC);
+        files.put(id, df);
+        current = df;
+        return df;
+    }
+
+    private void dropFile(DataFile df) throws IOException {
+        files.remove(df.id);
+        df.buffer.force();
+        Files.deleteIfExists(df.file.toPath());
+    }
+
+    private int slot(int i) {
+        return INDEX_HEADER_SIZE + i * SLOT_SIZE;
+    }
+
+    private byte[] readKey(DataFile df, int pos) {
+        byte[] key = new byte[df.buffer.getInt(pos + R_KEY_LENGTH)];
+        ByteBuffer d = df.buffer.duplicate();
+        d.position(pos + RECORD_HEADER_SIZE);
+        d.get(key);
+        return key;
+    }
+
+    private boolean keyEquals(DataFile df, int pos, byte[] key) {
+        ByteBuffer b = df.buffer;
+        if (b.getInt(pos + R_KEY_LENGTH) != key.length) {
+            return false;
+        }
+        int off = pos + RECORD_HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (b.get(off + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int find(int hash, byte[] key) {
+        int mask = indexCapacity - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int p = slot(i);
+            int fileId = index.getInt(p + S_FILE);
+            if (fileId == EMPTY) {
+                return -1;
+            }
+            if (fileId != DELETED && index.getInt(p + S_HASH) == hash) {
+                DataFile df = files.get(fileId);
+                if (df != null && keyEquals(df, index.getInt(p + S_OFFSET), key)) {
+                    return i;
+                }
+            }
+        }
+    }
+
+    private int freeSlot(int hash) {
+        int mask = indexCapacity - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            int fileId = index.getInt(slot(i) + S_FILE);
+            if (fileId == EMPTY || fileId == DELETED) {
+                return i;
+            }
+        }
+    }
+
+    private void insertSlot(int hash, DataFile df, int offset, int length, long expireTime) {
+        if ((liveSlots + deletedSlots + 1) * 4L > indexCapacity * 3L) {
+            try {
+                createIndex(liveSlots * 2 > indexCapacity / 2 ? indexCapacity * 2 : indexCapacity);
+            } catch (IOException e) {
+                throw new CacheException("can't resize the index of " + dir, e);
+            }
+        }
+        int i = freeSlot(hash);
+        int p = slot(i);
+        if (index.getInt(p + S_FILE) == DELETED) {
+            deletedSlots--;
+        }
+        index.putInt(p + S_HASH, hash);
+        index.putInt(p + S_OFFSET, offset);
+        index.putInt(p + S_LENGTH, length);
+        index.putLong(p + S_EXPIRE, expireTime);
+        index.putInt(p + S_FILE, df.id);
+        liveSlots++;
+        df.liveBytes += length;
+    }
+
+    private void deleteSlot(int i) {
+        int p = slot(i);
+        DataFile df = files.get(index.getInt(p + S_FILE));
+        if (df != null) {
+            df.liveBytes -= index.getInt(p + S_LENGTH);
+        }
+        index.putInt(p + S_FILE, DELETED);
+        liveSlots--;
+        deletedSlots++;
+    }
+
+    /**
+     * @return the position of the record in the current file, or -1 if it is larger than a file
+     */
+    private int append(int hash, byte[] key, byte[] value, long expireTime) throws IOException {
+        int length = align(RECORD_HEADER_SIZE + key.length + (value == null ? 0 : value.length));
+        if (length > fileSize - DATA_HEADER_SIZE) {
+            return -1;
+        }
+        if (current.writePosition + length > fileSize) {
+            if (files.size() >= maxFiles) {
+                // drop the oldest file with its entries, its live records are not copied
+                evict(files.firstEntry().getValue());
+            }
+            newFile(current.id + 1);
+        }
+        DataFile df = current;
+        int pos = df.writePosition;
+        ByteBuffer b = df.buffer;
+        b.putInt(pos + R_HASH, hash);
+        b.putLong(pos + R_EXPIRE, expireTime);
+        b.putInt(pos + R_KEY_LENGTH, key.length);
+        b.putInt(pos + R_VALUE_LENGTH, value == null ? TOMBSTONE : value.length);
+        ByteBuffer d = b.duplicate();
+        d.position(pos + RECORD_HEADER_SIZE);
+        d.put(key);
+        if (value != null) {
+            d.put(value);
+        }
+        // written at last, so a record cut by a crash is not read
+        b.putInt(pos + R_LENGTH, length);
+        df.writePosition = pos + length;
+        return pos;
+    }
+
+    private void evict(DataFile df) throws IOException {
+        int pos = DATA_HEADER_SIZE;
+        while (pos < df.writePosition) {
+            int i = slotOf(df, pos);
+            if (i >= 0) {
+                deleteSlot(i);
+            }
+            pos += df.buffer.getInt(pos + R_LENGTH);
+        }
+        dropFile(df);
+    }
+
+    // the slot which points to the record, or -1
+    private int slotOf(DataFile df, int pos) {
+        if (df.buffer.getInt(pos + R_VALUE_LENGTH) == TOMBSTONE) {
+            return -1;
+        }
+        int i = find(df.buffer.getInt(pos + R_HASH), readKey(df, pos));
+        if (i >= 0) {
+            int p = slot(i);
+            if (index.getInt(p + S_FILE) == df.id && index.getInt(p + S_OFFSET) == pos) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Object getValue(Object key) {
+        byte[] k = OffHeapMap.keyBytes(key);
+        int hash = OffHeapMap.hash(k);
+        byte[] value;
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            int i = find(hash, k);
+            if (i < 0) {
+                return null;
+            }
+            int p = slot(i);
+            if (System.currentTimeMillis() >= index.getLong(p + S_EXPIRE)) {
+                deleteSlot(i);
+                return null;
+            }
+            DataFile df = files.get(index.getInt(p + S_FILE));
+            int pos = index.getInt(p + S_OFFSET);
+            value = new byte[df.buffer.getInt(pos + R_VALUE_LENGTH)];
+            ByteBuffer d = df.buffer.duplicate();
+            d.position(pos + RECORD_HEADER_SIZE + k.length);
+            d.get(value);
+        }
+        return config.getValueDecoder().apply(value);
+    }
+
+    @Override
+    public Map getAllValues(Collection keys) {
+        Map values = new HashMap();
+        for (Object key : keys) {
+            Object v = getValue(key);
+            if (v != null) {
+                values.put(key, v);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void putValue(Object key, Object value) {
+        put(key, (CacheValueHolder) value, false);
+    }
+
+    @Override
+    public void putAllValues(Map map) {
+        for (Object o : map.entrySet()) {
+            Map.Entry en = (Map.Entry) o;
+            put(en.getKey(), (CacheValueHolder) en.getValue(), false);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsentValue(Object key, Object value) {
+        return put(key, (CacheValueHolder) value, true);
+    }
+
+    private boolean put(Object key, CacheValueHolder holder, boolean ifAbsent) {
+        byte[] k = OffHeapMap.keyBytes(key);
+        byte[] v = config.getValueEncoder().apply(holder);
+        int hash = OffHeapMap.hash(k);
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            int i = find(hash, k);
+            if (i >= 0) {
+                if (ifAbsent && System.currentTimeMillis() < index.getLong(slot(i) + S_EXPIRE)) {
+                    return false;
+                }
+                deleteSlot(i);
+            }
+            try {
+                int pos = append(hash, k, v, holder.getExpireTime());
+                if (pos >= 0) {
+                    insertSlot(hash, current, pos, current.writePosition - pos, holder.getExpireTime());
+                } else if (i >= 0) {
+                    append(hash, k, null, 0);
+                }
+            } catch (IOException e) {
+                throw new CacheException("can't write to " + dir, e);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeValue(Object key) {
+        byte[] k = OffHeapMap.keyBytes(key);
+        int hash = OffHeapMap.hash(k);
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            int i = find(hash, k);
+            if (i < 0) {
+                return false;
+            }
+            deleteSlot(i);
+            try {
+                append(hash, k, null, 0);
+            } catch (IOException e) {
+                throw new CacheException("can't write to " + dir, e);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void removeAllValues(Collection keys) {
+        for (Object key : keys) {
+            removeValue(key);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            logger.error("compact {} failed", dir, e);
+        }
+    }
+
+    void compact() {
+        List<DataFile> candidates = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            for (DataFile df : files.values()) {
+                if (df != current && df.liveBytes <= (1 - compactRatio) * (df.writePosition - DATA_HEADER_SIZE)) {
+                    candidates.add(df);
+                }
+            }
+        }
+        for (DataFile df : candidates) {
+            try {
+                compact(df);
+            } catch (IOException e) {
+                throw new CacheException("can't compact " + df.file, e);
+            }
+        }
+    }
+
+    // the lock is taken for each record, so readers and writers are not blocked for the whole file
+    private void compact(DataFile df) throws IOException {
+        int pos = DATA_HEADER_SIZE;
+        while (true) {
+            synchronized (this) {
+                if (closed || files.get(df.id) != df) {
+                    // closed, or dropped by an eviction
+                    return;
+                }
+                if (pos >= df.writePosition) {
+                    dropFile(df);
+                    return;
+                }
+                int length = df.buffer.getInt(pos + R_LENGTH);
+                if (df.buffer.getInt(pos + R_VALUE_LENGTH) == TOMBSTONE) {
+                    copyTombstone(df, pos);
+                    pos += length;
+                    continue;
+                }
+                int i = slotOf(df, pos);
+                if (i >= 0) {
+                    int p = slot(i);
+                    long expireTime = index.getLong(p + S_EXPIRE);
+                    deleteSlot(i);
+                    if (System.currentTimeMillis() < expireTime) {
+                        copy(df, pos, length, expireTime);
+                    }
+                }
+                pos += length;
+            }
+        }
+    }
+
+    /**
+     * A tombstone is still needed while an older file may have a put record of the key, or the record would come
+     * back when the index is rebuilt from the data files.
+     */
+    private void copyTombstone(DataFile df, int pos) throws IOException {
+        if (files.firstKey() >= df.id) {
+            return;
+        }
+        int hash = df.buffer.getInt(pos + R_HASH);
+        byte[] key = readKey(df, pos);
+        if (find(hash, key) >= 0) {
+            // put again later, the newer record wins in a rebuild anyway
+            return;
+        }
+        append(hash, key, null, 0);
+    }
+
+    private void copy(DataFile df, int pos, int length, long expireTime) throws IOException {
+        ByteBuffer b = df.buffer;
+        int hash = b.getInt(pos + R_HASH);
+        byte[] key = readKey(df, pos);
+        byte[] value = new byte[b.getInt(pos + R_VALUE_LENGTH)];
+        ByteBuffer d = b.duplicate();
+        d.position(pos + RECORD_HEADER_SIZE + key.length);
+        d.get(value);
+        int newPos = append(hash, key, value, expireTime);
+        if (files.get(df.id) == df) {
+            insertSlot(hash, current, newPos, length, expireTime);
+        }
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (compactFuture != null) {
+            compactFuture.cancel(false);
+        }
+        for (DataFile df : files.values()) {
+            df.buffer.force();
+        }
+        index.force();
+        try {
+            lock.release();
+            lockFile.close();
+        } catch (IOException e) {
+            logger.warn("can't release the lock of {}", dir, e);
+        }
+    }
+
+    // for tests
+    synchronized int fileCount() {
+        return files.size();
+    }
+}
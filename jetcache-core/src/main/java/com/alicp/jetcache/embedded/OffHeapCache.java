@@ -0,0 +1,40 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * An embedded cache which keeps the entries in direct memory, out of the reach of the garbage collector.
+ * Values are encoded by the value encoder of the config and decoded on each GET, keys are converted to bytes as
+ * remote caches do, so they must be strings, numbers, dates, booleans, byte arrays or serializable.
+ * <p>
+ * The size is bounded by {@link OffHeapCacheConfig#getCapacity()} in bytes, the limit of entry count is not used.
+ * It can be used as a level between the heap cache and the remote cache of a
+ * {@link com.alicp.jetcache.MultiLevelCache}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class OffHeapCache<K, V> extends AbstractEmbeddedCache<K, V> {
+
+    public OffHeapCache(OffHeapCacheConfig<K, V> config) {
+        super(config);
+    }
+
+    @Override
+    protected InnerMap createAreaCache() {
+        return new OffHeapMap((OffHeapCacheConfig) config);
+    }
+
+    public OffHeapMemoryUsage memoryUsage() {
+        return ((OffHeapMap) innerMap).memoryUsage();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> clazz) {
+        throw new IllegalArgumentException(clazz.getName());
+    }
+
+    @Override
+    public void close() {
+        ((OffHeapMap) innerMap).clear();
+    }
+}
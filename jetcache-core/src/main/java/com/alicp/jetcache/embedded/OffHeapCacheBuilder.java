@@ -0,0 +1,74 @@
+package com.alicp.jetcache.embedded;
+
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class OffHeapCacheBuilder<T extends EmbeddedCacheBuilder<T>> extends EmbeddedCacheBuilder<T> {
+    public static class OffHeapCacheBuilderImpl extends OffHeapCacheBuilder<OffHeapCacheBuilderImpl> {
+    }
+
+    public static OffHeapCacheBuilderImpl createOffHeapCacheBuilder() {
+        return new OffHeapCacheBuilderImpl();
+    }
+
+    protected OffHeapCacheBuilder() {
+        buildFunc((c) -> new OffHeapCache((OffHeapCacheConfig) c));
+    }
+
+    @Override
+    public OffHeapCacheConfig getConfig() {
+        if (config == null) {
+            config = new OffHeapCacheConfig();
+        }
+        return (OffHeapCacheConfig) config;
+    }
+
+    public T capacity(long capacityInBytes) {
+        getConfig().setCapacity(capacityInBytes);
+        return self();
+    }
+
+    public void setCapacity(long capacityInBytes) {
+        getConfig().setCapacity(capacityInBytes);
+    }
+
+    public T pageSize(int pageSize) {
+        getConfig().setPageSize(pageSize);
+        return self();
+    }
+
+    public void setPageSize(int pageSize) {
+        getConfig().setPageSize(pageSize);
+    }
+
+    public T concurrencyLevel(int concurrencyLevel) {
+        getConfig().setConcurrencyLevel(concurrencyLevel);
+        return self();
+    }
+
+    public void setConcurrencyLevel(int concurrencyLevel) {
+        getConfig().setConcurrencyLevel(concurrencyLevel);
+    }
+
+    public T valueEncoder(Function<Object, byte[]> valueEncoder) {
+        getConfig().setValueEncoder(valueEncoder);
+        return self();
+    }
+
+    public void setValueEncoder(Function<Object, byte[]> valueEncoder) {
+        getConfig().setValueEncoder(valueEncoder);
+    }
+
+    public T valueDecoder(Function<byte[], Object> valueDecoder) {
+        getConfig().setValueDecoder(valueDecoder);
+        return self();
+    }
+
+    public void setValueDecoder(Function<byte[], Object> valueDecoder) {
+        getConfig().setValueDecoder(valueDecoder);
+    }
+}
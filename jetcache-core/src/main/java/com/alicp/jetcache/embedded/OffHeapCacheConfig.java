@@ -0,0 +1,68 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.support.DecoderMap;
+import com.alicp.jetcache.support.JavaValueEncoder;
+
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class OffHeapCacheConfig<K, V> extends EmbeddedCacheConfig<K, V> {
+
+    public static final long DEFAULT_CAPACITY = 64 * 1024 * 1024;
+    public static final int DEFAULT_PAGE_SIZE = 64 * 1024;
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    private long capacity = DEFAULT_CAPACITY;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private Function<Object, byte[]> valueEncoder = JavaValueEncoder.INSTANCE;
+    private Function<byte[], Object> valueDecoder = DecoderMap.defaultJavaValueDecoder();
+
+    public OffHeapCacheConfig() {
+        setConcurrencyLevel(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Max bytes of direct memory used by entries, the index is not included. The limit of entry count is not used.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Direct memory is allocated in pages of this size, each page is cut into chunks of one size class.
+     * An entry larger than a page is not cached. Pages move between size classes, but a page is evicted as a whole
+     * when it moves, so there should be more pages than size classes (about 30 for the default page size) in each
+     * segment, the segment count is reduced to keep it if possible.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Function<Object, byte[]> getValueEncoder() {
+        return valueEncoder;
+    }
+
+    public void setValueEncoder(Function<Object, byte[]> valueEncoder) {
+        this.valueEncoder = valueEncoder;
+    }
+
+    public Function<byte[], Object> getValueDecoder() {
+        return valueDecoder;
+    }
+
+    public void setValueDecoder(Function<byte[], Object> valueDecoder) {
+        this.valueDecoder = valueDecoder;
+    }
+}
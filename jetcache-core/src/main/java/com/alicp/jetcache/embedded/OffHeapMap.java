@@ -0,0 +1,593 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.CacheException;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.external.ExternalKeyUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The store of {@link OffHeapCache}, keys and encoded values live in direct memory.
+ * <p>
+ * Memory is allocated in pages which are cut into chunks of one size class, the chunk sizes grow by 1.25 from 64
+ * bytes to the page size. An entry takes the smallest chunk it fits in, freed chunks go back to the free list of
+ * their class. When a class has no free chunk and no more page can be allocated, a page is moved to it from the
+ * coldest class (the class whose least recently used entry is the oldest), all entries in that page are evicted.
+ * If its own least recently used entry is the oldest, or other classes have one page only, the class evicts that
+ * entry instead. A class without any page always gets one, so entries of every size can be cached.
+ * <p>
+ * The hash index is an off-heap array of chunk addresses, entries of a bucket are chained by the next field in
+ * the header of the chunk. Each segment has its own pages, index and lock.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+final class OffHeapMap implements InnerMap {
+
+    // header of a chunk, followed by the key bytes and the value bytes
+    private static final int CLASS_OFFSET = 0;
+    private static final int HASH_OFFSET = 4;
+    private static final int EXPIRE_OFFSET = 8;
+    private static final int ACCESS_OFFSET = 16;
+    private static final int NEXT_OFFSET = 24;
+    private static final int LRU_PREV_OFFSET = 32;
+    private static final int LRU_NEXT_OFFSET = 40;
+    private static final int KEY_LENGTH_OFFSET = 48;
+    private static final int VALUE_LENGTH_OFFSET = 52;
+    static final int HEADER_SIZE = 56;
+
+    // the class field of a free chunk
+    private static final int FREE = -1;
+
+    private static final int MIN_CHUNK_SIZE = 64;
+    private static final float GROWTH_FACTOR = 1.25f;
+    private static final int INITIAL_BUCKETS = 1024;
+    private static final int MAX_BUCKETS = 1 << 28;
+    private static final int MAX_SEGMENTS = 256;
+
+    private final long capacity;
+    private final int pageSize;
+    private final int[] chunkSizes;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final Function<Object, byte[]> valueEncoder;
+    private final Function<byte[], Object> valueDecoder;
+
+    private static final class Hit {
+        final byte[] value;
+        final long accessTime;
+
+        Hit(byte[] value, long accessTime) {
+            this.value = value;
+            this.accessTime = accessTime;
+        }
+    }
+
+    OffHeapMap(OffHeapCacheConfig<?, ?> config) {
+        this.capacity = config.getCapacity();
+        this.pageSize = config.getPageSize();
+        if (pageSize < 1024) {
+            throw new CacheConfigException("pageSize must be at least 1024: " + pageSize);
+        }
+        if (capacity < pageSize) {
+            throw new CacheConfigException("capacity must be at least pageSize: " + capacity);
+        }
+        this.valueEncoder = config.getValueEncoder();
+        this.valueDecoder = config.getValueDecoder();
+
+        List<Integer> sizes = new ArrayList<>();
+        int size = MIN_CHUNK_SIZE;
+        while (size < pageSize) {
+            sizes.add(size);
+            size = (Math.max(size + 8, (int) (size * GROWTH_FACTOR)) + 7) & ~7;
+        }
+        sizes.add(pageSize);
+        this.chunkSizes = sizes.stream().mapToInt(Integer::intValue).toArray();
+
+        // every segment has a page for each class if possible, at least one page
+        long maxSegments = Math.min(MAX_SEGMENTS, Math.min(capacity / pageSize / chunkSizes.length,
+                Math.max(1, config.getConcurrencyLevel())));
+        maxSegments = Math.max(1, maxSegments);
+        int n = 1;
+        while (n * 2 <= maxSegments) {
+            n <<= 1;
+        }
+        this.segments = new Segment[n];
+        int maxPages = (int) Math.min(Integer.MAX_VALUE - 1, capacity / n / pageSize);
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment(maxPages);
+        }
+        this.segmentMask = n - 1;
+    }
+
+    static byte[] keyBytes(Object key) {
+        try {
+            return ExternalKeyUtil.buildKeyAfterConvert(key, "");
+        } catch (IOException e) {
+            throw new CacheException(e);
+        }
+    }
+
+    static int hash(byte[] key) {
+        int h = Arrays.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Segment segmentFor(int hash) {
+        // the index of buckets uses the low bits
+        return segments[(hash >>> 24) & segmentMask];
+    }
+
+    private int classFor(int size) {
+        int i = Arrays.binarySearch(chunkSizes, size);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i < chunkSizes.length ? i : -1;
+    }
+
+    @Override
+    public Object getValue(Object key) {
+        byte[] k = keyBytes(key);
+        int hash = hash(k);
+        Segment segment = segmentFor(hash);
+        Hit hit;
+        synchronized (segment) {
+            hit = segment.get(k, hash, System.currentTimeMillis());
+        }
+        if (hit == null) {
+            return null;
+        }
+        CacheValueHolder holder = (CacheValueHolder) valueDecoder.apply(hit.value);
+        holder.setAccessTime(hit.accessTime);
+        return holder;
+    }
+
+    @Override
+    public Map getAllValues(Collection keys) {
+        Map values = new HashMap();
+        for (Object key : keys) {
+            Object v = getValue(key);
+            if (v != null) {
+                values.put(key, v);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void putValue(Object key, Object value) {
+        put(key, (CacheValueHolder) value, false);
+    }
+
+    @Override
+    public void putAllValues(Map map) {
+        for (Object o : map.entrySet()) {
+            Map.Entry en = (Map.Entry) o;
+            put(en.getKey(), (CacheValueHolder) en.getValue(), false);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsentValue(Object key, Object value) {
+        return put(key, (CacheValueHolder) value, true);
+    }
+
+    private boolean put(Object key, CacheValueHolder holder, boolean ifAbsent) {
+        byte[] k = keyBytes(key);
+        byte[] v = valueEncoder.apply(holder);
+        int hash = hash(k);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            return segment.put(k, hash, v, holder.getExpireTime(), holder.getAccessTime(), ifAbsent,
+                    System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public boolean removeValue(Object key) {
+        byte[] k = keyBytes(key);
+        int hash = hash(k);
+        Segment segment = segmentFor(hash);
+        synchronized (segment) {
+            return segment.remove(k, hash);
+        }
+    }
+
+    @Override
+    public void removeAllValues(Collection keys) {
+        for (Object key : keys) {
+            removeValue(key);
+        }
+    }
+
+    /**
+     * Drop all entries and pages, the direct memory is freed when the buffers are collected.
+     */
+    void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    OffHeapMemoryUsage memoryUsage() {
+        long allocated = 0, index = 0, used = 0, payload = 0, count = 0, evictions = 0, expirations = 0,
+                rejections = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                allocated += (long) s.pageCount * pageSize;
+                index += (long) (s.bucketMask + 1) * 8;
+                used += s.usedBytes;
+                payload += s.payloadBytes;
+                count += s.count;
+                evictions += s.evictions;
+                expirations += s.expirations;
+                rejections += s.rejections;
+            }
+        }
+        return new OffHeapMemoryUsage(capacity, allocated, index, used, payload, count, evictions, expirations,
+                rejections);
+    }
+
+    /**
+     * Not thread safe, guarded by the monitor of the segment.
+     */
+    private final class Segment {
+        private final ByteBuffer[] pages;
+        private final int[] pageClasses;
+        private int pageCount;
+        private final int[] classPageCounts = new int[chunkSizes.length];
+        private final long[] freeLists = new long[chunkSizes.length];
+        // most recently used first
+        private final long[] lruHeads = new long[chunkSizes.length];
+        private final long[] lruTails = new long[chunkSizes.length];
+        private ByteBuffer index;
+        private int bucketMask;
+
+        private int count;
+        private long usedBytes;
+        private long payloadBytes;
+        private long evictions;
+        private long expirations;
+        private long rejections;
+
+        Segment(int maxPages) {
+            this.pages = new ByteBuffer[maxPages];
+            this.pageClasses = new int[maxPages];
+            initIndex();
+        }
+
+        private void initIndex() {
+            index = ByteBuffer.allocateDirect(INITIAL_BUCKETS * 8).order(ByteOrder.nativeOrder());
+            bucketMask = INITIAL_BUCKETS - 1;
+        }
+
+        // an address is the page number (from 1) in the high 32 bits and the offset in the low 32 bits, 0 is null
+        private ByteBuffer page(long addr) {
+            return pages[(int) (addr >>> 32) - 1];
+        }
+
+        private long getLong(long addr, int field) {
+            return page(addr).getLong((int) addr + field);
+        }
+
+        private void putLong(long addr, int field, long value) {
+            page(addr).putLong((int) addr + field, value);
+        }
+
+        private int getInt(long addr, int field) {
+            return page(addr).getInt((int) addr + field);
+        }
+
+        private long find(byte[] key, int hash) {
+            long addr = index.getLong((hash & bucketMask) << 3);
+            while (addr != 0) {
+                if (getInt(addr, HASH_OFFSET) == hash && keyEquals(addr, key)) {
+                    return addr;
+                }
+                addr = getLong(addr, NEXT_OFFSET);
+            }
+            return 0;
+        }
+
+        private boolean keyEquals(long addr, byte[] key) {
+            ByteBuffer p = page(addr);
+            int off = (int) addr;
+            if (p.getInt(off + KEY_LENGTH_OFFSET) != key.length) {
+                return false;
+            }
+            off += HEADER_SIZE;
+            for (int i = 0; i < key.length; i++) {
+                if (p.get(off + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Hit get(byte[] key, int hash, long now) {
+            long addr = find(key, hash);
+            if (addr == 0) {
+                return null;
+            }
+            ByteBuffer p = page(addr);
+            int off = (int) addr;
+            if (now >= p.getLong(off + EXPIRE_OFFSET)) {
+                expirations++;
+                removeEntry(addr);
+                return null;
+            }
+            long accessTime = p.getLong(off + ACCESS_OFFSET);
+            p.putLong(off + ACCESS_OFFSET, now);
+            touch(addr, p.getInt(off + CLASS_OFFSET));
+
+            byte[] value = new byte[p.getInt(off + VALUE_LENGTH_OFFSET)];
+            ByteBuffer d = p.duplicate();
+            d.position(off + HEADER_SIZE + p.getInt(off + KEY_LENGTH_OFFSET));
+            d.get(value);
+            return new Hit(value, accessTime);
+        }
+
+        boolean put(byte[] key, int hash, byte[] value, long expireTime, long accessTime, boolean ifAbsent, long now) {
+            long old = find(key, hash);
+            if (old != 0) {
+                if (ifAbsent && now < getLong(old, EXPIRE_OFFSET)) {
+                    return false;
+                }
+                removeEntry(old);
+            }
+            int size = HEADER_SIZE + key.length + value.length;
+            int cls = classFor(size);
+            long addr = cls < 0 ? 0 : allocate(cls);
+            if (addr == 0) {
+                // not cached, as if it is evicted at once
+                rejections++;
+                return true;
+            }
+            ByteBuffer p = page(addr);
+            int off = (int) addr;
+            p.putInt(off + CLASS_OFFSET, cls);
+            p.putInt(off + HASH_OFFSET, hash);
+            p.putLong(off + EXPIRE_OFFSET, expireTime);
+            p.putLong(off + ACCESS_OFFSET, accessTime);
+            p.putInt(off + KEY_LENGTH_OFFSET, key.length);
+            p.putInt(off + VALUE_LENGTH_OFFSET, value.length);
+            ByteBuffer d = p.duplicate();
+            d.position(off + HEADER_SIZE);
+            d.put(key);
+            d.put(value);
+
+            int bucket = (hash & bucketMask) << 3;
+            p.putLong(off + NEXT_OFFSET, index.getLong(bucket));
+            index.putLong(bucket, addr);
+            linkFirst(addr, cls);
+            count++;
+            usedBytes += chunkSizes[cls];
+            payloadBytes += size;
+            if (count > (bucketMask + 1) / 4 * 3 && bucketMask + 1 < MAX_BUCKETS) {
+                resize();
+            }
+            return true;
+        }
+
+        boolean remove(byte[] key, int hash) {
+            long addr = find(key, hash);
+            if (addr == 0) {
+                return false;
+            }
+            removeEntry(addr);
+            return true;
+        }
+
+        private void removeEntry(long addr) {
+            int bucket = (getInt(addr, HASH_OFFSET) & bucketMask) << 3;
+            long next = getLong(addr, NEXT_OFFSET);
+            long cur = index.getLong(bucket);
+            if (cur == addr) {
+                index.putLong(bucket, next);
+            } else {
+                while (cur != 0) {
+                    long n = getLong(cur, NEXT_OFFSET);
+                    if (n == addr) {
+                        putLong(cur, NEXT_OFFSET, next);
+                        break;
+                    }
+                    cur = n;
+                }
+            }
+            int cls = getInt(addr, CLASS_OFFSET);
+            unlink(addr, cls);
+            count--;
+            usedBytes -= chunkSizes[cls];
+            payloadBytes -= HEADER_SIZE + getInt(addr, KEY_LENGTH_OFFSET) + getInt(addr, VALUE_LENGTH_OFFSET);
+            page(addr).putInt((int) addr + CLASS_OFFSET, FREE);
+            putLong(addr, NEXT_OFFSET, freeLists[cls]);
+            freeLists[cls] = addr;
+        }
+
+        private long allocate(int cls) {
+            if (freeLists[cls] == 0) {
+                int victim;
+                if (pageCount < pages.length) {
+                    pages[pageCount++] = ByteBuffer.allocateDirect(pageSize).order(ByteOrder.nativeOrder());
+                    assignPage(pageCount - 1, cls);
+                } else if ((victim = coldestClass(cls)) >= 0) {
+                    movePage(victim, cls);
+                } else if (lruTails[cls] != 0) {
+                    evictions++;
+                    removeEntry(lruTails[cls]);
+                } else {
+                    return 0;
+                }
+            }
+            long addr = freeLists[cls];
+            freeLists[cls] = getLong(addr, NEXT_OFFSET);
+            return addr;
+        }
+
+        /**
+         * @return the class which should give a page to cls, or -1 if cls should evict its own entry
+         */
+        private int coldestClass(int cls) {
+            // keep the last page of a class, unless cls has no page at all
+            int minPages = classPageCounts[cls] > 0 ? 2 : 1;
+            long oldest = lruTails[cls] == 0 ? Long.MAX_VALUE : getLong(lruTails[cls], ACCESS_OFFSET);
+            int victim = -1;
+            for (int c = 0; c < chunkSizes.length; c++) {
+                if (c == cls || classPageCounts[c] < minPages) {
+                    continue;
+                }
+                if (lruTails[c] == 0) {
+                    // pages without entries
+                    return c;
+                }
+                long accessTime = getLong(lruTails[c], ACCESS_OFFSET);
+                if (accessTime < oldest) {
+                    oldest = accessTime;
+                    victim = c;
+                }
+            }
+            return victim;
+        }
+
+        /**
+         * Move the page of the least recently used entry of class from to class to, entries in it are evicted.
+         */
+        private void movePage(int from, int to) {
+            int pageIndex = -1;
+            if (lruTails[from] != 0) {
+                pageIndex = (int) (lruTails[from] >>> 32) - 1;
+            } else {
+                for (int i = 0; i < pageCount; i++) {
+                    if (pageClasses[i] == from) {
+                        pageIndex = i;
+                        break;
+                    }
+                }
+            }
+            ByteBuffer p = pages[pageIndex];
+            long pageBits = ((long) pageIndex + 1) << 32;
+            int chunkSize = chunkSizes[from];
+            for (int off = 0; off + chunkSize <= pageSize; off += chunkSize) {
+                if (p.getInt(off + CLASS_OFFSET) != FREE) {
+                    evictions++;
+                    removeEntry(pageBits | off);
+                }
+            }
+            // all chunks of the page are free now, drop them from the free list
+            long prev = 0;
+            long addr = freeLists[from];
+            while (addr != 0) {
+                long next = getLong(addr, NEXT_OFFSET);
+                if ((addr >>> 32) == pageIndex + 1) {
+                    if (prev == 0) {
+                        freeLists[from] = next;
+                    } else {
+                        putLong(prev, NEXT_OFFSET, next);
+                    }
+                } else {
+                    prev = addr;
+                }
+                addr = next;
+            }
+            classPageCounts[from]--;
+            assignPage(pageIndex, to);
+        }
+
+        private void assignPage(int pageIndex, int cls) {
+            ByteBuffer p = pages[pageIndex];
+            pageClasses[pageIndex] = cls;
+            classPageCounts[cls]++;
+            long pageBits = ((long) pageIndex + 1) << 32;
+            int chunkSize = chunkSizes[cls];
+            for (int off = pageSize / chunkSize * chunkSize - chunkSize; off >= 0; off -= chunkSize) {
+                p.putInt(off + CLASS_OFFSET, FREE);
+                p.putLong(off + NEXT_OFFSET, freeLists[cls]);
+                freeLists[cls] = pageBits | off;
+            }
+        }
+
+        private void linkFirst(long addr, int cls) {
+            long head = lruHeads[cls];
+            putLong(addr, LRU_PREV_OFFSET, 0);
+            putLong(addr, LRU_NEXT_OFFSET, head);
+            if (head != 0) {
+                putLong(head, LRU_PREV_OFFSET, addr);
+            } else {
+                lruTails[cls] = addr;
+            }
+            lruHeads[cls] = addr;
+        }
+
+        private void unlink(long addr, int cls) {
+            long prev = getLong(addr, LRU_PREV_OFFSET);
+            long next = getLong(addr, LRU_NEXT_OFFSET);
+            if (prev != 0) {
+                putLong(prev, LRU_NEXT_OFFSET, next);
+            } else {
+                lruHeads[cls] = next;
+            }
+            if (next != 0) {
+                putLong(next, LRU_PREV_OFFSET, prev);
+            } else {
+                lruTails[cls] = prev;
+            }
+        }
+
+        private void touch(long addr, int cls) {
+            if (lruHeads[cls] != addr) {
+                unlink(addr, cls);
+                linkFirst(addr, cls);
+            }
+        }
+
+        private void resize() {
+            int n = (bucketMask + 1) << 1;
+            int newMask = n - 1;
+            ByteBuffer newIndex = ByteBuffer.allocateDirect(n * 8).order(ByteOrder.nativeOrder());
+            for (int i = 0; i <= bucketMask; i++) {
+                long addr = index.getLong(i << 3);
+                while (addr != 0) {
+                    long next = getLong(addr, NEXT_OFFSET);
+                    int bucket = (getInt(addr, HASH_OFFSET) & newMask) << 3;
+                    putLong(addr, NEXT_OFFSET, newIndex.getLong(bucket));
+                    newIndex.putLong(bucket, addr);
+                    addr = next;
+                }
+            }
+            index = newIndex;
+            bucketMask = newMask;
+        }
+
+        void clear() {
+            Arrays.fill(pages, null);
+            pageCount = 0;
+            Arrays.fill(classPageCounts, 0);
+            Arrays.fill(freeLists, 0);
+            Arrays.fill(lruHeads, 0);
+            Arrays.fill(lruTails, 0);
+            initIndex();
+            count = 0;
+            usedBytes = 0;
+            payloadBytes = 0;
+        }
+    }
+}
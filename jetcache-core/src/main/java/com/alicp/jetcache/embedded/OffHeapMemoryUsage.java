@@ -0,0 +1,106 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * A snapshot of the direct memory used by an {@link OffHeapCache}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class OffHeapMemoryUsage {
+    private final long capacity;
+    private final long allocatedBytes;
+    private final long indexBytes;
+    private final long usedBytes;
+    private final long payloadBytes;
+    private final long entryCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long rejectionCount;
+
+    public OffHeapMemoryUsage(long capacity, long allocatedBytes, long indexBytes, long usedBytes, long payloadBytes,
+                              long entryCount, long evictionCount, long expirationCount, long rejectionCount) {
+        this.capacity = capacity;
+        this.allocatedBytes = allocatedBytes;
+        this.indexBytes = indexBytes;
+        this.usedBytes = usedBytes;
+        this.payloadBytes = payloadBytes;
+        this.entryCount = entryCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.rejectionCount = rejectionCount;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Bytes of the pages allocated.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Bytes of the hash index, not counted in the capacity.
+     */
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    /**
+     * Bytes of the chunks which hold entries.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Bytes of the entries themselves, header included.
+     */
+    public long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    /**
+     * Bytes of the free chunks in allocated pages.
+     */
+    public long getFreeBytes() {
+        return allocatedBytes - usedBytes;
+    }
+
+    /**
+     * The part of the used chunks wasted because an entry is smaller than its chunk.
+     */
+    public double getFragmentation() {
+        return usedBytes == 0 ? 0 : 1 - (double) payloadBytes / usedBytes;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Count of entries not cached, because they are larger than a page or their size class has no chunk to evict.
+     */
+    public long getRejectionCount() {
+        return rejectionCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OffHeapMemoryUsage[capacity=%d, allocated=%d, index=%d, used=%d, payload=%d, " +
+                        "fragmentation=%.3f, entries=%d, evictions=%d, expirations=%d, rejections=%d]",
+                capacity, allocatedBytes, indexBytes, usedBytes, payloadBytes, getFragmentation(), entryCount,
+                evictionCount, expirationCount, rejectionCount);
+    }
+}
@@ -0,0 +1,156 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.CacheValueHolder;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel which indexes the entries of {@link LinkedHashMapCache} by expire time.
+ * <p>
+ * Level i has 64 buckets of 2^SHIFTS[i] milliseconds (about 1 second, 1 minute, 1 hour and 3 days), an entry is
+ * linked in the finest level whose range covers its remaining time. When the time advances the buckets passed
+ * are emptied, expired entries are removed and the others are linked again in a finer level. So the work of
+ * expiration is proportional to the expiring entries, every entry moves at most once per level.
+ * <p>
+ * Not thread safe, guarded by the lock of the cache.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+final class TimerWheel {
+
+    private static final int[] SHIFTS = {10, 16, 22, 28};
+    private static final int BUCKETS = 64;
+    private static final int MASK = BUCKETS - 1;
+
+    /**
+     * The value of the map, a node of the doubly linked list of a bucket.
+     */
+    static final class Node {
+        final Object key;
+        final CacheValueHolder<?> holder;
+        // weight of the entry in the map
+        int weight;
+        Node prev;
+        Node next;
+        // links and queue of the W-TinyLFU policy, unused by LRU
+        Node accessPrev;
+        Node accessNext;
+        byte queue;
+
+        Node(Object key, CacheValueHolder<?> holder) {
+            this.key = key;
+            this.holder = holder;
+        }
+    }
+
+    // sentinels of buckets
+    private final Node[][] wheel;
+    private long time;
+    private int size;
+
+    TimerWheel(long now) {
+        this.time = now;
+        this.wheel = new Node[SHIFTS.length][BUCKETS];
+        for (Node[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Node sentinel = new Node(null, null);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    void schedule(Node node) {
+        Node sentinel = findBucket(node.holder.getExpireTime());
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+        size++;
+    }
+
+    void remove(Node node) {
+        if (node.next != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+    }
+
+    private Node findBucket(long expireTime) {
+        // an entry already expired goes to the current bucket
+        long t = Math.max(expireTime, time);
+        long duration = t - time;
+        int last = SHIFTS.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (duration < (1L << SHIFTS[i + 1])) {
+                return wheel[i][(int) ((t >>> SHIFTS[i]) & MASK)];
+            }
+        }
+        // beyond the range of the wheel, it will be linked again when the bucket is reached
+        return wheel[last][(int) ((t >>> SHIFTS[last]) & MASK)];
+    }
+
+    /**
+     * Advance the time and empty the buckets passed. Cheap if the time doesn't reach the next bucket.
+     *
+     * @param expired called with each expired node, which is already unlinked
+     */
+    void advance(long now, Consumer<Node> expired) {
+        long previous = time;
+        if (now <= previous) {
+            return;
+        }
+        time = now;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            long previousTicks = previous >>> SHIFTS[i];
+            long currentTicks = now >>> SHIFTS[i];
+            if (currentTicks == previousTicks) {
+                break;
+            }
+            // the previous bucket may have entries linked after it was emptied, and the current bucket of a
+            // coarse level has entries which should go down now
+            int steps = (int) Math.min(currentTicks - previousTicks + 1, BUCKETS);
+            int start = (int) (previousTicks & MASK);
+            for (int j = start; j < start + steps; j++) {
+                expireBucket(wheel[i][j & MASK], now, expired);
+            }
+        }
+    }
+
+    /**
+     * Advance the time and also remove the expired entries of the current finest bucket, which the wheel doesn't
+     * reach until the next second.
+     */
+    void expireNow(long now, Consumer<Node> expired) {
+        advance(now, expired);
+        expireBucket(wheel[0][(int) ((time >>> SHIFTS[0]) & MASK)], time, expired);
+    }
+
+    private void expireBucket(Node sentinel, long now, Consumer<Node> expired) {
+        Node node = sentinel.next;
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        while (node != sentinel) {
+            Node next = node.next;
+            node.prev = null;
+            node.next = null;
+            size--;
+            if (now >= node.holder.getExpireTime()) {
+                expired.accept(node);
+            } else {
+                schedule(node);
+            }
+            node = next;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,19 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * Calculates the weight of an entry of an embedded cache, usually its size in bytes.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ * @see Weighers
+ */
+@FunctionalInterface
+public interface Weigher {
+    /**
+     * @param key the key converted by the key convertor
+     * @param value the value of the entry, may be null if null values are cached
+     * @return the weight of the entry, not negative
+     */
+    int weigh(Object key, Object value);
+}
@@ -0,0 +1,199 @@
+package com.alicp.jetcache.embedded;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Built-in weighers which estimate the heap size of an entry in bytes.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class Weighers {
+
+    /**
+     * Estimated bytes of the map entry, the node and the value holder of an entry.
+     */
+    public static final int ENTRY_OVERHEAD = 96;
+
+    private static final Weigher SAMPLED = new SampledSizeWeigher();
+
+    /**
+     * Weigh the value by the length of its encoded bytes, cheap if the encoder is fast and close to the real size
+     * for values of strings and primitives.
+     */
+    public static Weigher encodedSize(Function<Object, byte[]> valueEncoder) {
+        return (key, value) -> saturatedAdd(ENTRY_OVERHEAD + SizeEstimator.sizeOf(key),
+                value == null ? 0 : valueEncoder.apply(value).length);
+    }
+
+    /**
+     * Weigh the value by its deep size estimated by reflection. Strings and arrays of primitives are measured
+     * every time, the size of other classes is measured for the first values of each class and then once in a
+     * while, the average is used for the others.
+     */
+    public static Weigher sampledSize() {
+        return SAMPLED;
+    }
+
+    private static int saturatedAdd(long a, long b) {
+        return (int) Math.min(Integer.MAX_VALUE, a + b);
+    }
+
+    private static class SampledSizeWeigher implements Weigher {
+        private static final int SAMPLES = 16;
+        private static final int RESAMPLE_INTERVAL = 1024;
+
+        private final ConcurrentHashMap<Class<?>, Sample> samples = new ConcurrentHashMap<>();
+
+        private static class Sample {
+            final AtomicLong count = new AtomicLong();
+            // racy updates only make the average a little less accurate
+            volatile long total;
+            volatile int measured;
+        }
+
+        @Override
+        public int weigh(Object key, Object value) {
+            long size = ENTRY_OVERHEAD + SizeEstimator.sizeOf(key);
+            if (value == null) {
+                return saturatedAdd(size, 0);
+            }
+            Class<?> clazz = value.getClass();
+            if (value instanceof String || (clazz.isArray() && clazz.getComponentType().isPrimitive())) {
+                return saturatedAdd(size, SizeEstimator.sizeOf(value));
+            }
+            Sample sample = samples.computeIfAbsent(clazz, c -> new Sample());
+            long n = sample.count.getAndIncrement();
+            if (n < SAMPLES || n % RESAMPLE_INTERVAL == 0) {
+                long s = SizeEstimator.sizeOf(value);
+                sample.total += s;
+                sample.measured++;
+                return saturatedAdd(size, s);
+            }
+            return saturatedAdd(size, sample.total / Math.max(1, sample.measured));
+        }
+    }
+
+    /**
+     * Estimates the deep size of an object graph, assuming a 64-bit JVM with compressed references.
+     */
+    static class SizeEstimator {
+        private static final int HEADER = 12;
+        private static final int ARRAY_HEADER = 16;
+        private static final int REFERENCE = 4;
+        private static final int MAX_OBJECTS = 100000;
+
+        private static final ConcurrentHashMap<Class<?>, ClassInfo> classInfos = new ConcurrentHashMap<>();
+
+        private static class ClassInfo {
+            final long shallowSize;
+            final Field[] referenceFields;
+
+            ClassInfo(long shallowSize, Field[] referenceFields) {
+                this.shallowSize = shallowSize;
+                this.referenceFields = referenceFields;
+            }
+        }
+
+        static long sizeOf(Object root) {
+            if (root == null) {
+                return 0;
+            }
+            if (root instanceof String) {
+                // the String and its char[]
+                return align(HEADER + 8) + align(ARRAY_HEADER + 2L * ((String) root).length());
+            }
+            IdentityHashMap<Object, Boolean> visited = new IdentityHashMap<>();
+            ArrayDeque<Object> stack = new ArrayDeque<>();
+            stack.push(root);
+            long size = 0;
+            while (!stack.isEmpty() && visited.size() < MAX_OBJECTS) {
+                Object o = stack.pop();
+                if (visited.put(o, Boolean.TRUE) != null) {
+                    continue;
+                }
+                Class<?> clazz = o.getClass();
+                if (clazz.isArray()) {
+                    int length = Array.getLength(o);
+                    Class<?> component = clazz.getComponentType();
+                    if (component.isPrimitive()) {
+                        size += align(ARRAY_HEADER + (long) length * primitiveSize(component));
+                    } else {
+                        size += align(ARRAY_HEADER + (long) length * REFERENCE);
+                        for (Object e : (Object[]) o) {
+                            push(stack, e);
+                        }
+                    }
+                } else {
+                    ClassInfo info = classInfos.computeIfAbsent(clazz, SizeEstimator::classInfo);
+                    size += info.shallowSize;
+                    for (Field f : info.referenceFields) {
+                        try {
+                            push(stack, f.get(o));
+                        } catch (IllegalAccessException e) {
+                            // not counted
+                        }
+                    }
+                }
+            }
+            return size;
+        }
+
+        private static void push(ArrayDeque<Object> stack, Object o) {
+            // classes and enums are shared, not part of the value
+            if (o != null && !(o instanceof Class) && !(o instanceof Enum)) {
+                stack.push(o);
+            }
+        }
+
+        private static ClassInfo classInfo(Class<?> clazz) {
+            long size = HEADER;
+            List<Field> refs = new ArrayList<>();
+            for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+                for (Field f : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers())) {
+                        continue;
+                    }
+                    if (f.getType().isPrimitive()) {
+                        size += primitiveSize(f.getType());
+                    } else {
+                        size += REFERENCE;
+                        try {
+                            f.setAccessible(true);
+                            refs.add(f);
+                        } catch (RuntimeException e) {
+                            // inaccessible, only the reference is counted
+                        }
+                    }
+                }
+            }
+            return new ClassInfo(align(size), refs.toArray(new Field[0]));
+        }
+
+        private static int primitiveSize(Class<?> type) {
+            if (type == long.class || type == double.class) {
+                return 8;
+            } else if (type == int.class || type == float.class) {
+                return 4;
+            } else if (type == short.class || type == char.class) {
+                return 2;
+            } else {
+                return 1;
+            }
+        }
+
+        private static long align(long size) {
+            return (size + 7) & ~7L;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.alicp.jetcache.embedded;
+
+/**
+ * The W-TinyLFU policy of {@link LinkedHashMapCache}, see {@link EvictionPolicy#W_TINY_LFU}.
+ * <p>
+ * The entries are in three LRU queues: the window (1% of the limit) which accepts every new entry, and the main
+ * space split into probation (20%) and protected (80%). An entry leaving the window goes to probation, when the
+ * map is full it competes with the LRU entry of probation and the one accessed less frequently according to the
+ * {@link FrequencySketch} is evicted. An entry accessed in probation is promoted to protected, and the LRU entry of
+ * protected goes back to probation when protected is full.
+ * <p>
+ * Not thread safe, guarded by the lock of the cache.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+final class WindowTinyLfu {
+
+    static final byte WINDOW = 1;
+    static final byte PROBATION = 2;
+    static final byte PROTECTED = 3;
+
+    private final int max;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final FrequencySketch sketch;
+
+    // sentinels of the queues, the eldest entry is sentinel.accessNext
+    private final TimerWheel.Node window = sentinel();
+    private final TimerWheel.Node probation = sentinel();
+    private final TimerWheel.Node protectedQueue = sentinel();
+
+    private int size;
+    private int windowSize;
+    private int protectedSize;
+
+    WindowTinyLfu(int max) {
+        this.max = Math.max(max, 1);
+        this.maxWindow = Math.max(this.max / 100, 1);
+        this.maxProtected = (this.max - maxWindow) * 8 / 10;
+        this.sketch = new FrequencySketch(this.max);
+    }
+
+    private static TimerWheel.Node sentinel() {
+        TimerWheel.Node sentinel = new TimerWheel.Node(null, null);
+        sentinel.accessPrev = sentinel;
+        sentinel.accessNext = sentinel;
+        return sentinel;
+    }
+
+    /**
+     * Called when a new entry is put, then {@link #evict()} should be called until it returns null.
+     */
+    void add(TimerWheel.Node node) {
+        sketch.increment(node.key);
+        link(window, node, WINDOW);
+        windowSize++;
+        size++;
+    }
+
+    /**
+     * Called when the value of an entry is updated, the new node takes the place of the old one.
+     */
+    void replace(TimerWheel.Node old, TimerWheel.Node node) {
+        sketch.increment(node.key);
+        node.queue = old.queue;
+        node.accessPrev = old.accessPrev;
+        node.accessNext = old.accessNext;
+        node.accessPrev.accessNext = node;
+        node.accessNext.accessPrev = node;
+        old.queue = 0;
+        old.accessPrev = null;
+        old.accessNext = null;
+    }
+
+    void access(TimerWheel.Node node) {
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW:
+                moveToTail(window, node);
+                break;
+            case PROBATION:
+                unlink(node);
+                link(protectedQueue, node, PROTECTED);
+                protectedSize++;
+                while (protectedSize > maxProtected) {
+                    TimerWheel.Node demoted = protectedQueue.accessNext;
+                    unlink(demoted);
+                    protectedSize--;
+                    link(probation, demoted, PROBATION);
+                }
+                break;
+            case PROTECTED:
+                moveToTail(protectedQueue, node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Called when the entry is removed from the map, does nothing if it isn't in any queue.
+     */
+    void remove(TimerWheel.Node node) {
+        if (node.queue == WINDOW) {
+            windowSize--;
+        } else if (node.queue == PROTECTED) {
+            protectedSize--;
+        } else if (node.queue != PROBATION) {
+            return;
+        }
+        unlink(node);
+        size--;
+    }
+
+    /**
+     * Moves the entries overflowing the window to probation, and chooses a victim if the map is full.
+     *
+     * @return the entry to be removed from the map, which is still in its queue, or null
+     */
+    TimerWheel.Node evict() {
+        TimerWheel.Node candidate = null;
+        while (windowSize > maxWindow) {
+            candidate = window.accessNext;
+            unlink(candidate);
+            windowSize--;
+            link(probation, candidate, PROBATION);
+        }
+        if (size <= max) {
+            return null;
+        }
+        TimerWheel.Node victim = probation.accessNext;
+        if (victim == probation) {
+            // no main space for a small limit, or probation emptied by removals
+            victim = protectedQueue.accessNext != protectedQueue ? protectedQueue.accessNext : window.accessNext;
+            return victim;
+        }
+        if (candidate == null || candidate == victim) {
+            return victim;
+        }
+        return sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void link(TimerWheel.Node sentinel, TimerWheel.Node node, byte queue) {
+        node.queue = queue;
+        node.accessPrev = sentinel.accessPrev;
+        node.accessNext = sentinel;
+        sentinel.accessPrev.accessNext = node;
+        sentinel.accessPrev = node;
+    }
+
+    private void unlink(TimerWheel.Node node) {
+        node.accessPrev.accessNext = node.accessNext;
+        node.accessNext.accessPrev = node.accessPrev;
+        node.accessPrev = null;
+        node.accessNext = null;
+        node.queue = 0;
+    }
+
+    private void moveToTail(TimerWheel.Node sentinel, TimerWheel.Node node) {
+        byte queue = node.queue;
+        unlink(node);
+        link(sentinel, node, queue);
+    }
+}
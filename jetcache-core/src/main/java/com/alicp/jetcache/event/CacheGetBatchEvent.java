@@ -0,0 +1,36 @@
+package com.alicp.jetcache.event;
+
+import com.alicp.jetcache.Cache;
+
+/**
+ * Sent when concurrent single key GETs are merged into one GET_ALL, see
+ * {@link com.alicp.jetcache.external.ExternalCacheConfig#getGetBatchWindowNanos()}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheGetBatchEvent extends CacheEvent {
+    private final int keyCount;
+    private final long[] queueNanos;
+
+    public CacheGetBatchEvent(Cache cache, int keyCount, long[] queueNanos) {
+        super(cache);
+        this.keyCount = keyCount;
+        this.queueNanos = queueNanos;
+    }
+
+    /**
+     * @return distinct keys sent to the server
+     */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * @return time each merged GET waited before the batch was sent, one element per GET
+     */
+    public long[] getQueueNanos() {
+        return queueNanos;
+    }
+}
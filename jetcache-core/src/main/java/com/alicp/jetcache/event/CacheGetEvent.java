@@ -3,6 +3,8 @@ package com.alicp.jetcache.event;
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheGetResult;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created on 2017/2/22.
  *
@@ -11,12 +13,18 @@ import com.alicp.jetcache.CacheGetResult;
 public class CacheGetEvent extends CacheEvent {
 
     private long millis;
+    private long nanos;
     private Object key;
     private CacheGetResult result;
 
     public CacheGetEvent(Cache cache, long millis, Object key, CacheGetResult result) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), key, result);
+    }
+
+    public CacheGetEvent(Cache cache, long millis, long nanos, Object key, CacheGetResult result) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.key = key;
         this.result = result;
     }
@@ -25,6 +33,10 @@ public class CacheGetEvent extends CacheEvent {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Object getKey() {
         return key;
     }
@@ -0,0 +1,33 @@
+package com.alicp.jetcache.event;
+
+import com.alicp.jetcache.Cache;
+
+/**
+ * Sent when a key of a remote cache is promoted to (or demoted from) the local hot key tier, see
+ * {@link com.alicp.jetcache.external.ExternalCacheConfig#getHotKeyThreshold()}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheHotKeyEvent extends CacheEvent {
+    private final Object key;
+    private final boolean promoted;
+
+    public CacheHotKeyEvent(Cache cache, Object key, boolean promoted) {
+        super(cache);
+        this.key = key;
+        this.promoted = promoted;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return true if promoted, false if demoted
+     */
+    public boolean isPromoted() {
+        return promoted;
+    }
+}
@@ -4,6 +4,7 @@ import com.alicp.jetcache.Cache;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created on 2017/5/23.
@@ -13,13 +14,19 @@ import java.util.Set;
 public class CacheLoadAllEvent extends CacheEvent {
 
     private long millis;
+    private long nanos;
     private Set keys;
     private Map loadedValue;
     private boolean success;
 
     public CacheLoadAllEvent(Cache cache, long millis, Set keys, Map loadedValue, boolean success) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), keys, loadedValue, success);
+    }
+
+    public CacheLoadAllEvent(Cache cache, long millis, long nanos, Set keys, Map loadedValue, boolean success) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.keys = keys;
         this.loadedValue = loadedValue;
         this.success = success;
@@ -29,6 +36,10 @@ public class CacheLoadAllEvent extends CacheEvent {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Set getKeys() {
         return keys;
     }
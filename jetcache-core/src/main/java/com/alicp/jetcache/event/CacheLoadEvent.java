@@ -2,6 +2,8 @@ package com.alicp.jetcache.event;
 
 import com.alicp.jetcache.Cache;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created on 2017/2/22.
  *
@@ -9,13 +11,19 @@ import com.alicp.jetcache.Cache;
  */
 public class CacheLoadEvent extends CacheEvent {
     private final long millis;
+    private final long nanos;
     private final Object key;
     private final Object loadedValue;
     private final boolean success;
 
     public CacheLoadEvent(Cache cache, long millis, Object key, Object loadedValue, boolean success) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), key, loadedValue, success);
+    }
+
+    public CacheLoadEvent(Cache cache, long millis, long nanos, Object key, Object loadedValue, boolean success) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.key = key;
         this.loadedValue = loadedValue;
         this.success = success;
@@ -25,6 +33,10 @@ public class CacheLoadEvent extends CacheEvent {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Object getKey() {
         return key;
     }
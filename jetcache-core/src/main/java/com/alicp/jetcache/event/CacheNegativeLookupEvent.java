@@ -0,0 +1,33 @@
+package com.alicp.jetcache.event;
+
+import com.alicp.jetcache.Cache;
+
+/**
+ * Sent when the {@link com.alicp.jetcache.NegativeLookupFilter} rejects a key, or when a key it let pass
+ * turns out not to exist (false positive).
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheNegativeLookupEvent extends CacheEvent {
+    private final Object key;
+    private final boolean falsePositive;
+
+    public CacheNegativeLookupEvent(Cache cache, Object key, boolean falsePositive) {
+        super(cache);
+        this.key = key;
+        this.falsePositive = falsePositive;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return true if the key passed the filter but not exists, false if the filter rejected it
+     */
+    public boolean isFalsePositive() {
+        return falsePositive;
+    }
+}
@@ -4,6 +4,7 @@ import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheResult;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created on 2017/2/22.
@@ -12,6 +13,7 @@ import java.util.Map;
  */
 public class CachePutAllEvent extends CacheEvent {
     private final long millis;
+    private final long nanos;
     /**
      * key, value map.
      */
@@ -19,8 +21,13 @@ public class CachePutAllEvent extends CacheEvent {
     private final CacheResult result;
 
     public CachePutAllEvent(Cache cache, long millis, Map map, CacheResult result) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), map, result);
+    }
+
+    public CachePutAllEvent(Cache cache, long millis, long nanos, Map map, CacheResult result) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.map = map;
         this.result = result;
     }
@@ -29,6 +36,10 @@ public class CachePutAllEvent extends CacheEvent {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Map getMap() {
         return map;
     }
@@ -3,6 +3,8 @@ package com.alicp.jetcache.event;
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheResult;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created on 2017/2/22.
  *
@@ -10,22 +12,39 @@ import com.alicp.jetcache.CacheResult;
  */
 public class CachePutEvent extends CacheEvent {
     private long millis;
+    private long nanos;
     private Object key;
     private Object value;
     private CacheResult result;
+    private long expireAfterWriteInMillis;
 
     public CachePutEvent(Cache cache, long millis, Object key, Object value, CacheResult result) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), key, value, result);
+    }
+
+    public CachePutEvent(Cache cache, long millis, long nanos, Object key, Object value, CacheResult result) {
+        this(cache, millis, nanos, key, value, result, 0);
+    }
+
+    public CachePutEvent(Cache cache, long millis, long nanos, Object key, Object value, CacheResult result,
+                         long expireAfterWriteInMillis) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.key = key;
         this.value = value;
         this.result = result;
+        this.expireAfterWriteInMillis = expireAfterWriteInMillis;
     }
 
     public long getMillis() {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Object getKey() {
         return key;
     }
@@ -38,4 +57,11 @@ public class CachePutEvent extends CacheEvent {
         return value;
     }
 
+    /**
+     * The expire specified by the put, 0 if the default expire of the cache is used.
+     */
+    public long getExpireAfterWriteInMillis() {
+        return expireAfterWriteInMillis;
+    }
+
 }
@@ -4,6 +4,7 @@ import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheResult;
 
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created on 2017/2/22.
@@ -12,12 +13,18 @@ import java.util.Set;
  */
 public class CacheRemoveAllEvent extends CacheEvent {
     private final long millis;
+    private final long nanos;
     private final Set keys;
     private final CacheResult result;
 
     public CacheRemoveAllEvent(Cache cache, long millis, Set keys, CacheResult result) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), keys, result);
+    }
+
+    public CacheRemoveAllEvent(Cache cache, long millis, long nanos, Set keys, CacheResult result) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.keys = keys;
         this.result = result;
     }
@@ -26,6 +33,10 @@ public class CacheRemoveAllEvent extends CacheEvent {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Set getKeys() {
         return keys;
     }
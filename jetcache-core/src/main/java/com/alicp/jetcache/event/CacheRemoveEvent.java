@@ -3,6 +3,8 @@ package com.alicp.jetcache.event;
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheResult;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Created on 2017/2/22.
  *
@@ -11,12 +13,18 @@ import com.alicp.jetcache.CacheResult;
 public class CacheRemoveEvent extends CacheEvent {
 
     private long millis;
+    private long nanos;
     private Object key;
     private CacheResult result;
 
     public CacheRemoveEvent(Cache cache, long millis, Object key, CacheResult result) {
+        this(cache, millis, TimeUnit.MILLISECONDS.toNanos(millis), key, result);
+    }
+
+    public CacheRemoveEvent(Cache cache, long millis, long nanos, Object key, CacheResult result) {
         super(cache);
         this.millis = millis;
+        this.nanos = nanos;
         this.key = key;
         this.result = result;
     }
@@ -25,6 +33,10 @@ public class CacheRemoveEvent extends CacheEvent {
         return millis;
     }
 
+    public long getNanos() {
+        return nanos;
+    }
+
     public Object getKey() {
         return key;
     }
@@ -0,0 +1,55 @@
+package com.alicp.jetcache.event;
+
+import com.alicp.jetcache.Cache;
+
+/**
+ * Sent by {@link com.alicp.jetcache.WriteBehindCache} after a flush batch, or when a write is dropped because
+ * the buffer is full.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheWriteBehindEvent extends CacheEvent {
+    private final int flushedCount;
+    private final int coalescedCount;
+    private final int droppedCount;
+    private final int pendingCount;
+
+    public CacheWriteBehindEvent(Cache cache, int flushedCount, int coalescedCount, int droppedCount,
+                                 int pendingCount) {
+        super(cache);
+        this.flushedCount = flushedCount;
+        this.coalescedCount = coalescedCount;
+        this.droppedCount = droppedCount;
+        this.pendingCount = pendingCount;
+    }
+
+    /**
+     * @return keys written to the target cache successfully, 0 if this event is not sent by a flush
+     */
+    public int getFlushedCount() {
+        return flushedCount;
+    }
+
+    /**
+     * @return writes replaced by a later write of the same key since last event
+     */
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * @return writes lost because the buffer is full or the target cache failed
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return keys in the buffer when the event is sent
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+}
@@ -3,8 +3,20 @@ package com.alicp.jetcache.external;
 import com.alicp.jetcache.AbstractCache;
 import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.CacheException;
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.MultiGetResult;
+import com.alicp.jetcache.ResultData;
+import com.alicp.jetcache.event.CacheGetBatchEvent;
+import com.alicp.jetcache.event.CacheHotKeyEvent;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Created on 2016/10/8.
@@ -14,10 +26,32 @@ import java.io.IOException;
 public abstract class AbstractExternalCache<K, V> extends AbstractCache<K, V> {
 
     private ExternalCacheConfig<K, V> config;
+    private final GetBatcher<K, V> getBatcher;
+    private final HotKeyDetector<V> hotKeyDetector;
 
     public AbstractExternalCache(ExternalCacheConfig<K, V> config) {
         this.config = config;
         checkConfig();
+        if (config.getGetBatchWindowNanos() > 0) {
+            getBatcher = new GetBatcher<>(config.getGetBatchWindowNanos(), config.getGetBatchMaxKeys(),
+                    this::do_GET_ALL, (keyCount, queueNanos) -> {
+                if (isMonitored()) {
+                    notify(new CacheGetBatchEvent(this, keyCount, queueNanos));
+                }
+            });
+        } else {
+            getBatcher = null;
+        }
+        if (config.getHotKeyThreshold() > 0) {
+            hotKeyDetector = new HotKeyDetector<>(config.getHotKeyThreshold(), config.getHotKeyMaxCount(),
+                    config.getHotKeyLocalExpireInMillis(), (key, promoted) -> {
+                if (isMonitored()) {
+                    notify(new CacheHotKeyEvent(this, key, promoted));
+                }
+            });
+        } else {
+            hotKeyDetector = null;
+        }
     }
 
     protected void checkConfig() {
@@ -30,6 +64,72 @@ public abstract class AbstractExternalCache<K, V> extends AbstractCache<K, V> {
         if (config.getKeyPrefix() == null){
             throw new CacheConfigException("keyPrefix is required");
         }
+        if (config.getGetBatchWindowNanos() > 0 && config.getGetBatchMaxKeys() <= 0) {
+            throw new CacheConfigException("getBatchMaxKeys must be positive");
+        }
+        if (config.getHotKeyThreshold() > 0
+                && (config.getHotKeyMaxCount() <= 0 || config.getHotKeyLocalExpireInMillis() <= 0)) {
+            throw new CacheConfigException("hotKeyMaxCount and hotKeyLocalExpireInMillis must be positive");
+        }
+    }
+
+    /**
+     * Called at the beginning of do_GET. Serve hot keys from their local copy, and merge the GET into a GET_ALL
+     * with other concurrent GETs if GET batching is enabled.
+     *
+     * @return the result, or null if do_GET should read the key itself
+     */
+    protected CacheGetResult<V> beforeGet(K key) {
+        if (hotKeyDetector != null) {
+            long now = System.currentTimeMillis();
+            HotKeyDetector.HotKey<V> hot = hotKeyDetector.record(key, now);
+            if (hot != null) {
+                CacheValueHolder<V> holder = hot.localHolder(now);
+                if (holder != null) {
+                    return new CacheGetResult<>(CacheResultCode.SUCCESS, null, holder);
+                }
+                long version = hot.version.get();
+                CacheGetResult<V> r = getBatcher != null ? getBatcher.get(key) : getByGetAll(key);
+                r.future().thenAccept(d -> {
+                    if (d.getResultCode() == CacheResultCode.SUCCESS) {
+                        hotKeyDetector.fill(hot, version, (CacheValueHolder<V>) d.getOriginData(),
+                                System.currentTimeMillis());
+                    }
+                });
+                return r;
+            }
+        }
+        return getBatcher == null ? null : getBatcher.get(key);
+    }
+
+    private CacheGetResult<V> getByGetAll(K key) {
+        MultiGetResult<K, V> r = do_GET_ALL(Collections.singleton(key));
+        CompletionStage<ResultData> future = r.future().thenCompose(d -> {
+            if (d.getResultCode() == CacheResultCode.SUCCESS || d.getResultCode() == CacheResultCode.PART_SUCCESS) {
+                Map<K, CacheGetResult<V>> values = (Map<K, CacheGetResult<V>>) d.getOriginData();
+                CacheGetResult<V> single = values == null ? null : values.get(key);
+                if (single != null) {
+                    return single.future();
+                }
+                return CacheGetResult.NOT_EXISTS_WITHOUT_MSG.future();
+            }
+            return CompletableFuture.completedFuture(new ResultData(d.getResultCode(), d.getMessage(), null));
+        });
+        return new CacheGetResult<>(future);
+    }
+
+    @Override
+    protected void beforeUpdate(K key) {
+        if (hotKeyDetector != null) {
+            hotKeyDetector.invalidate(key);
+        }
+    }
+
+    /**
+     * @return current hot keys, empty if hot key detection is disabled
+     */
+    public List<Object> getHotKeys() {
+        return hotKeyDetector == null ? Collections.emptyList() : hotKeyDetector.hotKeys();
     }
 
     public byte[] buildKey(K key) {
@@ -2,6 +2,7 @@ package com.alicp.jetcache.external;
 
 import com.alicp.jetcache.AbstractCacheBuilder;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -40,6 +41,31 @@ public abstract class ExternalCacheBuilder<T extends ExternalCacheBuilder<T>> ex
         return self();
     }
 
+    public T getBatchWindow(long window, TimeUnit timeUnit) {
+        getConfig().setGetBatchWindowNanos(timeUnit.toNanos(window));
+        return self();
+    }
+
+    public T getBatchMaxKeys(int getBatchMaxKeys) {
+        getConfig().setGetBatchMaxKeys(getBatchMaxKeys);
+        return self();
+    }
+
+    public T hotKeyThreshold(long qps) {
+        getConfig().setHotKeyThreshold(qps);
+        return self();
+    }
+
+    public T hotKeyMaxCount(int hotKeyMaxCount) {
+        getConfig().setHotKeyMaxCount(hotKeyMaxCount);
+        return self();
+    }
+
+    public T hotKeyLocalExpire(long expire, TimeUnit timeUnit) {
+        getConfig().setHotKeyLocalExpireInMillis(timeUnit.toMillis(expire));
+        return self();
+    }
+
     public void setKeyPrefix(String keyPrefix){
         if (keyPrefix != null) {
             getConfig().setKeyPrefixSupplier(() -> keyPrefix);
@@ -59,4 +85,24 @@ public abstract class ExternalCacheBuilder<T extends ExternalCacheBuilder<T>> ex
     public void setValueDecoder(Function<byte[], Object> valueDecoder){
         getConfig().setValueDecoder(valueDecoder);
     }
+
+    public void setGetBatchWindowNanos(long getBatchWindowNanos) {
+        getConfig().setGetBatchWindowNanos(getBatchWindowNanos);
+    }
+
+    public void setGetBatchMaxKeys(int getBatchMaxKeys) {
+        getConfig().setGetBatchMaxKeys(getBatchMaxKeys);
+    }
+
+    public void setHotKeyThreshold(long hotKeyThreshold) {
+        getConfig().setHotKeyThreshold(hotKeyThreshold);
+    }
+
+    public void setHotKeyMaxCount(int hotKeyMaxCount) {
+        getConfig().setHotKeyMaxCount(hotKeyMaxCount);
+    }
+
+    public void setHotKeyLocalExpireInMillis(long hotKeyLocalExpireInMillis) {
+        getConfig().setHotKeyLocalExpireInMillis(hotKeyLocalExpireInMillis);
+    }
 }
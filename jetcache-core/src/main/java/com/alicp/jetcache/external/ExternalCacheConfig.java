@@ -17,6 +17,11 @@ public class ExternalCacheConfig<K, V> extends CacheConfig<K, V> {
     private Supplier<String> keyPrefixSupplier;
     private Function<Object, byte[]> valueEncoder = JavaValueEncoder.INSTANCE;
     private Function<byte[], Object> valueDecoder = DecoderMap.defaultJavaValueDecoder();
+    private long getBatchWindowNanos = 0;
+    private int getBatchMaxKeys = 64;
+    private long hotKeyThreshold = 0;
+    private int hotKeyMaxCount = 100;
+    private long hotKeyLocalExpireInMillis = 1000;
 
     public String getKeyPrefix() {
         return keyPrefixSupplier == null ? null : keyPrefixSupplier.get();
@@ -49,4 +54,59 @@ public class ExternalCacheConfig<K, V> extends CacheConfig<K, V> {
     public void setValueDecoder(Function<byte[], Object> valueDecoder) {
         this.valueDecoder = valueDecoder;
     }
+
+    /**
+     * Concurrent single key GETs in this window are merged into one GET_ALL, 0 means disabled.
+     */
+    public long getGetBatchWindowNanos() {
+        return getBatchWindowNanos;
+    }
+
+    public void setGetBatchWindowNanos(long getBatchWindowNanos) {
+        this.getBatchWindowNanos = getBatchWindowNanos;
+    }
+
+    /**
+     * A batch is sent before the window ends once it has this many keys.
+     */
+    public int getGetBatchMaxKeys() {
+        return getBatchMaxKeys;
+    }
+
+    public void setGetBatchMaxKeys(int getBatchMaxKeys) {
+        this.getBatchMaxKeys = getBatchMaxKeys;
+    }
+
+    /**
+     * Keys read more than this times per second are served from a local copy, 0 means disabled.
+     */
+    public long getHotKeyThreshold() {
+        return hotKeyThreshold;
+    }
+
+    public void setHotKeyThreshold(long hotKeyThreshold) {
+        this.hotKeyThreshold = hotKeyThreshold;
+    }
+
+    /**
+     * Max count of hot keys kept locally.
+     */
+    public int getHotKeyMaxCount() {
+        return hotKeyMaxCount;
+    }
+
+    public void setHotKeyMaxCount(int hotKeyMaxCount) {
+        this.hotKeyMaxCount = hotKeyMaxCount;
+    }
+
+    /**
+     * How long a local copy of a hot key is used before it is read from the remote cache again.
+     */
+    public long getHotKeyLocalExpireInMillis() {
+        return hotKeyLocalExpireInMillis;
+    }
+
+    public void setHotKeyLocalExpireInMillis(long hotKeyLocalExpireInMillis) {
+        this.hotKeyLocalExpireInMillis = hotKeyLocalExpireInMillis;
+    }
 }
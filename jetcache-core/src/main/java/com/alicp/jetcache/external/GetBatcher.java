@@ -0,0 +1,160 @@
+package com.alicp.jetcache.external;
+
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.MultiGetResult;
+import com.alicp.jetcache.ResultData;
+import com.alicp.jetcache.support.JetCacheExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Merge concurrent single key GETs into one GET_ALL.
+ * <p>
+ * A GET is sent at once (as a GET_ALL of one key) if no other GET or batch is in flight, so an uncontended GET is not
+ * delayed. Otherwise it opens a batch, or joins the open one, and returns a result backed by a future. The batch is
+ * sent by a task scheduled on {@link JetCacheExecutor#heavyIOExecutor()} when the window ends, or by the GET which
+ * fills it. So no caller is blocked by the window, and a GET waits at most one window longer than before.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+class GetBatcher<K, V> {
+
+    private final long windowNanos;
+    private final int maxKeys;
+    private final Function<Set<K>, MultiGetResult<K, V>> getAll;
+    // keyCount, queueNanos of each GET
+    private final BiConsumer<Integer, long[]> batchListener;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private Batch<K> current;
+    // guarded by lock, count of the batches sent but not completed
+    private int inFlight;
+
+    GetBatcher(long windowNanos, int maxKeys, Function<Set<K>, MultiGetResult<K, V>> getAll,
+               BiConsumer<Integer, long[]> batchListener) {
+        this.windowNanos = windowNanos;
+        this.maxKeys = maxKeys;
+        this.getAll = getAll;
+        this.batchListener = batchListener;
+    }
+
+    private static class Batch<K> {
+        final Map<K, CompletableFuture<ResultData>> futures = new LinkedHashMap<>();
+        final List<Long> enqueueTimes = new ArrayList<>();
+        // guarded by lock
+        boolean closed;
+        volatile ScheduledFuture<?> timer;
+    }
+
+    CacheGetResult<V> get(K key) {
+        long now = System.nanoTime();
+        Batch<K> b;
+        CompletableFuture<ResultData> future;
+        boolean open = false;
+        boolean send = false;
+        synchronized (lock) {
+            b = current;
+            if (b == null) {
+                b = new Batch<>();
+                open = true;
+            }
+            future = b.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            b.enqueueTimes.add(now);
+            if (inFlight == 0 || b.futures.size() >= maxKeys) {
+                close(b);
+                send = true;
+            } else if (open) {
+                current = b;
+            }
+        }
+        if (send) {
+            ScheduledFuture<?> timer = b.timer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            flush(b);
+        } else if (open) {
+            Batch<K> opened = b;
+            b.timer = JetCacheExecutor.heavyIOExecutor().schedule(() -> windowEnd(opened), windowNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+        return new CacheGetResult<>(future);
+    }
+
+    // must hold lock
+    private void close(Batch<K> b) {
+        if (current == b) {
+            current = null;
+        }
+        b.closed = true;
+        inFlight++;
+    }
+
+    private void windowEnd(Batch<K> b) {
+        synchronized (lock) {
+            if (b.closed) {
+                // sent by the GET which filled it
+                return;
+            }
+            close(b);
+        }
+        flush(b);
+    }
+
+    private void done() {
+        synchronized (lock) {
+            inFlight--;
+        }
+    }
+
+    private void flush(Batch<K> b) {
+        long start = System.nanoTime();
+        long[] queueNanos = new long[b.enqueueTimes.size()];
+        for (int i = 0; i < queueNanos.length; i++) {
+            queueNanos[i] = start - b.enqueueTimes.get(i);
+        }
+        batchListener.accept(b.futures.size(), queueNanos);
+        MultiGetResult<K, V> r;
+        try {
+            r = getAll.apply(b.futures.keySet());
+        } catch (Throwable e) {
+            r = new MultiGetResult<>(e);
+        }
+        r.future().whenComplete((data, ex) -> {
+            done();
+            if (ex != null) {
+                ResultData fail = new ResultData(ex);
+                b.futures.values().forEach(f -> f.complete(fail));
+                return;
+            }
+            CacheResultCode code = data.getResultCode();
+            if (code != CacheResultCode.SUCCESS && code != CacheResultCode.PART_SUCCESS) {
+                ResultData fail = new ResultData(code, data.getMessage(), null);
+                b.futures.values().forEach(f -> f.complete(fail));
+                return;
+            }
+            Map<K, CacheGetResult<V>> values = (Map<K, CacheGetResult<V>>) data.getOriginData();
+            b.futures.forEach((k, f) -> {
+                CacheGetResult<V> single = values == null ? null : values.get(k);
+                if (single == null) {
+                    f.complete(new ResultData(CacheResultCode.NOT_EXISTS, null, null));
+                } else {
+                    single.future().whenComplete((d, e) -> f.complete(e == null ? d : new ResultData(e)));
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,235 @@
+package com.alicp.jetcache.external;
+
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheExecutor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Find hot keys of a remote cache and keep a short lived local copy of them.
+ * <p>
+ * Every GET is counted in a count-min sketch whose counters are halved every second. So a counter is the sum of
+ * the GETs of each past second weighted by 1, 1/2, 1/4 ..., which is about twice the QPS of the key in the steady
+ * state (and just the QPS in the first second). The threshold (a QPS) is scaled by the same weights, a key whose
+ * count reaches it is promoted into the hot set. The hot set is a top-K heap ordered by the count: when the set is
+ * full a new key replaces the coldest one only if it is hotter. At each decay the counts of hot keys are refreshed
+ * and keys below half of the threshold are demoted.
+ * <p>
+ * The decay runs on {@link JetCacheExecutor#defaultExecutor()}, the GET which finds the window ended only submits
+ * it.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+class HotKeyDetector<V> {
+
+    private static final int DEPTH = 4;
+    static final long WINDOW_MILLIS = 1000;
+
+    private final int widthMask;
+    private final AtomicIntegerArray counts;
+    private final long threshold;
+    private final int maxHotKeys;
+    private final long localExpireMillis;
+    // key, promoted
+    private final BiConsumer<Object, Boolean> listener;
+    // Long.MAX_VALUE while a decay is pending
+    private final AtomicLong windowEnd;
+    // the threshold scaled by the weights of the windows passed, see the class doc
+    private volatile long promoteCount;
+    // guarded by this, sum of the weights of the current and past windows
+    private double weightSum = 1;
+
+    private final ConcurrentHashMap<Object, HotKey<V>> hotKeys = new ConcurrentHashMap<>();
+    // guarded by this
+    private final PriorityQueue<HotKey<V>> heap = new PriorityQueue<>(Comparator.comparingLong(h -> h.count));
+    private volatile long minHotCount;
+
+    static final class HotKey<V> {
+        final Object key;
+        final Object originKey;
+        volatile long count;
+        // incremented when the key is updated, so an in-flight GET won't fill an old value
+        final AtomicLong version = new AtomicLong();
+        volatile CacheValueHolder<V> holder;
+        volatile long localExpireTime;
+
+        HotKey(Object key, Object originKey, long count) {
+            this.key = key;
+            this.originKey = originKey;
+            this.count = count;
+        }
+
+        CacheValueHolder<V> localHolder(long now) {
+            CacheValueHolder<V> h = holder;
+            if (h != null && now < localExpireTime && now < h.getExpireTime()) {
+                return h;
+            }
+            return null;
+        }
+
+        void invalidate() {
+            version.incrementAndGet();
+            holder = null;
+        }
+    }
+
+    HotKeyDetector(long threshold, int maxHotKeys, long localExpireMillis, BiConsumer<Object, Boolean> listener) {
+        this.threshold = threshold;
+        this.promoteCount = threshold;
+        this.maxHotKeys = maxHotKeys;
+        this.localExpireMillis = localExpireMillis;
+        this.listener = listener;
+        int width = Integer.highestOneBit(Math.max(1024, maxHotKeys * 64) - 1) << 1;
+        this.widthMask = width - 1;
+        this.counts = new AtomicIntegerArray(width * DEPTH);
+        this.windowEnd = new AtomicLong(System.currentTimeMillis() + WINDOW_MILLIS);
+    }
+
+    static Object normalize(Object key) {
+        return key instanceof byte[] ? ByteBuffer.wrap((byte[]) key) : key;
+    }
+
+    /**
+     * Count a GET of the key.
+     *
+     * @return the hot key entry, or null if the key is not hot
+     */
+    HotKey<V> record(Object originKey, long now) {
+        long end = windowEnd.get();
+        if (now >= end && windowEnd.compareAndSet(end, Long.MAX_VALUE)) {
+            JetCacheExecutor.defaultExecutor().execute(() -> decay(end, now));
+        }
+        Object key = normalize(originKey);
+        long count = increment(key.hashCode());
+        HotKey<V> hot = hotKeys.get(key);
+        if (hot != null) {
+            return hot;
+        }
+        if (count >= promoteCount && (hotKeys.size() < maxHotKeys || count > minHotCount)) {
+            return promote(key, originKey, count);
+        }
+        return null;
+    }
+
+    void invalidate(Object originKey) {
+        HotKey<V> hot = hotKeys.get(normalize(originKey));
+        if (hot != null) {
+            hot.invalidate();
+        }
+    }
+
+    /**
+     * Fill the local copy if the key is not updated after the version is read.
+     */
+    void fill(HotKey<V> hot, long version, CacheValueHolder<V> holder, long now) {
+        if (hot.version.get() == version && hotKeys.get(hot.key) == hot) {
+            hot.localExpireTime = now + localExpireMillis;
+            hot.holder = holder;
+            if (hot.version.get() != version) {
+                hot.holder = null;
+            }
+        }
+    }
+
+    List<Object> hotKeys() {
+        List<Object> list = new ArrayList<>();
+        hotKeys.values().forEach(h -> list.add(h.originKey));
+        return list;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private long increment(int hashCode) {
+        int h1 = spread(hashCode);
+        int h2 = spread(h1) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = i * (widthMask + 1) + ((h1 + i * h2) & widthMask);
+            min = Math.min(min, counts.incrementAndGet(index));
+        }
+        return min;
+    }
+
+    private long estimate(int hashCode) {
+        int h1 = spread(hashCode);
+        int h2 = spread(h1) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = i * (widthMask + 1) + ((h1 + i * h2) & widthMask);
+            min = Math.min(min, counts.get(index));
+        }
+        return min;
+    }
+
+    private synchronized HotKey<V> promote(Object key, Object originKey, long count) {
+        HotKey<V> hot = hotKeys.get(key);
+        if (hot != null) {
+            return hot;
+        }
+        if (hotKeys.size() >= maxHotKeys) {
+            HotKey<V> coldest = heap.peek();
+            if (coldest == null || coldest.count >= count) {
+                return null;
+            }
+            heap.poll();
+            demote(coldest);
+        }
+        hot = new HotKey<>(key, originKey, count);
+        hotKeys.put(key, hot);
+        heap.add(hot);
+        updateMinHotCount();
+        listener.accept(originKey, true);
+        return hot;
+    }
+
+    private void demote(HotKey<V> hot) {
+        hotKeys.remove(hot.key, hot);
+        hot.invalidate();
+        listener.accept(hot.originKey, false);
+    }
+
+    private void updateMinHotCount() {
+        HotKey<V> coldest = heap.peek();
+        minHotCount = coldest == null ? 0 : coldest.count;
+    }
+
+    private synchronized void decay(long end, long now) {
+        // halve once for every window passed, an idle cache forgets its counts
+        int shift = (int) Math.min(31, (now - end) / WINDOW_MILLIS + 1);
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, counts.get(i) >>> shift);
+        }
+        // weights of the windows passed, the idle windows after the one just ended are weighted 1/2, 1/4 ...
+        double pastWeight = weightSum / (1L << shift) + 1 - 1.0 / (1L << (shift - 1));
+        weightSum = 1 + pastWeight;
+        promoteCount = Math.max(1, Math.round(threshold * weightSum));
+        // the counts have no GET of the new window yet
+        double demoteCount = threshold * pastWeight / 2;
+        heap.clear();
+        for (HotKey<V> hot : hotKeys.values()) {
+            hot.count = estimate(hot.key.hashCode());
+            if (hot.count < demoteCount) {
+                demote(hot);
+            } else {
+                heap.add(hot);
+            }
+        }
+        updateMinHotCount();
+        windowEnd.set(now + WINDOW_MILLIS);
+    }
+}
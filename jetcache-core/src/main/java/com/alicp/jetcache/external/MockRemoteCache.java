@@ -71,6 +71,7 @@ public class MockRemoteCache<K, V> extends AbstractExternalCache<K, V> {
                 list.add(h);
                 h.setAccessTime(originHolder.getAccessTime());
                 h.setExpireTime(originHolder.getExpireTime());
+                h.setSoftExpireTime(originHolder.getSoftExpireTime());
 
                 Object v = originHolder.getValue();
                 if (v != null && !(v instanceof CacheValueHolder)) {
@@ -97,6 +98,10 @@ public class MockRemoteCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
+        CacheGetResult<V> intercepted = beforeGet(key);
+        if (intercepted != null) {
+            return intercepted;
+        }
         CacheGetResult r = cache.GET(genKey(key));
         if (r.isSuccess()) {
             r = convertCacheGetResult(r);
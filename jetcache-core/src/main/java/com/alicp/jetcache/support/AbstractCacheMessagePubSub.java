@@ -0,0 +1,230 @@
+package com.alicp.jetcache.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Base class of pub/sub channels which are both the {@link CacheMessagePublisher} and the
+ * {@link CacheMessageSubscriber} of a node. Subclasses only send and receive bytes.
+ * <p>
+ * Each instance has a random source id which is put into the published messages, received messages with the
+ * same id are skipped. Received bytes are queued by the I/O thread of the client and drained by
+ * {@link JetCacheExecutor#defaultExecutor()}, which decodes them and passes them to the consumer in batches.
+ * <p>
+ * By default messages are published asynchronously: keys of the same cache updated in coalesceWindowMillis are
+ * merged and sent in a compact binary frame by a dedicated thread, see {@link #getPublishStat()} for the
+ * statistics. If coalesceWindowMillis is 0 every message is java serialized and sent in the caller thread.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public abstract class AbstractCacheMessagePubSub implements CacheMessagePublisher, CacheMessageSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractCacheMessagePubSub.class);
+
+    private final String sourceId = UUID.randomUUID().toString();
+
+    private Function<Object, byte[]> messageEncoder = JavaValueEncoder.INSTANCE;
+    private Function<byte[], Object> messageDecoder = JavaValueDecoder.INSTANCE;
+    private int maxBatchSize = 1000;
+    private long coalesceWindowMillis = 10;
+    private int maxPendingMessages = 10000;
+    private long publishTimeoutMillis = 100;
+    private int maxKeysPerFrame = 1000;
+
+    private volatile CacheMessageCoalescer coalescer;
+    private boolean closed;
+
+    private final ConcurrentLinkedQueue<byte[]> received = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile Consumer<List<CacheMessage>> consumer;
+
+    /**
+     * Send the encoded message to all nodes.
+     */
+    protected abstract void doPublish(byte[] message);
+
+    /**
+     * Start receiving, the received bytes should be passed to {@link #onMessage(byte[])}.
+     */
+    protected abstract void doSubscribe();
+
+    protected abstract void doClose();
+
+    @Override
+    public void publish(String area, String cacheName, CacheMessage cacheMessage) {
+        cacheMessage.setSourceId(sourceId);
+        cacheMessage.setArea(area);
+        cacheMessage.setCacheName(cacheName);
+        if (coalesceWindowMillis > 0) {
+            coalescer().publish(cacheMessage);
+            return;
+        }
+        try {
+            doPublish(messageEncoder.apply(cacheMessage));
+        } catch (Throwable e) {
+            logger.error("publish cache message error. area={}, cacheName={}", area, cacheName, e);
+        }
+    }
+
+    private CacheMessageCoalescer coalescer() {
+        CacheMessageCoalescer c = coalescer;
+        if (c == null) {
+            synchronized (this) {
+                c = coalescer;
+                if (c == null) {
+                    c = new CacheMessageCoalescer(sourceId, this::doPublish, coalesceWindowMillis,
+                            maxPendingMessages, publishTimeoutMillis, maxKeysPerFrame);
+                    if (closed) {
+                        // send in the caller thread
+                        c.close();
+                    }
+                    coalescer = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<List<CacheMessage>> consumer) {
+        if (this.consumer != null) {
+            throw new IllegalStateException("already subscribed");
+        }
+        this.consumer = consumer;
+        doSubscribe();
+    }
+
+    /**
+     * Called by subclasses when a message is received, it returns quickly so it's safe in the I/O thread.
+     */
+    protected void onMessage(byte[] message) {
+        if (consumer == null) {
+            return;
+        }
+        received.add(message);
+        if (draining.compareAndSet(false, true)) {
+            JetCacheExecutor.defaultExecutor().execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            try {
+                List<CacheMessage> batch = new ArrayList<>();
+                byte[] bytes;
+                while ((bytes = received.poll()) != null) {
+                    for (CacheMessage m : decode(bytes)) {
+                        if (!sourceId.equals(m.getSourceId())) {
+                            batch.add(m);
+                        }
+                    }
+                    if (batch.size() >= maxBatchSize) {
+                        consume(batch);
+                        batch = new ArrayList<>();
+                    }
+                }
+                consume(batch);
+            } finally {
+                draining.set(false);
+            }
+            // a message may be added after the last poll and before draining is reset
+        } while (!received.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private List<CacheMessage> decode(byte[] bytes) {
+        try {
+            if (CompactCacheMessageCodec.isFrame(bytes)) {
+                return CompactCacheMessageCodec.decode(bytes);
+            }
+            return Collections.singletonList((CacheMessage) messageDecoder.apply(bytes));
+        } catch (Throwable e) {
+            logger.error("decode cache message error", e);
+            return Collections.emptyList();
+        }
+    }
+
+    private void consume(List<CacheMessage> batch) {
+        Consumer<List<CacheMessage>> c = consumer;
+        if (batch.isEmpty() || c == null) {
+            return;
+        }
+        try {
+            c.accept(batch);
+        } catch (Throwable e) {
+            logger.error("consume cache message error", e);
+        }
+    }
+
+    /**
+     * Stop receiving and send the pending messages, messages published after close are sent in the caller thread.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (coalescer != null) {
+            coalescer.close();
+        }
+        if (consumer != null) {
+            consumer = null;
+            doClose();
+        }
+    }
+
+    /**
+     * Statistics of the asynchronous publishing, all zero if coalesceWindowMillis is 0.
+     */
+    public CacheMessagePublishStat getPublishStat() {
+        CacheMessageCoalescer c = coalescer;
+        return c == null ? new CacheMessagePublishStat() : c.getStat();
+    }
+
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void setMessageEncoder(Function<Object, byte[]> messageEncoder) {
+        this.messageEncoder = messageEncoder;
+    }
+
+    public void setMessageDecoder(Function<byte[], Object> messageDecoder) {
+        this.messageDecoder = messageDecoder;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * The window to merge keys before publishing, 0 to publish every message synchronously. The setters of the
+     * asynchronous publishing take effect before the first message is published.
+     */
+    public void setCoalesceWindowMillis(long coalesceWindowMillis) {
+        this.coalesceWindowMillis = coalesceWindowMillis;
+    }
+
+    public void setMaxPendingMessages(int maxPendingMessages) {
+        this.maxPendingMessages = maxPendingMessages;
+    }
+
+    /**
+     * How long the caller waits when there are maxPendingMessages pending messages, the message is dropped after.
+     */
+    public void setPublishTimeoutMillis(long publishTimeoutMillis) {
+        this.publishTimeoutMillis = publishTimeoutMillis;
+    }
+
+    public void setMaxKeysPerFrame(int maxKeysPerFrame) {
+        this.maxKeysPerFrame = maxKeysPerFrame;
+    }
+}
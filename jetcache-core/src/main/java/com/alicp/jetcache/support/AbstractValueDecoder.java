@@ -1,5 +1,6 @@
 package com.alicp.jetcache.support;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -28,8 +29,24 @@ public abstract class AbstractValueDecoder implements Function<byte[], Object> {
         return x;
     }
 
+    protected int parseHeader(ByteBuffer buf) {
+        int p = buf.position();
+        return (buf.get(p) & 0xFF) << 24 | (buf.get(p + 1) & 0xFF) << 16
+                | (buf.get(p + 2) & 0xFF) << 8 | (buf.get(p + 3) & 0xFF);
+    }
+
     protected abstract Object doApply(byte[] buffer) throws Exception;
 
+    /**
+     * Decode from the remaining bytes of the buffer, which starts with the identity number if it's used. The
+     * default implementation copies the bytes, subclasses override it to read the buffer in place.
+     */
+    protected Object doApply(ByteBuffer buffer) throws Exception {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return doApply(bytes);
+    }
+
     @Override
     public Object apply(byte[] buffer) {
         try {
@@ -47,6 +64,26 @@ public abstract class AbstractValueDecoder implements Function<byte[], Object> {
         }
     }
 
+    /**
+     * Decode from a buffer without copying it into a byte array, for example the buffer of a netty response. The
+     * position of the buffer is not changed.
+     */
+    public Object apply(ByteBuffer buffer) {
+        try {
+            if (useIdentityNumber) {
+                DecoderMap.registerBuildInDecoder();
+                int identityNumber = parseHeader(buffer);
+                AbstractValueDecoder decoder = DecoderMap.getDecoder(identityNumber);
+                Objects.requireNonNull(decoder, "no decoder for identity number:" + identityNumber);
+                return decoder.doApply(buffer);
+            } else {
+                return doApply(buffer);
+            }
+        } catch (Exception e) {
+            throw new CacheEncodeException("decode error", e);
+        }
+    }
+
     public boolean isUseIdentityNumber() {
         return useIdentityNumber;
     }
@@ -1,5 +1,7 @@
 package com.alicp.jetcache.support;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.function.Function;
 
 /**
@@ -22,6 +24,26 @@ public abstract class AbstractValueEncoder implements Function<Object, byte[]> {
         this.useIdentityNumber = useIdentityNumber;
     }
 
+    /**
+     * Write the encoded value into the stream, for example a pooled netty buffer, the bytes are the same as
+     * {@link #apply(Object)} returns. The default implementation writes the result of apply, subclasses override
+     * it to avoid building the whole byte array.
+     */
+    public void encode(Object value, OutputStream out) {
+        try {
+            out.write(apply(value));
+        } catch (IOException e) {
+            throw new CacheEncodeException("encode error", e);
+        }
+    }
+
+    protected void writeHeader(OutputStream out, int header) throws IOException {
+        out.write(header >> 24 & 0xFF);
+        out.write(header >> 16 & 0xFF);
+        out.write(header >> 8 & 0xFF);
+        out.write(header & 0xFF);
+    }
+
     public boolean isUseIdentityNumber() {
         return useIdentityNumber;
     }
@@ -0,0 +1,29 @@
+package com.alicp.jetcache.support;
+
+import java.util.List;
+
+/**
+ * Shares the bits of a {@link ScalableBloomFilter} between processes, for example in redis bitmaps.
+ * Each stage of the filter is a bitmap, the bit order is the same as redis SETBIT.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public interface BloomFilterMirror {
+
+    /**
+     * Called after a key is put into the local filter.
+     */
+    void setBits(int stage, long[] offsets);
+
+    /**
+     * Replace all stages, called after a rebuild.
+     */
+    void replace(List<byte[]> stages);
+
+    /**
+     * @return the bitmap of all stages, an empty list if nothing is there
+     */
+    List<byte[]> load();
+}
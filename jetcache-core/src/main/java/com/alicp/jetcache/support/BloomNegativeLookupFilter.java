@@ -0,0 +1,261 @@
+package com.alicp.jetcache.support;
+
+import com.alicp.jetcache.NegativeLookupFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link NegativeLookupFilter} backed by a local {@link ScalableBloomFilter}, optionally mirrored by a
+ * {@link BloomFilterMirror} and periodically rebuilt from the key set of the loader.
+ * <pre>
+ * BloomNegativeLookupFilter&lt;Long&gt; filter = new BloomNegativeLookupFilter&lt;Long&gt;(1_000_000, 0.001)
+ *         .rebuildFrom(() -&gt; userDao.allIds())
+ *         .scheduleRefresh(1, TimeUnit.HOURS);
+ * cacheBuilder.negativeLookupFilter(filter);
+ * </pre>
+ * Keys are converted by the keyConvertor (String.valueOf if absent) and hashed by their UTF-8 bytes,
+ * byte[] keys are hashed directly.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class BloomNegativeLookupFilter<K> implements NegativeLookupFilter<K>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloomNegativeLookupFilter.class);
+
+    private final long expectedInsertions;
+    private final double fpp;
+
+    private volatile ScalableBloomFilter filter;
+    // keys put during a rebuild also go here, so they are not lost when the new filter is swapped in
+    private volatile ScalableBloomFilter building;
+    // put holds the read lock, publishing building and swapping the filter hold the write lock
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    // changed bits not sent to the mirror yet, sent in batches by one task at a time
+    private final ConcurrentLinkedQueue<long[]> pendingBits = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // held while talking to the mirror, so a replace and the bits set after it are sent in order
+    private final Object mirrorLock = new Object();
+
+    private Function<K, Object> keyConvertor;
+    private BloomFilterMirror mirror;
+    private Supplier<? extends Iterable<? extends K>> keySource;
+    private ScheduledFuture<?> refreshFuture;
+
+    public BloomNegativeLookupFilter(long expectedInsertions, double fpp) {
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.filter = new ScalableBloomFilter(expectedInsertions, fpp);
+    }
+
+    public BloomNegativeLookupFilter<K> keyConvertor(Function<K, Object> keyConvertor) {
+        this.keyConvertor = keyConvertor;
+        return this;
+    }
+
+    /**
+     * Set the mirror and load the bits from it.
+     */
+    public BloomNegativeLookupFilter<K> mirror(BloomFilterMirror mirror) {
+        this.mirror = mirror;
+        reloadFromMirror();
+        return this;
+    }
+
+    /**
+     * Set the key set of the loader and rebuild from it.
+     */
+    public BloomNegativeLookupFilter<K> rebuildFrom(Supplier<? extends Iterable<? extends K>> keySource) {
+        this.keySource = keySource;
+        rebuild();
+        return this;
+    }
+
+    /**
+     * Rebuild from the key source periodically, or reload from the mirror if there is no key source.
+     */
+    public synchronized BloomNegativeLookupFilter<K> scheduleRefresh(long period, TimeUnit timeUnit) {
+        if (refreshFuture != null) {
+            refreshFuture.cancel(false);
+        }
+        refreshFuture = JetCacheExecutor.heavyIOExecutor().scheduleWithFixedDelay(() -> {
+            try {
+                if (keySource != null) {
+                    rebuild();
+                } else if (mirror != null) {
+                    reloadFromMirror();
+                }
+            } catch (Throwable e) {
+                logger.error("refresh bloom filter error", e);
+            }
+        }, period, period, timeUnit);
+        return this;
+    }
+
+    public synchronized void rebuild() {
+        if (keySource == null) {
+            return;
+        }
+        ScalableBloomFilter newFilter = new ScalableBloomFilter(expectedInsertions, fpp);
+        setBuilding(newFilter);
+        try {
+            for (K key : keySource.get()) {
+                newFilter.put(toBytes(key));
+            }
+        } catch (RuntimeException e) {
+            setBuilding(null);
+            throw e;
+        }
+        synchronized (mirrorLock) {
+            List<byte[]> stages = null;
+            swapLock.writeLock().lock();
+            try {
+                filter = newFilter;
+                building = null;
+                if (mirror != null) {
+                    // the bits put before are in the snapshot, the bits put after are sent after the replace
+                    pendingBits.clear();
+                    stages = new ArrayList<>();
+                    for (int i = 0; i < newFilter.stageCount(); i++) {
+                        stages.add(newFilter.toBytes(i));
+                    }
+                }
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            if (stages != null) {
+                mirror.replace(stages);
+            }
+        }
+    }
+
+    private void setBuilding(ScalableBloomFilter b) {
+        swapLock.writeLock().lock();
+        try {
+            building = b;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void reloadFromMirror() {
+        if (mirror == null) {
+            return;
+        }
+        List<byte[]> stages = mirror.load();
+        if (stages != null && !stages.isEmpty()) {
+            ScalableBloomFilter newFilter = ScalableBloomFilter.fromBytes(expectedInsertions, fpp, stages);
+            swapLock.writeLock().lock();
+            try {
+                // keep local keys which have not reached the mirror yet, including the stages it doesn't have
+                ScalableBloomFilter old = filter;
+                for (int i = 0; i < old.stageCount(); i++) {
+                    if (i < newFilter.stageCount()) {
+                        newFilter.or(i, old.toBytes(i));
+                    } else {
+                        newFilter.appendStage(old.toBytes(i));
+                    }
+                }
+                filter = newFilter;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean mightContain(K key) {
+        return filter.mightContain(toBytes(key));
+    }
+
+    @Override
+    public void put(K key) {
+        byte[] bytes = toBytes(key);
+        long[] offsets;
+        swapLock.readLock().lock();
+        try {
+            ScalableBloomFilter b = building;
+            if (b != null) {
+                b.put(bytes);
+            }
+            offsets = filter.putAndGetOffsets(bytes);
+            if (offsets != null && mirror != null) {
+                pendingBits.add(offsets);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        if (offsets != null && mirror != null && flushScheduled.compareAndSet(false, true)) {
+            JetCacheExecutor.heavyIOExecutor().execute(this::flushMirror);
+        }
+    }
+
+    /**
+     * Send the pending bits to the mirror, one setBits call for each stage.
+     */
+    private void flushMirror() {
+        flushScheduled.set(false);
+        synchronized (mirrorLock) {
+            Map<Integer, List<long[]>> byStage = new TreeMap<>();
+            long[] offsets;
+            while ((offsets = pendingBits.poll()) != null) {
+                byStage.computeIfAbsent((int) offsets[0], k -> new ArrayList<>()).add(offsets);
+            }
+            for (Map.Entry<Integer, List<long[]>> en : byStage.entrySet()) {
+                int count = 0;
+                for (long[] o : en.getValue()) {
+                    count += o.length - 1;
+                }
+                long[] merged = new long[count];
+                int i = 0;
+                for (long[] o : en.getValue()) {
+                    System.arraycopy(o, 1, merged, i, o.length - 1);
+                    i += o.length - 1;
+                }
+                try {
+                    mirror.setBits(en.getKey(), merged);
+                } catch (Throwable e) {
+                    logger.error("update bloom filter mirror error", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The estimated false positive probability of the current filter.
+     */
+    public double expectedFpp() {
+        return filter.expectedFpp();
+    }
+
+    private byte[] toBytes(K key) {
+        Object k = keyConvertor == null ? key : keyConvertor.apply(key);
+        if (k instanceof byte[]) {
+            return (byte[]) k;
+        }
+        return String.valueOf(k).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refreshFuture != null) {
+            refreshFuture.cancel(false);
+            refreshFuture = null;
+        }
+    }
+}
@@ -17,16 +17,57 @@ public class CacheMessage implements Serializable {
     public static final int TYPE_PUT_ALL = 2;
     public static final int TYPE_REMOVE = 3;
     public static final int TYPE_REMOVE_ALL = 4;
+    /**
+     * Keys updated by any of the operations above, merged by the asynchronous publisher.
+     */
+    public static final int TYPE_INVALIDATE = 5;
+
+    /**
+     * Id of the publisher, so a subscriber can skip messages sent by itself.
+     */
+    private String sourceId;
+
+    private String area;
+
+    private String cacheName;
 
     private int type;
 
+    /**
+     * Keys converted by the key convertor of the cache.
+     */
     private Object[] keys;
 
     /**
-     * this field is reserved.
+     * Values of TYPE_PUT if the cache broadcasts values, each is the CacheValueHolder encoded by the valueEncoder
+     * of the remote cache. Null means the keys should be invalidated.
      */
     private Object[] values;
 
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(String sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public String getArea() {
+        return area;
+    }
+
+    public void setArea(String area) {
+        this.area = area;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
     public int getType() {
         return type;
     }
@@ -0,0 +1,233 @@
+package com.alicp.jetcache.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The asynchronous publishing pipeline of {@link AbstractCacheMessagePubSub}.
+ * <p>
+ * Messages are put into a bounded queue, a caller waits at most offerTimeoutMillis when the queue is full and
+ * the message is dropped after that. A dedicated thread collects the messages of a window, merges the keys of
+ * the same area and cacheName, and sends them as {@link CompactCacheMessageCodec} frames. Keys whose last
+ * update carries a value are sent in TYPE_PUT messages with the values, the others in TYPE_INVALIDATE messages.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+class CacheMessageCoalescer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheMessageCoalescer.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final String sourceId;
+    private final Consumer<byte[]> sender;
+    private final long windowNanos;
+    private final long offerTimeoutMillis;
+    private final int maxKeysPerFrame;
+    private final BlockingQueue<CacheMessage> queue;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private final LongAdder messageCount = new LongAdder();
+    private final LongAdder keyCount = new LongAdder();
+    private final LongAdder coalescedKeyCount = new LongAdder();
+    private final LongAdder frameCount = new LongAdder();
+    private final LongAdder frameBytes = new LongAdder();
+    private final LongAdder droppedMessageCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+
+    CacheMessageCoalescer(String sourceId, Consumer<byte[]> sender, long windowMillis, int maxPendingMessages,
+                          long offerTimeoutMillis, int maxKeysPerFrame) {
+        this.sourceId = sourceId;
+        this.sender = sender;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxKeysPerFrame = maxKeysPerFrame;
+        this.queue = new ArrayBlockingQueue<>(maxPendingMessages);
+        this.thread = new Thread(this::run, "JetCacheMessagePublisher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    void publish(CacheMessage message) {
+        if (message.getKeys() == null || message.getKeys().length == 0) {
+            return;
+        }
+        messageCount.increment();
+        keyCount.add(message.getKeys().length);
+        if (closed) {
+            List<CacheMessage> list = new ArrayList<>(1);
+            list.add(message);
+            flush(list);
+            return;
+        }
+        try {
+            if (!queue.offer(message, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                droppedMessageCount.increment();
+                logger.warn("cache message queue is full, message dropped. area={}, cacheName={}",
+                        message.getArea(), message.getCacheName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedMessageCount.increment();
+        }
+    }
+
+    private void run() {
+        List<CacheMessage> batch = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                CacheMessage first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // wait for the window, so keys updated again in the window are sent once
+                long deadline = System.nanoTime() + windowNanos;
+                long rest;
+                while (!closed && (rest = deadline - System.nanoTime()) > 0) {
+                    CacheMessage m = queue.poll(rest, TimeUnit.NANOSECONDS);
+                    if (m == null) {
+                        break;
+                    }
+                    batch.add(m);
+                }
+                queue.drainTo(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                logger.warn("cache message publisher is interrupted");
+                return;
+            } catch (Throwable e) {
+                logger.error("publish cache message error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<CacheMessage> batch) {
+        // key -> encoded value of TYPE_PUT with value, or null for invalidation; the last update of a key wins
+        Map<String, Map<String, Map<Object, byte[]>>> updatesOfCaches = new LinkedHashMap<>();
+        int total = 0;
+        int unique = 0;
+        for (CacheMessage m : batch) {
+            Map<Object, byte[]> updates = updatesOfCaches.computeIfAbsent(m.getArea(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(m.getCacheName(), k -> new LinkedHashMap<>());
+            Object[] keys = m.getKeys();
+            Object[] values = m.getType() == CacheMessage.TYPE_PUT ? m.getValues() : null;
+            for (int i = 0; i < keys.length; i++) {
+                total++;
+                Object key = keys[i] instanceof byte[] ? ByteBuffer.wrap((byte[]) keys[i]) : keys[i];
+                byte[] value = values != null && i < values.length ? (byte[]) values[i] : null;
+                if (!updates.containsKey(key)) {
+                    unique++;
+                }
+                updates.put(key, value);
+            }
+        }
+        coalescedKeyCount.add(total - unique);
+
+        FrameBuilder frameBuilder = new FrameBuilder();
+        updatesOfCaches.forEach((area, caches) -> caches.forEach((cacheName, updates) -> {
+            List<Object> invalidatedKeys = new ArrayList<>();
+            List<Object> putKeys = new ArrayList<>();
+            List<Object> putValues = new ArrayList<>();
+            updates.forEach((key, value) -> {
+                Object k = key instanceof ByteBuffer ? ((ByteBuffer) key).array() : key;
+                if (value == null) {
+                    invalidatedKeys.add(k);
+                } else {
+                    putKeys.add(k);
+                    putValues.add(value);
+                }
+            });
+            frameBuilder.add(area, cacheName, CacheMessage.TYPE_INVALIDATE, invalidatedKeys, null);
+            frameBuilder.add(area, cacheName, CacheMessage.TYPE_PUT, putKeys, putValues);
+        }));
+        frameBuilder.flush();
+    }
+
+    private class FrameBuilder {
+        private List<CacheMessage> frame = new ArrayList<>();
+        private int frameKeys;
+
+        void add(String area, String cacheName, int type, List<Object> keys, List<Object> values) {
+            for (int from = 0; from < keys.size(); ) {
+                int to = Math.min(keys.size(), from + maxKeysPerFrame - frameKeys);
+                CacheMessage m = new CacheMessage();
+                m.setArea(area);
+                m.setCacheName(cacheName);
+                m.setType(type);
+                m.setKeys(keys.subList(from, to).toArray());
+                if (values != null) {
+                    m.setValues(values.subList(from, to).toArray());
+                }
+                frame.add(m);
+                frameKeys += to - from;
+                from = to;
+                if (frameKeys >= maxKeysPerFrame) {
+                    flush();
+                }
+            }
+        }
+
+        void flush() {
+            if (!frame.isEmpty()) {
+                send(frame);
+                frame = new ArrayList<>();
+                frameKeys = 0;
+            }
+        }
+    }
+
+    private void send(List<CacheMessage> frame) {
+        try {
+            byte[] bytes = CompactCacheMessageCodec.encode(sourceId, frame);
+            sender.accept(bytes);
+            frameCount.increment();
+            frameBytes.add(bytes.length);
+        } catch (Throwable e) {
+            errorCount.increment();
+            logger.error("send cache message frame error", e);
+        }
+    }
+
+    CacheMessagePublishStat getStat() {
+        CacheMessagePublishStat s = new CacheMessagePublishStat();
+        s.setMessageCount(messageCount.sum());
+        s.setKeyCount(keyCount.sum());
+        s.setCoalescedKeyCount(coalescedKeyCount.sum());
+        s.setFrameCount(frameCount.sum());
+        s.setFrameBytes(frameBytes.sum());
+        s.setDroppedMessageCount(droppedMessageCount.sum());
+        s.setErrorCount(errorCount.sum());
+        s.setPendingMessageCount(queue.size());
+        return s;
+    }
+
+    /**
+     * Stop the thread after the pending messages are sent.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join(IDLE_POLL_MILLIS + windowNanos / 1_000_000 + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.alicp.jetcache.support;
+
+/**
+ * Statistics of the asynchronous publishing of {@link AbstractCacheMessagePubSub}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheMessagePublishStat {
+    private long messageCount;
+    private long keyCount;
+    private long coalescedKeyCount;
+    private long frameCount;
+    private long frameBytes;
+    private long droppedMessageCount;
+    private long errorCount;
+    private int pendingMessageCount;
+
+    public double avgKeysPerFrame() {
+        return frameCount == 0 ? 0 : (double) (keyCount - coalescedKeyCount) / frameCount;
+    }
+
+    public double avgFrameBytes() {
+        return frameCount == 0 ? 0 : (double) frameBytes / frameCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheMessagePublishStat{messageCount=" + messageCount + ", keyCount=" + keyCount
+                + ", coalescedKeyCount=" + coalescedKeyCount + ", frameCount=" + frameCount
+                + ", frameBytes=" + frameBytes + ", droppedMessageCount=" + droppedMessageCount
+                + ", errorCount=" + errorCount + ", pendingMessageCount=" + pendingMessageCount + "}";
+    }
+
+    //---------------------------------------------------------------------
+
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    public void setMessageCount(long messageCount) {
+        this.messageCount = messageCount;
+    }
+
+    public long getKeyCount() {
+        return keyCount;
+    }
+
+    public void setKeyCount(long keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    public long getCoalescedKeyCount() {
+        return coalescedKeyCount;
+    }
+
+    public void setCoalescedKeyCount(long coalescedKeyCount) {
+        this.coalescedKeyCount = coalescedKeyCount;
+    }
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public void setFrameCount(long frameCount) {
+        this.frameCount = frameCount;
+    }
+
+    public long getFrameBytes() {
+        return frameBytes;
+    }
+
+    public void setFrameBytes(long frameBytes) {
+        this.frameBytes = frameBytes;
+    }
+
+    public long getDroppedMessageCount() {
+        return droppedMessageCount;
+    }
+
+    public void setDroppedMessageCount(long droppedMessageCount) {
+        this.droppedMessageCount = droppedMessageCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getPendingMessageCount() {
+        return pendingMessageCount;
+    }
+
+    public void setPendingMessageCount(int pendingMessageCount) {
+        this.pendingMessageCount = pendingMessageCount;
+    }
+}
@@ -0,0 +1,26 @@
+package com.alicp.jetcache.support;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Receive the {@link CacheMessage}s published by {@link CacheMessagePublisher} of other nodes.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public interface CacheMessageSubscriber extends AutoCloseable {
+
+    /**
+     * Start receiving messages. The consumer is called with a batch of messages and never in the I/O thread
+     * of the client, messages published by this node itself are skipped.
+     */
+    void subscribe(Consumer<List<CacheMessage>> consumer);
+
+    /**
+     * Stop receiving messages.
+     */
+    @Override
+    void close();
+}
@@ -3,6 +3,8 @@ package com.alicp.jetcache.support;
 import com.alicp.jetcache.CacheException;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Created on 2016/10/27.
@@ -25,6 +27,10 @@ public class CacheStat implements Serializable, Cloneable {
     protected long getTimeSum;
     protected long minGetTime = Long.MAX_VALUE;
     protected long maxGetTime = 0;
+    // percentiles in milliseconds, computed from a microsecond resolution histogram
+    protected double p50GetTime;
+    protected double p99GetTime;
+    protected double p999GetTime;
 
     protected long putCount;
     protected long putSuccessCount;
@@ -32,6 +38,9 @@ public class CacheStat implements Serializable, Cloneable {
     protected long putTimeSum;
     protected long minPutTime = Long.MAX_VALUE;
     protected long maxPutTime = 0;
+    protected double p50PutTime;
+    protected double p99PutTime;
+    protected double p999PutTime;
 
     protected long removeCount;
     protected long removeSuccessCount;
@@ -39,6 +48,9 @@ public class CacheStat implements Serializable, Cloneable {
     protected long removeTimeSum;
     protected long minRemoveTime = Long.MAX_VALUE;
     protected long maxRemoveTime = 0;
+    protected double p50RemoveTime;
+    protected double p99RemoveTime;
+    protected double p999RemoveTime;
 
     protected long loadCount;
     protected long loadSuccessCount;
@@ -46,6 +58,28 @@ public class CacheStat implements Serializable, Cloneable {
     protected long loadTimeSum;
     protected long minLoadTime = Long.MAX_VALUE;
     protected long maxLoadTime = 0;
+    protected double p50LoadTime;
+    protected double p99LoadTime;
+    protected double p999LoadTime;
+
+    protected long negativeLookupRejectCount;
+    protected long negativeLookupFalsePositiveCount;
+
+    protected long getBatchCount;
+    protected long getBatchKeyCount;
+    protected long getBatchRequestCount;
+    // microseconds
+    protected long getBatchQueueTimeSum;
+    protected double p99GetBatchQueueTime;
+
+    protected long writeBehindFlushCount;
+    protected long writeBehindCoalescedCount;
+    protected long writeBehindDroppedCount;
+    protected long maxWriteBehindPendingCount;
+
+    protected long hotKeyPromoteCount;
+    protected long hotKeyDemoteCount;
+    protected List<String> hotKeys = Collections.emptyList();
 
     @Override
     public CacheStat clone() {
@@ -92,6 +126,38 @@ public class CacheStat implements Serializable, Cloneable {
         return 1.0 * getHitCount / getCount;
     }
 
+    /**
+     * False positive rate of the NegativeLookupFilter: keys passed the filter but not exist,
+     * divided by all keys not exist.
+     */
+    public double negativeLookupFalsePositiveRate() {
+        long negative = negativeLookupRejectCount + negativeLookupFalsePositiveCount;
+        if (negative == 0) {
+            return 0;
+        }
+        return 1.0 * negativeLookupFalsePositiveCount / negative;
+    }
+
+    /**
+     * Average distinct keys of merged GET batches.
+     */
+    public double avgGetBatchSize() {
+        if (getBatchCount == 0) {
+            return 0;
+        }
+        return 1.0 * getBatchKeyCount / getBatchCount;
+    }
+
+    /**
+     * Average time in milliseconds a merged GET waited before its batch was sent.
+     */
+    public double avgGetBatchQueueTime() {
+        if (getBatchRequestCount == 0) {
+            return 0;
+        }
+        return getBatchQueueTimeSum / 1000.0 / getBatchRequestCount;
+    }
+
     public double avgGetTime() {
         if (getCount == 0) {
             return 0;
@@ -187,6 +253,30 @@ public class CacheStat implements Serializable, Cloneable {
         this.maxGetTime = maxGetTime;
     }
 
+    public double getP50GetTime() {
+        return p50GetTime;
+    }
+
+    public void setP50GetTime(double p50GetTime) {
+        this.p50GetTime = p50GetTime;
+    }
+
+    public double getP99GetTime() {
+        return p99GetTime;
+    }
+
+    public void setP99GetTime(double p99GetTime) {
+        this.p99GetTime = p99GetTime;
+    }
+
+    public double getP999GetTime() {
+        return p999GetTime;
+    }
+
+    public void setP999GetTime(double p999GetTime) {
+        this.p999GetTime = p999GetTime;
+    }
+
     public long getPutCount() {
         return putCount;
     }
@@ -235,6 +325,30 @@ public class CacheStat implements Serializable, Cloneable {
         this.maxPutTime = maxPutTime;
     }
 
+    public double getP50PutTime() {
+        return p50PutTime;
+    }
+
+    public void setP50PutTime(double p50PutTime) {
+        this.p50PutTime = p50PutTime;
+    }
+
+    public double getP99PutTime() {
+        return p99PutTime;
+    }
+
+    public void setP99PutTime(double p99PutTime) {
+        this.p99PutTime = p99PutTime;
+    }
+
+    public double getP999PutTime() {
+        return p999PutTime;
+    }
+
+    public void setP999PutTime(double p999PutTime) {
+        this.p999PutTime = p999PutTime;
+    }
+
     public long getRemoveCount() {
         return removeCount;
     }
@@ -283,6 +397,30 @@ public class CacheStat implements Serializable, Cloneable {
         this.maxRemoveTime = maxRemoveTime;
     }
 
+    public double getP50RemoveTime() {
+        return p50RemoveTime;
+    }
+
+    public void setP50RemoveTime(double p50RemoveTime) {
+        this.p50RemoveTime = p50RemoveTime;
+    }
+
+    public double getP99RemoveTime() {
+        return p99RemoveTime;
+    }
+
+    public void setP99RemoveTime(double p99RemoveTime) {
+        this.p99RemoveTime = p99RemoveTime;
+    }
+
+    public double getP999RemoveTime() {
+        return p999RemoveTime;
+    }
+
+    public void setP999RemoveTime(double p999RemoveTime) {
+        this.p999RemoveTime = p999RemoveTime;
+    }
+
     public long getLoadCount() {
         return loadCount;
     }
@@ -331,6 +469,30 @@ public class CacheStat implements Serializable, Cloneable {
         this.maxLoadTime = maxLoadTime;
     }
 
+    public double getP50LoadTime() {
+        return p50LoadTime;
+    }
+
+    public void setP50LoadTime(double p50LoadTime) {
+        this.p50LoadTime = p50LoadTime;
+    }
+
+    public double getP99LoadTime() {
+        return p99LoadTime;
+    }
+
+    public void setP99LoadTime(double p99LoadTime) {
+        this.p99LoadTime = p99LoadTime;
+    }
+
+    public double getP999LoadTime() {
+        return p999LoadTime;
+    }
+
+    public void setP999LoadTime(double p999LoadTime) {
+        this.p999LoadTime = p999LoadTime;
+    }
+
     public long getStatStartTime() {
         return statStartTime;
     }
@@ -354,4 +516,119 @@ public class CacheStat implements Serializable, Cloneable {
     public void setCacheName(String cacheName) {
         this.cacheName = cacheName;
     }
+
+    public long getNegativeLookupRejectCount() {
+        return negativeLookupRejectCount;
+    }
+
+    public void setNegativeLookupRejectCount(long negativeLookupRejectCount) {
+        this.negativeLookupRejectCount = negativeLookupRejectCount;
+    }
+
+    public long getNegativeLookupFalsePositiveCount() {
+        return negativeLookupFalsePositiveCount;
+    }
+
+    public void setNegativeLookupFalsePositiveCount(long negativeLookupFalsePositiveCount) {
+        this.negativeLookupFalsePositiveCount = negativeLookupFalsePositiveCount;
+    }
+
+    public long getGetBatchCount() {
+        return getBatchCount;
+    }
+
+    public void setGetBatchCount(long getBatchCount) {
+        this.getBatchCount = getBatchCount;
+    }
+
+    public long getGetBatchKeyCount() {
+        return getBatchKeyCount;
+    }
+
+    public void setGetBatchKeyCount(long getBatchKeyCount) {
+        this.getBatchKeyCount = getBatchKeyCount;
+    }
+
+    public long getGetBatchRequestCount() {
+        return getBatchRequestCount;
+    }
+
+    public void setGetBatchRequestCount(long getBatchRequestCount) {
+        this.getBatchRequestCount = getBatchRequestCount;
+    }
+
+    public long getGetBatchQueueTimeSum() {
+        return getBatchQueueTimeSum;
+    }
+
+    public void setGetBatchQueueTimeSum(long getBatchQueueTimeSum) {
+        this.getBatchQueueTimeSum = getBatchQueueTimeSum;
+    }
+
+    public double getP99GetBatchQueueTime() {
+        return p99GetBatchQueueTime;
+    }
+
+    public void setP99GetBatchQueueTime(double p99GetBatchQueueTime) {
+        this.p99GetBatchQueueTime = p99GetBatchQueueTime;
+    }
+
+    public long getWriteBehindFlushCount() {
+        return writeBehindFlushCount;
+    }
+
+    public void setWriteBehindFlushCount(long writeBehindFlushCount) {
+        this.writeBehindFlushCount = writeBehindFlushCount;
+    }
+
+    public long getWriteBehindCoalescedCount() {
+        return writeBehindCoalescedCount;
+    }
+
+    public void setWriteBehindCoalescedCount(long writeBehindCoalescedCount) {
+        this.writeBehindCoalescedCount = writeBehindCoalescedCount;
+    }
+
+    public long getWriteBehindDroppedCount() {
+        return writeBehindDroppedCount;
+    }
+
+    public void setWriteBehindDroppedCount(long writeBehindDroppedCount) {
+        this.writeBehindDroppedCount = writeBehindDroppedCount;
+    }
+
+    public long getMaxWriteBehindPendingCount() {
+        return maxWriteBehindPendingCount;
+    }
+
+    public void setMaxWriteBehindPendingCount(long maxWriteBehindPendingCount) {
+        this.maxWriteBehindPendingCount = maxWriteBehindPendingCount;
+    }
+
+    public long getHotKeyPromoteCount() {
+        return hotKeyPromoteCount;
+    }
+
+    public void setHotKeyPromoteCount(long hotKeyPromoteCount) {
+        this.hotKeyPromoteCount = hotKeyPromoteCount;
+    }
+
+    public long getHotKeyDemoteCount() {
+        return hotKeyDemoteCount;
+    }
+
+    public void setHotKeyDemoteCount(long hotKeyDemoteCount) {
+        this.hotKeyDemoteCount = hotKeyDemoteCount;
+    }
+
+    /**
+     * Keys served from the local hot key tier when the stat is taken.
+     */
+    public List<String> getHotKeys() {
+        return hotKeys;
+    }
+
+    public void setHotKeys(List<String> hotKeys) {
+        this.hotKeys = hotKeys;
+    }
 }
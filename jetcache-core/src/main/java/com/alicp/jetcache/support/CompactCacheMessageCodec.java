@@ -0,0 +1,190 @@
+package com.alicp.jetcache.support;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact binary frame which carries the messages of several caches:
+ * <pre>
+ * frame   = magic(4) version(1) sourceId count(varint) message*
+ * message = area cacheName type(1) keyCount(varint) entry*
+ * entry   = key value?
+ * key     = tag(1) length(varint) bytes
+ * value   = length(varint) bytes, only if bit 0x40 of type is set (TYPE_PUT messages with values)
+ * string  = length(varint) utf8
+ * </pre>
+ * Keys are already converted by the key convertor of the cache. String and byte[] keys are written as the same
+ * bytes of the external key without the prefix, other keys are written by java serialization.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+final class CompactCacheMessageCodec {
+
+    // "JCMF", differs from the identity numbers of value encoders
+    static final int MAGIC = 0x4A434D46;
+    private static final int VERSION = 1;
+
+    // set in the type byte if each key is followed by a value
+    private static final int FLAG_VALUES = 0x40;
+
+    private static final int TAG_STRING = 0;
+    private static final int TAG_BYTES = 1;
+    private static final int TAG_SERIALIZED = 2;
+
+    private static final JavaValueEncoder KEY_ENCODER = new JavaValueEncoder(false);
+    private static final JavaValueDecoder KEY_DECODER = new JavaValueDecoder(false);
+
+    private CompactCacheMessageCodec() {
+    }
+
+    static boolean isFrame(byte[] bytes) {
+        return bytes.length >= 5 && ByteBuffer.wrap(bytes).getInt() == MAGIC;
+    }
+
+    static byte[] encode(String sourceId, List<CacheMessage> messages) {
+        Output out = new Output();
+        out.writeInt(MAGIC);
+        out.write(VERSION);
+        out.writeString(sourceId);
+        out.writeVarInt(messages.size());
+        for (CacheMessage m : messages) {
+            out.writeString(m.getArea());
+            out.writeString(m.getCacheName());
+            Object[] keys = m.getKeys();
+            Object[] values = m.getValues();
+            boolean withValues = m.getType() == CacheMessage.TYPE_PUT && values != null;
+            out.write(withValues ? m.getType() | FLAG_VALUES : m.getType());
+            out.writeVarInt(keys == null ? 0 : keys.length);
+            if (keys != null) {
+                for (int i = 0; i < keys.length; i++) {
+                    writeKey(out, keys[i]);
+                    if (withValues) {
+                        byte[] value = (byte[]) values[i];
+                        out.writeVarInt(value.length);
+                        out.write(value, 0, value.length);
+                    }
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeKey(Output out, Object key) {
+        byte[] bytes;
+        if (key instanceof String) {
+            out.write(TAG_STRING);
+            bytes = ((String) key).getBytes(StandardCharsets.UTF_8);
+        } else if (key instanceof byte[]) {
+            out.write(TAG_BYTES);
+            bytes = (byte[]) key;
+        } else {
+            out.write(TAG_SERIALIZED);
+            bytes = KEY_ENCODER.apply(key);
+        }
+        out.writeVarInt(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static List<CacheMessage> decode(byte[] frame) {
+        ByteBuffer in = ByteBuffer.wrap(frame);
+        if (in.getInt() != MAGIC) {
+            throw new CacheEncodeException("not a cache message frame", null);
+        }
+        int version = in.get();
+        if (version != VERSION) {
+            throw new CacheEncodeException("unknown cache message frame version: " + version, null);
+        }
+        String sourceId = readString(in);
+        int count = readVarInt(in);
+        List<CacheMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CacheMessage m = new CacheMessage();
+            m.setSourceId(sourceId);
+            m.setArea(readString(in));
+            m.setCacheName(readString(in));
+            int type = in.get();
+            boolean withValues = (type & FLAG_VALUES) != 0;
+            m.setType(type & ~FLAG_VALUES);
+            Object[] keys = new Object[readVarInt(in)];
+            Object[] values = withValues ? new Object[keys.length] : null;
+            for (int j = 0; j < keys.length; j++) {
+                keys[j] = readKey(in);
+                if (withValues) {
+                    byte[] value = new byte[readVarInt(in)];
+                    in.get(value);
+                    values[j] = value;
+                }
+            }
+            m.setKeys(keys);
+            m.setValues(values);
+            messages.add(m);
+        }
+        return messages;
+    }
+
+    private static Object readKey(ByteBuffer in) {
+        int tag = in.get();
+        byte[] bytes = new byte[readVarInt(in)];
+        in.get(bytes);
+        switch (tag) {
+            case TAG_STRING:
+                return new String(bytes, StandardCharsets.UTF_8);
+            case TAG_BYTES:
+                return bytes;
+            case TAG_SERIALIZED:
+                return KEY_DECODER.apply(bytes);
+            default:
+                throw new CacheEncodeException("unknown key tag: " + tag, null);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new CacheEncodeException("malformed varint", null);
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+        Output() {
+            super(256);
+        }
+
+        void writeInt(int v) {
+            write(v >>> 24);
+            write(v >>> 16);
+            write(v >>> 8);
+            write(v);
+        }
+
+        void writeVarInt(int v) {
+            while ((v & ~0x7F) != 0) {
+                write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write(v);
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class DecoderMap {
         if (!inited) {
             register(JavaValueEncoder.IDENTITY_NUMBER, defaultJavaValueDecoder());
             register(KryoValueEncoder.IDENTITY_NUMBER, KryoValueDecoder.INSTANCE);
+            register(EnvelopeValueEncoder.IDENTITY_NUMBER, EnvelopeValueDecoder.INSTANCE);
             inited = true;
         }
     }
@@ -8,8 +8,14 @@ import com.alicp.jetcache.event.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Created on 2016/10/27.
@@ -20,8 +26,10 @@ public class DefaultCacheMonitor implements CacheMonitor {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultCacheMonitor.class);
 
-    protected CacheStat cacheStat;
+    private volatile Recorder recorder;
     private String cacheName;
+    // not reset with the stat
+    private final Set<String> hotKeys = ConcurrentHashMap.newKeySet();
 
     public DefaultCacheMonitor(String cacheName) {
         if (cacheName == null) {
@@ -36,85 +44,123 @@ public class DefaultCacheMonitor implements CacheMonitor {
     }
 
     public void resetStat() {
-        cacheStat = new CacheStat();
-        cacheStat.setStatStartTime(System.currentTimeMillis());
-        cacheStat.setCacheName(cacheName);
+        recorder = new Recorder(System.currentTimeMillis());
     }
 
-    public synchronized CacheStat getCacheStat() {
-        CacheStat stat = cacheStat.clone();
+    /**
+     * Take a snapshot of the current statistics, writers are not blocked.
+     */
+    public CacheStat getCacheStat() {
+        CacheStat stat = recorder.snapshot(cacheName);
         stat.setStatEndTime(System.currentTimeMillis());
+        if (!hotKeys.isEmpty()) {
+            List<String> list = new ArrayList<>(hotKeys);
+            Collections.sort(list);
+            stat.setHotKeys(list);
+        }
         return stat;
     }
 
     @Override
-    public synchronized void afterOperation(CacheEvent event) {
+    public void afterOperation(CacheEvent event) {
+        Recorder r = recorder;
         if (event instanceof CacheGetEvent) {
             CacheGetEvent e = (CacheGetEvent) event;
-            afterGet(e.getMillis(), e.getKey(), e.getResult());
+            afterGet(r, e.getMillis(), e.getNanos(), e.getKey(), e.getResult());
         } else if (event instanceof CachePutEvent) {
             CachePutEvent e = (CachePutEvent) event;
-            afterPut(e.getMillis(), e.getKey(), e.getValue(), e.getResult());
+            afterPut(r, e.getMillis(), e.getNanos(), e.getKey(), e.getValue(), e.getResult());
         } else if (event instanceof CacheRemoveEvent) {
             CacheRemoveEvent e = (CacheRemoveEvent) event;
-            afterRemove(e.getMillis(), e.getKey(), e.getResult());
+            afterRemove(r, e.getMillis(), e.getNanos(), e.getKey(), e.getResult());
         } else if (event instanceof CacheLoadEvent) {
             CacheLoadEvent e = (CacheLoadEvent) event;
-            afterLoad(e.getMillis(), e.getKey(), e.getLoadedValue(), e.isSuccess());
+            afterLoad(r, e.getMillis(), e.getNanos(), e.getKey(), e.getLoadedValue(), e.isSuccess());
         } else if (event instanceof CacheGetAllEvent) {
             CacheGetAllEvent e = (CacheGetAllEvent) event;
-            afterGetAll(e.getMillis(), e.getKeys(), e.getResult());
+            afterGetAll(r, e.getMillis(), e.getNanos(), e.getKeys(), e.getResult());
         } else if (event instanceof CacheLoadAllEvent) {
             CacheLoadAllEvent e = (CacheLoadAllEvent) event;
-            afterLoadAll(e.getMillis(), e.getKeys(), e.getLoadedValue(), e.isSuccess());
+            afterLoadAll(r, e.getMillis(), e.getNanos(), e.getKeys(), e.getLoadedValue(), e.isSuccess());
         } else if (event instanceof CachePutAllEvent) {
             CachePutAllEvent e = (CachePutAllEvent) event;
-            afterPutAll(e.getMillis(), e.getMap(), e.getResult());
+            afterPutAll(r, e.getMillis(), e.getNanos(), e.getMap(), e.getResult());
         } else if (event instanceof CacheRemoveAllEvent) {
             CacheRemoveAllEvent e = (CacheRemoveAllEvent) event;
-            afterRemoveAll(e.getMillis(), e.getKeys(), e.getResult());
+            afterRemoveAll(r, e.getMillis(), e.getNanos(), e.getKeys(), e.getResult());
+        } else if (event instanceof CacheNegativeLookupEvent) {
+            if (((CacheNegativeLookupEvent) event).isFalsePositive()) {
+                r.negativeLookupFalsePositiveCount.increment();
+            } else {
+                r.negativeLookupRejectCount.increment();
+            }
+        } else if (event instanceof CacheGetBatchEvent) {
+            CacheGetBatchEvent e = (CacheGetBatchEvent) event;
+            afterGetBatch(r, e.getKeyCount(), e.getQueueNanos());
+        } else if (event instanceof CacheWriteBehindEvent) {
+            CacheWriteBehindEvent e = (CacheWriteBehindEvent) event;
+            r.writeBehindFlushCount.add(e.getFlushedCount());
+            r.writeBehindCoalescedCount.add(e.getCoalescedCount());
+            r.writeBehindDroppedCount.add(e.getDroppedCount());
+            r.maxWriteBehindPendingCount.accumulate(e.getPendingCount());
+        } else if (event instanceof CacheHotKeyEvent) {
+            CacheHotKeyEvent e = (CacheHotKeyEvent) event;
+            String key = String.valueOf(e.getKey());
+            if (e.isPromoted()) {
+                r.hotKeyPromoteCount.increment();
+                hotKeys.add(key);
+            } else {
+                r.hotKeyDemoteCount.increment();
+                hotKeys.remove(key);
+            }
         }
     }
 
-    private void afterGet(long millis, Object key, CacheGetResult result) {
-        cacheStat.minGetTime = Math.min(cacheStat.minGetTime, millis);
-        cacheStat.maxGetTime = Math.max(cacheStat.maxGetTime, millis);
-        cacheStat.getTimeSum += millis;
-        cacheStat.getCount++;
-        parseSingleGet(result);
+    private void afterGetBatch(Recorder r, int keyCount, long[] queueNanos) {
+        r.getBatchCount.increment();
+        r.getBatchKeyCount.add(keyCount);
+        r.getBatchRequestCount.add(queueNanos.length);
+        for (long nanos : queueNanos) {
+            r.getBatchQueueTimeSum.add(nanos / 1000);
+            r.getBatchQueueHistogram.recordNanos(nanos);
+        }
     }
 
-    private void parseSingleGet(CacheGetResult result) {
+    private void afterGet(Recorder r, long millis, long nanos, Object key, CacheGetResult result) {
+        r.get.time(millis, nanos);
+        r.get.count.increment();
+        parseSingleGet(r, result);
+    }
+
+    private void parseSingleGet(Recorder r, CacheGetResult result) {
         switch (result.getResultCode()) {
             case SUCCESS:
-                cacheStat.getHitCount++;
+                r.getHitCount.increment();
                 break;
             case NOT_EXISTS:
-                cacheStat.getMissCount++;
+                r.getMissCount.increment();
                 break;
             case EXPIRED:
-                cacheStat.getExpireCount++;
+                r.getExpireCount.increment();
                 break;
             case FAIL:
-                cacheStat.getFailCount++;
+                r.get.failCount.increment();
                 break;
             default:
                 logger.warn("jetcache get return unexpected code: " + result.getResultCode());
         }
     }
 
-    private void afterPut(long millis, Object key, Object value, CacheResult result) {
-        cacheStat.minPutTime = Math.min(cacheStat.minPutTime, millis);
-        cacheStat.maxPutTime = Math.max(cacheStat.maxPutTime, millis);
-        cacheStat.putTimeSum += millis;
-        cacheStat.putCount++;
+    private void afterPut(Recorder r, long millis, long nanos, Object key, Object value, CacheResult result) {
+        r.put.time(millis, nanos);
+        r.put.count.increment();
         switch (result.getResultCode()) {
             case SUCCESS:
-                cacheStat.putSuccessCount++;
+                r.put.successCount.increment();
                 break;
             case FAIL:
             case PART_SUCCESS:
-                cacheStat.putFailCount++;
+                r.put.failCount.increment();
                 break;
             case EXISTS:
                 break;
@@ -123,102 +169,217 @@ public class DefaultCacheMonitor implements CacheMonitor {
         }
     }
 
-    private void afterRemove(long millis, Object key, CacheResult result) {
-        cacheStat.minRemoveTime = Math.min(cacheStat.minRemoveTime, millis);
-        cacheStat.maxRemoveTime = Math.max(cacheStat.maxRemoveTime, millis);
-        cacheStat.removeTimeSum += millis;
-        cacheStat.removeCount++;
+    private void afterRemove(Recorder r, long millis, long nanos, Object key, CacheResult result) {
+        r.remove.time(millis, nanos);
+        r.remove.count.increment();
         switch (result.getResultCode()) {
             case SUCCESS:
             case NOT_EXISTS:
-                cacheStat.removeSuccessCount++;
+                r.remove.successCount.increment();
                 break;
             case FAIL:
             case PART_SUCCESS:
-                cacheStat.removeFailCount++;
+                r.remove.failCount.increment();
                 break;
             default:
                 logger.warn("jetcache REMOVE return unexpected code: " + result.getResultCode());
         }
     }
 
-    private void afterLoad(long millis, Object key, Object loadedValue, boolean success) {
-        cacheStat.minLoadTime = Math.min(cacheStat.minLoadTime, millis);
-        cacheStat.maxLoadTime = Math.max(cacheStat.maxLoadTime, millis);
-        cacheStat.loadTimeSum += millis;
-        cacheStat.loadCount++;
+    private void afterLoad(Recorder r, long millis, long nanos, Object key, Object loadedValue, boolean success) {
+        r.load.time(millis, nanos);
+        r.load.count.increment();
         if (success) {
-            cacheStat.loadSuccessCount++;
+            r.load.successCount.increment();
         } else {
-            cacheStat.loadFailCount++;
+            r.load.failCount.increment();
         }
     }
 
-    private void afterLoadAll(long millis, Set keys, Map loadedValue, boolean success) {
+    private void afterLoadAll(Recorder r, long millis, long nanos, Set keys, Map loadedValue, boolean success) {
         if (keys == null) {
             return;
         }
         int count = keys.size();
-        cacheStat.minLoadTime = Math.min(cacheStat.minLoadTime, millis);
-        cacheStat.maxLoadTime = Math.max(cacheStat.maxLoadTime, millis);
-        cacheStat.loadTimeSum += millis;
-        cacheStat.loadCount += count;
+        r.load.time(millis, nanos);
+        r.load.count.add(count);
         if (success) {
-            cacheStat.loadSuccessCount += count;
+            r.load.successCount.add(count);
         } else {
-            cacheStat.loadFailCount += count;
+            r.load.failCount.add(count);
         }
     }
 
-    private void afterGetAll(long millis, Set keys, MultiGetResult result) {
+    private void afterGetAll(Recorder r, long millis, long nanos, Set keys, MultiGetResult result) {
         if (keys == null) {
             return;
         }
         int keyCount = keys.size();
-        cacheStat.minGetTime = Math.min(cacheStat.minGetTime, millis);
-        cacheStat.maxGetTime = Math.max(cacheStat.maxGetTime, millis);
-        cacheStat.getTimeSum += millis;
-        cacheStat.getCount += keyCount;
+        r.get.time(millis, nanos);
+        r.get.count.add(keyCount);
         Map resultValues = result.getValues();
         if (resultValues == null) {
-            cacheStat.getFailCount += keyCount;
+            r.get.failCount.add(keyCount);
         } else {
             for (Object singleResult : resultValues.values()) {
-                CacheGetResult r = ((CacheGetResult) singleResult);
-                parseSingleGet(r);
+                CacheGetResult cr = ((CacheGetResult) singleResult);
+                parseSingleGet(r, cr);
             }
         }
     }
 
-    private void afterRemoveAll(long millis, Set keys, CacheResult result) {
+    private void afterRemoveAll(Recorder r, long millis, long nanos, Set keys, CacheResult result) {
         if (keys == null) {
             return;
         }
         int keyCount = keys.size();
-        cacheStat.minRemoveTime = Math.min(cacheStat.minRemoveTime, millis);
-        cacheStat.maxRemoveTime = Math.max(cacheStat.maxRemoveTime, millis);
-        cacheStat.removeTimeSum += millis;
-        cacheStat.removeCount += keyCount;
+        r.remove.time(millis, nanos);
+        r.remove.count.add(keyCount);
         if (result.isSuccess()) {
-            cacheStat.removeSuccessCount += keyCount;
+            r.remove.successCount.add(keyCount);
         } else {
-            cacheStat.removeFailCount += keyCount;
+            r.remove.failCount.add(keyCount);
         }
     }
 
-    private void afterPutAll(long millis, Map map, CacheResult result) {
+    private void afterPutAll(Recorder r, long millis, long nanos, Map map, CacheResult result) {
         if (map == null) {
             return;
         }
         int keyCount = map.size();
-        cacheStat.minPutTime = Math.min(cacheStat.minPutTime, millis);
-        cacheStat.maxPutTime = Math.max(cacheStat.maxPutTime, millis);
-        cacheStat.putTimeSum += millis;
-        cacheStat.putCount += keyCount;
+        r.put.time(millis, nanos);
+        r.put.count.add(keyCount);
         if (result.isSuccess()) {
-            cacheStat.putSuccessCount += keyCount;
+            r.put.successCount.add(keyCount);
         } else {
-            cacheStat.putFailCount += keyCount;
+            r.put.failCount.add(keyCount);
+        }
+    }
+
+    /**
+     * Counters of one operation type. Every field can be updated concurrently without locking.
+     */
+    private static class OperStat {
+        final LongAdder count = new LongAdder();
+        final LongAdder successCount = new LongAdder();
+        final LongAdder failCount = new LongAdder();
+        final LongAdder timeSum = new LongAdder();
+        final LongAccumulator minTime = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        void time(long millis, long nanos) {
+            minTime.accumulate(millis);
+            maxTime.accumulate(millis);
+            timeSum.add(millis);
+            histogram.recordNanos(nanos);
+        }
+
+        double[] percentiles() {
+            double[] p = LatencyHistogram.percentiles(histogram.snapshot(), 0.5, 0.99, 0.999);
+            for (int i = 0; i < p.length; i++) {
+                p[i] = p[i] / 1000;
+            }
+            return p;
+        }
+    }
+
+    /**
+     * All counters of a stat period, resetStat() replaces the whole recorder instead of clearing it.
+     */
+    private static class Recorder {
+        final long statStartTime;
+        final OperStat get = new OperStat();
+        final LongAdder getHitCount = new LongAdder();
+        final LongAdder getMissCount = new LongAdder();
+        final LongAdder getExpireCount = new LongAdder();
+        final OperStat put = new OperStat();
+        final OperStat remove = new OperStat();
+        final OperStat load = new OperStat();
+        final LongAdder negativeLookupRejectCount = new LongAdder();
+        final LongAdder negativeLookupFalsePositiveCount = new LongAdder();
+        final LongAdder getBatchCount = new LongAdder();
+        final LongAdder getBatchKeyCount = new LongAdder();
+        final LongAdder getBatchRequestCount = new LongAdder();
+        final LongAdder getBatchQueueTimeSum = new LongAdder();
+        final LatencyHistogram getBatchQueueHistogram = new LatencyHistogram();
+        final LongAdder writeBehindFlushCount = new LongAdder();
+        final LongAdder writeBehindCoalescedCount = new LongAdder();
+        final LongAdder writeBehindDroppedCount = new LongAdder();
+        final LongAccumulator maxWriteBehindPendingCount = new LongAccumulator(Math::max, 0);
+        final LongAdder hotKeyPromoteCount = new LongAdder();
+        final LongAdder hotKeyDemoteCount = new LongAdder();
+
+        Recorder(long statStartTime) {
+            this.statStartTime = statStartTime;
+        }
+
+        CacheStat snapshot(String cacheName) {
+            CacheStat s = new CacheStat();
+            s.setCacheName(cacheName);
+            s.setStatStartTime(statStartTime);
+
+            s.setGetCount(get.count.sum());
+            s.setGetHitCount(getHitCount.sum());
+            s.setGetMissCount(getMissCount.sum());
+            s.setGetExpireCount(getExpireCount.sum());
+            s.setGetFailCount(get.failCount.sum());
+            s.setGetTimeSum(get.timeSum.sum());
+            s.setMinGetTime(get.minTime.get());
+            s.setMaxGetTime(get.maxTime.get());
+            double[] p = get.percentiles();
+            s.setP50GetTime(p[0]);
+            s.setP99GetTime(p[1]);
+            s.setP999GetTime(p[2]);
+
+            s.setPutCount(put.count.sum());
+            s.setPutSuccessCount(put.successCount.sum());
+            s.setPutFailCount(put.failCount.sum());
+            s.setPutTimeSum(put.timeSum.sum());
+            s.setMinPutTime(put.minTime.get());
+            s.setMaxPutTime(put.maxTime.get());
+            p = put.percentiles();
+            s.setP50PutTime(p[0]);
+            s.setP99PutTime(p[1]);
+            s.setP999PutTime(p[2]);
+
+            s.setRemoveCount(remove.count.sum());
+            s.setRemoveSuccessCount(remove.successCount.sum());
+            s.setRemoveFailCount(remove.failCount.sum());
+            s.setRemoveTimeSum(remove.timeSum.sum());
+            s.setMinRemoveTime(remove.minTime.get());
+            s.setMaxRemoveTime(remove.maxTime.get());
+            p = remove.percentiles();
+            s.setP50RemoveTime(p[0]);
+            s.setP99RemoveTime(p[1]);
+            s.setP999RemoveTime(p[2]);
+
+            s.setLoadCount(load.count.sum());
+            s.setLoadSuccessCount(load.successCount.sum());
+            s.setLoadFailCount(load.failCount.sum());
+            s.setLoadTimeSum(load.timeSum.sum());
+            s.setMinLoadTime(load.minTime.get());
+            s.setMaxLoadTime(load.maxTime.get());
+            p = load.percentiles();
+            s.setP50LoadTime(p[0]);
+            s.setP99LoadTime(p[1]);
+            s.setP999LoadTime(p[2]);
+
+            s.setNegativeLookupRejectCount(negativeLookupRejectCount.sum());
+            s.setNegativeLookupFalsePositiveCount(negativeLookupFalsePositiveCount.sum());
+
+            s.setGetBatchCount(getBatchCount.sum());
+            s.setGetBatchKeyCount(getBatchKeyCount.sum());
+            s.setGetBatchRequestCount(getBatchRequestCount.sum());
+            s.setGetBatchQueueTimeSum(getBatchQueueTimeSum.sum());
+            s.setWriteBehindFlushCount(writeBehindFlushCount.sum());
+            s.setWriteBehindCoalescedCount(writeBehindCoalescedCount.sum());
+            s.setWriteBehindDroppedCount(writeBehindDroppedCount.sum());
+            s.setMaxWriteBehindPendingCount(maxWriteBehindPendingCount.get());
+            s.setHotKeyPromoteCount(hotKeyPromoteCount.sum());
+            s.setHotKeyDemoteCount(hotKeyDemoteCount.sum());
+            s.setP99GetBatchQueueTime(LatencyHistogram.percentiles(getBatchQueueHistogram.snapshot(), 0.99)[0] / 1000);
+            return s;
         }
     }
 
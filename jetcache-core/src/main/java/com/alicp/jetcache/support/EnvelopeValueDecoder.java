@@ -0,0 +1,121 @@
+package com.alicp.jetcache.support;
+
+import com.alicp.jetcache.CacheValueHolder;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Decodes the envelope written by {@link EnvelopeValueEncoder}, the payload is decoded by the decoder registered in
+ * {@link DecoderMap} for its identity number.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class EnvelopeValueDecoder extends AbstractValueDecoder {
+
+    public static final EnvelopeValueDecoder INSTANCE = new EnvelopeValueDecoder();
+
+    private EnvelopeValueDecoder() {
+        super(true);
+    }
+
+    public static boolean isEnvelope(byte[] buf) {
+        return buf != null && buf.length >= EnvelopeValueEncoder.HEADER_SIZE
+                && readInt(buf, 0) == EnvelopeValueEncoder.IDENTITY_NUMBER;
+    }
+
+    /**
+     * Check the expire time in the header without decoding the value.
+     *
+     * @return true if buf is an envelope and expired, false if it's not expired or not an envelope
+     */
+    public static boolean isExpired(byte[] buf, long now) {
+        return isEnvelope(buf) && now >= readLong(buf, EnvelopeValueEncoder.EXPIRE_TIME_OFFSET);
+    }
+
+    /**
+     * Check the header only, the caller may defer decoding the value of a fresh envelope.
+     *
+     * @return true if buf is an envelope which is neither expired nor stale
+     */
+    public static boolean isFresh(byte[] buf, long now) {
+        if (!isEnvelope(buf) || now >= readLong(buf, EnvelopeValueEncoder.EXPIRE_TIME_OFFSET)) {
+            return false;
+        }
+        if ((buf[EnvelopeValueEncoder.VERSION_OFFSET] & EnvelopeValueEncoder.FLAG_SOFT_EXPIRE) != 0) {
+            return buf.length >= EnvelopeValueEncoder.HEADER_SIZE + 8
+                    && now < readLong(buf, EnvelopeValueEncoder.HEADER_SIZE);
+        }
+        return true;
+    }
+
+    public static boolean isEnvelope(ByteBuffer buf) {
+        return buf != null && buf.remaining() >= EnvelopeValueEncoder.HEADER_SIZE
+                && readInt(buf, buf.position()) == EnvelopeValueEncoder.IDENTITY_NUMBER;
+    }
+
+    /**
+     * Read the expire time in the header from the position of buf, which must be an envelope.
+     */
+    public static long expireTime(ByteBuffer buf) {
+        return readLong(buf, buf.position() + EnvelopeValueEncoder.EXPIRE_TIME_OFFSET);
+    }
+
+    @Override
+    protected Object doApply(byte[] buffer) throws Exception {
+        return doApply(ByteBuffer.wrap(buffer));
+    }
+
+    @Override
+    protected Object doApply(ByteBuffer buffer) throws Exception {
+        int start = buffer.position();
+        int versionAndFlags = buffer.get(start + EnvelopeValueEncoder.VERSION_OFFSET) & 0xFF;
+        int version = versionAndFlags >>> 4;
+        if (version != EnvelopeValueEncoder.VERSION) {
+            throw new IllegalStateException("unknown envelope version:" + version);
+        }
+        CacheValueHolder<Object> holder = new CacheValueHolder<>();
+        holder.setExpireTime(readLong(buffer, start + EnvelopeValueEncoder.EXPIRE_TIME_OFFSET));
+        int payloadOffset = start + EnvelopeValueEncoder.HEADER_SIZE;
+        if ((versionAndFlags & EnvelopeValueEncoder.FLAG_SOFT_EXPIRE) != 0) {
+            holder.setSoftExpireTime(readLong(buffer, payloadOffset));
+            payloadOffset += 8;
+        }
+        // the payload is decoded in place
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(payloadOffset);
+        int identityNumber = parseHeader(payload);
+        AbstractValueDecoder decoder = DecoderMap.getDecoder(identityNumber);
+        Objects.requireNonNull(decoder, "no decoder for identity number:" + identityNumber);
+        holder.setValue(decoder.doApply(payload));
+        return holder;
+    }
+
+    private static int readInt(byte[] buf, int offset) {
+        return (buf[offset] & 0xFF) << 24 | (buf[offset + 1] & 0xFF) << 16
+                | (buf[offset + 2] & 0xFF) << 8 | (buf[offset + 3] & 0xFF);
+    }
+
+    private static long readLong(byte[] buf, int offset) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = v << 8 | (buf[offset + i] & 0xFF);
+        }
+        return v;
+    }
+
+    private static int readInt(ByteBuffer buf, int index) {
+        return (buf.get(index) & 0xFF) << 24 | (buf.get(index + 1) & 0xFF) << 16
+                | (buf.get(index + 2) & 0xFF) << 8 | (buf.get(index + 3) & 0xFF);
+    }
+
+    private static long readLong(ByteBuffer buf, int index) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = v << 8 | (buf.get(index + i) & 0xFF);
+        }
+        return v;
+    }
+}
@@ -2,7 +2,9 @@ package com.alicp.jetcache.support;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Created on 2016/10/4.
@@ -29,7 +31,21 @@ public class JavaValueDecoder extends AbstractValueDecoder {
         return ois.readObject();
     }
 
+    @Override
+    protected Object doApply(ByteBuffer buffer) throws Exception {
+        ByteBuffer b = buffer.duplicate();
+        if (useIdentityNumber) {
+            b.position(b.position() + 4);
+        }
+        ObjectInputStream ois = buildObjectInputStream(new ByteBufferInputStream(b));
+        return ois.readObject();
+    }
+
     protected ObjectInputStream buildObjectInputStream(ByteArrayInputStream in) throws IOException {
+        return buildObjectInputStream((InputStream) in);
+    }
+
+    protected ObjectInputStream buildObjectInputStream(InputStream in) throws IOException {
         return new ObjectInputStream(in);
     }
 }
@@ -3,6 +3,7 @@ package com.alicp.jetcache.support;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.lang.ref.WeakReference;
 
 /**
@@ -57,4 +58,20 @@ public class JavaValueEncoder extends AbstractValueEncoder {
             throw new CacheEncodeException(sb.toString(), e);
         }
     }
+
+    @Override
+    public void encode(Object value, OutputStream out) {
+        try {
+            if (useIdentityNumber) {
+                writeHeader(out, IDENTITY_NUMBER);
+            }
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(value);
+            oos.flush();
+        } catch (IOException e) {
+            StringBuilder sb = new StringBuilder("Java Encode error. ");
+            sb.append("msg=").append(e.getMessage());
+            throw new CacheEncodeException(sb.toString(), e);
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.alicp.jetcache.support;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 
 import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Created on 2016/10/4.
@@ -26,7 +28,19 @@ public class KryoValueDecoder extends AbstractValueDecoder {
         } else {
             in = new ByteArrayInputStream(buffer);
         }
-        Input input = new Input(in);
+        return read(new Input(in));
+    }
+
+    @Override
+    protected Object doApply(ByteBuffer buffer) {
+        ByteBuffer b = buffer.duplicate();
+        if (useIdentityNumber) {
+            b.position(b.position() + 4);
+        }
+        return read(new ByteBufferInput(b));
+    }
+
+    private Object read(Input input) {
         Kryo kryo = (Kryo) KryoValueEncoder.kryoThreadLocal.get()[0];
         ClassLoader classLoader = KryoValueDecoder.class.getClassLoader();
         Thread t = Thread.currentThread();
@@ -4,6 +4,7 @@ import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Output;
 import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
 
+import java.io.OutputStream;
 import java.lang.ref.WeakReference;
 
 /**
@@ -19,6 +20,11 @@ public class KryoValueEncoder extends AbstractValueEncoder {
 
     private static int INIT_BUFFER_SIZE = 512;
 
+    private static final int STREAM_BUFFER_SIZE = 4096;
+
+    private static final ThreadLocal<byte[]> streamBufferThreadLocal =
+            ThreadLocal.withInitial(() -> new byte[STREAM_BUFFER_SIZE]);
+
     static ThreadLocal<Object[]> kryoThreadLocal = ThreadLocal.withInitial(() -> {
         Kryo kryo = new Kryo();
         kryo.setDefaultSerializer(CompatibleFieldSerializer.class);
@@ -67,6 +73,25 @@ public class KryoValueEncoder extends AbstractValueEncoder {
         }
     }
 
+    @Override
+    public void encode(Object value, OutputStream out) {
+        try {
+            Kryo kryo = (Kryo) kryoThreadLocal.get()[0];
+            // the buffer is flushed to the stream when full, so its size doesn't depend on the value
+            Output output = new Output(streamBufferThreadLocal.get());
+            output.setOutputStream(out);
+            if (useIdentityNumber) {
+                writeInt(output, IDENTITY_NUMBER);
+            }
+            kryo.writeClassAndObject(output, value);
+            output.flush();
+        } catch (Exception e) {
+            StringBuilder sb = new StringBuilder("Kryo Encode error. ");
+            sb.append("msg=").append(e.getMessage());
+            throw new CacheEncodeException(sb.toString(), e);
+        }
+    }
+
     private void writeInt(Output output, int value) {
         // kryo5 change writeInt to little endian, so we write int manually
         output.writeByte(value >>> 24);
@@ -0,0 +1,140 @@
+package com.alicp.jetcache.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free latency histogram with microsecond resolution.
+ * <p>
+ * Values below 32us get their own bucket, larger values use 16 linear sub-buckets per power of two, so the
+ * relative error of a percentile is below 1/16. Writers CAS a shared bucket array first and fall back to a
+ * per-thread stripe (created lazily) once they see contention, the same way LongAdder spreads its cells.
+ * Reading is a non-blocking sum over all stripes.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 5;
+    // values of 2^40us (about 12 days) and above share the last bucket
+    private static final int MAX_EXPONENT = 39;
+    static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicLongArray base = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    private static int stripeCount() {
+        int n = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        return Integer.highestOneBit(Math.max(n, 1));
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return micros < 0 ? 0 : (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + MIN_EXPONENT;
+        int sub = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub)) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long bucketWidth(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return 1;
+        }
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + MIN_EXPONENT;
+        return 1L << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public void recordNanos(long nanos) {
+        record(nanos / 1000);
+    }
+
+    public void record(long micros) {
+        int index = bucketIndex(micros);
+        long v = base.get(index);
+        if (base.compareAndSet(index, v, v + 1)) {
+            return;
+        }
+        stripe().incrementAndGet(index);
+    }
+
+    private AtomicLongArray stripe() {
+        long id = Thread.currentThread().getId();
+        int i = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        i = (i ^ (i >>> 16)) & (STRIPES - 1);
+        AtomicLongArray s = stripes.get(i);
+        if (s == null) {
+            stripes.compareAndSet(i, null, new AtomicLongArray(BUCKET_COUNT));
+            s = stripes.get(i);
+        }
+        return s;
+    }
+
+    /**
+     * Sum all stripes into one array. Concurrent writers are not blocked, so the result may miss records
+     * that happen during the call.
+     */
+    public long[] snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        add(counts, base);
+        for (int i = 0; i < STRIPES; i++) {
+            AtomicLongArray s = stripes.get(i);
+            if (s != null) {
+                add(counts, s);
+            }
+        }
+        return counts;
+    }
+
+    private static void add(long[] counts, AtomicLongArray a) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += a.get(i);
+        }
+    }
+
+    /**
+     * Compute percentiles from a snapshot.
+     *
+     * @param counts      snapshot returned by {@link #snapshot()}
+     * @param percentiles values in (0, 1], must be ascending
+     * @return the percentiles in microseconds (midpoint of the matching bucket), 0 if nothing recorded
+     */
+    public static double[] percentiles(long[] counts, double... percentiles) {
+        double[] result = new double[percentiles.length];
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return result;
+        }
+        int p = 0;
+        long sum = 0;
+        for (int i = 0; i < counts.length && p < percentiles.length; i++) {
+            sum += counts[i];
+            while (p < percentiles.length && sum >= Math.ceil(percentiles[p] * total)) {
+                result[p++] = bucketLowerBound(i) + (bucketWidth(i) - 1) / 2.0;
+            }
+        }
+        return result;
+    }
+}
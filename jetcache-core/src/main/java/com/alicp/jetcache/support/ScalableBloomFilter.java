@@ -0,0 +1,362 @@
+package com.alicp.jetcache.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A scalable bloom filter (Almeida et al.) over byte[] keys.
+ * <p>
+ * When the last stage is full a new stage with twice the capacity and half the false positive probability is
+ * added, so the compound false positive probability stays below the configured value no matter how many keys are
+ * put. The stage layout only depends on the constructor arguments, so filters created with the same arguments
+ * in different processes can exchange bits, see {@link #toBytes(int)}. The bit order of the exchanged bytes
+ * is the same as redis bitmap.
+ * <p>
+ * All operations are lock free except adding a stage.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final long initialCapacity;
+    private final double fpp;
+    private volatile Stage[] stages;
+
+    /**
+     * @param initialCapacity keys of the first stage
+     * @param fpp             the expected compound false positive probability, in (0, 1)
+     */
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("initialCapacity must be positive: " + initialCapacity);
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        }
+        this.initialCapacity = initialCapacity;
+        this.fpp = fpp;
+        this.stages = new Stage[]{newStage(0)};
+    }
+
+    private Stage newStage(int index) {
+        double p = fpp * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, index);
+        long capacity = initialCapacity * (long) Math.pow(GROWTH, index);
+        return new Stage(capacity, p);
+    }
+
+    public boolean mightContain(byte[] key) {
+        long[] h = hash(key);
+        for (Stage s : stages) {
+            if (s.mightContain(h[0], h[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the filter changed, false if the key (or a false positive) is already there
+     */
+    public boolean put(byte[] key) {
+        return putAndGetOffsets(key) != null;
+    }
+
+    /**
+     * Same as {@link #put(byte[])} but return the changed bit offsets of the stage, for the mirror.
+     *
+     * @return null if nothing changed, else an array whose first element is the stage index
+     */
+    long[] putAndGetOffsets(byte[] key) {
+        long[] h = hash(key);
+        Stage[] ss = stages;
+        for (Stage s : ss) {
+            if (s.mightContain(h[0], h[1])) {
+                return null;
+            }
+        }
+        int index = ss.length - 1;
+        Stage last = ss[index];
+        if (last.count.sum() >= last.capacity) {
+            last = grow(ss.length);
+            index = stages.length - 1;
+        }
+        if (!last.put(h[0], h[1])) {
+            return null;
+        }
+        long[] offsets = new long[last.hashCount + 1];
+        offsets[0] = index;
+        for (int i = 0; i < last.hashCount; i++) {
+            offsets[i + 1] = last.offset(h[0], h[1], i);
+        }
+        return offsets;
+    }
+
+    private synchronized Stage grow(int expectedLength) {
+        Stage[] ss = stages;
+        if (ss.length == expectedLength) {
+            Stage[] newStages = new Stage[ss.length + 1];
+            System.arraycopy(ss, 0, newStages, 0, ss.length);
+            newStages[ss.length] = newStage(ss.length);
+            stages = newStages;
+            return newStages[ss.length];
+        }
+        return stages[stages.length - 1];
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    /**
+     * Estimate the current compound false positive probability from the fill ratio of all stages.
+     */
+    public double expectedFpp() {
+        double notFalsePositive = 1;
+        for (Stage s : stages) {
+            notFalsePositive *= 1 - Math.pow(s.fillRatio(), s.hashCount);
+        }
+        return 1 - notFalsePositive;
+    }
+
+    /**
+     * Bits of a stage, bit i is at byte {@code i / 8} and mask {@code 0x80 >>> (i % 8)}, the same as redis SETBIT.
+     */
+    public byte[] toBytes(int stageIndex) {
+        Stage s = stages[stageIndex];
+        byte[] bytes = new byte[(int) (s.bitSize >>> 3)];
+        for (int w = 0; w < s.bits.length(); w++) {
+            long word = s.bits.get(w);
+            while (word != 0) {
+                int b = Long.numberOfTrailingZeros(word);
+                long i = ((long) w << 6) + b;
+                bytes[(int) (i >>> 3)] |= 0x80 >>> (i & 7);
+                word &= word - 1;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Create a filter from the bytes returned by {@link #toBytes(int)}, key counts of stages are estimated
+     * from the bits.
+     */
+    public static ScalableBloomFilter fromBytes(long initialCapacity, double fpp, List<byte[]> stageBytes) {
+        ScalableBloomFilter f = new ScalableBloomFilter(initialCapacity, fpp);
+        if (stageBytes.isEmpty()) {
+            return f;
+        }
+        Stage[] ss = new Stage[stageBytes.size()];
+        for (int i = 0; i < ss.length; i++) {
+            ss[i] = f.newStage(i);
+            ss[i].or(stageBytes.get(i));
+            ss[i].estimateCount();
+        }
+        f.stages = ss;
+        return f;
+    }
+
+    /**
+     * Merge bits returned by {@link #toBytes(int)} into a stage.
+     */
+    void or(int stageIndex, byte[] bytes) {
+        Stage s = stages[stageIndex];
+        s.or(bytes);
+        s.estimateCount();
+    }
+
+    /**
+     * Add a stage with the bits returned by {@link #toBytes(int)}, for a stage which another filter doesn't have.
+     */
+    synchronized void appendStage(byte[] bytes) {
+        Stage[] ss = stages;
+        Stage s = newStage(ss.length);
+        s.or(bytes);
+        s.estimateCount();
+        Stage[] newStages = Arrays.copyOf(ss, ss.length + 1);
+        newStages[ss.length] = s;
+        stages = newStages;
+    }
+
+    static long[] hash(byte[] key) {
+        return Murmur3.hash128(key);
+    }
+
+    static final class Stage {
+        final long capacity;
+        final int hashCount;
+        final long bitSize;
+        final AtomicLongArray bits;
+        final LongAdder count = new LongAdder();
+
+        Stage(long capacity, double fpp) {
+            this.capacity = capacity;
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            // multiple of 64, so a stage is whole longs and whole bytes
+            this.bitSize = Math.max(64, (m + 63) & ~63L);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+            if ((bitSize >>> 6) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("bloom filter stage too large: " + bitSize);
+            }
+            this.bits = new AtomicLongArray((int) (bitSize >>> 6));
+        }
+
+        long offset(long h1, long h2, int i) {
+            long combined = h1 + i * h2;
+            return (combined & Long.MAX_VALUE) % bitSize;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long index = offset(h1, h2, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean put(long h1, long h2) {
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                long index = offset(h1, h2, i);
+                int w = (int) (index >>> 6);
+                long mask = 1L << index;
+                long old;
+                do {
+                    old = bits.get(w);
+                    if ((old & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(w, old, old | mask));
+                changed |= (old & mask) == 0;
+            }
+            if (changed) {
+                count.increment();
+            }
+            return changed;
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                set += Long.bitCount(bits.get(i));
+            }
+            return (double) set / bitSize;
+        }
+
+        void or(byte[] bytes) {
+            int len = (int) Math.min(bytes.length, bitSize >>> 3);
+            for (int i = 0; i < len; i++) {
+                int b = bytes[i] & 0xFF;
+                while (b != 0) {
+                    int highest = Integer.numberOfLeadingZeros(b) - 24;
+                    long index = ((long) i << 3) + highest;
+                    bits.accumulateAndGet((int) (index >>> 6), 1L << index, (x, y) -> x | y);
+                    b &= ~(0x80 >>> highest);
+                }
+            }
+        }
+
+        void estimateCount() {
+            // n = -m / k * ln(1 - X / m)
+            double ratio = fillRatio();
+            long estimated = ratio >= 1 ? capacity : (long) (-bitSize / (double) hashCount * Math.log(1 - ratio));
+            count.reset();
+            count.add(estimated);
+        }
+    }
+
+    /**
+     * MurmurHash3 x64 128 bit, the two 64 bit halves are used by the Kirsch-Mitzenmacher double hashing.
+     */
+    static final class Murmur3 {
+        private static final long C1 = 0x87c37b91114253d5L;
+        private static final long C2 = 0x4cf5ad432745937fL;
+
+        static long[] hash128(byte[] data) {
+            long h1 = 0;
+            long h2 = 0;
+            int len = data.length;
+            int blocks = len / 16;
+            for (int i = 0; i < blocks; i++) {
+                long k1 = getLong(data, i * 16);
+                long k2 = getLong(data, i * 16 + 8);
+                h1 ^= mixK1(k1);
+                h1 = Long.rotateLeft(h1, 27);
+                h1 += h2;
+                h1 = h1 * 5 + 0x52dce729;
+                h2 ^= mixK2(k2);
+                h2 = Long.rotateLeft(h2, 31);
+                h2 += h1;
+                h2 = h2 * 5 + 0x38495ab5;
+            }
+            long k1 = 0;
+            long k2 = 0;
+            int tail = blocks * 16;
+            switch (len & 15) {
+                case 15: k2 ^= ((long) data[tail + 14] & 0xff) << 48;
+                case 14: k2 ^= ((long) data[tail + 13] & 0xff) << 40;
+                case 13: k2 ^= ((long) data[tail + 12] & 0xff) << 32;
+                case 12: k2 ^= ((long) data[tail + 11] & 0xff) << 24;
+                case 11: k2 ^= ((long) data[tail + 10] & 0xff) << 16;
+                case 10: k2 ^= ((long) data[tail + 9] & 0xff) << 8;
+                case 9: k2 ^= ((long) data[tail + 8] & 0xff);
+                    h2 ^= mixK2(k2);
+                case 8: k1 ^= ((long) data[tail + 7] & 0xff) << 56;
+                case 7: k1 ^= ((long) data[tail + 6] & 0xff) << 48;
+                case 6: k1 ^= ((long) data[tail + 5] & 0xff) << 40;
+                case 5: k1 ^= ((long) data[tail + 4] & 0xff) << 32;
+                case 4: k1 ^= ((long) data[tail + 3] & 0xff) << 24;
+                case 3: k1 ^= ((long) data[tail + 2] & 0xff) << 16;
+                case 2: k1 ^= ((long) data[tail + 1] & 0xff) << 8;
+                case 1: k1 ^= ((long) data[tail] & 0xff);
+                    h1 ^= mixK1(k1);
+                default:
+            }
+            h1 ^= len;
+            h2 ^= len;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+            return new long[]{h1, h2};
+        }
+
+        private static long getLong(byte[] b, int i) {
+            return ((long) b[i] & 0xff) | (((long) b[i + 1] & 0xff) << 8) | (((long) b[i + 2] & 0xff) << 16)
+                    | (((long) b[i + 3] & 0xff) << 24) | (((long) b[i + 4] & 0xff) << 32)
+                    | (((long) b[i + 5] & 0xff) << 40) | (((long) b[i + 6] & 0xff) << 48)
+                    | (((long) b[i + 7] & 0xff) << 56);
+        }
+
+        private static long mixK1(long k1) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            return k1 * C2;
+        }
+
+        private static long mixK2(long k2) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            return k2 * C1;
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb93fe51afd53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
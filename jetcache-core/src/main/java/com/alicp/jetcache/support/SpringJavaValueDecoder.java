@@ -5,8 +5,8 @@ package com.alicp.jetcache.support;
 
 import org.springframework.core.ConfigurableObjectInputStream;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 
 /**
@@ -21,7 +21,7 @@ public class SpringJavaValueDecoder extends JavaValueDecoder {
     }
 
     @Override
-    protected ObjectInputStream buildObjectInputStream(ByteArrayInputStream in) throws IOException {
+    protected ObjectInputStream buildObjectInputStream(InputStream in) throws IOException {
         return new ConfigurableObjectInputStream(in, Thread.currentThread().getContextClassLoader());
     }
 }
@@ -108,7 +108,7 @@ public class StatInfoLogger implements Consumer<StatInfo> {
         List<CacheStat> stats = statInfo.getStats();
 
         for (CacheStat s : stats) {
-            String title = String.format("%-10s|%10s|%14s|%14s|%14s|%14s|%14s|%9s|%7s|%7s", "oper", "qps/tps", "count", "success/hit", "fail", "miss", "expired", "avgTime", "minTime", "maxTime");
+            String title = String.format("%-10s|%10s|%14s|%14s|%14s|%14s|%14s|%9s|%7s|%7s|%9s|%9s|%9s", "oper", "qps/tps", "count", "success/hit", "fail", "miss", "expired", "avgTime", "minTime", "maxTime", "p50Time", "p99Time", "p999Time");
 
             printSepLine(sb, title);
 
@@ -126,7 +126,10 @@ public class StatInfoLogger implements Consumer<StatInfo> {
             sb.append(String.format("%,14d", s.getGetExpireCount())).append('|');
             sb.append(String.format("%,9.1f", s.avgGetTime())).append('|');
             sb.append(String.format("%,7d", s.getMinGetTime() == Long.MAX_VALUE ? 0 : s.getMinGetTime())).append('|');
-            sb.append(String.format("%,7d", s.getMaxGetTime())).append('\n');
+            sb.append(String.format("%,7d", s.getMaxGetTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP50GetTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP99GetTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP999GetTime())).append('\n');
 
             sb.append(String.format("%-10s", "put")).append('|');
             sb.append(String.format("%,10.2f", s.putTps())).append('|');
@@ -137,7 +140,10 @@ public class StatInfoLogger implements Consumer<StatInfo> {
             sb.append(String.format("%14s", "N/A")).append('|');
             sb.append(String.format("%,9.1f", s.avgPutTime())).append('|');
             sb.append(String.format("%,7d", s.getMinPutTime() == Long.MAX_VALUE ? 0 : s.getMinPutTime())).append('|');
-            sb.append(String.format("%,7d", s.getMaxPutTime())).append('\n');
+            sb.append(String.format("%,7d", s.getMaxPutTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP50PutTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP99PutTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP999PutTime())).append('\n');
 
             sb.append(String.format("%-10s", "remove")).append('|');
             sb.append(String.format("%,10.2f", s.removeTps())).append('|');
@@ -148,7 +154,10 @@ public class StatInfoLogger implements Consumer<StatInfo> {
             sb.append(String.format("%14s", "N/A")).append('|');
             sb.append(String.format("%,9.1f", s.avgRemoveTime())).append('|');
             sb.append(String.format("%,7d", s.getMinRemoveTime() == Long.MAX_VALUE ? 0 : s.getMinRemoveTime())).append('|');
-            sb.append(String.format("%,7d", s.getMaxRemoveTime())).append('\n');
+            sb.append(String.format("%,7d", s.getMaxRemoveTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP50RemoveTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP99RemoveTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP999RemoveTime())).append('\n');
 
             sb.append(String.format("%-10s", "load")).append('|');
             sb.append(String.format("%,10.2f", s.loadQps())).append('|');
@@ -159,8 +168,16 @@ public class StatInfoLogger implements Consumer<StatInfo> {
             sb.append(String.format("%14s", "N/A")).append('|');
             sb.append(String.format("%,9.1f", s.avgLoadTime())).append('|');
             sb.append(String.format("%,7d", s.getMinLoadTime() == Long.MAX_VALUE ? 0 : s.getMinLoadTime())).append('|');
-            sb.append(String.format("%,7d", s.getMaxLoadTime())).append('\n');
-
+            sb.append(String.format("%,7d", s.getMaxLoadTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP50LoadTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP99LoadTime())).append('|');
+            sb.append(String.format("%,9.2f", s.getP999LoadTime())).append('\n');
+
+            if (!s.getHotKeys().isEmpty() || s.getHotKeyPromoteCount() > 0 || s.getHotKeyDemoteCount() > 0) {
+                sb.append("hot keys(promoted ").append(s.getHotKeyPromoteCount())
+                        .append(", demoted ").append(s.getHotKeyDemoteCount()).append("): ")
+                        .append(s.getHotKeys()).append('\n');
+            }
         }
         return sb;
     }
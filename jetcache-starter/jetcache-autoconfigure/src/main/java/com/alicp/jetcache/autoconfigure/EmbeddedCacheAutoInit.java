@@ -21,5 +21,6 @@ public abstract class EmbeddedCacheAutoInit extends AbstractCacheAutoInit {
         EmbeddedCacheBuilder ecb = (EmbeddedCacheBuilder) builder;
 
         ecb.limit(Integer.parseInt(ct.getProperty("limit", String.valueOf(CacheConsts.DEFAULT_LOCAL_LIMIT))));
+        ecb.setMaximumWeight(Long.parseLong(ct.getProperty("maximumWeight", "0")));
     }
 }
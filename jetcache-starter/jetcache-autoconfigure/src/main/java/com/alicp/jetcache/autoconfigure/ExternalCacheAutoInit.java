@@ -22,5 +22,17 @@ public abstract class ExternalCacheAutoInit extends AbstractCacheAutoInit {
         ecb.setKeyPrefix(ct.getProperty("keyPrefix"));
         ecb.setValueEncoder(new ParserFunction<>(ct.getProperty("valueEncoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
         ecb.setValueDecoder(new ParserFunction<>(ct.getProperty("valueDecoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
+        String hotKeyThreshold = ct.getProperty("hotKeyThreshold");
+        if (hotKeyThreshold != null) {
+            ecb.setHotKeyThreshold(Long.parseLong(hotKeyThreshold));
+        }
+        String hotKeyMaxCount = ct.getProperty("hotKeyMaxCount");
+        if (hotKeyMaxCount != null) {
+            ecb.setHotKeyMaxCount(Integer.parseInt(hotKeyMaxCount));
+        }
+        String hotKeyLocalExpireInMillis = ct.getProperty("hotKeyLocalExpireInMillis");
+        if (hotKeyLocalExpireInMillis != null) {
+            ecb.setHotKeyLocalExpireInMillis(Long.parseLong(hotKeyLocalExpireInMillis));
+        }
     }
 }
@@ -22,6 +22,7 @@ import org.springframework.context.annotation.Import;
         CaffeineAutoConfiguration.class,
         MockRemoteCacheAutoConfiguration.class,
         LinkedHashMapAutoConfiguration.class,
+        OffHeapAutoConfiguration.class,
         RedisLettuceAutoConfiguration.class,
         RedisSpringDataAutoConfiguration.class})
 public class JetCacheAutoConfiguration {
@@ -1,6 +1,7 @@
 package com.alicp.jetcache.autoconfigure;
 
 import com.alicp.jetcache.CacheBuilder;
+import com.alicp.jetcache.embedded.EvictionPolicy;
 import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
@@ -21,6 +22,8 @@ public class LinkedHashMapAutoConfiguration extends EmbeddedCacheAutoInit {
     protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
         LinkedHashMapCacheBuilder builder = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder();
         parseGeneralConfig(builder, ct);
+        builder.concurrencyLevel(Integer.parseInt(ct.getProperty("concurrencyLevel", "1")));
+        builder.evictionPolicy(EvictionPolicy.valueOf(ct.getProperty("evictionPolicy", EvictionPolicy.LRU.name())));
         return builder;
     }
 
@@ -0,0 +1,41 @@
+package com.alicp.jetcache.autoconfigure;
+
+import com.alicp.jetcache.CacheBuilder;
+import com.alicp.jetcache.anno.CacheConsts;
+import com.alicp.jetcache.anno.support.ParserFunction;
+import com.alicp.jetcache.embedded.OffHeapCacheBuilder;
+import com.alicp.jetcache.embedded.OffHeapCacheConfig;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+@Component
+@Conditional(OffHeapAutoConfiguration.OffHeapCondition.class)
+public class OffHeapAutoConfiguration extends EmbeddedCacheAutoInit {
+    public OffHeapAutoConfiguration() {
+        super("offheap");
+    }
+
+    @Override
+    protected CacheBuilder initCache(ConfigTree ct, String cacheAreaWithPrefix) {
+        OffHeapCacheBuilder builder = OffHeapCacheBuilder.createOffHeapCacheBuilder();
+        parseGeneralConfig(builder, ct);
+        builder.setCapacity(Long.parseLong(ct.getProperty("capacity", String.valueOf(OffHeapCacheConfig.DEFAULT_CAPACITY))));
+        builder.setPageSize(Integer.parseInt(ct.getProperty("pageSize", String.valueOf(OffHeapCacheConfig.DEFAULT_PAGE_SIZE))));
+        builder.setConcurrencyLevel(Integer.parseInt(ct.getProperty("concurrencyLevel",
+                String.valueOf(OffHeapCacheConfig.DEFAULT_CONCURRENCY_LEVEL))));
+        builder.setValueEncoder(new ParserFunction<>(ct.getProperty("valueEncoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
+        builder.setValueDecoder(new ParserFunction<>(ct.getProperty("valueDecoder", CacheConsts.DEFAULT_SERIAL_POLICY)));
+        return builder;
+    }
+
+    public static class OffHeapCondition extends JetCacheCondition {
+        public OffHeapCondition() {
+            super("offheap");
+        }
+    }
+}
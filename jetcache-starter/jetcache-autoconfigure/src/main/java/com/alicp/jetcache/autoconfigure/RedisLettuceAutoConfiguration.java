@@ -4,9 +4,11 @@ import com.alicp.jetcache.CacheBuilder;
 import com.alicp.jetcache.CacheConfigException;
 import com.alicp.jetcache.anno.CacheConsts;
 import com.alicp.jetcache.external.ExternalCacheBuilder;
+import com.alicp.jetcache.redis.lettuce.ClientTrackingMode;
 import com.alicp.jetcache.redis.lettuce.JetCacheCodec;
 import com.alicp.jetcache.redis.lettuce.LettuceConnectionManager;
 import com.alicp.jetcache.redis.lettuce.RedisLettuceCacheBuilder;
+import com.alicp.jetcache.redis.lettuce.RedisLettuceCacheConfig;
 import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.ClientOptions;
 import io.lettuce.core.ReadFrom;
@@ -63,6 +65,11 @@ public class RedisLettuceAutoConfiguration {
             String mode = ct.getProperty("mode");
             long asyncResultTimeoutInMillis = Long.parseLong(
                     ct.getProperty("asyncResultTimeoutInMillis", Long.toString(CacheConsts.ASYNC_RESULT_TIMEOUT.toMillis())));
+            ClientTrackingMode clientTrackingMode = ClientTrackingMode.valueOf(
+                    ct.getProperty("clientTrackingMode", ClientTrackingMode.NONE.name()).trim().toUpperCase());
+            int clientTrackingLimit = Integer.parseInt(ct.getProperty("clientTrackingLimit",
+                    Integer.toString(RedisLettuceCacheConfig.DEFAULT_CLIENT_TRACKING_LIMIT)));
+            boolean zeroCopy = Boolean.parseBoolean(ct.getProperty("zeroCopy", "false"));
             ReadFrom readFrom = null;
             if (readFromStr != null) {
                 readFrom = ReadFrom.valueOf(readFromStr.trim());
@@ -79,7 +86,7 @@ public class RedisLettuceAutoConfiguration {
                     RedisURI uri = uriList.get(0);
                     if ("Cluster".equalsIgnoreCase(mode)) {
                         client = RedisClusterClient.create(uri);
-                        connection = clusterConnection(ct, readFrom, (RedisClusterClient) client);
+                        connection = clusterConnection(ct, readFrom, (RedisClusterClient) client, new JetCacheCodec());
                     } else if (readFrom == null) {
                         client = RedisClient.create(uri);
                         ((RedisClient) client).setOptions(ClientOptions.builder().
@@ -106,7 +113,7 @@ public class RedisLettuceAutoConfiguration {
                         connection = c;
                     } else {
                         client = RedisClusterClient.create(uriList);
-                        connection = clusterConnection(ct, readFrom, (RedisClusterClient) client);
+                        connection = clusterConnection(ct, readFrom, (RedisClusterClient) client, new JetCacheCodec());
                     }
                 }
             }
@@ -114,7 +121,10 @@ public class RedisLettuceAutoConfiguration {
             ExternalCacheBuilder externalCacheBuilder = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
                     .connection(connection)
                     .redisClient(client)
-                    .asyncResultTimeoutInMillis(asyncResultTimeoutInMillis);
+                    .asyncResultTimeoutInMillis(asyncResultTimeoutInMillis)
+                    .clientTrackingMode(clientTrackingMode)
+                    .clientTrackingLimit(clientTrackingLimit)
+                    .zeroCopy(zeroCopy);
             parseGeneralConfig(externalCacheBuilder, ct);
 
             // eg: "remote.default.client"
@@ -128,7 +138,8 @@ public class RedisLettuceAutoConfiguration {
             return externalCacheBuilder;
         }
 
-        private StatefulConnection clusterConnection(ConfigTree ct, ReadFrom readFrom, RedisClusterClient client) {
+        private StatefulConnection clusterConnection(ConfigTree ct, ReadFrom readFrom, RedisClusterClient client,
+                                                     JetCacheCodec codec) {
             int enablePeriodicRefresh = Integer.parseInt(ct.getProperty("enablePeriodicRefresh", "60"));
             boolean enableAllAdaptiveRefreshTriggers = Boolean.parseBoolean(ct.getProperty("enableAllAdaptiveRefreshTriggers", "true"));
             ClusterTopologyRefreshOptions.Builder topologyOptionBuilder = ClusterTopologyRefreshOptions.builder();
@@ -145,7 +156,7 @@ public class RedisLettuceAutoConfiguration {
                     .build();
             client.setOptions(options);
             if (readFrom != null) {
-                StatefulRedisClusterConnection c = client.connect(new JetCacheCodec());
+                StatefulRedisClusterConnection c = client.connect(codec);
                 c.setReadFrom(readFrom);
                 return c;
             }
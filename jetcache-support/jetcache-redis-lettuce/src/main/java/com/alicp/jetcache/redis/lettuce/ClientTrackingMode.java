@@ -0,0 +1,24 @@
+package com.alicp.jetcache.redis.lettuce;
+
+/**
+ * Mode of redis server-assisted client side caching, see {@link RedisLettuceCacheConfig#getClientTrackingMode()}.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public enum ClientTrackingMode {
+    /**
+     * Client side caching is disabled, every GET goes to the server.
+     */
+    NONE,
+    /**
+     * The server remembers keys read by the client and sends an invalidation when one of them is modified.
+     */
+    DEFAULT,
+    /**
+     * The server sends an invalidation for every modified key starting with the keyPrefix of the cache, so
+     * it remembers nothing per key, but the client receives invalidations of keys it has never read.
+     */
+    BROADCAST
+}
@@ -1,16 +1,44 @@
 package com.alicp.jetcache.redis.lettuce;
 
 
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.AbstractValueDecoder;
+import com.alicp.jetcache.support.EnvelopeValueDecoder;
 import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.ToByteBufEncoder;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 
 /**
+ * Keys and values are byte arrays, they are written directly into the buffer of netty.
+ * <p>
+ * In zero copy mode, a value in the envelope format is decoded by the decoder of the cache from the buffer of netty
+ * without copying it to a byte array first, so decodeValue returns a {@link CacheValueHolder} for it. An expired
+ * envelope is not decoded, the holder has the expire time only. Other values are still returned as byte arrays.
+ *
  * Created on 2017/4/28.
  *
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
-public class JetCacheCodec implements RedisCodec {
+public class JetCacheCodec implements RedisCodec, ToByteBufEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(JetCacheCodec.class);
+
+    private final AbstractValueDecoder zeroCopyDecoder;
+
+    public JetCacheCodec() {
+        this(null);
+    }
+
+    /**
+     * @param zeroCopyDecoder the value decoder of the cache, or null to return all values as byte arrays
+     */
+    public JetCacheCodec(AbstractValueDecoder zeroCopyDecoder) {
+        this.zeroCopyDecoder = zeroCopyDecoder;
+    }
 
     @Override
     public ByteBuffer encodeKey(Object key) {
@@ -31,6 +59,20 @@ public class JetCacheCodec implements RedisCodec {
 
     @Override
     public Object decodeValue(ByteBuffer bytes) {
+        if (zeroCopyDecoder != null && EnvelopeValueDecoder.isEnvelope(bytes)) {
+            long expireTime = EnvelopeValueDecoder.expireTime(bytes);
+            if (System.currentTimeMillis() >= expireTime) {
+                CacheValueHolder<Object> holder = new CacheValueHolder<>();
+                holder.setExpireTime(expireTime);
+                return holder;
+            }
+            try {
+                return zeroCopyDecoder.apply(bytes);
+            } catch (Exception e) {
+                // the cache decodes the copy again and reports the error
+                logger.debug("zero copy decode fail, fall back to byte array", e);
+            }
+        }
         return convert(bytes);
     }
 
@@ -40,5 +82,20 @@ public class JetCacheCodec implements RedisCodec {
         return bs;
     }
 
+    @Override
+    public void encodeKey(Object key, ByteBuf target) {
+        target.writeBytes((byte[]) key);
+    }
+
+    @Override
+    public void encodeValue(Object value, ByteBuf target) {
+        target.writeBytes((byte[]) value);
+    }
+
+    @Override
+    public int estimateSize(Object keyOrValue) {
+        return keyOrValue instanceof byte[] ? ((byte[]) keyOrValue).length : 0;
+    }
+
 
 }
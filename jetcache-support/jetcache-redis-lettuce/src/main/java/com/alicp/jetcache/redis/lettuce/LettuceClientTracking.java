@@ -0,0 +1,299 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import com.alicp.jetcache.CacheException;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.JetCacheExecutor;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandKeyword;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Server-assisted client side caching of a {@link RedisClient}.
+ * <p>
+ * Lettuce 5 only speaks RESP2, so the tracking works in the redirect way: a dedicated data connection is switched
+ * on by {@code CLIENT TRACKING ON REDIRECT <id>}, where id is the client id of a pub/sub connection subscribed to
+ * {@code __redis__:invalidate}. Values read by the data connection are kept in {@link LocalMap}s and dropped
+ * when the server sends their invalidation.
+ * <p>
+ * Replies and invalidations come from different connections, so a GET reply may arrive after the invalidation of
+ * the value it carries. Every key stripe has a version which is increased by each invalidation, a reply is
+ * installed only if the version of its key doesn't change after the GET is sent. When either connection is lost
+ * all local maps are cleared and reads go to the server until tracking is switched on again by new connections.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+class LettuceClientTracking implements RedisConnectionStateListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(LettuceClientTracking.class);
+
+    static final byte[] INVALIDATE_CHANNEL = "__redis__:invalidate".getBytes(StandardCharsets.UTF_8);
+    private static final int STRIPES = 1024;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final RedisClient client;
+    // null for the default mode
+    private final byte[] broadcastPrefix;
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final CopyOnWriteArrayList<LocalMap<?>> localMaps = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean reconnecting = new AtomicBoolean(true);
+
+    private volatile StatefulRedisConnection<byte[], byte[]> dataConnection;
+    private volatile StatefulRedisPubSubConnection<byte[], byte[]> pubSubConnection;
+    private volatile RedisAsyncCommands<byte[], byte[]> asyncCommands;
+    private volatile boolean ready;
+    // guarded by this
+    private boolean closed;
+
+    LettuceClientTracking(RedisClient client, byte[] broadcastPrefix) {
+        this.client = client;
+        this.broadcastPrefix = broadcastPrefix;
+        client.addListener(this);
+        reconnect();
+    }
+
+    /**
+     * Keys of the pub/sub connection are channels, values are the invalidated keys. An invalidation of several keys
+     * is an array, and the pub/sub output of lettuce only keeps the last element of it, so keys are handled here
+     * when they are decoded.
+     */
+    private class InvalidationCodec extends JetCacheCodec {
+        @Override
+        public Object decodeValue(ByteBuffer bytes) {
+            byte[] key = (byte[]) super.decodeValue(bytes);
+            invalidate(key);
+            return key;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean connect() {
+        RedisCodec<byte[], byte[]> codec = new JetCacheCodec();
+        try {
+            StatefulRedisPubSubConnection<byte[], byte[]> ps = client.connectPubSub(new InvalidationCodec());
+            pubSubConnection = ps;
+            ps.addListener(new RedisPubSubAdapter<byte[], byte[]>() {
+                @Override
+                public void message(byte[] channel, byte[] message) {
+                    // the server sends a null message after FLUSHALL and FLUSHDB
+                    if (message == null) {
+                        invalidateAll();
+                    }
+                }
+            });
+            Long id = ps.sync().dispatch(CommandType.CLIENT, new IntegerOutput<>(codec),
+                    new CommandArgs<>(codec).add(CommandKeyword.ID));
+            ps.sync().subscribe(INVALIDATE_CHANNEL);
+
+            StatefulRedisConnection<byte[], byte[]> data = client.connect(codec);
+            dataConnection = data;
+            CommandArgs<byte[], byte[]> args = new CommandArgs<>(codec)
+                    .add("TRACKING").add("ON").add("REDIRECT").add(id);
+            if (broadcastPrefix != null) {
+                args.add("BCAST").add("PREFIX").add(broadcastPrefix);
+            }
+            String rt = data.sync().dispatch(CommandType.CLIENT, new StatusOutput<>(codec), args);
+            if (!"OK".equals(rt)) {
+                throw new CacheException("CLIENT TRACKING returns " + rt);
+            }
+            asyncCommands = data.async();
+            reconnecting.set(false);
+            ready = true;
+            return true;
+        } catch (Exception e) {
+            logger.error("enable redis client tracking failed, retry after " + RETRY_DELAY_MILLIS + "ms", e);
+            closeConnections();
+            return false;
+        }
+    }
+
+    private synchronized void reconnect() {
+        closeConnections();
+        if (closed) {
+            return;
+        }
+        if (!connect()) {
+            JetCacheExecutor.heavyIOExecutor().schedule(this::reconnect, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void closeConnections() {
+        ready = false;
+        asyncCommands = null;
+        StatefulRedisConnection<byte[], byte[]> data = dataConnection;
+        StatefulRedisPubSubConnection<byte[], byte[]> ps = pubSubConnection;
+        // clear the fields first, so the disconnect events of old connections are ignored
+        dataConnection = null;
+        pubSubConnection = null;
+        closeQuietly(data);
+        closeQuietly(ps);
+    }
+
+    private static void closeQuietly(StatefulRedisConnection<?, ?> connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (Exception e) {
+                logger.warn("close connection error: " + e);
+            }
+        }
+    }
+
+    @Override
+    public void onRedisDisconnected(RedisChannelHandler<?, ?> connection) {
+        // called in the netty event loop, don't block it
+        if ((connection == dataConnection || connection == pubSubConnection) && reconnecting.compareAndSet(false, true)) {
+            ready = false;
+            invalidateAll();
+            logger.warn("redis client tracking connection lost, reconnect");
+            JetCacheExecutor.heavyIOExecutor().execute(this::reconnect);
+        }
+    }
+
+    @Override
+    public void onRedisExceptionCaught(RedisChannelHandler<?, ?> connection, Throwable cause) {
+    }
+
+    /**
+     * @return true if reads through {@link #asyncCommands()} are tracked
+     */
+    boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return commands of the tracked data connection, or null if it's not ready
+     */
+    RedisAsyncCommands<byte[], byte[]> asyncCommands() {
+        return asyncCommands;
+    }
+
+    private static int stripe(ByteBuffer key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return h & (STRIPES - 1);
+    }
+
+    /**
+     * Read the version of the key before the GET is sent, and install the reply with it.
+     */
+    long version(ByteBuffer key) {
+        return versions.get(stripe(key));
+    }
+
+    void invalidate(byte[] key) {
+        ByteBuffer k = ByteBuffer.wrap(key);
+        versions.incrementAndGet(stripe(k));
+        for (LocalMap<?> m : localMaps) {
+            m.remove(k);
+        }
+    }
+
+    void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        for (LocalMap<?> m : localMaps) {
+            m.clear();
+        }
+    }
+
+    <V> LocalMap<V> createLocalMap(int limit) {
+        LocalMap<V> m = new LocalMap<>(this, limit);
+        localMaps.add(m);
+        return m;
+    }
+
+    void removeLocalMap(LocalMap<?> map) {
+        localMaps.remove(map);
+        map.clear();
+    }
+
+    synchronized void close() {
+        closed = true;
+        client.removeListener(this);
+        closeConnections();
+        invalidateAll();
+        localMaps.clear();
+    }
+
+    /**
+     * A bounded LRU map of decoded values, keyed by the full redis key.
+     */
+    static final class LocalMap<V> {
+        private final LettuceClientTracking tracking;
+        // guarded by this
+        private final LinkedHashMap<ByteBuffer, CacheValueHolder<V>> map;
+
+        private LocalMap(LettuceClientTracking tracking, int limit) {
+            this.tracking = tracking;
+            this.map = new LinkedHashMap<ByteBuffer, CacheValueHolder<V>>(Math.min(limit, 1024), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteBuffer, CacheValueHolder<V>> eldest) {
+                    return size() > limit;
+                }
+            };
+        }
+
+        synchronized CacheValueHolder<V> get(ByteBuffer key, long now) {
+            CacheValueHolder<V> holder = map.get(key);
+            if (holder != null && now >= holder.getExpireTime()) {
+                map.remove(key);
+                return null;
+            }
+            return holder;
+        }
+
+        /**
+         * Install the value read from the server if the key is not invalidated after the version is read.
+         */
+        void install(ByteBuffer key, long version, CacheValueHolder<V> holder) {
+            if (tracking.version(key) != version) {
+                return;
+            }
+            synchronized (this) {
+                map.put(key, holder);
+            }
+            // an invalidation between the check and the put may have missed the value
+            if (tracking.version(key) != version) {
+                synchronized (this) {
+                    map.remove(key, holder);
+                }
+            }
+        }
+
+        synchronized void remove(ByteBuffer key) {
+            map.remove(key);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -11,7 +11,9 @@ import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
 import io.lettuce.core.sentinel.api.StatefulRedisSentinelConnection;
 
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -27,6 +29,8 @@ public class LettuceConnectionManager {
         private Object commands;
         private Object asyncCommands;
         private Object reactiveCommands;
+        // guarded by this
+        private Map<String, LettuceClientTracking> clientTrackings = new HashMap<>();
     }
 
     private static final LettuceConnectionManager defaultManager = new LettuceConnectionManager();
@@ -59,17 +63,21 @@ public class LettuceConnectionManager {
     public StatefulConnection connection(AbstractRedisClient redisClient) {
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
         if (lo.connection == null) {
-            if (redisClient instanceof RedisClient) {
-                lo.connection = ((RedisClient) redisClient).connect(new JetCacheCodec());
-            } else if (redisClient instanceof RedisClusterClient) {
-                lo.connection = ((RedisClusterClient) redisClient).connect(new JetCacheCodec());
-            } else {
-                throw new CacheConfigException("type " + redisClient.getClass() + " is not supported");
-            }
+            lo.connection = connect(redisClient, new JetCacheCodec());
         }
         return lo.connection;
     }
 
+    private StatefulConnection connect(AbstractRedisClient redisClient, JetCacheCodec codec) {
+        if (redisClient instanceof RedisClient) {
+            return ((RedisClient) redisClient).connect(codec);
+        } else if (redisClient instanceof RedisClusterClient) {
+            return ((RedisClusterClient) redisClient).connect(codec);
+        } else {
+            throw new CacheConfigException("type " + redisClient.getClass() + " is not supported");
+        }
+    }
+
     public Object commands(AbstractRedisClient redisClient) {
         connection(redisClient);
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
@@ -92,19 +100,23 @@ public class LettuceConnectionManager {
         connection(redisClient);
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
         if (lo.asyncCommands == null) {
-            if (lo.connection instanceof StatefulRedisConnection) {
-                lo.asyncCommands = ((StatefulRedisConnection) lo.connection).async();
-            } else if (lo.connection instanceof StatefulRedisClusterConnection) {
-                lo.asyncCommands = ((StatefulRedisClusterConnection) lo.connection).async();
-            } else if (lo.connection instanceof StatefulRedisSentinelConnection) {
-                lo.asyncCommands = ((StatefulRedisSentinelConnection) lo.connection).async();
-            } else {
-                throw new CacheConfigException("type " + lo.connection.getClass() + " is not supported");
-            }
+            lo.asyncCommands = async(lo.connection);
         }
         return lo.asyncCommands;
     }
 
+    private Object async(StatefulConnection connection) {
+        if (connection instanceof StatefulRedisConnection) {
+            return ((StatefulRedisConnection) connection).async();
+        } else if (connection instanceof StatefulRedisClusterConnection) {
+            return ((StatefulRedisClusterConnection) connection).async();
+        } else if (connection instanceof StatefulRedisSentinelConnection) {
+            return ((StatefulRedisSentinelConnection) connection).async();
+        } else {
+            throw new CacheConfigException("type " + connection.getClass() + " is not supported");
+        }
+    }
+
     public Object reactiveCommands(AbstractRedisClient redisClient) {
         connection(redisClient);
         LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
@@ -122,11 +134,32 @@ public class LettuceConnectionManager {
         return lo.reactiveCommands;
     }
 
+    /**
+     * Get the client side caching of the client, caches of the same mode and broadcast prefix share it.
+     *
+     * @param broadcastPrefix the prefix of the broadcast mode, or null for the default mode
+     */
+    LettuceClientTracking clientTracking(AbstractRedisClient redisClient, byte[] broadcastPrefix) {
+        LettuceObjects lo = getLettuceObjectsFromMap(redisClient);
+        if (!(redisClient instanceof RedisClient)) {
+            throw new CacheConfigException("client tracking is not supported by " + redisClient.getClass());
+        }
+        String key = broadcastPrefix == null ? "DEFAULT" : "BCAST:" + new String(broadcastPrefix, StandardCharsets.UTF_8);
+        synchronized (lo) {
+            return lo.clientTrackings.computeIfAbsent(key,
+                    k -> new LettuceClientTracking((RedisClient) redisClient, broadcastPrefix));
+        }
+    }
+
     public void removeAndClose(AbstractRedisClient redisClient) {
         LettuceObjects lo = (LettuceObjects) map.remove(redisClient);
         if (lo == null) {
             return;
         }
+        synchronized (lo) {
+            lo.clientTrackings.values().forEach(LettuceClientTracking::close);
+            lo.clientTrackings.clear();
+        }
         /*
         if (lo.commands != null && lo.commands instanceof RedisClusterCommands) {
             ((RedisClusterCommands) lo.commands).close();
@@ -2,18 +2,28 @@ package com.alicp.jetcache.redis.lettuce;
 
 import com.alicp.jetcache.*;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.AbstractValueDecoder;
+import com.alicp.jetcache.support.EnvelopeValueDecoder;
 import com.alicp.jetcache.support.JetCacheExecutor;
 import io.lettuce.core.AbstractRedisClient;
 import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
 import io.lettuce.core.RedisFuture;
 import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.async.BaseRedisAsyncCommands;
+import io.lettuce.core.api.async.RedisAsyncCommands;
 import io.lettuce.core.api.async.RedisKeyAsyncCommands;
 import io.lettuce.core.api.async.RedisStringAsyncCommands;
 import io.lettuce.core.api.sync.RedisStringCommands;
 import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
 import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
 import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -38,6 +48,10 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     private RedisStringCommands<byte[], byte[]> stringCommands;
     private RedisStringAsyncCommands<byte[], byte[]> stringAsyncCommands;
     private RedisKeyAsyncCommands<byte[], byte[]> keyAsyncCommands;
+    private LettuceClientTracking clientTracking;
+    private LettuceClientTracking.LocalMap<V> localMap;
+    // decodes GET responses of this cache in zero copy mode
+    private JetCacheCodec zeroCopyCodec;
 
     public RedisLettuceCache(RedisLettuceCacheConfig<K, V> config) {
         super(config);
@@ -52,12 +66,34 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         }
 
         client = config.getRedisClient();
+        ClientTrackingMode mode = config.getClientTrackingMode();
+        boolean tracking = mode != null && mode != ClientTrackingMode.NONE;
+        if (tracking && !(client instanceof RedisClient)) {
+            throw new CacheConfigException("client tracking is not supported by " + client.getClass());
+        }
+        if (tracking && config.getClientTrackingLimit() <= 0) {
+            throw new CacheConfigException("clientTrackingLimit must be positive");
+        }
+        String keyPrefix = config.getKeyPrefix();
+        if (mode == ClientTrackingMode.BROADCAST && (keyPrefix == null || keyPrefix.isEmpty())) {
+            throw new CacheConfigException("keyPrefix is required by the BROADCAST client tracking mode");
+        }
 
         lettuceConnectionManager = LettuceConnectionManager.defaultManager();
         lettuceConnectionManager.init(client, config.getConnection());
         stringCommands = (RedisStringCommands<byte[], byte[]>) lettuceConnectionManager.commands(client);
         stringAsyncCommands = (RedisStringAsyncCommands<byte[], byte[]>) lettuceConnectionManager.asyncCommands(client);
+        if (config.isZeroCopy() && valueDecoder instanceof AbstractValueDecoder) {
+            zeroCopyCodec = new JetCacheCodec((AbstractValueDecoder) valueDecoder);
+        }
         keyAsyncCommands = (RedisKeyAsyncCommands<byte[], byte[]>) stringAsyncCommands;
+
+        if (tracking) {
+            byte[] prefix = mode == ClientTrackingMode.BROADCAST ?
+                    keyPrefix.getBytes(StandardCharsets.UTF_8) : null;
+            clientTracking = lettuceConnectionManager.clientTracking(client, prefix);
+            localMap = clientTracking.createLocalMap(config.getClientTrackingLimit());
+        }
     }
 
     @Override
@@ -70,7 +106,7 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
             return (T) stringCommands;
         } else if (RedisClusterAsyncCommands.class.isAssignableFrom(clazz)) {
             // RedisAsyncCommands extends RedisClusterAsyncCommands
-            return (T) stringAsyncCommands;
+            return (T) lettuceConnectionManager.asyncCommands(client);
         } else if (RedisClusterReactiveCommands.class.isAssignableFrom(clazz)) {
             // RedisReactiveCommands extends RedisClusterReactiveCommands
             return (T) lettuceConnectionManager.reactiveCommands(client);
@@ -83,6 +119,59 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         return config;
     }
 
+    @Override
+    public void close() {
+        if (clientTracking != null) {
+            clientTracking.removeLocalMap(localMap);
+        }
+    }
+
+    @Override
+    protected void beforeUpdate(K key) {
+        super.beforeUpdate(key);
+        if (clientTracking != null) {
+            byte[] newKey;
+            try {
+                newKey = buildKey(key);
+            } catch (Exception e) {
+                // the update itself will fail and report it
+                return;
+            }
+            clientTracking.invalidate(newKey);
+        }
+    }
+
+    /**
+     * Commands of the tracked connection if client tracking is ready. Writes of this cache go through it too, so
+     * they are ordered with the tracked reads.
+     */
+    private RedisAsyncCommands<byte[], byte[]> trackedCommands() {
+        return clientTracking == null ? null : clientTracking.asyncCommands();
+    }
+
+    /**
+     * In zero copy mode, the response is decoded by the codec of this cache, which returns envelopes already decoded.
+     * The command is dispatched on the shared connection, whose own codec always returns byte arrays.
+     */
+    private RedisFuture<Object> get(Object commands, byte[] newKey) {
+        if (zeroCopyCodec == null) {
+            return (RedisFuture) ((RedisStringAsyncCommands<byte[], byte[]>) commands).get(newKey);
+        }
+        return ((BaseRedisAsyncCommands<Object, Object>) commands).dispatch(CommandType.GET,
+                new ValueOutput<>(zeroCopyCodec), new CommandArgs<>(zeroCopyCodec).addKey(newKey));
+    }
+
+    private CacheValueHolder<V> decodeValue(Object value) {
+        if (value instanceof CacheValueHolder) {
+            return (CacheValueHolder<V>) value;
+        }
+        return (CacheValueHolder<V>) valueDecoder.apply((byte[]) value);
+    }
+
+    private static boolean isExpiredEnvelope(Object value) {
+        return value instanceof byte[] && EnvelopeValueDecoder.isExpired((byte[]) value, System.currentTimeMillis());
+    }
+
     private void setTimeout(CacheResult cr) {
         Duration d = Duration.ofMillis(config.getAsyncResultTimeoutInMillis());
         cr.setTimeout(d);
@@ -91,9 +180,11 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     @Override
     protected CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
         try {
-            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
+            CacheValueHolder<V> holder = buildHolder(value, timeUnit.toMillis(expireAfterWrite));
             byte[] newKey = buildKey(key);
-            RedisFuture<String> future = stringAsyncCommands.psetex(newKey, timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedCommands();
+            RedisStringAsyncCommands commands = tracked == null ? stringAsyncCommands : tracked;
+            RedisFuture<String> future = commands.psetex(newKey, hardExpireInMillis(timeUnit.toMillis(expireAfterWrite)), valueEncoder.apply(holder));
             CacheResult result = new CacheResult(future.handle((rt, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("PUT", key, ex));
@@ -117,10 +208,12 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     @Override
     protected CacheResult do_PUT_ALL(Map<? extends K, ? extends V> map, long expireAfterWrite, TimeUnit timeUnit) {
         try {
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedCommands();
+            RedisStringAsyncCommands commands = tracked == null ? stringAsyncCommands : tracked;
             CompletionStage<Integer> future = CompletableFuture.completedFuture(0);
             for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
-                CacheValueHolder<V> holder = new CacheValueHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
-                RedisFuture<String> resp = stringAsyncCommands.psetex(buildKey(en.getKey()), timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+                CacheValueHolder<V> holder = buildHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
+                RedisFuture<String> resp = commands.psetex(buildKey(en.getKey()), hardExpireInMillis(timeUnit.toMillis(expireAfterWrite)), valueEncoder.apply(holder));
                 future = future.thenCombine(resp, (failCount, respStr) -> "OK".equals(respStr) ? failCount : failCount + 1);
             }
             CacheResult result = new CacheResult(future.handle((failCount, ex) -> {
@@ -147,20 +240,43 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
+        CacheGetResult<V> intercepted = beforeGet(key);
+        if (intercepted != null) {
+            return intercepted;
+        }
         try {
             byte[] newKey = buildKey(key);
-            RedisFuture<byte[]> future = stringAsyncCommands.get(newKey);
-            CacheGetResult<V> result = new CacheGetResult<>(future.handle((valueBytes, ex) -> {
+            ByteBuffer trackedKey = localMap == null ? null : ByteBuffer.wrap(newKey);
+            if (trackedKey != null) {
+                long now = System.currentTimeMillis();
+                CacheValueHolder<V> local = localMap.get(trackedKey, now);
+                if (local != null) {
+                    checkStale(key, local, now);
+                    return new CacheGetResult<>(CacheResultCode.SUCCESS, null, local);
+                }
+            }
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedKey == null ? null : trackedCommands();
+            long version = tracked == null ? 0 : clientTracking.version(trackedKey);
+            // byte[], or CacheValueHolder from a zero copy codec
+            RedisFuture<Object> future = get(tracked == null ? stringAsyncCommands : tracked, newKey);
+            CacheGetResult<V> result = new CacheGetResult<>(future.handle((value, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("GET", key, ex));
                     return new ResultData(ex);
                 } else {
                     try {
-                        if (valueBytes != null) {
-                            CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply(valueBytes);
+                        if (value != null) {
+                            if (isExpiredEnvelope(value)) {
+                                return new ResultData(CacheResultCode.EXPIRED, null, null);
+                            }
+                            CacheValueHolder<V> holder = decodeValue(value);
                             if (System.currentTimeMillis() >= holder.getExpireTime()) {
                                 return new ResultData(CacheResultCode.EXPIRED, null, null);
                             } else {
+                                checkStale(key, holder, System.currentTimeMillis());
+                                if (tracked != null) {
+                                    localMap.install(trackedKey, version, holder);
+                                }
                                 return new ResultData(CacheResultCode.SUCCESS, null, holder);
                             }
                         } else {
@@ -183,14 +299,23 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     @Override
     protected MultiGetResult<K, V> do_GET_ALL(Set<? extends K> keys) {
         try {
-            ArrayList<K> keyList = new ArrayList<K>(keys);
+            Map<K, CacheGetResult<V>> resultMap = new HashMap<>();
+            ArrayList<K> keyList = localMap == null ? new ArrayList<K>(keys) : getAllFromLocal(keys, resultMap);
             byte[][] newKeys = keyList.stream().map((k) -> buildKey(k)).toArray(byte[][]::new);
 
-            Map<K, CacheGetResult<V>> resultMap = new HashMap<>();
             if (newKeys.length == 0) {
                 return new MultiGetResult<K, V>(CacheResultCode.SUCCESS, null, resultMap);
             }
-            RedisFuture<List<KeyValue<byte[],byte[]>>> mgetResults = stringAsyncCommands.mget(newKeys);
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedCommands();
+            long[] versions = null;
+            if (tracked != null) {
+                versions = new long[newKeys.length];
+                for (int i = 0; i < newKeys.length; i++) {
+                    versions[i] = clientTracking.version(ByteBuffer.wrap(newKeys[i]));
+                }
+            }
+            long[] trackedVersions = versions;
+            RedisFuture<List<KeyValue<byte[],byte[]>>> mgetResults = (tracked == null ? stringAsyncCommands : tracked).mget(newKeys);
             MultiGetResult<K, V> result = new MultiGetResult<>(mgetResults.handle((list, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("GET_ALL", "keys(" + keys.size() + ")", ex));
@@ -201,10 +326,24 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
                             KeyValue kv = list.get(i);
                             K key = keyList.get(i);
                             if (kv != null && kv.hasValue()) {
-                                CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) kv.getValue());
+                                if (isExpiredEnvelope(kv.getValue())) {
+                                    resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
+                                    continue;
+                                }
+                                if (trackedVersions == null && kv.getValue() instanceof byte[]
+                                        && EnvelopeValueDecoder.isFresh((byte[]) kv.getValue(), System.currentTimeMillis())) {
+                                    // decoded when the caller reads the value
+                                    resultMap.put(key, CacheGetResult.lazy(new LazyValueHolder<>((byte[]) kv.getValue(), valueDecoder)));
+                                    continue;
+                                }
+                                CacheValueHolder<V> holder = decodeValue(kv.getValue());
                                 if (System.currentTimeMillis() >= holder.getExpireTime()) {
                                     resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
                                 } else {
+                                    checkStale(key, holder, System.currentTimeMillis());
+                                    if (trackedVersions != null) {
+                                        localMap.install(ByteBuffer.wrap(newKeys[i]), trackedVersions[i], holder);
+                                    }
                                     CacheGetResult<V> r = new CacheGetResult<V>(CacheResultCode.SUCCESS, null, holder);
                                     resultMap.put(key, r);
                                 }
@@ -227,10 +366,31 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         }
     }
 
+    /**
+     * Put local hits of client tracking into the result map.
+     *
+     * @return keys to read from the server
+     */
+    private ArrayList<K> getAllFromLocal(Set<? extends K> keys, Map<K, CacheGetResult<V>> resultMap) {
+        ArrayList<K> missKeys = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (K key : keys) {
+            CacheValueHolder<V> local = localMap.get(ByteBuffer.wrap(buildKey(key)), now);
+            if (local != null) {
+                checkStale(key, local, now);
+                resultMap.put(key, new CacheGetResult<>(CacheResultCode.SUCCESS, null, local));
+            } else {
+                missKeys.add(key);
+            }
+        }
+        return missKeys;
+    }
+
     @Override
     protected CacheResult do_REMOVE(K key) {
         try {
-            RedisFuture<Long> future = keyAsyncCommands.del(buildKey(key));
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedCommands();
+            RedisFuture<Long> future = (tracked == null ? keyAsyncCommands : tracked).del(buildKey(key));
             CacheResult result = new CacheResult(future.handle((rt, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("REMOVE", key, ex));
@@ -259,7 +419,8 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
     protected CacheResult do_REMOVE_ALL(Set<? extends K> keys) {
         try {
             byte[][] newKeys = keys.stream().map((k) -> buildKey(k)).toArray((len) -> new byte[keys.size()][]);
-            RedisFuture<Long> future = keyAsyncCommands.del(newKeys);
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedCommands();
+            RedisFuture<Long> future = (tracked == null ? keyAsyncCommands : tracked).del(newKeys);
             CacheResult result = new CacheResult(future.handle((v, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("REMOVE_ALL", "keys(" + keys.size() + ")", ex));
@@ -281,7 +442,9 @@ public class RedisLettuceCache<K, V> extends AbstractExternalCache<K, V> {
         try {
             CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
             byte[] newKey = buildKey(key);
-            RedisFuture<String> future = stringAsyncCommands.set(newKey, valueEncoder.apply(holder), SetArgs.Builder.nx().px(timeUnit.toMillis(expireAfterWrite)));
+            RedisAsyncCommands<byte[], byte[]> tracked = trackedCommands();
+            RedisStringAsyncCommands commands = tracked == null ? stringAsyncCommands : tracked;
+            RedisFuture<String> future = commands.set(newKey, valueEncoder.apply(holder), SetArgs.Builder.nx().px(timeUnit.toMillis(expireAfterWrite)));
             CacheResult result = new CacheResult(future.handle((rt, ex) -> {
                 if (ex != null) {
                     JetCacheExecutor.defaultExecutor().execute(() -> logError("PUT_IF_ABSENT", key, ex));
@@ -55,4 +55,31 @@ public class RedisLettuceCacheBuilder<T extends ExternalCacheBuilder<T>> extends
     public void setAsyncResultTimeoutInMillis(long asyncResultTimeoutInMillis) {
         getConfig().setAsyncResultTimeoutInMillis(asyncResultTimeoutInMillis);
     }
+
+    public T clientTrackingMode(ClientTrackingMode clientTrackingMode) {
+        getConfig().setClientTrackingMode(clientTrackingMode);
+        return self();
+    }
+
+    public void setClientTrackingMode(ClientTrackingMode clientTrackingMode) {
+        getConfig().setClientTrackingMode(clientTrackingMode);
+    }
+
+    public T clientTrackingLimit(int clientTrackingLimit) {
+        getConfig().setClientTrackingLimit(clientTrackingLimit);
+        return self();
+    }
+
+    public void setClientTrackingLimit(int clientTrackingLimit) {
+        getConfig().setClientTrackingLimit(clientTrackingLimit);
+    }
+
+    public T zeroCopy(boolean zeroCopy) {
+        getConfig().setZeroCopy(zeroCopy);
+        return self();
+    }
+
+    public void setZeroCopy(boolean zeroCopy) {
+        getConfig().setZeroCopy(zeroCopy);
+    }
 }
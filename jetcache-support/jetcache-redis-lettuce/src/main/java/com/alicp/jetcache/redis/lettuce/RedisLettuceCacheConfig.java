@@ -12,12 +12,20 @@ import io.lettuce.core.api.StatefulConnection;
  */
 public class RedisLettuceCacheConfig<K, V> extends ExternalCacheConfig<K, V> {
 
+    public static final int DEFAULT_CLIENT_TRACKING_LIMIT = 10000;
+
     private AbstractRedisClient redisClient;
 
     private StatefulConnection connection;
 
     private long asyncResultTimeoutInMillis = CacheConsts.ASYNC_RESULT_TIMEOUT.toMillis();
 
+    private ClientTrackingMode clientTrackingMode = ClientTrackingMode.NONE;
+
+    private int clientTrackingLimit = DEFAULT_CLIENT_TRACKING_LIMIT;
+
+    private boolean zeroCopy;
+
     public AbstractRedisClient getRedisClient() {
         return redisClient;
     }
@@ -41,4 +49,44 @@ public class RedisLettuceCacheConfig<K, V> extends ExternalCacheConfig<K, V> {
     public void setAsyncResultTimeoutInMillis(long asyncResultTimeoutInMillis) {
         this.asyncResultTimeoutInMillis = asyncResultTimeoutInMillis;
     }
+
+    /**
+     * If not NONE, values read from redis are kept locally and invalidated by the server (CLIENT TRACKING,
+     * requires redis 6), so the RedisClient must be a {@link io.lettuce.core.RedisClient}.
+     */
+    public ClientTrackingMode getClientTrackingMode() {
+        return clientTrackingMode;
+    }
+
+    public void setClientTrackingMode(ClientTrackingMode clientTrackingMode) {
+        this.clientTrackingMode = clientTrackingMode;
+    }
+
+    /**
+     * Max count of values kept locally by client tracking.
+     */
+    public int getClientTrackingLimit() {
+        return clientTrackingLimit;
+    }
+
+    public void setClientTrackingLimit(int clientTrackingLimit) {
+        this.clientTrackingLimit = clientTrackingLimit;
+    }
+
+    /**
+     * If true, a GET response in the envelope format is decoded from the buffer of netty by the valueDecoder of the
+     * cache (which must be an {@link com.alicp.jetcache.support.AbstractValueDecoder}), without copying it to a byte
+     * array first. The decoding runs on the I/O thread. Values are still serialized to byte arrays by the caller of
+     * put, so a value can be changed after it is put. The shared connection and commands of the client still return
+     * byte arrays.
+     * <p>
+     * Values of GET_ALL are still decoded lazily, when the caller reads them.
+     */
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    public void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
 }
@@ -0,0 +1,71 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.support.AbstractCacheMessagePubSub;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.async.BaseRedisAsyncCommands;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Publish and subscribe cache messages through a redis channel with lettuce. Messages are published by the shared
+ * connection of {@link LettuceConnectionManager} and received by a dedicated pub/sub connection, which
+ * resubscribes automatically after reconnect.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class RedisLettuceCacheMessagePubSub extends AbstractCacheMessagePubSub {
+
+    private final AbstractRedisClient client;
+    private final byte[] channel;
+
+    private StatefulRedisPubSubConnection<byte[], byte[]> pubSubConnection;
+
+    public RedisLettuceCacheMessagePubSub(AbstractRedisClient client, String channel) {
+        this.client = client;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+        LettuceConnectionManager.defaultManager().init(client, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doPublish(byte[] message) {
+        BaseRedisAsyncCommands<byte[], byte[]> commands =
+                (BaseRedisAsyncCommands<byte[], byte[]>) LettuceConnectionManager.defaultManager().asyncCommands(client);
+        commands.publish(channel, message);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doSubscribe() {
+        if (client instanceof RedisClient) {
+            pubSubConnection = ((RedisClient) client).connectPubSub(new JetCacheCodec());
+        } else if (client instanceof RedisClusterClient) {
+            pubSubConnection = ((RedisClusterClient) client).connectPubSub(new JetCacheCodec());
+        } else {
+            throw new CacheConfigException("type " + client.getClass() + " is not supported");
+        }
+        pubSubConnection.addListener(new RedisPubSubAdapter<byte[], byte[]>() {
+            @Override
+            public void message(byte[] channel, byte[] message) {
+                // called in the netty event loop, onMessage only queues it
+                onMessage(message);
+            }
+        });
+        pubSubConnection.async().subscribe(channel);
+    }
+
+    @Override
+    protected void doClose() {
+        if (pubSubConnection != null) {
+            pubSubConnection.close();
+            pubSubConnection = null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.alicp.jetcache.redis.springdata;
 
 import com.alicp.jetcache.*;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.EnvelopeValueDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.RedisConnectionFailureException;
@@ -52,16 +53,24 @@ public class RedisSpringDataCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
+        CacheGetResult<V> intercepted = beforeGet(key);
+        if (intercepted != null) {
+            return intercepted;
+        }
         RedisConnection con = null;
         try {
             con = connectionFactory.getConnection();
             byte[] newKey = buildKey(key);
             byte[] resultBytes = con.get(newKey);
             if (resultBytes != null) {
+                if (EnvelopeValueDecoder.isExpired((byte[]) resultBytes, System.currentTimeMillis())) {
+                    return CacheGetResult.EXPIRED_WITHOUT_MSG;
+                }
                 CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) resultBytes);
                 if (System.currentTimeMillis() >= holder.getExpireTime()) {
                     return CacheGetResult.EXPIRED_WITHOUT_MSG;
                 }
+                checkStale(key, holder, System.currentTimeMillis());
                 return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
             } else {
                 return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
@@ -90,10 +99,20 @@ public class RedisSpringDataCache<K, V> extends AbstractExternalCache<K, V> {
                     Object value = mgetResults.get(i);
                     K key = keyList.get(i);
                     if (value != null) {
+                        if (EnvelopeValueDecoder.isExpired((byte[]) value, System.currentTimeMillis())) {
+                            resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
+                            continue;
+                        }
+                        if (EnvelopeValueDecoder.isFresh((byte[]) value, System.currentTimeMillis())) {
+                            // decoded when the caller reads the value
+                            resultMap.put(key, CacheGetResult.lazy(new LazyValueHolder<>((byte[]) value, valueDecoder)));
+                            continue;
+                        }
                         CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) value);
                         if (System.currentTimeMillis() >= holder.getExpireTime()) {
                             resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
                         } else {
+                            checkStale(key, holder, System.currentTimeMillis());
                             CacheGetResult<V> r = new CacheGetResult<>(CacheResultCode.SUCCESS, null, holder);
                             resultMap.put(key, r);
                         }
@@ -116,10 +135,10 @@ public class RedisSpringDataCache<K, V> extends AbstractExternalCache<K, V> {
         RedisConnection con = null;
         try {
             con = connectionFactory.getConnection();
-            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
+            CacheValueHolder<V> holder = buildHolder(value, timeUnit.toMillis(expireAfterWrite));
             byte[] keyBytes = buildKey(key);
             byte[] valueBytes = valueEncoder.apply(holder);
-            Boolean result = con.pSetEx(keyBytes, timeUnit.toMillis(expireAfterWrite), valueBytes);
+            Boolean result = con.pSetEx(keyBytes, hardExpireInMillis(timeUnit.toMillis(expireAfterWrite)), valueBytes);
             if (Boolean.TRUE.equals(result)) {
                 return CacheResult.SUCCESS_WITHOUT_MSG;
             } else {
@@ -140,9 +159,9 @@ public class RedisSpringDataCache<K, V> extends AbstractExternalCache<K, V> {
             con = connectionFactory.getConnection();
             int failCount = 0;
             for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
-                CacheValueHolder<V> holder = new CacheValueHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
+                CacheValueHolder<V> holder = buildHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
                 Boolean result = con.pSetEx(buildKey(en.getKey()),
-                        timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+                        hardExpireInMillis(timeUnit.toMillis(expireAfterWrite)), valueEncoder.apply(holder));
                 if(!Boolean.TRUE.equals(result)){
                     failCount++;
                 }
@@ -1,10 +1,13 @@
 package com.alicp.jetcache.redis;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
 
+import redis.clients.jedis.BinaryJedisPubSub;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.params.SetParams;
 
 class JedisClientWrapper implements Closeable {
@@ -30,7 +33,18 @@ class JedisClientWrapper implements Closeable {
     
     List<byte[]> mget(final byte[]... keys) {
         if (jedisCluster != null) {
-            return jedisCluster.mget(keys);
+            // keys may belong to different slots, MGET can't cross slots, so send GETs in a pipeline per node
+            JedisClusterPipelineWrapper p = pipelined();
+            List<Response<byte[]>> responses = new ArrayList<>(keys.length);
+            for (byte[] key : keys) {
+                responses.add(p.get(key));
+            }
+            p.sync();
+            List<byte[]> results = new ArrayList<>(keys.length);
+            for (Response<byte[]> r : responses) {
+                results.add(r.get());
+            }
+            return results;
         }
         return jedis.mget(keys);
     }
@@ -63,6 +77,35 @@ class JedisClientWrapper implements Closeable {
         return jedis.set(key, value, params);
     }
     
+    String set(final byte[] key, final byte[] value) {
+        if (jedisCluster != null) {
+            return jedisCluster.set(key, value);
+        }
+        return jedis.set(key, value);
+    }
+    
+    Boolean setbit(final byte[] key, final long offset, final boolean value) {
+        if (jedisCluster != null) {
+            return jedisCluster.setbit(key, offset, value);
+        }
+        return jedis.setbit(key, offset, value);
+    }
+    
+    Long publish(final byte[] channel, final byte[] message) {
+        if (jedisCluster != null) {
+            return jedisCluster.publish(channel, message);
+        }
+        return jedis.publish(channel, message);
+    }
+    
+    void subscribe(final BinaryJedisPubSub pubSub, final byte[]... channels) {
+        if (jedisCluster != null) {
+            jedisCluster.subscribe(pubSub, channels);
+        } else {
+            jedis.subscribe(pubSub, channels);
+        }
+    }
+    
     JedisClusterPipelineWrapper pipelined() {
         if (jedisCluster != null) {
             return new JedisClusterPipelineWrapper(jedisCluster);
@@ -0,0 +1,89 @@
+package com.alicp.jetcache.redis;
+
+import com.alicp.jetcache.support.BloomFilterMirror;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.util.Pool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mirror a bloom filter to redis bitmaps, stage i is stored in key "keyPrefix:i".
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class RedisBloomFilterMirror implements BloomFilterMirror {
+
+    private static final int MAX_STAGES = 64;
+
+    private final Pool<Jedis> jedisPool;
+    private final JedisCluster jedisCluster;
+    private final String keyPrefix;
+
+    public RedisBloomFilterMirror(Pool<Jedis> jedisPool, String keyPrefix) {
+        this.jedisPool = jedisPool;
+        this.jedisCluster = null;
+        this.keyPrefix = keyPrefix;
+    }
+
+    public RedisBloomFilterMirror(JedisCluster jedisCluster, String keyPrefix) {
+        this.jedisPool = null;
+        this.jedisCluster = jedisCluster;
+        this.keyPrefix = keyPrefix;
+    }
+
+    private JedisClientWrapper getClient() {
+        if (jedisCluster != null) {
+            return new JedisClientWrapper(jedisCluster);
+        }
+        return new JedisClientWrapper(jedisPool.getResource());
+    }
+
+    private byte[] stageKey(int stage) {
+        return (keyPrefix + ":" + stage).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void setBits(int stage, long[] offsets) {
+        byte[] key = stageKey(stage);
+        try (JedisClientWrapper client = getClient()) {
+            for (long offset : offsets) {
+                client.setbit(key, offset, true);
+            }
+        }
+    }
+
+    @Override
+    public void replace(List<byte[]> stages) {
+        try (JedisClientWrapper client = getClient()) {
+            for (int i = 0; i < stages.size(); i++) {
+                client.set(stageKey(i), stages.get(i));
+            }
+            for (int i = stages.size(); i < MAX_STAGES; i++) {
+                Long deleted = client.del(stageKey(i));
+                if (deleted == null || deleted == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<byte[]> load() {
+        List<byte[]> stages = new ArrayList<>();
+        try (JedisClientWrapper client = getClient()) {
+            for (int i = 0; i < MAX_STAGES; i++) {
+                byte[] bytes = client.get(stageKey(i));
+                if (bytes == null) {
+                    break;
+                }
+                stages.add(bytes);
+            }
+        }
+        return stages;
+    }
+}
@@ -20,8 +20,10 @@ import com.alicp.jetcache.CacheGetResult;
 import com.alicp.jetcache.CacheResult;
 import com.alicp.jetcache.CacheResultCode;
 import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.LazyValueHolder;
 import com.alicp.jetcache.MultiGetResult;
 import com.alicp.jetcache.external.AbstractExternalCache;
+import com.alicp.jetcache.support.EnvelopeValueDecoder;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisCluster;
@@ -131,14 +133,22 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
 
     @Override
     protected CacheGetResult<V> do_GET(K key) {
+        CacheGetResult<V> intercepted = beforeGet(key);
+        if (intercepted != null) {
+            return intercepted;
+        }
         try (JedisClientWrapper jedis = getReadJedisClient()) {
             byte[] newKey = buildKey(key);
             byte[] bytes = jedis.get(newKey);
             if (bytes != null) {
+                if (EnvelopeValueDecoder.isExpired(bytes, System.currentTimeMillis())) {
+                    return CacheGetResult.EXPIRED_WITHOUT_MSG;
+                }
                 CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply(bytes);
                 if (System.currentTimeMillis() >= holder.getExpireTime()) {
                     return CacheGetResult.EXPIRED_WITHOUT_MSG;
                 }
+                checkStale(key, holder, System.currentTimeMillis());
                 return new CacheGetResult(CacheResultCode.SUCCESS, null, holder);
             } else {
                 return CacheGetResult.NOT_EXISTS_WITHOUT_MSG;
@@ -162,10 +172,20 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
                     Object value = mgetResults.get(i);
                     K key = keyList.get(i);
                     if (value != null) {
+                        if (EnvelopeValueDecoder.isExpired((byte[]) value, System.currentTimeMillis())) {
+                            resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
+                            continue;
+                        }
+                        if (EnvelopeValueDecoder.isFresh((byte[]) value, System.currentTimeMillis())) {
+                            // decoded when the caller reads the value
+                            resultMap.put(key, CacheGetResult.lazy(new LazyValueHolder<>((byte[]) value, valueDecoder)));
+                            continue;
+                        }
                         CacheValueHolder<V> holder = (CacheValueHolder<V>) valueDecoder.apply((byte[]) value);
                         if (System.currentTimeMillis() >= holder.getExpireTime()) {
                             resultMap.put(key, CacheGetResult.EXPIRED_WITHOUT_MSG);
                         } else {
+                            checkStale(key, holder, System.currentTimeMillis());
                             CacheGetResult<V> r = new CacheGetResult<V>(CacheResultCode.SUCCESS, null, holder);
                             resultMap.put(key, r);
                         }
@@ -185,9 +205,9 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
     @Override
     protected CacheResult do_PUT(K key, V value, long expireAfterWrite, TimeUnit timeUnit) {
         try (JedisClientWrapper jedis = getJedisClient()) {
-            CacheValueHolder<V> holder = new CacheValueHolder(value, timeUnit.toMillis(expireAfterWrite));
+            CacheValueHolder<V> holder = buildHolder(value, timeUnit.toMillis(expireAfterWrite));
             byte[] newKey = buildKey(key);
-            String rt = jedis.psetex(newKey, timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+            String rt = jedis.psetex(newKey, hardExpireInMillis(timeUnit.toMillis(expireAfterWrite)), valueEncoder.apply(holder));
             if ("OK".equals(rt)) {
                 return CacheResult.SUCCESS_WITHOUT_MSG;
             } else {
@@ -206,8 +226,8 @@ public class RedisCache<K, V> extends AbstractExternalCache<K, V> {
             List<Response<String>> responses = new ArrayList<>();
             JedisClusterPipelineWrapper p = jedis.pipelined();
             for (Map.Entry<? extends K, ? extends V> en : map.entrySet()) {
-                CacheValueHolder<V> holder = new CacheValueHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
-                Response<String> resp = p.psetex(buildKey(en.getKey()), timeUnit.toMillis(expireAfterWrite), valueEncoder.apply(holder));
+                CacheValueHolder<V> holder = buildHolder(en.getValue(), timeUnit.toMillis(expireAfterWrite));
+                Response<String> resp = p.psetex(buildKey(en.getKey()), hardExpireInMillis(timeUnit.toMillis(expireAfterWrite)), valueEncoder.apply(holder));
                 responses.add(resp);
             }
             p.sync();
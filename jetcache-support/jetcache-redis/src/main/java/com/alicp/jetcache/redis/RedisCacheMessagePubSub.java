@@ -0,0 +1,116 @@
+package com.alicp.jetcache.redis;
+
+import com.alicp.jetcache.support.AbstractCacheMessagePubSub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.util.Pool;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Publish and subscribe cache messages through a redis channel with jedis. The subscription blocks a connection,
+ * so it runs in a dedicated daemon thread and reconnects after errors.
+ * <pre>
+ * RedisCacheMessagePubSub pubSub = new RedisCacheMessagePubSub(jedisPool, "jetcache_message");
+ * configProvider.setCacheMessagePublisher(pubSub);
+ * configProvider.setCacheMessageSubscriber(pubSub);
+ * </pre>
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class RedisCacheMessagePubSub extends AbstractCacheMessagePubSub {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCacheMessagePubSub.class);
+
+    private static final long RETRY_INTERVAL_MILLIS = 1000;
+
+    private final Pool<Jedis> jedisPool;
+    private final JedisCluster jedisCluster;
+    private final byte[] channel;
+
+    private volatile boolean closed;
+    private volatile BinaryJedisPubSub pubSub;
+    private Thread subscribeThread;
+
+    public RedisCacheMessagePubSub(Pool<Jedis> jedisPool, String channel) {
+        this.jedisPool = jedisPool;
+        this.jedisCluster = null;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public RedisCacheMessagePubSub(JedisCluster jedisCluster, String channel) {
+        this.jedisPool = null;
+        this.jedisCluster = jedisCluster;
+        this.channel = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private JedisClientWrapper getClient() {
+        if (jedisCluster != null) {
+            return new JedisClientWrapper(jedisCluster);
+        }
+        return new JedisClientWrapper(jedisPool.getResource());
+    }
+
+    @Override
+    protected void doPublish(byte[] message) {
+        try (JedisClientWrapper client = getClient()) {
+            client.publish(channel, message);
+        }
+    }
+
+    @Override
+    protected void doSubscribe() {
+        closed = false;
+        subscribeThread = new Thread(this::subscribeLoop, "JetCacheMessageSubscriber");
+        subscribeThread.setDaemon(true);
+        subscribeThread.start();
+    }
+
+    private void subscribeLoop() {
+        while (!closed) {
+            BinaryJedisPubSub ps = new BinaryJedisPubSub() {
+                @Override
+                public void onMessage(byte[] channel, byte[] message) {
+                    RedisCacheMessagePubSub.this.onMessage(message);
+                }
+            };
+            pubSub = ps;
+            try (JedisClientWrapper client = getClient()) {
+                // blocks until unsubscribed
+                client.subscribe(ps, channel);
+            } catch (Throwable e) {
+                if (closed) {
+                    break;
+                }
+                logger.error("subscribe cache message error, retry after {}ms", RETRY_INTERVAL_MILLIS, e);
+                try {
+                    Thread.sleep(RETRY_INTERVAL_MILLIS);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        closed = true;
+        BinaryJedisPubSub ps = pubSub;
+        if (ps != null && ps.isSubscribed()) {
+            try {
+                ps.unsubscribe();
+            } catch (Throwable e) {
+                logger.warn("unsubscribe error", e);
+            }
+        }
+        if (subscribeThread != null) {
+            subscribeThread.interrupt();
+            subscribeThread = null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.alicp.jetcache.test;
 
 import com.alicp.jetcache.*;
 import com.alicp.jetcache.support.DefaultCacheMonitor;
+import com.alicp.jetcache.support.JetCacheExecutor;
 import com.alicp.jetcache.support.StatInfo;
 import com.alicp.jetcache.support.StatInfoLogger;
 import com.alicp.jetcache.test.support.DynamicQuery;
@@ -12,13 +13,17 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Created on 2016/10/8.
@@ -62,6 +67,7 @@ public abstract class AbstractCacheTest {
         complextValueTest();
 
         asyncTest();
+        asyncApiTest();
 
         penetrationProtectTestWrapper(cache);
     }
@@ -368,6 +374,60 @@ public abstract class AbstractCacheTest {
         Assert.assertFalse(asyncTestFail);
     }
 
+    private void asyncApiTest() throws Exception {
+        Assert.assertTrue(cache.putAsync("ASYNC_API_K1", "V1").toCompletableFuture().get());
+        Assert.assertTrue(cache.putAsync("ASYNC_API_K2", "V2", 1, TimeUnit.MINUTES).toCompletableFuture().get());
+        Assert.assertEquals("V1", cache.getAsync("ASYNC_API_K1").toCompletableFuture().get());
+
+        HashSet<Object> keys = new HashSet<>();
+        keys.add("ASYNC_API_K1");
+        keys.add("ASYNC_API_K2");
+        Map<Object, Object> m = cache.getAllAsync(keys).toCompletableFuture().get();
+        Assert.assertEquals(2, m.size());
+        Assert.assertEquals("V2", m.get("ASYNC_API_K2"));
+        if (cache.config().getLoader() == null) {
+            Assert.assertNull(cache.getAsync("ASYNC_API_NOT_EXISTS").toCompletableFuture().get());
+            keys.add("ASYNC_API_NOT_EXISTS");
+            Assert.assertEquals(2, cache.getAllAsync(keys).toCompletableFuture().get().size());
+        }
+        Assert.assertNull(cache.getAsync(null).toCompletableFuture().get());
+
+        Assert.assertEquals("V1", cache.computeIfAbsentAsync("ASYNC_API_K1", k -> {
+            throw new RuntimeException();
+        }).toCompletableFuture().get());
+        Assert.assertEquals("V3", cache.computeIfAbsentAsync("ASYNC_API_K3",
+                k -> CompletableFuture.completedFuture("V3")).toCompletableFuture().get());
+        Assert.assertEquals("V3", cache.get("ASYNC_API_K3"));
+        Assert.assertEquals("V4", cache.computeIfAbsentAsync("ASYNC_API_K4",
+                k -> CompletableFuture.supplyAsync(() -> "V4"), false, 1, TimeUnit.MINUTES)
+                .toCompletableFuture().get());
+        Assert.assertEquals("V4", cache.get("ASYNC_API_K4"));
+
+        // null is not cached unless cacheNullWhenLoaderReturnNull is true
+        Assert.assertNull(cache.computeIfAbsentAsync("ASYNC_API_K5",
+                k -> CompletableFuture.completedFuture(null), false).toCompletableFuture().get());
+        Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("ASYNC_API_K5").getResultCode());
+        Assert.assertNull(cache.computeIfAbsentAsync("ASYNC_API_K5",
+                k -> CompletableFuture.completedFuture(null), true).toCompletableFuture().get());
+        Assert.assertTrue(cache.GET("ASYNC_API_K5").isSuccess());
+
+        // loader exception
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException());
+        try {
+            cache.computeIfAbsentAsync("ASYNC_API_K6", k -> failed).toCompletableFuture().get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("ASYNC_API_K6").getResultCode());
+
+        cache.remove("ASYNC_API_K1");
+        cache.remove("ASYNC_API_K2");
+        cache.remove("ASYNC_API_K3");
+        cache.remove("ASYNC_API_K4");
+        cache.remove("ASYNC_API_K5");
+    }
 
     static class A implements Serializable {
         private static final long serialVersionUID = 1692575072446353143L;
@@ -745,13 +805,16 @@ public abstract class AbstractCacheTest {
         cache.config().setCachePenetrationProtect(true);
 
         penetrationProtectTestWithComputeIfAbsent(cache);
+        penetrationProtectTestWithComputeIfAbsentAsync(cache);
         if (cache instanceof LoadingCache) {
             penetrationProtectTestWithLoadingCache(cache);
+            penetrationProtectTestWithLoadingCacheGetAll(cache);
         }
 
         penetrationProtectReEntryTest(cache);
 
         penetrationProtectTimeoutTest(cache);
+        penetrationProtectAsyncTimeoutTest(cache);
 
         cache.config().setCachePenetrationProtect(oldPenetrationProtect);
         cache.config().setPenetrationProtectTimeout(oldTime);
@@ -822,6 +885,120 @@ public abstract class AbstractCacheTest {
         cache.remove(keyPrefix + "2");
     }
 
+    private static CompletableFuture<Object> delay(Supplier<Object> supplier, long millis) {
+        CompletableFuture<Object> f = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                Thread.sleep(millis);
+                f.complete(supplier.get());
+            } catch (Throwable e) {
+                f.completeExceptionally(e);
+            }
+        }).start();
+        return f;
+    }
+
+    private static void penetrationProtectTestWithComputeIfAbsentAsync(Cache cache) throws Exception {
+        String keyPrefix = "penetrationProtectAsync_";
+        AtomicInteger loadCount = new AtomicInteger(0);
+        Function<Object, CompletionStage<Object>> loader = k -> {
+            int c = loadCount.incrementAndGet();
+            return delay(() -> {
+                if ((keyPrefix + "1").equals(k) && c == 1) {
+                    throw new RuntimeException("mock error");
+                }
+                return k + "_V";
+            }, 100);
+        };
+
+        // all async callers share one load, no thread is blocked
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(cache.computeIfAbsentAsync(keyPrefix + "0", loader).toCompletableFuture());
+        }
+        // a sync caller waits on the same LoaderLock
+        Assert.assertEquals(keyPrefix + "0_V", cache.computeIfAbsent(keyPrefix + "0", k -> {
+            loadCount.incrementAndGet();
+            return k + "_V";
+        }));
+        for (CompletableFuture<Object> f : futures) {
+            Assert.assertEquals(keyPrefix + "0_V", f.get());
+        }
+        Assert.assertEquals(1, loadCount.get());
+
+        // the first load fails, the waiters retry and share the second load
+        loadCount.set(0);
+        futures.clear();
+        for (int i = 0; i < 10; i++) {
+            futures.add(cache.computeIfAbsentAsync(keyPrefix + "1", loader).toCompletableFuture());
+        }
+        int failCount = 0;
+        for (CompletableFuture<Object> f : futures) {
+            try {
+                Assert.assertEquals(keyPrefix + "1_V", f.get());
+            } catch (ExecutionException e) {
+                Assert.assertEquals("mock error", e.getCause().getMessage());
+                failCount++;
+            }
+        }
+        Assert.assertEquals(1, failCount);
+        Assert.assertEquals(2, loadCount.get());
+
+        cache.remove(keyPrefix + "0");
+        cache.remove(keyPrefix + "1");
+    }
+
+    private static void penetrationProtectAsyncTimeoutTest(Cache cache) throws Exception {
+        String keyPrefix = "penetrationProtectAsyncTimeoutTest_";
+        AtomicInteger loadCount = new AtomicInteger(0);
+        Function<Object, CompletionStage<Object>> loader = k -> {
+            loadCount.incrementAndGet();
+            return delay(() -> k + "_V", 75);
+        };
+
+        cache.config().setPenetrationProtectTimeout(Duration.ofMillis(1));
+        CompletableFuture f1 = cache.computeIfAbsentAsync(keyPrefix + 1, loader).toCompletableFuture();
+        CompletableFuture f2 = cache.computeIfAbsentAsync(keyPrefix + 1, loader).toCompletableFuture();
+        Assert.assertEquals(keyPrefix + "1_V", f1.get());
+        Assert.assertEquals(keyPrefix + "1_V", f2.get());
+        Assert.assertEquals(2, loadCount.get());
+
+        cache.config().setPenetrationProtectTimeout(Duration.ofMillis(200));
+        loadCount.set(0);
+        f1 = cache.computeIfAbsentAsync(keyPrefix + 2, loader).toCompletableFuture();
+        f2 = cache.computeIfAbsentAsync(keyPrefix + 2, loader).toCompletableFuture();
+        Assert.assertEquals(keyPrefix + "2_V", f1.get());
+        Assert.assertEquals(keyPrefix + "2_V", f2.get());
+        Assert.assertEquals(1, loadCount.get());
+
+        // the loader of a timeout waiter does blocking work in apply, it must not run in the timer thread
+        cache.config().setPenetrationProtectTimeout(Duration.ofMillis(1));
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CountDownLatch applying = new CountDownLatch(1);
+        f1 = cache.computeIfAbsentAsync(keyPrefix + 3, k -> first).toCompletableFuture();
+        f2 = cache.computeIfAbsentAsync(keyPrefix + 3, k -> {
+            applying.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return CompletableFuture.completedFuture(k + "_V");
+        }).toCompletableFuture();
+        Assert.assertTrue(applying.await(1, TimeUnit.SECONDS));
+        long t = System.currentTimeMillis();
+        JetCacheExecutor.defaultExecutor().submit(() -> {
+        }).get();
+        Assert.assertTrue(System.currentTimeMillis() - t < 150);
+        Assert.assertEquals(keyPrefix + "3_V", f2.get());
+        first.complete(keyPrefix + "3_V");
+        Assert.assertEquals(keyPrefix + "3_V", f1.get());
+
+        cache.remove(keyPrefix + 1);
+        cache.remove(keyPrefix + 2);
+        cache.remove(keyPrefix + 3);
+    }
+
     private static void penetrationProtectTestWithLoadingCache(Cache cache) throws Exception {
         String failMsg[] = new String[1];
 
@@ -893,6 +1070,66 @@ public abstract class AbstractCacheTest {
         cache.config().setLoader(oldLoader);
     }
 
+    private static void penetrationProtectTestWithLoadingCacheGetAll(Cache cache) throws Exception {
+        String failMsg[] = new String[1];
+        AtomicInteger loadAllCount = new AtomicInteger();
+        ConcurrentHashMap<Integer, Integer> loadedKeys = new ConcurrentHashMap<>();
+        CacheLoader<Integer, Integer> loader = new CacheLoader<Integer, Integer>() {
+            @Override
+            public Integer load(Integer key) {
+                failMsg[0] = "should use loadAll";
+                return key + 100;
+            }
+
+            @Override
+            public Map<Integer, Integer> loadAll(Set<Integer> keys) throws Throwable {
+                loadAllCount.incrementAndGet();
+                Thread.sleep(50);
+                Map<Integer, Integer> map = new HashMap<>();
+                for (Integer k : keys) {
+                    if (loadedKeys.putIfAbsent(k, k) != null) {
+                        failMsg[0] = "each key should load only once";
+                    }
+                    map.put(k, k + 100);
+                }
+                return map;
+            }
+        };
+
+        CacheLoader oldLoader = cache.config().getLoader();
+        cache.config().setLoader(loader);
+        Cache<Integer, Integer> c = cache;
+
+        Set<Integer> keys = new HashSet<>(Arrays.asList(3000, 3001, 3002));
+        c.removeAll(keys);
+        c.removeAll(new HashSet<>(Arrays.asList(3010, 3011, 3012, 3013, 3014, 3015, 3016)));
+        Map<Integer, Integer> values = c.getAll(keys);
+        Assert.assertEquals(1, loadAllCount.get());
+        Assert.assertEquals(3, values.size());
+        Assert.assertEquals(3102, values.get(3002).intValue());
+
+        int threadCount = 4;
+        CountDownLatch countDownLatch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            Set<Integer> s = new HashSet<>(Arrays.asList(3010, 3011, 3012, 3013 + i));
+            new Thread(() -> {
+                Map<Integer, Integer> m = c.getAll(s);
+                for (Integer k : s) {
+                    if (m.get(k) == null || m.get(k) != k + 100) {
+                        failMsg[0] = "value error";
+                    }
+                }
+                countDownLatch.countDown();
+            }).start();
+        }
+        countDownLatch.await();
+        Assert.assertNull(failMsg[0]);
+        Assert.assertEquals(10, loadedKeys.size());
+        Assert.assertTrue(loadAllCount.get() <= 1 + threadCount);
+
+        cache.config().setLoader(oldLoader);
+    }
+
     private static void penetrationProtectReEntryTest(Cache cache) {
         Object v = cache.computeIfAbsent("penetrationProtectReEntryTest",
                 (k) -> cache.computeIfAbsent(k, (k2) -> "V"));
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -165,4 +166,27 @@ public class CacheTest {
         assertNotNull(concreteCache.GET("key"));
     }
 
+
+    @Test
+    public void testComputeIfAbsentAsyncDefault() throws Exception {
+        when(cache.computeIfAbsentAsync(any(), any(), anyBoolean())).thenCallRealMethod();
+        when(cache.computeIfAbsentAsync(any(), any(), anyBoolean(), anyLong(), any())).thenCallRealMethod();
+        when(cache.PUT(any(), any())).then(delegateAnswer);
+        when(cache.PUT(any(), any(), anyLong(), any())).then(delegateAnswer);
+
+        assertEquals("V1", cache.computeIfAbsentAsync("K1", k -> CompletableFuture.completedFuture("V1"), false)
+                .toCompletableFuture().get());
+        assertEquals("V1", concreteCache.get("K1"));
+        // a hit doesn't call the loader
+        assertEquals("V1", cache.computeIfAbsentAsync("K1", k -> {
+            throw new IllegalStateException();
+        }, false).toCompletableFuture().get());
+
+        assertNull(cache.computeIfAbsentAsync("K2", k -> CompletableFuture.completedFuture(null), false)
+                .toCompletableFuture().get());
+        assertFalse(concreteCache.GET("K2").isSuccess());
+        assertNull(cache.computeIfAbsentAsync("K2", k -> CompletableFuture.completedFuture(null), true,
+                1, TimeUnit.HOURS).toCompletableFuture().get());
+        assertTrue(concreteCache.GET("K2").isSuccess());
+    }
 }
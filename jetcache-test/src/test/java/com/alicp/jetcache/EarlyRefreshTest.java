@@ -0,0 +1,71 @@
+package com.alicp.jetcache;
+
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class EarlyRefreshTest {
+
+    @Test
+    public void testShouldRefreshEarly() {
+        CacheValueHolder<String> holder = new CacheValueHolder<>("V", TimeUnit.HOURS.toMillis(1));
+        assertFalse(AbstractCache.shouldRefreshEarly(holder, TimeUnit.MILLISECONDS.toNanos(1), 1));
+        assertFalse(AbstractCache.shouldRefreshEarly(null, TimeUnit.MILLISECONDS.toNanos(1), 1));
+
+        holder = new CacheValueHolder<>("V", -1);
+        assertTrue(AbstractCache.shouldRefreshEarly(holder, TimeUnit.MILLISECONDS.toNanos(1), 1));
+        // no load cost recorded yet
+        assertFalse(AbstractCache.shouldRefreshEarly(holder, 0, 1));
+    }
+
+    @Test
+    public void testEarlyRefresh() throws Exception {
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(300, TimeUnit.MILLISECONDS)
+                .earlyRefreshBeta(10)
+                .buildCache();
+        AtomicInteger loadCount = new AtomicInteger();
+        Function<String, Integer> loader = k -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return loadCount.incrementAndGet();
+        };
+
+        assertEquals(1, cache.computeIfAbsent("K1", loader).intValue());
+        long maxReadMillis = 0;
+        long end = System.currentTimeMillis() + 500;
+        while (System.currentTimeMillis() < end) {
+            long t = System.currentTimeMillis();
+            assertNotNull(cache.computeIfAbsent("K1", loader));
+            maxReadMillis = Math.max(maxReadMillis, System.currentTimeMillis() - t);
+            Thread.sleep(10);
+        }
+        // refreshed in background before expired, readers never wait for the loader
+        assertTrue(loadCount.get() >= 2);
+        assertTrue(maxReadMillis < 80, "max read time: " + maxReadMillis);
+
+        cache.config().setEarlyRefreshBeta(0);
+        // wait the running refresh
+        Thread.sleep(150);
+        int count = loadCount.get();
+        cache.put("K2", 100);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(100, cache.computeIfAbsent("K2", loader).intValue());
+        }
+        Thread.sleep(150);
+        assertEquals(count, loadCount.get());
+    }
+}
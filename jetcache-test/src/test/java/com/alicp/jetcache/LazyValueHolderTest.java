@@ -0,0 +1,171 @@
+package com.alicp.jetcache;
+
+import com.alicp.jetcache.embedded.EmbeddedCacheConfig;
+import com.alicp.jetcache.embedded.LinkedHashMapCache;
+import com.alicp.jetcache.support.CacheEncodeException;
+import com.alicp.jetcache.support.EnvelopeValueDecoder;
+import com.alicp.jetcache.support.EnvelopeValueEncoder;
+import com.alicp.jetcache.support.KryoValueDecoder;
+import com.alicp.jetcache.support.KryoValueEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class LazyValueHolderTest {
+
+    private final EnvelopeValueEncoder encoder = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+    private final AtomicInteger decodeCount = new AtomicInteger();
+    private final Function<byte[], Object> decoder = bytes -> {
+        decodeCount.incrementAndGet();
+        return KryoValueDecoder.INSTANCE.apply(bytes);
+    };
+
+    private LazyValueHolder<String> lazy(String value) {
+        return new LazyValueHolder<>(encoder.apply(new CacheValueHolder<>(value, 10000)), decoder);
+    }
+
+    @Test
+    public void testMultiGetResult() {
+        Map<String, CacheGetResult<String>> values = new HashMap<>();
+        values.put("K1", CacheGetResult.lazy(lazy("V1")));
+        values.put("K2", CacheGetResult.lazy(lazy("V2")));
+        values.put("K3", CacheGetResult.NOT_EXISTS_WITHOUT_MSG);
+        MultiGetResult<String, String> r = new MultiGetResult<>(CacheResultCode.SUCCESS, null, values);
+
+        int hits = 0;
+        for (CacheGetResult<String> single : r.getValues().values()) {
+            if (single.isSuccess()) {
+                hits++;
+            }
+        }
+        assertEquals(2, hits);
+        assertEquals(0, decodeCount.get());
+
+        assertEquals("V1", r.getValues().get("K1").getValue());
+        assertEquals("V1", r.getValues().get("K1").getValue());
+        assertEquals(1, decodeCount.get());
+
+        Map<String, String> m = r.unwrapValues();
+        assertEquals(2, m.size());
+        assertEquals("V2", m.get("K2"));
+        assertEquals(2, decodeCount.get());
+    }
+
+    @Test
+    public void testResultData() {
+        CacheGetResult<String> r = CacheGetResult.lazy(lazy("V"));
+        ResultData d = r.future().toCompletableFuture().join();
+        assertEquals(0, decodeCount.get());
+        CacheValueHolder<String> h = (CacheValueHolder<String>) d.getOriginData();
+        assertEquals("V", h.getValue());
+        assertEquals("V", d.getData());
+        assertSame(h, r.getHolder());
+        assertEquals("V", r.getValue());
+        assertEquals(1, decodeCount.get());
+    }
+
+    @Test
+    public void testNestedHolder() {
+        byte[] bytes = encoder.apply(new CacheValueHolder<>(new CacheValueHolder<>("V", 10000), 10000));
+        CacheGetResult<Object> r = CacheGetResult.lazy(new LazyValueHolder<>(bytes, decoder));
+        assertEquals("V", r.getValue());
+    }
+
+    @Test
+    public void testConcurrentDecode() throws Exception {
+        LazyValueHolder<String> holder = lazy("V");
+        CacheGetResult<String> r = CacheGetResult.lazy(holder);
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        AtomicInteger ok = new AtomicInteger();
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    if ("V".equals(r.getValue())) {
+                        ok.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(threadCount, ok.get());
+        assertEquals(1, decodeCount.get());
+        assertTrue(holder.isDecoded());
+    }
+
+    @Test
+    public void testDecodeError() {
+        CacheGetResult<String> r = CacheGetResult.lazy(new LazyValueHolder<>(new byte[]{1, 2, 3, 4, 5}, decoder));
+        assertTrue(r.isSuccess());
+        assertThrows(CacheEncodeException.class, r::getValue);
+    }
+
+    @Test
+    public void testDecodeErrorIsMiss() throws Exception {
+        Map<String, CacheGetResult<String>> values = new HashMap<>();
+        values.put("K1", CacheGetResult.lazy(new LazyValueHolder<>(new byte[]{1, 2, 3, 4, 5}, decoder)));
+        values.put("K2", CacheGetResult.lazy(lazy("V2")));
+        MultiGetResult<String, String> r = new MultiGetResult<>(CacheResultCode.SUCCESS, null, values);
+        Map<String, String> m = r.unwrapValues();
+        assertEquals(1, m.size());
+        assertEquals("V2", m.get("K2"));
+
+        EmbeddedCacheConfig<String, String> config = new EmbeddedCacheConfig<>();
+        config.setLoader(k -> "L_" + k);
+        Cache<String, String> target = new LinkedHashMapCache<String, String>(config) {
+            @Override
+            protected MultiGetResult<String, String> do_GET_ALL(Set<? extends String> keys) {
+                Map<String, CacheGetResult<String>> values = new HashMap<>();
+                values.put("K1", CacheGetResult.lazy(new LazyValueHolder<>(new byte[]{1, 2, 3, 4, 5}, decoder)));
+                values.put("K2", CacheGetResult.lazy(lazy("V2")));
+                return new MultiGetResult<>(CacheResultCode.SUCCESS, null, values);
+            }
+        };
+        LoadingCache<String, String> cache = new LoadingCache<>(target);
+        Set<String> keys = new HashSet<>(Arrays.asList("K1", "K2"));
+        m = cache.getAll(keys);
+        assertEquals("L_K1", m.get("K1"));
+        assertEquals("V2", m.get("K2"));
+        m = cache.getAllAsync(keys).toCompletableFuture().get();
+        assertEquals("L_K1", m.get("K1"));
+        assertEquals("V2", m.get("K2"));
+    }
+
+    @Test
+    public void testFresh() {
+        CacheValueHolder<String> h = new CacheValueHolder<>("V", 10000);
+        byte[] bytes = encoder.apply(h);
+        assertTrue(EnvelopeValueDecoder.isFresh(bytes, h.getExpireTime() - 1));
+        assertFalse(EnvelopeValueDecoder.isFresh(bytes, h.getExpireTime()));
+
+        h.setSoftExpireTime(h.getExpireTime() - 5000);
+        bytes = encoder.apply(h);
+        assertTrue(EnvelopeValueDecoder.isFresh(bytes, h.getSoftExpireTime() - 1));
+        // stale values are decoded eagerly to start the refresh
+        assertFalse(EnvelopeValueDecoder.isFresh(bytes, h.getSoftExpireTime()));
+
+        assertFalse(EnvelopeValueDecoder.isFresh(KryoValueEncoder.INSTANCE.apply(h), 0));
+    }
+}
@@ -1,16 +1,23 @@
 package com.alicp.jetcache;
 
 import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import com.alicp.jetcache.support.BloomNegativeLookupFilter;
 import com.alicp.jetcache.support.DefaultCacheMonitor;
 import com.alicp.jetcache.test.AbstractCacheTest;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -30,6 +37,38 @@ public class LoadingCacheTest extends AbstractCacheTest {
         errorTest();
     }
 
+    @Test
+    public void testGetAllAsyncProtectAndFilter() throws Exception {
+        ConcurrentHashMap<String, AtomicInteger> loadCounts = new ConcurrentHashMap<>();
+        BloomNegativeLookupFilter<String> filter = new BloomNegativeLookupFilter<String>(1000, 0.001)
+                .rebuildFrom(() -> Arrays.asList("K1", "K2"));
+        Cache<String, String> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .negativeLookupFilter(filter)
+                .cachePenetrateProtect(true)
+                .loader(k -> {
+                    loadCounts.computeIfAbsent((String) k, x -> new AtomicInteger()).incrementAndGet();
+                    Thread.sleep(100);
+                    return "V_" + k;
+                })
+                .buildCache();
+        Set<String> keys = new HashSet<>(Arrays.asList("K1", "K2", "K3"));
+        List<CompletableFuture<Map<String, String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(cache.getAllAsync(keys).toCompletableFuture());
+        }
+        for (CompletableFuture<Map<String, String>> f : futures) {
+            Map<String, String> m = f.get();
+            Assert.assertEquals(2, m.size());
+            Assert.assertEquals("V_K1", m.get("K1"));
+            Assert.assertEquals("V_K2", m.get("K2"));
+        }
+        // loaded once, K3 is not in the filter so it's not loaded
+        Assert.assertEquals(1, loadCounts.get("K1").get());
+        Assert.assertEquals(1, loadCounts.get("K2").get());
+        Assert.assertNull(loadCounts.get("K3"));
+        cache.close();
+    }
+
     public static void loadingCacheTest(Cache cache, long waitMillis) throws Exception {
         AtomicInteger count = new AtomicInteger(0);
         CacheLoader oldLoader = cache.config().getLoader();
@@ -37,6 +76,7 @@ public class LoadingCacheTest extends AbstractCacheTest {
         loadingCacheTestImpl(cache, waitMillis);
         vetoTest(cache, waitMillis);
         nullValueTest(cache, waitMillis);
+        asyncLoadTest(cache, waitMillis);
         cache.config().setLoader(oldLoader);
     }
 
@@ -47,6 +87,7 @@ public class LoadingCacheTest extends AbstractCacheTest {
         loadingCacheTestImpl(cache, waitMillis);
         vetoTest(cache, waitMillis);
         nullValueTest(cache, waitMillis);
+        asyncLoadTest(cache, waitMillis);
     }
 
     private static void vetoTest(Cache cache, long waitMillis) throws Exception {
@@ -105,6 +146,37 @@ public class LoadingCacheTest extends AbstractCacheTest {
         cache.config().getMonitors().remove(monitor);
     }
 
+    private static void asyncLoadTest(Cache cache, long waitMillis) throws Exception {
+        cache.config().setLoader((key) -> key + "_V");
+        Assert.assertEquals("asyncLoadTest_K1_V", cache.getAsync("asyncLoadTest_K1").toCompletableFuture().get());
+        Thread.sleep(waitMillis); //wait for async operations
+        Assert.assertEquals("asyncLoadTest_K1_V", cache.GET("asyncLoadTest_K1").getValue());
+
+        Set s = new HashSet();
+        s.add("asyncLoadTest_K1");
+        s.add("asyncLoadTest_K2");
+        Map m = (Map) cache.getAllAsync(s).toCompletableFuture().get();
+        Assert.assertEquals("asyncLoadTest_K1_V", m.get("asyncLoadTest_K1"));
+        Assert.assertEquals("asyncLoadTest_K2_V", m.get("asyncLoadTest_K2"));
+        Thread.sleep(waitMillis); //wait for async operations
+        Assert.assertEquals("asyncLoadTest_K2_V", cache.GET("asyncLoadTest_K2").getValue());
+
+        cache.config().setLoader(new CacheLoader() {
+            @Override
+            public Object load(Object key) throws Throwable {
+                return key + "_V";
+            }
+
+            @Override
+            public boolean vetoCacheUpdate() {
+                return true;
+            }
+        });
+        Assert.assertEquals("asyncLoadTest_K3_V", cache.getAsync("asyncLoadTest_K3").toCompletableFuture().get());
+        Thread.sleep(waitMillis); //wait for async operations
+        Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("asyncLoadTest_K3").getResultCode());
+    }
+
     private static void loadingCacheTestImpl(Cache cache, long waitMillis) throws Exception {
         DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
         cache.config().getMonitors().add(monitor);
@@ -143,7 +215,7 @@ public class LoadingCacheTest extends AbstractCacheTest {
         cache.config().getMonitors().remove(monitor);
     }
 
-    private void errorTest() {
+    private void errorTest() throws Exception {
         cache.config().setLoader((key) -> {
             throw new SQLException();
         });
@@ -159,5 +231,11 @@ public class LoadingCacheTest extends AbstractCacheTest {
             Assert.fail();
         } catch (CacheInvokeException e) {
         }
+        try {
+            cache.getAsync("K1").toCompletableFuture().get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof CacheInvokeException);
+        }
     }
 }
@@ -10,6 +10,8 @@ import com.alicp.jetcache.test.AbstractCacheTest;
 import com.alicp.jetcache.external.MockRemoteCacheBuilder;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author <a href="mailto:areyouok@gmail.com">huangli</a>
  */
@@ -23,4 +25,26 @@ public class MockRemoteCacheTest extends AbstractCacheTest {
         cache = b.buildCache();
         baseTest();
     }
+
+    @Test
+    public void testWithGetBatch() throws Exception {
+        MockRemoteCacheBuilder b = new MockRemoteCacheBuilder();
+        b.setKeyConvertor(FastjsonKeyConvertor.INSTANCE);
+        b.setValueDecoder(JavaValueDecoder.INSTANCE);
+        b.setValueEncoder(JavaValueEncoder.INSTANCE);
+        b.getBatchWindow(200, TimeUnit.MICROSECONDS);
+        cache = b.buildCache();
+        baseTest();
+    }
+
+    @Test
+    public void testWithHotKey() throws Exception {
+        MockRemoteCacheBuilder b = new MockRemoteCacheBuilder();
+        b.setKeyConvertor(FastjsonKeyConvertor.INSTANCE);
+        b.setValueDecoder(JavaValueDecoder.INSTANCE);
+        b.setValueEncoder(JavaValueEncoder.INSTANCE);
+        b.hotKeyThreshold(2);
+        cache = b.buildCache();
+        baseTest();
+    }
 }
@@ -0,0 +1,208 @@
+package com.alicp.jetcache;
+
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import com.alicp.jetcache.support.BloomFilterMirror;
+import com.alicp.jetcache.support.BloomNegativeLookupFilter;
+import com.alicp.jetcache.support.CacheStat;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class NegativeLookupFilterTest {
+
+    @Test
+    public void testComputeIfAbsent() {
+        BloomNegativeLookupFilter<String> filter = new BloomNegativeLookupFilter<String>(1000, 0.001)
+                .rebuildFrom(() -> Arrays.asList("K1", "K2"));
+        Cache<String, String> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .negativeLookupFilter(filter)
+                .buildCache();
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        cache.config().getMonitors().add(monitor);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        assertEquals("V_K1", cache.computeIfAbsent("K1", k -> {
+            loadCount.incrementAndGet();
+            return "V_" + k;
+        }));
+        assertNull(cache.computeIfAbsent("K3", k -> {
+            loadCount.incrementAndGet();
+            return "V_" + k;
+        }));
+        assertEquals(1, loadCount.get());
+        assertNull(cache.computeIfAbsentAsync("K3", k -> {
+            loadCount.incrementAndGet();
+            return java.util.concurrent.CompletableFuture.completedFuture("V_" + k);
+        }).toCompletableFuture().join());
+        assertEquals(1, loadCount.get());
+
+        // K2 passes the filter but the loader returns null
+        assertNull(cache.computeIfAbsent("K2", k -> {
+            loadCount.incrementAndGet();
+            return null;
+        }));
+        assertEquals(2, loadCount.get());
+
+        // put makes the key visible
+        cache.put("K4", "V4");
+        cache.remove("K4");
+        assertEquals("V_K4", cache.computeIfAbsent("K4", k -> "V_" + k));
+
+        CacheStat stat = monitor.getCacheStat();
+        assertEquals(2, stat.getNegativeLookupRejectCount());
+        assertEquals(1, stat.getNegativeLookupFalsePositiveCount());
+        assertEquals(1.0 / 3, stat.negativeLookupFalsePositiveRate(), 0.0001);
+    }
+
+    @Test
+    public void testLoadingCache() {
+        BloomNegativeLookupFilter<Integer> filter = new BloomNegativeLookupFilter<Integer>(1000, 0.001)
+                .rebuildFrom(() -> Arrays.asList(1, 2, 3));
+        AtomicInteger loadCount = new AtomicInteger();
+        Cache<Integer, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .negativeLookupFilter(filter)
+                .loader(k -> {
+                    loadCount.incrementAndGet();
+                    return (Integer) k * 10;
+                })
+                .buildCache();
+        assertEquals(10, cache.get(1).intValue());
+        assertNull(cache.get(100));
+        assertEquals(1, loadCount.get());
+
+        Map<Integer, Integer> map = cache.getAll(new HashSet<>(Arrays.asList(1, 2, 3, 101, 102)));
+        assertEquals(3, map.size());
+        assertEquals(30, map.get(3).intValue());
+        assertFalse(map.containsKey(101));
+        assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    public void testRebuildAndMirror() throws Exception {
+        List<String> keys = new ArrayList<>(Arrays.asList("K1"));
+        MockMirror mirror = new MockMirror();
+        BloomNegativeLookupFilter<String> filter = new BloomNegativeLookupFilter<String>(1000, 0.001)
+                .mirror(mirror)
+                .rebuildFrom(() -> keys);
+        assertTrue(filter.mightContain("K1"));
+        assertFalse(filter.mightContain("K2"));
+        assertEquals(1, mirror.stages.size());
+
+        keys.add("K2");
+        filter.rebuild();
+        assertTrue(filter.mightContain("K2"));
+
+        // another instance sees the keys through the mirror
+        BloomNegativeLookupFilter<String> other = new BloomNegativeLookupFilter<String>(1000, 0.001)
+                .mirror(mirror);
+        assertTrue(other.mightContain("K1"));
+        assertTrue(other.mightContain("K2"));
+
+        filter.put("K3");
+        long end = System.currentTimeMillis() + 1000;
+        while (mirror.setBitsCount.get() == 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        other.reloadFromMirror();
+        assertTrue(other.mightContain("K3"));
+
+        filter.scheduleRefresh(1, TimeUnit.HOURS);
+        filter.close();
+    }
+
+    @Test
+    public void testReloadKeepsLocalStages() {
+        // the local filter has grown more stages than the mirror
+        BloomNegativeLookupFilter<String> filter = new BloomNegativeLookupFilter<>(10, 0.01);
+        for (int i = 0; i < 100; i++) {
+            filter.put("K" + i);
+        }
+        MockMirror mirror = new MockMirror();
+        new BloomNegativeLookupFilter<String>(10, 0.01).mirror(mirror).rebuildFrom(() -> Arrays.asList("X"));
+        assertEquals(1, mirror.stages.size());
+
+        filter.mirror(mirror);
+        assertTrue(filter.mightContain("X"));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(filter.mightContain("K" + i), "K" + i);
+        }
+    }
+
+    @Test
+    public void testPutDuringRebuild() {
+        BloomNegativeLookupFilter<String> filter = new BloomNegativeLookupFilter<>(1000, 0.001);
+        // the key is put while the key source is read, after its snapshot
+        filter.rebuildFrom(() -> {
+            filter.put("NEW");
+            return Arrays.asList("K1");
+        });
+        assertTrue(filter.mightContain("K1"));
+        assertTrue(filter.mightContain("NEW"));
+    }
+
+    @Test
+    public void testBatchedMirrorUpdate() throws Exception {
+        MockMirror mirror = new MockMirror();
+        BloomNegativeLookupFilter<String> filter = new BloomNegativeLookupFilter<String>(10000, 0.001)
+                .mirror(mirror)
+                .rebuildFrom(() -> Arrays.asList("K"));
+        for (int i = 0; i < 1000; i++) {
+            filter.put("K" + i);
+        }
+        BloomNegativeLookupFilter<String> other = new BloomNegativeLookupFilter<>(10000, 0.001);
+        long end = System.currentTimeMillis() + 5000;
+        do {
+            Thread.sleep(10);
+            other.mirror(mirror);
+        } while (!other.mightContain("K999") && System.currentTimeMillis() < end);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(other.mightContain("K" + i), "K" + i);
+        }
+    }
+
+    static class MockMirror implements BloomFilterMirror {
+        volatile List<byte[]> stages = new ArrayList<>();
+        final AtomicInteger setBitsCount = new AtomicInteger();
+
+        @Override
+        public synchronized void setBits(int stage, long[] offsets) {
+            byte[] bytes = stages.get(stage);
+            for (long offset : offsets) {
+                bytes[(int) (offset / 8)] |= 0x80 >>> (offset % 8);
+            }
+            setBitsCount.incrementAndGet();
+        }
+
+        @Override
+        public synchronized void replace(List<byte[]> stages) {
+            List<byte[]> copy = new ArrayList<>();
+            for (byte[] b : stages) {
+                copy.add(b.clone());
+            }
+            this.stages = copy;
+        }
+
+        @Override
+        public synchronized List<byte[]> load() {
+            List<byte[]> copy = new ArrayList<>();
+            for (byte[] b : stages) {
+                copy.add(b.clone());
+            }
+            return copy;
+        }
+    }
+}
@@ -16,6 +16,8 @@ import java.sql.SQLException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -45,6 +47,27 @@ public class RefreshCacheTest extends AbstractCacheTest {
         refreshCacheTest(cache, 200, 100);
     }
 
+    @Test
+    public void asyncRefreshTest() throws Exception {
+        cache.config().setRefreshPolicy(RefreshPolicy.newPolicy(50, TimeUnit.MILLISECONDS));
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        Function<Object, CompletionStage<Object>> loader = k -> {
+            int c = count.incrementAndGet();
+            return c == 2 ? pending : CompletableFuture.completedFuture("V" + c);
+        };
+        Assert.assertEquals("V1", cache.computeIfAbsentAsync("K1", loader).toCompletableFuture().get());
+        Thread.sleep(200);
+        // the refresh is chained on the pending stage, no other refresh of the key is started meanwhile
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals("V1", cache.get("K1"));
+        pending.complete("V2");
+        Assert.assertEquals("V2", cache.get("K1"));
+        Thread.sleep(150);
+        Assert.assertTrue(count.get() > 2);
+        ((RefreshCache<Object, Object>) cache).stopRefresh();
+    }
+
     @Test
     public void badLoaderTest() throws InterruptedException {
         cache.put("K1", "V1");
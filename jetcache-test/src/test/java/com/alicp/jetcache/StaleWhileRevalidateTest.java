@@ -0,0 +1,114 @@
+package com.alicp.jetcache;
+
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class StaleWhileRevalidateTest {
+
+    private static CacheLoader<String, Integer> slowLoader(AtomicInteger loadCount) {
+        return k -> {
+            Thread.sleep(100);
+            return loadCount.incrementAndGet();
+        };
+    }
+
+    @Test
+    public void testHolder() {
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(100, TimeUnit.MILLISECONDS)
+                .staleWhileRevalidate(1, TimeUnit.SECONDS)
+                .buildCache();
+        AbstractCache<String, Integer> c = (AbstractCache<String, Integer>) cache;
+        CacheValueHolder<Integer> h = c.buildHolder(1, 100);
+        assertEquals(h.getAccessTime() + 100, h.getSoftExpireTime());
+        assertEquals(h.getAccessTime() + 1100, h.getExpireTime());
+        assertEquals(1100, c.hardExpireInMillis(100));
+        assertFalse(AbstractCache.isStale(h, h.getAccessTime()));
+        assertTrue(AbstractCache.isStale(h, h.getSoftExpireTime()));
+
+        cache.config().setStaleWhileRevalidateInMillis(0);
+        h = c.buildHolder(1, 100);
+        assertEquals(0, h.getSoftExpireTime());
+        assertFalse(AbstractCache.isStale(h, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testLoadingCache() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(300, TimeUnit.MILLISECONDS)
+                .staleWhileRevalidate(1, TimeUnit.SECONDS)
+                .loader(slowLoader(loadCount))
+                .buildCache();
+        assertEquals(1, cache.get("K1").intValue());
+        Thread.sleep(350);
+
+        // stale, return old value and reload only once
+        for (int i = 0; i < 10; i++) {
+            long t = System.currentTimeMillis();
+            assertEquals(1, cache.get("K1").intValue());
+            assertTrue(System.currentTimeMillis() - t < 80);
+        }
+        Thread.sleep(200);
+        assertEquals(2, loadCount.get());
+        assertEquals(2, cache.get("K1").intValue());
+
+        // hard expired
+        Thread.sleep(1300);
+        assertEquals(3, cache.get("K1").intValue());
+    }
+
+    @Test
+    public void testComputeIfAbsent() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        CacheLoader<String, Integer> loader = slowLoader(loadCount);
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(300, TimeUnit.MILLISECONDS)
+                .staleWhileRevalidate(1, TimeUnit.SECONDS)
+                .buildCache();
+        assertEquals(1, cache.computeIfAbsent("K1", loader).intValue());
+        Thread.sleep(350);
+        assertEquals(1, cache.computeIfAbsent("K1", loader).intValue());
+        assertEquals(1, cache.computeIfAbsent("K1", loader).intValue());
+        Thread.sleep(200);
+        assertEquals(2, loadCount.get());
+        assertEquals(2, cache.computeIfAbsent("K1", loader).intValue());
+    }
+
+    @Test
+    public void testMultiLevelCache() throws Exception {
+        AtomicInteger loadCount = new AtomicInteger();
+        Cache<String, Integer> l1 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(300, TimeUnit.MILLISECONDS)
+                .buildCache();
+        Cache<String, Integer> l2 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .expireAfterWrite(300, TimeUnit.MILLISECONDS)
+                .staleWhileRevalidate(1, TimeUnit.SECONDS)
+                .buildCache();
+        Cache<String, Integer> cache = MultiLevelCacheBuilder.createMultiLevelCacheBuilder()
+                .addCache(l1, l2)
+                .useExpireOfSubCache(true)
+                .loader(slowLoader(loadCount))
+                .buildCache();
+        assertEquals(1, cache.get("K1").intValue());
+        Thread.sleep(350);
+        assertNull(l1.get("K1"));
+        // stale in l2, not filled into l1
+        assertEquals(1, cache.get("K1").intValue());
+        assertNull(l1.get("K1"));
+        Thread.sleep(200);
+        assertEquals(2, loadCount.get());
+        assertEquals(2, l1.get("K1").intValue());
+        assertEquals(2, cache.get("K1").intValue());
+    }
+}
@@ -0,0 +1,182 @@
+package com.alicp.jetcache;
+
+import com.alicp.jetcache.anno.CacheConsts;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import com.alicp.jetcache.external.MockRemoteCacheBuilder;
+import com.alicp.jetcache.support.CacheStat;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
+import com.alicp.jetcache.test.AbstractCacheTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class WriteBehindCacheTest extends AbstractCacheTest {
+
+    @Test
+    public void test() throws Exception {
+        cache = new MockRemoteCacheBuilder()
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(20, TimeUnit.MILLISECONDS))
+                .buildCache();
+        Assert.assertTrue(cache instanceof WriteBehindCache);
+        baseTest();
+        cache.close();
+    }
+
+    @Test
+    public void testCoalesceAndFlush() throws Exception {
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(1, TimeUnit.HOURS).batchSize(1000))
+                .buildCache();
+        WriteBehindCache<String, Integer> wbc = (WriteBehindCache<String, Integer>) cache;
+        Cache<String, Integer> target = wbc.getTargetCache();
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        cache.config().getMonitors().add(monitor);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("K1", i);
+        }
+        cache.put("K2", 1);
+        cache.remove("K2");
+        // reads see the buffered writes
+        Assert.assertEquals(99, cache.get("K1").intValue());
+        Assert.assertNull(cache.get("K2"));
+        Map<String, Integer> all = cache.getAll(new HashSet<>(Arrays.asList("K1", "K2")));
+        Assert.assertEquals(1, all.size());
+        Assert.assertNull(target.get("K1"));
+        Assert.assertEquals(2, wbc.getPendingCount());
+
+        CacheResult r = cache.PUT("K3", 3);
+        wbc.flush();
+        Assert.assertTrue(r.isSuccess());
+        Assert.assertEquals(0, wbc.getPendingCount());
+        Assert.assertEquals(99, target.get("K1").intValue());
+        Assert.assertNull(target.get("K2"));
+        Assert.assertEquals(3, target.get("K3").intValue());
+
+        CacheStat stat = monitor.getCacheStat();
+        Assert.assertEquals(3, stat.getWriteBehindFlushCount());
+        Assert.assertEquals(100, stat.getWriteBehindCoalescedCount());
+        // K1 and K3 are written by one PUT_ALL
+        Assert.assertEquals(2, stat.getPutCount());
+        Assert.assertEquals(1, stat.getRemoveCount());
+
+        // putIfAbsent sees the buffered write
+        cache.put("K4", 4);
+        Assert.assertFalse(cache.putIfAbsent("K4", 5));
+        Assert.assertEquals(4, target.get("K4").intValue());
+
+        cache.put("K5", 5);
+        cache.close();
+        Assert.assertEquals(5, target.get("K5").intValue());
+        // write through after close
+        cache.put("K6", 6);
+        Assert.assertEquals(6, target.get("K6").intValue());
+    }
+
+    @Test
+    public void testMaxStaleness() throws Exception {
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(50, TimeUnit.MILLISECONDS))
+                .buildCache();
+        Cache<String, Integer> target = ((WriteBehindCache<String, Integer>) cache).getTargetCache();
+        cache.put("K1", 1);
+        long end = System.currentTimeMillis() + 2000;
+        while (target.get("K1") == null && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(1, target.get("K1").intValue());
+        cache.close();
+    }
+
+    @Test
+    public void testBatchSizeAndBackPressure() throws Exception {
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .limit(1000)
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(1, TimeUnit.HOURS).batchSize(10).maxPending(20))
+                .buildCache();
+        WriteBehindCache<String, Integer> wbc = (WriteBehindCache<String, Integer>) cache;
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("K" + i, i);
+        }
+        cache.putAll(map);
+        Assert.assertTrue(wbc.getPendingCount() <= 20);
+        long end = System.currentTimeMillis() + 2000;
+        while (wbc.getPendingCount() >= 10 && System.currentTimeMillis() < end) {
+            Thread.sleep(5);
+        }
+        Assert.assertTrue(wbc.getPendingCount() < 10);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, cache.get("K" + i).intValue());
+        }
+        cache.close();
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(1, TimeUnit.HOURS).batchSize(100)
+                        .maxPending(2).dropWhenFull(true))
+                .buildCache();
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        cache.config().getMonitors().add(monitor);
+        cache.put("K1", 1);
+        cache.put("K2", 2);
+        CacheResult r = cache.PUT("K3", 3);
+        Assert.assertEquals(CacheResultCode.FAIL, r.getResultCode());
+        // coalesced into the existing key, not dropped
+        cache.put("K1", 10);
+        Assert.assertEquals(1, monitor.getCacheStat().getWriteBehindDroppedCount());
+        Assert.assertEquals(2, monitor.getCacheStat().getMaxWriteBehindPendingCount());
+        cache.close();
+        Assert.assertEquals(10, cache.get("K1").intValue());
+        Assert.assertNull(cache.get("K3"));
+    }
+
+    @Test
+    public void testLoadMissLatency() throws Exception {
+        // the PUT of a loaded value is completed at the next flush, a miss should not wait for it
+        Cache<String, Integer> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(10, TimeUnit.SECONDS))
+                .loader(k -> 1)
+                .buildCache();
+        Assert.assertTrue(cache instanceof LoadingCache);
+        WriteBehindCache<String, Integer> wbc = (WriteBehindCache<String, Integer>)
+                ((LoadingCache<String, Integer>) cache).getTargetCache();
+        long limit = CacheConsts.ASYNC_RESULT_TIMEOUT.toMillis() / 2;
+
+        long t = System.currentTimeMillis();
+        Assert.assertEquals(1, cache.computeIfAbsent("K1", k -> 1).intValue());
+        Assert.assertEquals(1, cache.get("K2").intValue());
+        Assert.assertEquals(1, cache.computeIfAbsentAsync("K3", k -> CompletableFuture.completedFuture(1))
+                .toCompletableFuture().get().intValue());
+        Assert.assertEquals(2, cache.getAllAsync(new HashSet<>(Arrays.asList("K4", "K5")))
+                .toCompletableFuture().get().size());
+        long cost = System.currentTimeMillis() - t;
+        Assert.assertTrue("cost " + cost + "ms", cost < limit);
+
+        Assert.assertEquals(5, wbc.getPendingCount());
+        wbc.flush();
+        Assert.assertEquals(1, wbc.getTargetCache().get("K1").intValue());
+        Assert.assertEquals(1, wbc.getTargetCache().get("K5").intValue());
+        cache.close();
+    }
+
+    @Test(expected = CacheConfigException.class)
+    public void testConfig() {
+        LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .writeBehindPolicy(WriteBehindPolicy.newPolicy(0, TimeUnit.MILLISECONDS))
+                .buildCache();
+    }
+}
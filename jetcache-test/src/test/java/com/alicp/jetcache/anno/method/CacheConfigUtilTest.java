@@ -46,6 +46,9 @@ public class CacheConfigUtilTest {
         @CacheInvalidate(name = "foo")
         @CacheInvalidate(name = "bar")
         void m8();
+
+        @Cached(earlyRefreshBeta = 1.5)
+        void m9();
     }
 
     @Test
@@ -54,6 +57,7 @@ public class CacheConfigUtilTest {
         CacheConfigUtil.parse(cic, I.class.getMethod("m1"));
         assertNotNull(cic.getCachedAnnoConfig());
         assertNull(cic.getCachedAnnoConfig().getRefreshPolicy());
+        assertEquals(0, cic.getCachedAnnoConfig().getEarlyRefreshBeta());
 
         cic = new CacheInvokeConfig();
         CacheConfigUtil.parse(cic, I.class.getMethod("m1_2"));
@@ -86,5 +90,9 @@ public class CacheConfigUtilTest {
         CacheConfigUtil.parse(cic, I.class.getMethod("m8"));
         assertNotNull(cic.getInvalidateAnnoConfigs());
         assertEquals(2, cic.getInvalidateAnnoConfigs().size());
+
+        cic = new CacheInvokeConfig();
+        CacheConfigUtil.parse(cic, I.class.getMethod("m9"));
+        assertEquals(1.5, cic.getCachedAnnoConfig().getEarlyRefreshBeta());
     }
 }
@@ -0,0 +1,159 @@
+package com.alicp.jetcache.anno.support;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.MultiLevelCacheBuilder;
+import com.alicp.jetcache.RefreshCache;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import com.alicp.jetcache.external.MockRemoteCacheBuilder;
+import com.alicp.jetcache.support.CacheMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheMessageApplierTest {
+
+    private static CacheMessage message(String area, String cacheName, int type, Object... keys) {
+        CacheMessage m = new CacheMessage();
+        m.setArea(area);
+        m.setCacheName(cacheName);
+        m.setType(type);
+        m.setKeys(keys);
+        return m;
+    }
+
+    @Test
+    public void test() {
+        Cache<String, String> local = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache();
+        Cache<String, String> remote = new MockRemoteCacheBuilder().buildCache();
+        Cache<String, String> cache = MultiLevelCacheBuilder.createMultiLevelCacheBuilder()
+                .addCache(local, remote).buildCache();
+        cache = new RefreshCache<>(cache);
+        Cache<String, String> remoteOnly = new MockRemoteCacheBuilder().buildCache();
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.putCache("A1", "C1", cache);
+        cacheManager.putCache("A1", "C2", remoteOnly);
+        CacheMessageApplier applier = new CacheMessageApplier(cacheManager);
+
+        cache.put("K1", "V1");
+        cache.put("K2", "V2");
+        cache.put("K3", "V3");
+        remoteOnly.put("K1", "V1");
+        applier.accept(Arrays.asList(
+                message("A1", "C1", CacheMessage.TYPE_PUT, "K1"),
+                message("A1", "C1", CacheMessage.TYPE_REMOVE_ALL, "K2", "K1"),
+                message("A1", "C2", CacheMessage.TYPE_PUT, "K1"),
+                message("A1", "NOT_EXISTS", CacheMessage.TYPE_PUT, "K1"),
+                message("A2", "C1", CacheMessage.TYPE_PUT, "K3"),
+                message("A1", "C1", CacheMessage.TYPE_PUT_ALL)));
+
+        assertNull(local.get("K1"));
+        assertNull(local.get("K2"));
+        assertNotNull(local.get("K3"));
+        assertNotNull(remote.get("K1"));
+        assertNotNull(remote.get("K2"));
+        assertEquals("V1", remoteOnly.get("K1"));
+
+        // read from the remote level and fill the local level again
+        assertEquals("V1", cache.get("K1"));
+        assertNotNull(local.get("K1"));
+    }
+
+    private static Cache<String, String> multiLevelCache(Cache<String, String> local, Cache<String, String> remote) {
+        return MultiLevelCacheBuilder.createMultiLevelCacheBuilder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .broadcastValueMaxBytes(200)
+                .addCache(local, remote).buildCache();
+    }
+
+    @Test
+    public void testBroadcastValue() {
+        List<CacheMessage> published = new ArrayList<>();
+        DefaultCacheMonitorManager monitorManager = new DefaultCacheMonitorManager();
+        monitorManager.setCacheMessagePublisher((area, cacheName, m) -> {
+            m.setArea(area);
+            m.setCacheName(cacheName);
+            published.add(m);
+        });
+        Cache<String, String> remote = new MockRemoteCacheBuilder().buildCache();
+        Cache<String, String> cache1 = multiLevelCache(
+                LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache(), remote);
+        monitorManager.addMonitors("A1", "C1", cache1);
+
+        Cache<String, String> local2 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache();
+        Cache<String, String> cache2 = multiLevelCache(local2, remote);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.putCache("A1", "C1", cache2);
+        CacheMessageApplier applier = new CacheMessageApplier(cacheManager);
+
+        local2.put("K1", "OLD");
+        local2.put("K2", "OLD");
+        cache1.put("K1", "V1");
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        cache1.put("K2", new String(chars));
+        assertEquals(2, published.size());
+        assertNotNull(published.get(0).getValues());
+        // too large, fall back to invalidation
+        assertNull(published.get(1).getValues());
+
+        applier.accept(published);
+        assertEquals("V1", local2.get("K1"));
+        assertNull(local2.get("K2"));
+        assertEquals(new String(chars), cache2.get("K2"));
+
+        // the last update of a key wins
+        published.clear();
+        cache1.put("K1", "V2");
+        cache1.remove("K1");
+        cache1.put("K3", "V3");
+        cache1.remove("K3");
+        cache1.put("K3", "V3_NEW");
+        applier.accept(published);
+        assertNull(local2.get("K1"));
+        assertEquals("V3_NEW", local2.get("K3"));
+    }
+
+    @Test
+    public void testKeyConvertor() {
+        List<CacheMessage> published = new ArrayList<>();
+        DefaultCacheMonitorManager monitorManager = new DefaultCacheMonitorManager();
+        monitorManager.setCacheMessagePublisher((area, cacheName, m) -> {
+            m.setArea(area);
+            m.setCacheName(cacheName);
+            published.add(m);
+        });
+        // not idempotent, a key converted twice is a different key
+        Function<Object, Object> keyConvertor = k -> "P_" + k;
+        Cache<String, String> remote = new MockRemoteCacheBuilder().buildCache();
+        Cache<String, String> cache1 = multiLevelCache(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .keyConvertor(keyConvertor).buildCache(), remote);
+        monitorManager.addMonitors("A1", "C1", cache1);
+
+        Cache<String, String> local2 = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .keyConvertor(keyConvertor).buildCache();
+        Cache<String, String> cache2 = multiLevelCache(local2, remote);
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.putCache("A1", "C1", cache2);
+        CacheMessageApplier applier = new CacheMessageApplier(cacheManager);
+
+        local2.put("K1", "OLD");
+        local2.put("K2", "OLD");
+        cache1.put("K1", "V1");
+        cache1.remove("K2");
+        assertEquals("P_K1", published.get(0).getKeys()[0]);
+        applier.accept(published);
+        assertEquals("V1", local2.get("K1"));
+        assertNull(local2.get("K2"));
+    }
+}
@@ -40,6 +40,12 @@ public class DefaultEncoderParserTest {
         assertEquals(JavaValueEncoder.class, encoder.getClass());
         assertFalse(encoder.isUseIdentityNumber());
 
+        encoder = (AbstractValueEncoder) parser.parseEncoder("kryo?envelope=true");
+        assertEquals(EnvelopeValueEncoder.class, encoder.getClass());
+        assertEquals(KryoValueEncoder.class, ((EnvelopeValueEncoder) encoder).getPayloadEncoder().getClass());
+        assertThrows(CacheConfigException.class,
+                () -> parser.parseEncoder("java?useIdentityNumber=false&envelope=true"));
+
         assertThrows(CacheConfigException.class, () -> parser.parseEncoder(null));
         assertThrows(CacheConfigException.class, () -> parser.parseEncoder("xxx"));
     }
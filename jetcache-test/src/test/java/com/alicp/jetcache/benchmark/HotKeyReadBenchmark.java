@@ -0,0 +1,72 @@
+package com.alicp.jetcache.benchmark;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.embedded.CaffeineCacheBuilder;
+import com.alicp.jetcache.embedded.EmbeddedCacheBuilder;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of local caches when all threads read the same key, which stresses the access time maintenance of
+ * the holder. The main method runs it with 1 to 64 threads.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotKeyReadBenchmark {
+
+    @Param({"linkedhashmap", "caffeine"})
+    private String type;
+
+    @Param({"false", "true"})
+    private boolean expireAfterAccess;
+
+    private Cache<String, String> cache;
+
+    @Setup
+    public void setup() {
+        EmbeddedCacheBuilder<?> builder = "caffeine".equals(type)
+                ? CaffeineCacheBuilder.createCaffeineCacheBuilder()
+                : LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder();
+        if (expireAfterAccess) {
+            builder.expireAfterAccess(1, TimeUnit.HOURS);
+        }
+        cache = builder.buildCache();
+        cache.put("HOT", "V");
+    }
+
+    @Benchmark
+    public String read() {
+        return cache.get("HOT");
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            Options opt = new OptionsBuilder()
+                    .include(HotKeyReadBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.alicp.jetcache.benchmark;
+
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.redis.lettuce.JetCacheCodec;
+import com.alicp.jetcache.support.EnvelopeValueEncoder;
+import com.alicp.jetcache.support.KryoValueDecoder;
+import com.alicp.jetcache.support.KryoValueEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of large values with the buffers of netty, as the lettuce connection does. The copy
+ * methods build a byte array and copy it, the zero copy methods serialize into and decode from the pooled buffer.
+ * Run with "-prof gc" to compare the allocation rate.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LettuceCodecBenchmark {
+
+    @Param({"51200", "204800"})
+    private int size;
+
+    private final EnvelopeValueEncoder encoder = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+    private final JetCacheCodec copyCodec = new JetCacheCodec();
+    private final JetCacheCodec zeroCopyCodec = new JetCacheCodec(KryoValueDecoder.INSTANCE);
+
+    private CacheValueHolder<byte[]> holder;
+    // a response of redis in a pooled buffer
+    private ByteBuf response;
+    private ByteBuf target;
+
+    @Setup
+    public void setup() {
+        byte[] value = new byte[size];
+        new Random(1).nextBytes(value);
+        holder = new CacheValueHolder<>(value, TimeUnit.HOURS.toMillis(1));
+        response = PooledByteBufAllocator.DEFAULT.directBuffer(size + 64);
+        response.writeBytes(encoder.apply(holder));
+        target = PooledByteBufAllocator.DEFAULT.directBuffer(size + 64);
+    }
+
+    @TearDown
+    public void tearDown() {
+        response.release();
+        target.release();
+    }
+
+    @Benchmark
+    public int encodeCopy() {
+        target.clear();
+        target.writeBytes(copyCodec.encodeValue(encoder.apply(holder)));
+        return target.writerIndex();
+    }
+
+    @Benchmark
+    public int encodeZeroCopy() {
+        target.clear();
+        encoder.encode(holder, new ByteBufOutputStream(target));
+        return target.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeCopy() {
+        ByteBuffer buf = response.nioBuffer();
+        return KryoValueDecoder.INSTANCE.apply((byte[]) copyCodec.decodeValue(buf));
+    }
+
+    @Benchmark
+    public Object decodeZeroCopy() {
+        ByteBuffer buf = response.nioBuffer();
+        return zeroCopyCodec.decodeValue(buf);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(LettuceCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(opt).run();
+    }
+}
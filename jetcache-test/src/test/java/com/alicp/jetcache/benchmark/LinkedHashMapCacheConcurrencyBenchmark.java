@@ -0,0 +1,84 @@
+package com.alicp.jetcache.benchmark;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of LinkedHashMapCache under contention, the single locked map (<code>concurrencyLevel=1</code>)
+ * against the segmented map.
+ * <p>
+ * <code>read</code> only hits, <code>readWrite</code> does one put every 10 operations.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LinkedHashMapCacheConcurrencyBenchmark {
+
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"1", "16"})
+    private int concurrencyLevel;
+
+    private Cache<String, String> cache;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .limit(KEY_COUNT * 2)
+                .concurrencyLevel(concurrencyLevel)
+                .buildCache();
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "K" + i;
+            cache.put(keys[i], "V" + i);
+        }
+    }
+
+    @Benchmark
+    public String read() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(KEY_COUNT)]);
+    }
+
+    @Benchmark
+    public String readWrite() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        String key = keys[r.nextInt(KEY_COUNT)];
+        if (r.nextInt(10) == 0) {
+            cache.put(key, "V");
+            return null;
+        }
+        return cache.get(key);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(LinkedHashMapCacheConcurrencyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
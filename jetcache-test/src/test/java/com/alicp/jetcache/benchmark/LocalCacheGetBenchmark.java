@@ -0,0 +1,85 @@
+package com.alicp.jetcache.benchmark;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.embedded.CaffeineCacheBuilder;
+import com.alicp.jetcache.embedded.LinkedHashMapCacheBuilder;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local GET cost with and without monitors.
+ * <p>
+ * Run with the gc profiler and compare <code>gc.alloc.rate.norm</code>: with <code>monitored=false</code>
+ * the <code>get</code> benchmark must allocate exactly as much as <code>resultOnly</code>, which only
+ * builds the CacheGetResult that a hit returns.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalCacheGetBenchmark {
+
+    @Param({"linkedHashMap", "caffeine"})
+    private String type;
+
+    @Param({"false", "true"})
+    private boolean monitored;
+
+    private Cache<String, String> cache;
+    private CacheValueHolder<String> holder;
+
+    @Setup
+    public void setup() {
+        if ("caffeine".equals(type)) {
+            cache = CaffeineCacheBuilder.createCaffeineCacheBuilder().limit(1000).buildCache();
+        } else {
+            cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(1000).buildCache();
+        }
+        if (monitored) {
+            cache.config().getMonitors().add(new DefaultCacheMonitor("benchmark"));
+        }
+        cache.put("K1", "V1");
+        holder = new CacheValueHolder<>("V1", 100000);
+    }
+
+    @Benchmark
+    public CacheGetResult<String> get() {
+        return cache.GET("K1");
+    }
+
+    @Benchmark
+    public CacheGetResult<String> resultOnly() {
+        return new CacheGetResult<>(CacheResultCode.SUCCESS, null, holder);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(LocalCacheGetBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
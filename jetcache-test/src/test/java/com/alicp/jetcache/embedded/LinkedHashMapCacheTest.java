@@ -6,9 +6,13 @@ package com.alicp.jetcache.embedded;
 import com.alicp.jetcache.Cache;
 import com.alicp.jetcache.CacheConfig;
 import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -38,4 +42,16 @@ public class LinkedHashMapCacheTest extends AbstractEmbeddedCacheTest {
         Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("K1").getResultCode());
     }
 
+    @Test
+    public void unwrapTest() {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(10).buildCache();
+        cache.put("K1", "V1");
+        cache.put("K2", "V2");
+        cache.get("K1");
+        LinkedHashMap map = cache.unwrap(LinkedHashMap.class);
+        // in LRU order, the values are holders as before
+        Assert.assertEquals(Arrays.asList("K2", "K1"), new ArrayList<>(map.keySet()));
+        Assert.assertEquals("V1", ((CacheValueHolder) map.get("K1")).getValue());
+    }
+
 }
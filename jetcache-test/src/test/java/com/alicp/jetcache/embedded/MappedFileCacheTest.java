@@ -0,0 +1,203 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.MultiLevelCacheBuilder;
+import com.alicp.jetcache.external.MockRemoteCacheBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class MappedFileCacheTest {
+
+    private File dir;
+    private Cache<Object, Object> cache;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("jetcache-mapped").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private Cache<Object, Object> open(int fileSize, long capacity) {
+        cache = MappedFileCacheBuilder.createMappedFileCacheBuilder()
+                .path(dir.getPath())
+                .fileSize(fileSize)
+                .capacity(capacity)
+                .compactInterval(0, TimeUnit.MILLISECONDS)
+                .expireAfterWrite(1, TimeUnit.HOURS)
+                .buildCache();
+        return cache;
+    }
+
+    private Cache<Object, Object> reopen(int fileSize, long capacity) {
+        cache.close();
+        return open(fileSize, capacity);
+    }
+
+    private int dataFiles() {
+        return dir.listFiles((d, name) -> name.startsWith("data-")).length;
+    }
+
+    @Test
+    public void testBase() {
+        open(1024 * 1024, 16 * 1024 * 1024);
+        for (int i = 0; i < 20000; i++) {
+            cache.put(i, "V" + i);
+        }
+        for (int i = 0; i < 20000; i++) {
+            Assert.assertEquals("V" + i, cache.get(i));
+        }
+        cache.put(1, "V1_2");
+        Assert.assertEquals("V1_2", cache.get(1));
+        Assert.assertTrue(cache.remove(2));
+        Assert.assertNull(cache.get(2));
+        Assert.assertFalse(cache.putIfAbsent(3, "X"));
+        Assert.assertTrue(cache.putIfAbsent(2, "X"));
+        Assert.assertEquals("X", cache.get(2));
+    }
+
+    @Test
+    public void testRestart() throws Exception {
+        open(64 * 1024, 1024 * 1024);
+        cache.put("K1", "V1");
+        cache.put("K2", "V2");
+        cache.put("K3", "V3", 50, TimeUnit.MILLISECONDS);
+        cache.remove("K2");
+
+        reopen(64 * 1024, 1024 * 1024);
+        Assert.assertEquals("V1", cache.get("K1"));
+        Assert.assertNull(cache.get("K2"));
+        Thread.sleep(60);
+        Assert.assertNull(cache.get("K3"));
+    }
+
+    @Test
+    public void testRebuildIndex() {
+        open(64 * 1024, 1024 * 1024);
+        for (int i = 0; i < 3000; i++) {
+            cache.put(i, "V" + i);
+        }
+        cache.put(1, "V1_2");
+        cache.remove(2);
+        cache.close();
+        Assert.assertTrue(new File(dir, "index").delete());
+
+        open(64 * 1024, 1024 * 1024);
+        Assert.assertEquals("V0", cache.get(0));
+        Assert.assertEquals("V1_2", cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertEquals("V2999", cache.get(2999));
+    }
+
+    @Test
+    public void testCompact() {
+        open(64 * 1024, 1024 * 1024);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 500; i++) {
+                cache.put(i, "V" + round + "_" + i);
+            }
+        }
+        int before = dataFiles();
+        Assert.assertTrue(before > 2);
+        ((MappedFileCache) cache).compact();
+        Assert.assertTrue(dataFiles() < before);
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals("V4_" + i, cache.get(i));
+        }
+        reopen(64 * 1024, 1024 * 1024);
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals("V4_" + i, cache.get(i));
+        }
+    }
+
+    @Test
+    public void testCompactTombstone() {
+        open(16 * 1024, 1024 * 1024);
+        // the put record stays in an old file which is mostly live
+        cache.put("OLD", "V");
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "V" + i);
+        }
+        // the tombstone is in a file of garbage
+        for (int i = 0; i < 200; i++) {
+            cache.put("T", "V" + i);
+        }
+        cache.remove("OLD");
+        for (int i = 0; i < 400; i++) {
+            cache.put("T", "V" + i);
+        }
+        ((MappedFileCache) cache).compact();
+        Assert.assertNull(cache.get("OLD"));
+        cache.close();
+        Assert.assertTrue(new File(dir, "index").delete());
+
+        open(16 * 1024, 1024 * 1024);
+        Assert.assertNull(cache.get("OLD"));
+        Assert.assertEquals("V0", cache.get(0));
+        Assert.assertEquals("V399", cache.get("T"));
+    }
+
+    @Test
+    public void testCapacity() {
+        open(16 * 1024, 64 * 1024);
+        for (int i = 0; i < 5000; i++) {
+            cache.put(i, "V" + i);
+        }
+        Assert.assertTrue(dataFiles() <= 4);
+        Assert.assertNull(cache.get(0));
+        Assert.assertEquals("V4999", cache.get(4999));
+
+        // larger than a file
+        cache.put(4999, new byte[16 * 1024]);
+        Assert.assertNull(cache.get(4999));
+    }
+
+    @Test(expected = CacheConfigException.class)
+    public void testLocked() {
+        open(64 * 1024, 1024 * 1024);
+        MappedFileCacheBuilder.createMappedFileCacheBuilder().path(dir.getPath()).buildCache();
+    }
+
+    @Test
+    public void testWarmLevel() {
+        open(64 * 1024, 1024 * 1024);
+        Cache<Object, Object> remote = MockRemoteCacheBuilder.createMockRemoteCacheBuilder().limit(1000).buildCache();
+        Cache<Object, Object> multi = MultiLevelCacheBuilder.createMultiLevelCacheBuilder()
+                .addCache(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache(), cache, remote)
+                .buildCache();
+        multi.put("K1", "V1");
+
+        // a new process has an empty heap level, the value is still served locally
+        reopen(64 * 1024, 1024 * 1024);
+        remote.remove("K1");
+        multi = MultiLevelCacheBuilder.createMultiLevelCacheBuilder()
+                .addCache(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().buildCache(), cache, remote)
+                .buildCache();
+        Assert.assertEquals("V1", multi.get("K1"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfig;
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.MultiLevelCacheBuilder;
+import com.alicp.jetcache.external.MockRemoteCacheBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class OffHeapCacheTest extends AbstractEmbeddedCacheTest {
+
+    @Override
+    protected Function<CacheConfig, Cache> getBuildFunc() {
+        return (c) -> {
+            OffHeapCacheConfig config = new OffHeapCacheConfig();
+            config.setExpireAfterWriteInMillis(c.getExpireAfterWriteInMillis());
+            config.setExpireAfterAccessInMillis(c.getExpireAfterAccessInMillis());
+            config.setKeyConvertor(c.getKeyConvertor());
+            config.setMonitors(c.getMonitors());
+            config.setLoader(c.getLoader());
+            config.setRefreshPolicy(c.getRefreshPolicy());
+            config.setCapacity(4 * 1024 * 1024);
+            config.setPageSize(64 * 1024);
+            return new OffHeapCache(config);
+        };
+    }
+
+    @Override
+    protected void nullKeyConvertorTest() {
+        // keys are compared by their bytes, so the test of key identity doesn't apply
+    }
+
+    @Test
+    public void test() throws Exception {
+        super.test(100, false);
+    }
+
+    @Test
+    public void testCapacity() {
+        OffHeapCache<Object, Object> c = (OffHeapCache<Object, Object>) (Cache) OffHeapCacheBuilder
+                .createOffHeapCacheBuilder().capacity(256 * 1024).pageSize(64 * 1024).concurrencyLevel(2).buildCache();
+        byte[] value = new byte[1000];
+        for (int i = 0; i < 2000; i++) {
+            c.put("K" + i, value);
+        }
+        OffHeapMemoryUsage usage = c.memoryUsage();
+        Assert.assertTrue(usage.getAllocatedBytes() <= 256 * 1024);
+        Assert.assertTrue(usage.getEvictionCount() > 0);
+        Assert.assertTrue(usage.getEntryCount() > 100 && usage.getEntryCount() < 256);
+        Assert.assertTrue(usage.getFragmentation() >= 0 && usage.getFragmentation() < 0.25);
+        // the most recent one is kept
+        Assert.assertArrayEquals(value, (byte[]) c.get("K1999"));
+        Assert.assertNull(c.get("K0"));
+
+        // larger than a page
+        c.put("BIG", new byte[64 * 1024]);
+        Assert.assertNull(c.get("BIG"));
+        Assert.assertEquals(1, c.memoryUsage().getRejectionCount());
+
+        c.close();
+        Assert.assertEquals(0, c.memoryUsage().getAllocatedBytes());
+        Assert.assertNull(c.get("K1999"));
+    }
+
+    private void mixedSizes(OffHeapCacheBuilder builder) {
+        OffHeapCache<Object, Object> c = (OffHeapCache<Object, Object>) (Cache) builder.buildCache();
+        Random r = new Random(1);
+        for (int i = 0; i < 1600; i++) {
+            c.put("K" + i, new byte[10 + r.nextInt(3990)]);
+        }
+        OffHeapMemoryUsage usage = c.memoryUsage();
+        Assert.assertEquals(0, usage.getRejectionCount());
+        Assert.assertEquals(1600, usage.getEntryCount());
+        for (int i = 0; i < 1600; i++) {
+            Assert.assertNotNull(c.get("K" + i));
+        }
+        c.close();
+    }
+
+    @Test
+    public void testMixedSizes() {
+        mixedSizes(OffHeapCacheBuilder.createOffHeapCacheBuilder());
+        // fewer segments, so each one has a page for every size class
+        mixedSizes(OffHeapCacheBuilder.createOffHeapCacheBuilder().pageSize(1024 * 1024));
+
+        // full, a class without pages takes one from the coldest class
+        OffHeapCache<Object, Object> c = (OffHeapCache<Object, Object>) (Cache) OffHeapCacheBuilder.createOffHeapCacheBuilder()
+                .capacity(192 * 1024).pageSize(64 * 1024).concurrencyLevel(1).buildCache();
+        for (int i = 0; i < 1000; i++) {
+            c.put("S" + i, new byte[100]);
+        }
+        Assert.assertEquals(192 * 1024, c.memoryUsage().getAllocatedBytes());
+        for (int i = 0; i < 10; i++) {
+            c.put("M" + i, new byte[1000]);
+            c.put("L" + i, new byte[5000]);
+        }
+        OffHeapMemoryUsage usage = c.memoryUsage();
+        Assert.assertEquals(0, usage.getRejectionCount());
+        Assert.assertTrue(usage.getEvictionCount() > 0);
+        Assert.assertNotNull(c.get("M9"));
+        Assert.assertNotNull(c.get("L9"));
+        // the small values keep a page
+        Assert.assertTrue(usage.getEntryCount() > 20);
+        Assert.assertTrue(usage.getUsedBytes() <= usage.getAllocatedBytes());
+        c.close();
+    }
+
+    @Test
+    public void testUpdateAndRemove() throws Exception {
+        Cache<Object, Object> c = OffHeapCacheBuilder.createOffHeapCacheBuilder()
+                .capacity(8 * 1024 * 1024).pageSize(64 * 1024).buildCache();
+        for (int i = 0; i < 5000; i++) {
+            c.put(i, "V" + i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertEquals("V" + i, c.get(i));
+        }
+        c.put(1, "a much longer value which goes to another size class");
+        Assert.assertEquals("a much longer value which goes to another size class", c.get(1));
+        Assert.assertTrue(c.remove(2));
+        Assert.assertNull(c.get(2));
+        Assert.assertFalse(c.putIfAbsent(3, "X"));
+        Assert.assertTrue(c.putIfAbsent(2, "X"));
+        Assert.assertEquals("X", c.get(2));
+        OffHeapMemoryUsage usage = ((OffHeapCache) c).memoryUsage();
+        Assert.assertEquals(5000, usage.getEntryCount());
+        Assert.assertEquals(0, usage.getEvictionCount());
+
+        c.put("E", "V", 1, TimeUnit.MILLISECONDS);
+        Thread.sleep(2);
+        Assert.assertNull(c.get("E"));
+        Assert.assertEquals(1, ((OffHeapCache) c).memoryUsage().getExpirationCount());
+    }
+
+    @Test(expected = CacheConfigException.class)
+    public void testBadConfig() {
+        OffHeapCacheBuilder.createOffHeapCacheBuilder().capacity(1024).pageSize(4096).buildCache();
+    }
+
+    @Test
+    public void testMiddleLevel() {
+        Cache<Object, Object> heap = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(10).buildCache();
+        Cache<Object, Object> offHeap = OffHeapCacheBuilder.createOffHeapCacheBuilder()
+                .capacity(1024 * 1024).pageSize(64 * 1024).buildCache();
+        Cache<Object, Object> remote = MockRemoteCacheBuilder.createMockRemoteCacheBuilder().limit(1000).buildCache();
+        Cache<Object, Object> cache = MultiLevelCacheBuilder.createMultiLevelCacheBuilder()
+                .addCache(heap, offHeap, remote).buildCache();
+
+        cache.put("K1", "V1");
+        Assert.assertEquals("V1", heap.get("K1"));
+        Assert.assertEquals("V1", offHeap.get("K1"));
+        Assert.assertEquals("V1", remote.get("K1"));
+
+        remote.put("K2", "V2");
+        Assert.assertEquals("V2", cache.get("K2"));
+        Assert.assertEquals("V2", offHeap.get("K2"));
+        Assert.assertEquals("V2", heap.get("K2"));
+
+        heap.remove("K2");
+        remote.remove("K2");
+        Assert.assertEquals("V2", cache.get("K2"));
+        Assert.assertEquals("V2", heap.get("K2"));
+    }
+}
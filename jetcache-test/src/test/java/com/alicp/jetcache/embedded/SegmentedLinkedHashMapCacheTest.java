@@ -0,0 +1,99 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfig;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class SegmentedLinkedHashMapCacheTest extends AbstractEmbeddedCacheTest {
+
+    @Override
+    protected Function<CacheConfig, Cache> getBuildFunc() {
+        return (c) -> {
+            ((EmbeddedCacheConfig) c).setConcurrencyLevel(8);
+            return new LinkedHashMapCache((EmbeddedCacheConfig) c);
+        };
+    }
+
+    @Test
+    public void test() throws Exception {
+        // the LRU order is kept per segment, so the exact LRU test doesn't apply
+        super.test(100, false);
+    }
+
+    @Test
+    public void limitTest() {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .concurrencyLevel(8).limit(80).buildCache();
+        for (int i = 0; i < 1000; i++) {
+            cache.put("K" + i, "V" + i);
+        }
+        int count = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (cache.get("K" + i) != null) {
+                count++;
+            }
+        }
+        Assert.assertTrue(count > 0 && count <= 80);
+        Assert.assertEquals("V999", cache.get("K999"));
+    }
+
+    @Test
+    public void bulkTest() {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .concurrencyLevel(4).buildCache();
+        Map<Object, Object> map = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            map.put("K" + i, "V" + i);
+        }
+        cache.putAll(map);
+        Assert.assertEquals(map, cache.getAll(map.keySet()));
+        cache.removeAll(new HashSet<>(Arrays.asList("K1", "K2")));
+        Assert.assertNull(cache.get("K1"));
+        Assert.assertNull(cache.get("K2"));
+        Assert.assertEquals(18, cache.getAll(map.keySet()).size());
+        Assert.assertFalse(cache.putIfAbsent("K3", "V"));
+        Assert.assertTrue(cache.putIfAbsent("K1", "V"));
+    }
+
+    @Test
+    public void cleanTest() throws Exception {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .concurrencyLevel(4).buildCache();
+        cache.put("K1", "V1", 1, TimeUnit.MILLISECONDS);
+        Thread.sleep(2);
+        Assert.assertEquals(CacheResultCode.EXPIRED, cache.GET("K1").getResultCode());
+        ((LinkedHashMapCache) cache).cleanExpiredEntry();
+        Assert.assertEquals(CacheResultCode.NOT_EXISTS, cache.GET("K1").getResultCode());
+    }
+
+    @Test
+    public void unwrapTest() {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .concurrencyLevel(4).buildCache();
+        for (int i = 0; i < 10; i++) {
+            cache.put("K" + i, "V" + i);
+        }
+        LinkedHashMap map = cache.unwrap(LinkedHashMap.class);
+        Assert.assertEquals(10, map.size());
+        Assert.assertEquals("V3", ((CacheValueHolder) map.get("K3")).getValue());
+        // a copy
+        map.clear();
+        Assert.assertEquals("V3", cache.get("K3"));
+    }
+}
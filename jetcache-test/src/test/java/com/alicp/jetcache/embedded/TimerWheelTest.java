@@ -0,0 +1,127 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheValueHolder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class TimerWheelTest {
+
+    private static final long START = 1_000_000_000L;
+
+    private static TimerWheel.Node node(Object key, long expireTime) {
+        CacheValueHolder<String> h = new CacheValueHolder<>("V", 0);
+        h.setExpireTime(expireTime);
+        return new TimerWheel.Node(key, h);
+    }
+
+    @Test
+    public void testExpireInOrder() {
+        TimerWheel wheel = new TimerWheel(START);
+        long[] delays = {1, 500, 1500, 70_000, 3_600_000, 5 * 3_600_000L, 3 * 86_400_000L, 300 * 86_400_000L};
+        for (int i = 0; i < delays.length; i++) {
+            wheel.schedule(node(i, START + delays[i]));
+        }
+        Assertions.assertEquals(delays.length, wheel.size());
+
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        long now = START;
+        // step by about a second, an entry must expire after its expire time and within 2 seconds
+        while (expired.size() < delays.length) {
+            now += 1000 + (now % 7);
+            long n = now;
+            wheel.advance(now, node -> {
+                Assertions.assertTrue(n >= node.holder.getExpireTime());
+                Assertions.assertTrue(n - node.holder.getExpireTime() < 2000, "late " + node.key);
+                expired.add(node);
+            });
+            if (now > START + 400 * 86_400_000L) {
+                Assertions.fail("not expired " + (delays.length - expired.size()));
+            }
+        }
+        for (int i = 0; i < delays.length; i++) {
+            Assertions.assertEquals(i, expired.get(i).key);
+        }
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testLargeStep() {
+        TimerWheel wheel = new TimerWheel(START);
+        Random r = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            wheel.schedule(node(i, START + r.nextInt(10_000_000)));
+        }
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        wheel.advance(START + 5_000_000, expired::add);
+        for (TimerWheel.Node n : expired) {
+            Assertions.assertTrue(n.holder.getExpireTime() <= START + 5_000_000);
+        }
+        int firstRound = expired.size();
+        Assertions.assertEquals(10000 - firstRound, wheel.size());
+        wheel.expireNow(START + 10_000_000, expired::add);
+        Assertions.assertEquals(10000, expired.size());
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRemove() {
+        TimerWheel wheel = new TimerWheel(START);
+        TimerWheel.Node n1 = node("K1", START + 100);
+        TimerWheel.Node n2 = node("K2", START + 100);
+        wheel.schedule(n1);
+        wheel.schedule(n2);
+        wheel.remove(n1);
+        wheel.remove(n1);
+        Assertions.assertEquals(1, wheel.size());
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        wheel.expireNow(START + 100, expired::add);
+        Assertions.assertEquals(1, expired.size());
+        Assertions.assertSame(n2, expired.get(0));
+    }
+
+    @Test
+    public void testExpireNow() {
+        TimerWheel wheel = new TimerWheel(START);
+        wheel.schedule(node("K1", START + 2));
+        wheel.schedule(node("K2", START + 5));
+        wheel.schedule(node("K3", START - 10));
+        List<TimerWheel.Node> expired = new ArrayList<>();
+        // same bucket, advance does nothing
+        wheel.advance(START + 3, expired::add);
+        Assertions.assertEquals(0, expired.size());
+        wheel.expireNow(START + 3, expired::add);
+        Assertions.assertEquals(2, expired.size());
+        Assertions.assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testCacheExpireOnWrite() throws Exception {
+        Cache<String, String> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .limit(100).buildCache();
+        for (int i = 0; i < 50; i++) {
+            cache.put("K" + i, "V" + i, 1, TimeUnit.MILLISECONDS);
+        }
+        cache.put("LONG", "V", 1, TimeUnit.HOURS);
+        Assertions.assertEquals(51, cache.unwrap(LinkedHashMap.class).size());
+        // the wheel moves at least one bucket of about 1 second
+        Thread.sleep(1100);
+        cache.put("K", "V");
+        Assertions.assertEquals(2, cache.unwrap(LinkedHashMap.class).size());
+        Assertions.assertEquals("V", cache.get("LONG"));
+        cache.remove("LONG");
+        cache.remove("K");
+        Assertions.assertEquals(0, cache.unwrap(LinkedHashMap.class).size());
+    }
+}
@@ -0,0 +1,169 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfig;
+import com.alicp.jetcache.CacheConfigException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class TinyLfuLinkedHashMapCacheTest extends AbstractEmbeddedCacheTest {
+
+    @Override
+    protected Function<CacheConfig, Cache> getBuildFunc() {
+        return (c) -> {
+            ((EmbeddedCacheConfig) c).setEvictionPolicy(EvictionPolicy.W_TINY_LFU);
+            return new LinkedHashMapCache((EmbeddedCacheConfig) c);
+        };
+    }
+
+    @Test
+    public void test() throws Exception {
+        // admission is decided by frequency, so the exact LRU test doesn't apply
+        super.test(100, false);
+    }
+
+    @Test
+    public void segmentedTest() throws Exception {
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .evictionPolicy(EvictionPolicy.W_TINY_LFU).concurrencyLevel(4).limit(400).buildCache();
+        for (int i = 0; i < 2000; i++) {
+            cache.put("K" + i, "V" + i);
+        }
+        Assert.assertTrue(((LinkedHashMapCache) cache).weightedSize() <= 400);
+        cache.put("K", "V");
+        Assert.assertEquals("V", cache.get("K"));
+    }
+
+    @Test
+    public void testBound() {
+        LinkedHashMapCache<String, String> c = (LinkedHashMapCache) LinkedHashMapCacheBuilder
+                .createLinkedHashMapCacheBuilder().evictionPolicy(EvictionPolicy.W_TINY_LFU).limit(100).buildCache();
+        Random r = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            String key = "K" + r.nextInt(1000);
+            if (c.get(key) == null) {
+                c.put(key, "V");
+            }
+            if (i % 7 == 0) {
+                c.remove("K" + r.nextInt(1000));
+            }
+            Assert.assertTrue(c.weightedSize() <= 100);
+            Assert.assertEquals(c.weightedSize(), c.unwrap(LinkedHashMap.class).size());
+        }
+        // updating a value keeps its place
+        c.put("K1", "V1");
+        c.put("K1", "V2");
+        Assert.assertEquals("V2", c.get("K1"));
+    }
+
+    @Test
+    public void testScanResistance() {
+        Cache<String, String> c = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .evictionPolicy(EvictionPolicy.W_TINY_LFU).limit(100).buildCache();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (c.get("HOT" + i) == null) {
+                    c.put("HOT" + i, "V");
+                }
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            c.put("SCAN" + i, "V");
+        }
+        for (int i = 0; i < 50; i++) {
+            Assert.assertNotNull(c.get("HOT" + i));
+        }
+    }
+
+    @Test
+    public void testWeightNotSupported() {
+        try {
+            LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().evictionPolicy(EvictionPolicy.W_TINY_LFU)
+                    .maximumWeight(1000).buildCache();
+            Assert.fail();
+        } catch (CacheConfigException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSketch() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("K1");
+        }
+        sketch.increment("K2");
+        Assert.assertEquals(15, sketch.frequency("K1"));
+        Assert.assertTrue(sketch.frequency("K2") >= 1);
+        Assert.assertTrue(sketch.frequency("K3") <= 1);
+        // 640 additions halve the counters
+        for (int i = 0; i < 640; i++) {
+            sketch.increment("X" + i);
+        }
+        Assert.assertTrue(sketch.frequency("K1") <= 7);
+    }
+
+    /**
+     * Replays a trace of a zipf distributed working set interrupted by scans of keys used once, like a batch job,
+     * and compares the hit ratio of the policies.
+     */
+    @Test
+    public void testHitRatio() {
+        int[] trace = trace(new Random(7), 5000, 0.9, 300_000, 30_000, 5000);
+        double lru = hitRatio(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .limit(500).buildCache(), trace);
+        double tinyLfu = hitRatio(LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .evictionPolicy(EvictionPolicy.W_TINY_LFU).limit(500).buildCache(), trace);
+        double caffeine = hitRatio(CaffeineCacheBuilder.createCaffeineCacheBuilder()
+                .limit(500).buildCache(), trace);
+        String ratios = String.format("hit ratio: LRU %.4f, W-TinyLFU %.4f, Caffeine %.4f", lru, tinyLfu, caffeine);
+        Assert.assertTrue(ratios, tinyLfu > lru + 0.05);
+        Assert.assertTrue(ratios, tinyLfu > caffeine - 0.05);
+    }
+
+    private static double hitRatio(Cache<Integer, Integer> c, int[] trace) {
+        int hits = 0;
+        for (int key : trace) {
+            if (c.get(key) != null) {
+                hits++;
+            } else {
+                c.put(key, key);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+    private static int[] trace(Random r, int keys, double skew, int length, int scanInterval, int scanLength) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        int[] trace = new int[length];
+        int nextScanKey = keys;
+        int i = 0;
+        while (i < length) {
+            if (i % scanInterval == 0 && i > 0) {
+                for (int j = 0; j < scanLength && i < length; j++) {
+                    trace[i++] = nextScanKey++;
+                }
+            }
+            if (i < length) {
+                int index = Arrays.binarySearch(cumulative, r.nextDouble() * sum);
+                trace[i++] = index >= 0 ? index : -index - 1;
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,148 @@
+package com.alicp.jetcache.embedded;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.support.JavaValueEncoder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class WeighersTest {
+
+    static class Value {
+        int id;
+        String name;
+        long[] data;
+
+        Value(int id, int length) {
+            this.id = id;
+            this.name = "N" + id;
+            this.data = new long[length];
+        }
+    }
+
+    @Test
+    public void testSizeEstimator() {
+        Assert.assertEquals(16, Weighers.SizeEstimator.sizeOf(new Object()));
+        Assert.assertEquals(24 + 24, Weighers.SizeEstimator.sizeOf("abcd"));
+        Assert.assertEquals(16 + 800, Weighers.SizeEstimator.sizeOf(new long[100]));
+        long small = Weighers.SizeEstimator.sizeOf(new Value(1, 10));
+        long large = Weighers.SizeEstimator.sizeOf(new Value(1, 1000));
+        Assert.assertEquals(990 * 8, large - small);
+
+        // shared objects are counted once
+        List<Object> list = new ArrayList<>();
+        long[] shared = new long[1000];
+        list.add(shared);
+        list.add(shared);
+        Assert.assertTrue(Weighers.SizeEstimator.sizeOf(list) < 2 * 8000);
+    }
+
+    @Test
+    public void testSampledSize() {
+        Weigher w = Weighers.sampledSize();
+        Assert.assertTrue(w.weigh("K", new byte[5000]) > 5000);
+        Assert.assertTrue(w.weigh("K", new byte[50]) < 500);
+        Assert.assertTrue(w.weigh("K", null) >= Weighers.ENTRY_OVERHEAD);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(w.weigh("K", new Value(i, 100)) > 800);
+        }
+    }
+
+    @Test
+    public void testEncodedSize() {
+        Weigher w = Weighers.encodedSize(JavaValueEncoder.INSTANCE);
+        Assert.assertTrue(w.weigh("K", new byte[5000]) > 5000);
+        Assert.assertTrue(w.weigh("K", "V") < 500);
+    }
+
+    private void testMaximumWeight(Supplier<Cache<Object, Object>> supplier, Function<Cache, Long> weightedSize,
+                                   boolean lru) {
+        Cache<Object, Object> cache = supplier.get();
+        for (int i = 0; i < 100; i++) {
+            cache.put("K" + i, new byte[1000]);
+        }
+        long size = weightedSize.apply(cache);
+        Assert.assertTrue(size <= 20000);
+        Assert.assertTrue(size > 10000);
+        // the admission policy of caffeine may reject new entries, so the order is checked for lru only
+        if (lru) {
+            Assert.assertNotNull(cache.get("K99"));
+            Assert.assertNull(cache.get("K0"));
+
+            // small values fit many more
+            for (int i = 0; i < 100; i++) {
+                cache.put("S" + i, new byte[10]);
+            }
+            for (int i = 0; i < 100; i++) {
+                Assert.assertNotNull(cache.get("S" + i));
+            }
+            Assert.assertTrue(weightedSize.apply(cache) <= 20000);
+        }
+    }
+
+    @Test
+    public void testLinkedHashMapCache() {
+        testMaximumWeight(() -> LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(20000).buildCache(), c -> ((LinkedHashMapCache) c).weightedSize(), true);
+        testMaximumWeight(() -> LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(20000).concurrencyLevel(2).buildCache(), c -> ((LinkedHashMapCache) c).weightedSize(), true);
+    }
+
+    @Test
+    public void testCaffeineCache() {
+        testMaximumWeight(() -> CaffeineCacheBuilder.createCaffeineCacheBuilder()
+                .maximumWeight(20000).buildCache(), c -> ((CaffeineCache) c).weightedSize(), false);
+    }
+
+    @Test
+    public void testCustomWeigher() {
+        Cache<Object, Object> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(10).weigher((k, v) -> ((String) v).length()).buildCache();
+        cache.put("K1", "12345");
+        cache.put("K2", "12345");
+        Assert.assertEquals(10, ((LinkedHashMapCache) cache).weightedSize());
+        cache.put("K3", "1");
+        Assert.assertNull(cache.get("K1"));
+        Assert.assertEquals(6, ((LinkedHashMapCache) cache).weightedSize());
+        cache.put("K2", "12");
+        Assert.assertEquals(3, ((LinkedHashMapCache) cache).weightedSize());
+        cache.remove("K3");
+        Assert.assertEquals(2, ((LinkedHashMapCache) cache).weightedSize());
+
+        // not weighted
+        cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder().limit(2).buildCache();
+        cache.put("K1", "V");
+        cache.put("K2", "V");
+        cache.put("K3", "V");
+        Assert.assertEquals(2, ((LinkedHashMapCache) cache).weightedSize());
+    }
+
+    @Test
+    public void testWeighOutsideLock() {
+        Object[] cacheRef = new Object[1];
+        Cache<Object, Object> cache = LinkedHashMapCacheBuilder.createLinkedHashMapCacheBuilder()
+                .maximumWeight(100).weigher((k, v) -> {
+                    // the map of a not segmented cache is guarded by the cache
+                    Assert.assertFalse(Thread.holdsLock(cacheRef[0]));
+                    return 1;
+                }).buildCache();
+        cacheRef[0] = cache;
+        cache.put("K1", "V1");
+        cache.putIfAbsent("K2", "V2");
+        Map<Object, Object> map = new HashMap<>();
+        map.put("K3", "V3");
+        cache.putAll(map);
+        Assert.assertEquals(3, ((LinkedHashMapCache) cache).weightedSize());
+    }
+}
@@ -0,0 +1,190 @@
+package com.alicp.jetcache.external;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.CacheGetResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.MultiGetResult;
+import com.alicp.jetcache.ResultData;
+import com.alicp.jetcache.support.CacheStat;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class GetBatcherTest {
+
+    @Test
+    public void testBatch() throws Exception {
+        AtomicInteger getAllCount = new AtomicInteger();
+        GetBatcher<String, String> batcher = new GetBatcher<>(TimeUnit.MILLISECONDS.toNanos(50), 1000, keys -> {
+            getAllCount.incrementAndGet();
+            Map<String, CacheGetResult<String>> m = new HashMap<>();
+            for (String k : keys) {
+                if (!k.equals("absent")) {
+                    m.put(k, new CacheGetResult<>(CacheResultCode.SUCCESS, null,
+                            new com.alicp.jetcache.CacheValueHolder<>("V_" + k, 100000)));
+                }
+            }
+            // the remote call takes some time, so the other GETs find it in flight
+            return new MultiGetResult<>(CompletableFuture.supplyAsync(() -> {
+                sleep(20);
+                return new ResultData(CacheResultCode.SUCCESS, null, m);
+            }));
+        }, (keyCount, queueNanos) -> {
+        });
+
+        int threadCount = 10;
+        CountDownLatch start = new CountDownLatch(1);
+        String[] results = new String[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                String key = index == 0 ? "absent" : "K" + (index % 5);
+                CacheGetResult<String> r = batcher.get(key);
+                results[index] = r.isSuccess() ? r.getValue() : r.getResultCode().name();
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals("NOT_EXISTS", results[0]);
+        for (int i = 1; i < threadCount; i++) {
+            assertEquals("V_K" + (i % 5), results[i]);
+        }
+        assertTrue(getAllCount.get() < threadCount, "getAll count: " + getAllCount.get());
+    }
+
+    @Test
+    public void testMaxKeys() {
+        AtomicInteger getAllCount = new AtomicInteger();
+        GetBatcher<String, String> batcher = new GetBatcher<>(TimeUnit.SECONDS.toNanos(10), 1, keys -> {
+            getAllCount.incrementAndGet();
+            return new MultiGetResult<>(CacheResultCode.SUCCESS, null, new HashMap<>());
+        }, (keyCount, queueNanos) -> {
+        });
+        long t = System.currentTimeMillis();
+        assertEquals(CacheResultCode.NOT_EXISTS, batcher.get("K1").getResultCode());
+        // a full batch is sent at once
+        assertTrue(System.currentTimeMillis() - t < 5000);
+        assertEquals(1, getAllCount.get());
+    }
+
+    @Test
+    public void testNotBlocked() throws Exception {
+        AtomicInteger getAllCount = new AtomicInteger();
+        CompletableFuture<ResultData> first = new CompletableFuture<>();
+        GetBatcher<String, String> batcher = new GetBatcher<>(TimeUnit.MILLISECONDS.toNanos(200), 1000, keys -> {
+            if (getAllCount.incrementAndGet() == 1) {
+                return new MultiGetResult<>(first);
+            }
+            return new MultiGetResult<>(CacheResultCode.SUCCESS, null, new HashMap<>());
+        }, (keyCount, queueNanos) -> {
+        });
+        // uncontended, sent at once
+        CacheGetResult<String> r1 = batcher.get("K1");
+        assertEquals(1, getAllCount.get());
+        // the first one is in flight, so it waits for the window, but the caller is not blocked
+        long t = System.nanoTime();
+        CacheGetResult<String> r2 = batcher.get("K2");
+        CacheGetResult<String> r3 = batcher.get("K3");
+        assertTrue(System.nanoTime() - t < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, getAllCount.get());
+        assertFalse(r2.future().toCompletableFuture().isDone());
+
+        assertEquals(CacheResultCode.NOT_EXISTS, r2.getResultCode());
+        assertEquals(CacheResultCode.NOT_EXISTS, r3.getResultCode());
+        assertTrue(System.nanoTime() - t >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(2, getAllCount.get());
+
+        first.complete(new ResultData(CacheResultCode.SUCCESS, null, new HashMap<>()));
+        assertEquals(CacheResultCode.NOT_EXISTS, r1.getResultCode());
+        // nothing in flight again
+        t = System.nanoTime();
+        assertEquals(CacheResultCode.NOT_EXISTS, batcher.get("K4").getResultCode());
+        assertTrue(System.nanoTime() - t < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(3, getAllCount.get());
+    }
+
+    @Test
+    public void testFail() {
+        GetBatcher<String, String> batcher = new GetBatcher<>(1000, 10, keys -> {
+            throw new IllegalStateException("mock error");
+        }, (keyCount, queueNanos) -> {
+        });
+        assertEquals(CacheResultCode.FAIL, batcher.get("K1").getResultCode());
+
+        batcher = new GetBatcher<>(1000, 10, keys -> new MultiGetResult<>(CacheResultCode.FAIL, "mock", null),
+                (keyCount, queueNanos) -> {
+                });
+        assertEquals(CacheResultCode.FAIL, batcher.get("K1").getResultCode());
+    }
+
+    @Test
+    public void testCacheStat() throws Exception {
+        Cache<String, String> cache = new MockRemoteCacheBuilder()
+                .getBatchWindow(20, TimeUnit.MILLISECONDS)
+                .buildCache();
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        cache.config().getMonitors().add(monitor);
+        cache.put("K1", "V1");
+        int threadCount = 8;
+        Thread[] threads = new Thread[threadCount];
+        int loop = 50;
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < loop; j++) {
+                    assertEquals("V1", cache.get("K1"));
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        CacheStat stat = monitor.getCacheStat();
+        assertEquals(threadCount * loop, stat.getGetHitCount());
+        assertEquals(threadCount * loop, stat.getGetBatchRequestCount());
+        assertTrue(stat.getGetBatchCount() < threadCount * loop);
+        assertTrue(stat.avgGetBatchSize() >= 1);
+        assertTrue(stat.avgGetBatchQueueTime() > 0);
+        assertTrue(stat.getP99GetBatchQueueTime() > 0);
+    }
+
+    @Test
+    public void testConfig() {
+        assertThrows(CacheConfigException.class, () -> new MockRemoteCacheBuilder()
+                .getBatchWindow(1, TimeUnit.MILLISECONDS)
+                .getBatchMaxKeys(0)
+                .buildCache());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
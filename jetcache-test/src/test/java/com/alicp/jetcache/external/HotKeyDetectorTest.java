@@ -0,0 +1,198 @@
+package com.alicp.jetcache.external;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.MultiGetResult;
+import com.alicp.jetcache.support.CacheStat;
+import com.alicp.jetcache.support.DefaultCacheMonitor;
+import com.alicp.jetcache.support.JetCacheExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class HotKeyDetectorTest {
+
+    @Test
+    public void testPromoteAndDemote() throws Exception {
+        List<String> events = new ArrayList<>();
+        HotKeyDetector<String> d = new HotKeyDetector<>(10, 2, 1000,
+                (k, promoted) -> events.add((promoted ? "+" : "-") + k));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 9; i++) {
+            assertNull(d.record("K1", now));
+        }
+        assertNotNull(d.record("K1", now));
+        assertEquals(Collections.singletonList("+K1"), events);
+        for (int i = 0; i < 20; i++) {
+            d.record("K2", now);
+        }
+        for (int i = 0; i < 10; i++) {
+            d.record("K3", now);
+        }
+        // the hot set is full, K3 is not hotter than the coldest one
+        assertEquals(2, d.hotKeys().size());
+        assertFalse(d.hotKeys().contains("K3"));
+        for (int i = 0; i < 5; i++) {
+            d.record("K3", now);
+        }
+        // K3 replaces K1
+        assertTrue(d.hotKeys().contains("K3"));
+        assertFalse(d.hotKeys().contains("K1"));
+        assertTrue(events.contains("-K1"));
+
+        // counts are halved every window, keys read rarely are demoted
+        d.record("K4", now + HotKeyDetector.WINDOW_MILLIS * 3);
+        waitDecay();
+        assertTrue(d.hotKeys().isEmpty());
+    }
+
+    @Test
+    public void testSteadyQps() throws Exception {
+        List<String> events = new ArrayList<>();
+        HotKeyDetector<String> d = new HotKeyDetector<>(10, 10, 1000,
+                (k, promoted) -> events.add((promoted ? "+" : "-") + k));
+        long now = System.currentTimeMillis();
+        for (int w = 0; w < 20; w++) {
+            long t = now + w * HotKeyDetector.WINDOW_MILLIS;
+            d.record("K0", t);
+            waitDecay();
+            // below the threshold, the count is about twice the QPS but the key is not promoted
+            for (int i = 0; i < 6; i++) {
+                d.record("K1", t);
+            }
+            for (int i = 0; i < 14; i++) {
+                d.record("K2", t);
+            }
+        }
+        assertEquals(Collections.singletonList("+K2"), events);
+    }
+
+    @Test
+    public void testDecayNotBlocked() throws Exception {
+        HotKeyDetector<String> d = new HotKeyDetector<>(10, 10, 1000, (k, promoted) -> {
+        });
+        CountDownLatch latch = new CountDownLatch(1);
+        JetCacheExecutor.defaultExecutor().execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            // the decay is queued behind the blocked task, the GETs don't wait for it
+            long now = System.currentTimeMillis() + HotKeyDetector.WINDOW_MILLIS;
+            for (int i = 0; i < 9; i++) {
+                assertNull(d.record("K1", now));
+            }
+            assertNotNull(d.record("K1", now));
+        } finally {
+            latch.countDown();
+        }
+        waitDecay();
+    }
+
+    private static void waitDecay() throws Exception {
+        JetCacheExecutor.defaultExecutor().submit(() -> {
+        }).get();
+    }
+
+    @Test
+    public void testByteArrayKey() {
+        HotKeyDetector<String> d = new HotKeyDetector<>(2, 10, 1000, (k, promoted) -> {
+        });
+        long now = System.currentTimeMillis();
+        d.record(new byte[]{1, 2}, now);
+        assertNotNull(d.record(new byte[]{1, 2}, now));
+    }
+
+    @Test
+    public void testFillAndInvalidate() {
+        HotKeyDetector<String> d = new HotKeyDetector<>(1, 10, 1000, (k, promoted) -> {
+        });
+        long now = System.currentTimeMillis();
+        HotKeyDetector.HotKey<String> hot = d.record("K1", now);
+        long version = hot.version.get();
+        d.invalidate("K1");
+        d.fill(hot, version, new CacheValueHolder<>("V1", 10000), now);
+        assertNull(hot.localHolder(now));
+
+        version = hot.version.get();
+        d.fill(hot, version, new CacheValueHolder<>("V1", 10000), now);
+        assertEquals("V1", hot.localHolder(now).getValue());
+        assertNull(hot.localHolder(now + 1000));
+    }
+
+    static class CountingCache<K, V> extends MockRemoteCache<K, V> {
+        final AtomicInteger getAllCount = new AtomicInteger();
+
+        CountingCache(MockRemoteCacheConfig<K, V> config) {
+            super(config);
+        }
+
+        @Override
+        protected MultiGetResult<K, V> do_GET_ALL(Set<? extends K> keys) {
+            getAllCount.incrementAndGet();
+            return super.do_GET_ALL(keys);
+        }
+    }
+
+    @Test
+    public void testCache() {
+        ExternalCacheBuilder b = new MockRemoteCacheBuilder()
+                .hotKeyThreshold(5)
+                .hotKeyLocalExpire(1, TimeUnit.HOURS);
+        b.buildFunc(c -> new CountingCache((MockRemoteCacheConfig) c));
+        Cache<String, String> cache = b.buildCache();
+        CountingCache<String, String> cc = (CountingCache<String, String>) cache;
+        DefaultCacheMonitor monitor = new DefaultCacheMonitor("test");
+        cache.config().getMonitors().add(monitor);
+
+        cache.put("K1", "V1");
+        for (int i = 0; i < 4; i++) {
+            assertEquals("V1", cache.get("K1"));
+        }
+        assertEquals(0, cc.getAllCount.get());
+        // promoted, read the remote once and fill the local copy
+        assertEquals("V1", cache.get("K1"));
+        assertEquals(1, cc.getAllCount.get());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("V1", cache.get("K1"));
+        }
+        assertEquals(1, cc.getAllCount.get());
+        assertEquals(Collections.singletonList("K1"), cc.getHotKeys());
+
+        // an update drops the local copy
+        cache.put("K1", "V2");
+        assertEquals("V2", cache.get("K1"));
+        assertEquals(2, cc.getAllCount.get());
+        cache.remove("K1");
+        assertNull(cache.get("K1"));
+
+        CacheStat stat = monitor.getCacheStat();
+        assertEquals(1, stat.getHotKeyPromoteCount());
+        assertEquals(Collections.singletonList("K1"), stat.getHotKeys());
+    }
+
+    @Test
+    public void testConfig() {
+        assertThrows(CacheConfigException.class, () -> new MockRemoteCacheBuilder()
+                .hotKeyThreshold(5)
+                .hotKeyMaxCount(0)
+                .buildCache());
+    }
+}
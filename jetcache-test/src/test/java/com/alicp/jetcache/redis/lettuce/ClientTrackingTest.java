@@ -0,0 +1,248 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheConfigException;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.cluster.RedisClusterClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class ClientTrackingTest {
+
+    private static final String PREFIX = "ct_";
+
+    private RespStandInServer server;
+    private RedisClient client;
+    // writes as another client without client tracking, through the shared connection
+    private Cache<String, String> plain;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = new RespStandInServer();
+        client = RedisClient.create("redis://127.0.0.1:" + server.getPort());
+        plain = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .buildCache();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        LettuceConnectionManager.defaultManager().removeAndClose(client);
+        server.close();
+    }
+
+    private Cache<String, String> trackingCache(ClientTrackingMode mode, int limit) {
+        return RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .clientTrackingMode(mode)
+                .clientTrackingLimit(limit)
+                .buildCache();
+    }
+
+    private static byte[] key(String k) {
+        return (PREFIX + k).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void waitUntil(Object expected, Supplier<Object> actual) {
+        long end = System.currentTimeMillis() + 5000;
+        while (!Objects.equals(expected, actual.get()) && System.currentTimeMillis() < end) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        Assertions.assertEquals(expected, actual.get());
+    }
+
+    @Test
+    public void testLocalHitAndInvalidation() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertEquals("V1", cache.get("K1"));
+        int count = server.getGetCount();
+        Assertions.assertEquals("V1", cache.get("K1"));
+        Assertions.assertEquals(count, server.getGetCount());
+
+        Assertions.assertTrue(plain.PUT("K1", "V2").isSuccess());
+        waitUntil("V2", () -> cache.get("K1"));
+        count = server.getGetCount();
+        Assertions.assertEquals("V2", cache.get("K1"));
+        Assertions.assertEquals(count, server.getGetCount());
+
+        // a write of the cache itself drops the local copy at once
+        cache.put("K1", "V3");
+        Assertions.assertEquals("V3", cache.get("K1"));
+
+        // missing keys are not kept locally
+        Assertions.assertNull(cache.get("K2"));
+        Assertions.assertTrue(plain.PUT("K2", "V2").isSuccess());
+        Assertions.assertEquals("V2", cache.get("K2"));
+    }
+
+    @Test
+    public void testGetAll() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertTrue(plain.PUT("K2", "V2").isSuccess());
+        Assertions.assertEquals("V1", cache.get("K1"));
+        int count = server.getGetCount();
+        Map<String, String> map = cache.getAll(new HashSet<>(Arrays.asList("K1", "K2", "K3")));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals("V1", map.get("K1"));
+        Assertions.assertEquals("V2", map.get("K2"));
+        // K1 is local, K2 and K3 are read by one MGET
+        Assertions.assertEquals(count + 1, server.getGetCount());
+
+        count = server.getGetCount();
+        cache.getAll(new HashSet<>(Arrays.asList("K1", "K2")));
+        Assertions.assertEquals(count, server.getGetCount());
+
+        // several keys invalidated by one message
+        Assertions.assertTrue(plain.REMOVE_ALL(new HashSet<>(Arrays.asList("K1", "K2"))).isSuccess());
+        waitUntil(0, () -> cache.getAll(new HashSet<>(Arrays.asList("K1", "K2"))).size());
+    }
+
+    @Test
+    public void testInvalidationBeforeReply() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertTrue(plain.PUT("K2", "V2").isSuccess());
+        byte[] k1 = key("K1");
+        server.setBeforeGetReply(k -> {
+            if (Arrays.equals(k, k1)) {
+                // the value read is V1, but V2 is written and its invalidation arrives before the reply
+                server.set(k1, server.get(key("K2")));
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        Assertions.assertEquals("V1", cache.get("K1"));
+        server.setBeforeGetReply(null);
+        // V1 must not be installed
+        int count = server.getGetCount();
+        Assertions.assertEquals("V2", cache.get("K1"));
+        Assertions.assertEquals(count + 1, server.getGetCount());
+        Assertions.assertEquals("V2", cache.get("K1"));
+        Assertions.assertEquals(count + 1, server.getGetCount());
+    }
+
+    @Test
+    public void testBroadcast() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.BROADCAST, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertEquals("V1", cache.get("K1"));
+        int count = server.getGetCount();
+        Assertions.assertEquals("V1", cache.get("K1"));
+        Assertions.assertEquals(count, server.getGetCount());
+        Assertions.assertTrue(plain.PUT("K1", "V2").isSuccess());
+        waitUntil("V2", () -> cache.get("K1"));
+    }
+
+    @Test
+    public void testLimit() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 2);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertTrue(plain.PUT("K2", "V2").isSuccess());
+        Assertions.assertTrue(plain.PUT("K3", "V3").isSuccess());
+        cache.get("K1");
+        cache.get("K2");
+        cache.get("K3");
+        int count = server.getGetCount();
+        cache.get("K3");
+        Assertions.assertEquals(count, server.getGetCount());
+        // the eldest is evicted
+        cache.get("K1");
+        Assertions.assertEquals(count + 1, server.getGetCount());
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1", 50, TimeUnit.MILLISECONDS).isSuccess());
+        Assertions.assertEquals("V1", cache.get("K1"));
+        Thread.sleep(60);
+        Assertions.assertNull(cache.get("K1"));
+    }
+
+    @Test
+    public void testFlush() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertEquals("V1", cache.get("K1"));
+        server.flushAll();
+        waitUntil(null, () -> cache.get("K1"));
+    }
+
+    @Test
+    public void testReconnect() {
+        Cache<String, String> cache = trackingCache(ClientTrackingMode.DEFAULT, 100);
+        Assertions.assertTrue(plain.PUT("K1", "V1").isSuccess());
+        Assertions.assertTrue(plain.PUT("K2", "V2").isSuccess());
+        Assertions.assertEquals("V1", cache.get("K1"));
+        // the tracking state of the server is lost
+        server.killClients();
+        server.set(key("K1"), server.get(key("K2")));
+        waitUntil("V2", () -> cache.get("K1"));
+        waitUntil(true, () -> {
+            LettuceClientTracking tracking = LettuceConnectionManager.defaultManager().clientTracking(client, null);
+            return tracking.isReady();
+        });
+
+        // tracking is switched on again
+        Assertions.assertEquals("V2", cache.get("K1"));
+        int count = server.getGetCount();
+        Assertions.assertEquals("V2", cache.get("K1"));
+        Assertions.assertEquals(count, server.getGetCount());
+        Assertions.assertTrue(plain.PUT("K1", "V3").isSuccess());
+        waitUntil("V3", () -> cache.get("K1"));
+    }
+
+    @Test
+    public void testClusterNotSupported() {
+        RedisClusterClient clusterClient = RedisClusterClient.create("redis://127.0.0.1:" + server.getPort());
+        try {
+            Assertions.assertThrows(CacheConfigException.class, () -> RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                    .redisClient(clusterClient)
+                    .keyPrefix(PREFIX)
+                    .clientTrackingMode(ClientTrackingMode.DEFAULT)
+                    .buildCache());
+        } finally {
+            LettuceConnectionManager.defaultManager().removeAndClose(clusterClient);
+        }
+    }
+
+    @Test
+    public void testBroadcastRequiresPrefix() {
+        Assertions.assertThrows(CacheConfigException.class, () -> RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix("")
+                .clientTrackingMode(ClientTrackingMode.BROADCAST)
+                .buildCache());
+        Assertions.assertThrows(CacheConfigException.class, () -> RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefixSupplier(() -> null)
+                .clientTrackingMode(ClientTrackingMode.BROADCAST)
+                .buildCache());
+    }
+}
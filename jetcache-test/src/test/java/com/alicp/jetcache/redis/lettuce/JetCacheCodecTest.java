@@ -1,8 +1,17 @@
 package com.alicp.jetcache.redis.lettuce;
 
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.EnvelopeValueEncoder;
+import com.alicp.jetcache.support.KryoValueDecoder;
+import com.alicp.jetcache.support.KryoValueEncoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Created on 2017/5/9.
  *
@@ -23,4 +32,59 @@ public class JetCacheCodecTest {
         Assert.assertArrayEquals(bs, (byte[]) codec.decodeValue(codec.encodeValue(bs)));
 
     }
+
+    @Test
+    public void testEncodeToByteBuf() {
+        JetCacheCodec codec = new JetCacheCodec();
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            byte[] bs = new byte[]{1, 2, 3};
+            Assert.assertEquals(3, codec.estimateSize(bs));
+            codec.encodeValue(bs, buf);
+            Assert.assertArrayEquals(bs, (byte[]) codec.decodeValue(buf.nioBuffer()));
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    public void testZeroCopyDecode() {
+        AtomicInteger count = new AtomicInteger();
+        KryoValueDecoder decoder = new KryoValueDecoder(true) {
+            @Override
+            public Object apply(ByteBuffer buffer) {
+                count.incrementAndGet();
+                return super.apply(buffer);
+            }
+        };
+        JetCacheCodec codec = new JetCacheCodec(decoder);
+        EnvelopeValueEncoder encoder = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+        ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            CacheValueHolder<String> h = new CacheValueHolder<>("V", 100000);
+            codec.encodeValue(encoder.apply(h), buf);
+            CacheValueHolder<String> h2 = (CacheValueHolder<String>) codec.decodeValue(buf.nioBuffer());
+            Assert.assertEquals("V", h2.getValue());
+            Assert.assertEquals(h.getExpireTime(), h2.getExpireTime());
+            // decoded by the decoder of the cache
+            Assert.assertEquals(1, count.get());
+
+            // expired values are not decoded
+            h.setExpireTime(System.currentTimeMillis() - 1);
+            buf.clear();
+            codec.encodeValue(encoder.apply(h), buf);
+            h2 = (CacheValueHolder<String>) codec.decodeValue(buf.nioBuffer());
+            Assert.assertNull(h2.getValue());
+            Assert.assertEquals(h.getExpireTime(), h2.getExpireTime());
+            Assert.assertEquals(1, count.get());
+
+            // other formats are still byte arrays
+            byte[] bs = KryoValueEncoder.INSTANCE.apply(new CacheValueHolder<>("V", 100000));
+            Assert.assertArrayEquals(bs, (byte[]) codec.decodeValue(ByteBuffer.wrap(bs)));
+            bs = encoder.apply(new CacheValueHolder<>("V", 100000));
+            Assert.assertArrayEquals(bs, (byte[]) new JetCacheCodec().decodeValue(ByteBuffer.wrap(bs)));
+        } finally {
+            buf.release();
+        }
+    }
 }
@@ -0,0 +1,419 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A tiny RESP2 server which implements the commands used by {@link RedisLettuceCache} and client tracking in
+ * redirect mode, so the invalidation ordering can be tested without a redis 6 server.
+ *
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class RespStandInServer implements Closeable {
+
+    private static final byte[] INVALIDATE_CHANNEL = "__redis__:invalidate".getBytes(StandardCharsets.UTF_8);
+
+    private final ServerSocket serverSocket;
+    private final AtomicLong clientIds = new AtomicLong();
+    private final List<Conn> conns = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private final Map<ByteBuffer, byte[]> data = new HashMap<>();
+    // guarded by this, key -> data connections which have read the key
+    private final Map<ByteBuffer, Set<Conn>> trackingTable = new HashMap<>();
+
+    private final AtomicInteger getCount = new AtomicInteger();
+    // called before the reply of a GET is written, with the key
+    private volatile Consumer<byte[]> beforeGetReply;
+
+    private volatile boolean closed;
+
+    private class Conn {
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out;
+        final long id = clientIds.incrementAndGet();
+        long redirect = -1;
+        byte[] bcastPrefix;
+
+        Conn(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        void write(byte[] bytes) {
+            synchronized (out) {
+                try {
+                    out.write(bytes);
+                    out.flush();
+                } catch (IOException e) {
+                    closeQuietly();
+                }
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    public RespStandInServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread t = new Thread(this::accept, "RespStandInServer");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getGetCount() {
+        return getCount.get();
+    }
+
+    public void setBeforeGetReply(Consumer<byte[]> beforeGetReply) {
+        this.beforeGetReply = beforeGetReply;
+    }
+
+    /**
+     * Write a key as another client does.
+     */
+    public synchronized void set(byte[] key, byte[] value) {
+        data.put(ByteBuffer.wrap(key), value);
+        invalidate(Arrays.asList(key));
+    }
+
+    public synchronized byte[] get(byte[] key) {
+        return data.get(ByteBuffer.wrap(key));
+    }
+
+    public synchronized void flushAll() {
+        data.clear();
+        trackingTable.clear();
+        for (Conn c : conns) {
+            if (c.redirect >= 0) {
+                sendInvalidation(c.redirect, null);
+            }
+        }
+    }
+
+    /**
+     * Close all client connections, as the server restarts.
+     */
+    public synchronized void killClients() {
+        trackingTable.clear();
+        for (Conn c : conns) {
+            c.closeQuietly();
+        }
+        conns.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        killClients();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Conn c = new Conn(serverSocket.accept());
+                conns.add(c);
+                Thread t = new Thread(() -> serve(c), "RespStandInServer-" + c.id);
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void serve(Conn c) {
+        try {
+            while (true) {
+                List<byte[]> args = readCommand(c.in);
+                if (args == null) {
+                    break;
+                }
+                execute(c, args);
+            }
+        } catch (IOException e) {
+            // disconnected
+        } finally {
+            c.closeQuietly();
+            conns.remove(c);
+        }
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        String line = readLine(in);
+        if (line == null) {
+            return null;
+        }
+        if (line.charAt(0) != '*') {
+            throw new IOException("inline command is not supported: " + line);
+        }
+        int n = Integer.parseInt(line.substring(1));
+        List<byte[]> args = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String len = readLine(in);
+            if (len == null || len.charAt(0) != '$') {
+                throw new IOException("bad bulk: " + len);
+            }
+            byte[] b = new byte[Integer.parseInt(len.substring(1))];
+            int off = 0;
+            while (off < b.length) {
+                int r = in.read(b, off, b.length - off);
+                if (r < 0) {
+                    throw new EOFException();
+                }
+                off += r;
+            }
+            readLine(in);
+            args.add(b);
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                return null;
+            }
+            if (b != '\r') {
+                sb.append((char) b);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String str(byte[] b) {
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void execute(Conn c, List<byte[]> args) {
+        String cmd = str(args.get(0)).toUpperCase();
+        byte[] reply;
+        switch (cmd) {
+            case "PING":
+                reply = status("PONG");
+                break;
+            case "CLIENT":
+                reply = client(c, args);
+                break;
+            case "SUBSCRIBE":
+                reply = subscribe(args);
+                break;
+            case "GET": {
+                byte[] key = args.get(1);
+                byte[] value;
+                synchronized (this) {
+                    getCount.incrementAndGet();
+                    value = data.get(ByteBuffer.wrap(key));
+                    track(c, key);
+                }
+                Consumer<byte[]> hook = beforeGetReply;
+                if (hook != null) {
+                    hook.accept(key);
+                }
+                reply = bulk(value);
+                break;
+            }
+            case "MGET": {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                write(bos, "*" + (args.size() - 1) + "\r\n");
+                synchronized (this) {
+                    getCount.incrementAndGet();
+                    for (byte[] key : args.subList(1, args.size())) {
+                        write(bos, bulk(data.get(ByteBuffer.wrap(key))));
+                        track(c, key);
+                    }
+                }
+                reply = bos.toByteArray();
+                break;
+            }
+            case "SET":
+                reply = setCommand(args);
+                break;
+            case "PSETEX":
+                set(args.get(1), args.get(3));
+                reply = status("OK");
+                break;
+            case "DEL": {
+                int count = 0;
+                synchronized (this) {
+                    List<byte[]> keys = args.subList(1, args.size());
+                    for (byte[] key : keys) {
+                        if (data.remove(ByteBuffer.wrap(key)) != null) {
+                            count++;
+                        }
+                    }
+                    invalidate(keys);
+                }
+                reply = (":" + count + "\r\n").getBytes(StandardCharsets.UTF_8);
+                break;
+            }
+            default:
+                reply = ("-ERR unknown command '" + cmd + "'\r\n").getBytes(StandardCharsets.UTF_8);
+        }
+        c.write(reply);
+    }
+
+    private synchronized byte[] setCommand(List<byte[]> args) {
+        boolean nx = false;
+        for (int i = 3; i < args.size(); i++) {
+            if ("NX".equalsIgnoreCase(str(args.get(i)))) {
+                nx = true;
+            }
+        }
+        if (nx && data.containsKey(ByteBuffer.wrap(args.get(1)))) {
+            return bulk(null);
+        }
+        set(args.get(1), args.get(2));
+        return status("OK");
+    }
+
+    private byte[] client(Conn c, List<byte[]> args) {
+        String sub = str(args.get(1)).toUpperCase();
+        if ("ID".equals(sub)) {
+            return (":" + c.id + "\r\n").getBytes(StandardCharsets.UTF_8);
+        } else if ("TRACKING".equals(sub)) {
+            for (int i = 3; i < args.size(); i++) {
+                String opt = str(args.get(i)).toUpperCase();
+                if ("REDIRECT".equals(opt)) {
+                    c.redirect = Long.parseLong(str(args.get(++i)));
+                } else if ("PREFIX".equals(opt)) {
+                    c.bcastPrefix = args.get(++i);
+                }
+            }
+            return status("OK");
+        } else if ("SETNAME".equals(sub)) {
+            return status("OK");
+        }
+        return ("-ERR unknown subcommand '" + sub + "'\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] subscribe(List<byte[]> args) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (int i = 1; i < args.size(); i++) {
+            write(bos, "*3\r\n");
+            write(bos, bulk("subscribe".getBytes(StandardCharsets.UTF_8)));
+            write(bos, bulk(args.get(i)));
+            write(bos, ":" + i + "\r\n");
+        }
+        return bos.toByteArray();
+    }
+
+    // guarded by this
+    private void track(Conn c, byte[] key) {
+        if (c.redirect >= 0 && c.bcastPrefix == null) {
+            trackingTable.computeIfAbsent(ByteBuffer.wrap(key), k -> new HashSet<>()).add(c);
+        }
+    }
+
+    // guarded by this, keys modified by a command are sent in one message, as redis does in broadcast mode
+    private void invalidate(List<byte[]> keys) {
+        Map<Long, List<byte[]>> messages = new HashMap<>();
+        for (byte[] key : keys) {
+            Set<Conn> readers = trackingTable.remove(ByteBuffer.wrap(key));
+            if (readers != null) {
+                for (Conn r : readers) {
+                    messages.computeIfAbsent(r.redirect, k -> new ArrayList<>()).add(key);
+                }
+            }
+            for (Conn b : conns) {
+                if (b.redirect >= 0 && b.bcastPrefix != null && startsWith(key, b.bcastPrefix)) {
+                    messages.computeIfAbsent(b.redirect, k -> new ArrayList<>()).add(key);
+                }
+            }
+        }
+        messages.forEach(this::sendInvalidation);
+    }
+
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void sendInvalidation(long redirect, List<byte[]> keys) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        write(bos, "*3\r\n");
+        write(bos, bulk("message".getBytes(StandardCharsets.UTF_8)));
+        write(bos, bulk(INVALIDATE_CHANNEL));
+        if (keys == null) {
+            write(bos, bulk(null));
+        } else {
+            write(bos, "*" + keys.size() + "\r\n");
+            keys.forEach(k -> write(bos, bulk(k)));
+        }
+        byte[] bytes = bos.toByteArray();
+        for (Conn c : conns) {
+            if (c.id == redirect) {
+                c.write(bytes);
+            }
+        }
+    }
+
+    private static byte[] status(String s) {
+        return ("+" + s + "\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bulk(byte[] b) {
+        if (b == null) {
+            return "$-1\r\n".getBytes(StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        write(bos, "$" + b.length + "\r\n");
+        write(bos, b);
+        write(bos, "\r\n");
+        return bos.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream bos, String s) {
+        write(bos, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void write(ByteArrayOutputStream bos, byte[] b) {
+        bos.write(b, 0, b.length);
+    }
+}
@@ -0,0 +1,171 @@
+package com.alicp.jetcache.redis.lettuce;
+
+import com.alicp.jetcache.Cache;
+import com.alicp.jetcache.CacheResult;
+import com.alicp.jetcache.CacheResultCode;
+import com.alicp.jetcache.CacheValueHolder;
+import com.alicp.jetcache.support.EnvelopeValueEncoder;
+import com.alicp.jetcache.support.KryoValueDecoder;
+import com.alicp.jetcache.support.KryoValueEncoder;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.async.RedisStringAsyncCommands;
+import io.lettuce.core.api.sync.RedisStringCommands;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class ZeroCopyTest {
+
+    private static final String PREFIX = "zc_";
+
+    private RespStandInServer server;
+    private RedisClient client;
+    private Cache<String, String> cache;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = new RespStandInServer();
+        client = RedisClient.create("redis://127.0.0.1:" + server.getPort());
+        // GET responses of the cache are decoded by its own codec, the connection of the client is shared
+        cache = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .valueEncoder(new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE))
+                .valueDecoder(KryoValueDecoder.INSTANCE)
+                .zeroCopy(true)
+                .buildCache();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        LettuceConnectionManager.defaultManager().removeAndClose(client);
+        server.close();
+    }
+
+    @Test
+    public void testGetAndPut() {
+        char[] cs = new char[100 * 1024];
+        Arrays.fill(cs, 'a');
+        String large = new String(cs);
+        cache.put("K1", large);
+        Assertions.assertEquals(large, cache.get("K1"));
+        Assertions.assertTrue(cache.PUT_IF_ABSENT("K2", "V2", 1, TimeUnit.HOURS).isSuccess());
+        Assertions.assertEquals(CacheResultCode.EXISTS, cache.PUT_IF_ABSENT("K2", "V3", 1, TimeUnit.HOURS).getResultCode());
+        Assertions.assertNull(cache.get("K3"));
+
+        Map<String, String> map = cache.getAll(new HashSet<>(Arrays.asList("K1", "K2", "K3")));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(large, map.get("K1"));
+        Assertions.assertEquals("V2", map.get("K2"));
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        // the stand-in server doesn't expire keys, the expired envelope is returned
+        cache.put("K1", "V1", 50, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals("V1", cache.get("K1"));
+        Thread.sleep(60);
+        Assertions.assertEquals(CacheResultCode.EXPIRED, cache.GET("K1").getResultCode());
+        Assertions.assertEquals(0, cache.getAll(new HashSet<>(Arrays.asList("K1"))).size());
+    }
+
+    @Test
+    public void testSharedCommands() throws Exception {
+        cache.put("K1", "V1");
+        Assertions.assertEquals("V1", cache.get("K1"));
+        byte[] key = ((RedisLettuceCache<String, String>) cache).buildKey("K1");
+        LettuceConnectionManager m = LettuceConnectionManager.defaultManager();
+        // the commands of the client are used by the application, they always return byte arrays
+        RedisStringCommands<byte[], byte[]> commands = (RedisStringCommands<byte[], byte[]>) m.commands(client);
+        Object value = commands.get(key);
+        Assertions.assertTrue(value instanceof byte[]);
+        RedisStringAsyncCommands<byte[], byte[]> asyncCommands = (RedisStringAsyncCommands<byte[], byte[]>) m.asyncCommands(client);
+        value = asyncCommands.get(key).get();
+        Assertions.assertTrue(value instanceof byte[]);
+        Assertions.assertEquals("V1", ((CacheValueHolder) KryoValueDecoder.INSTANCE.apply((byte[]) value)).getValue());
+    }
+
+    @Test
+    public void testMutateAfterPut() {
+        Cache<String, List<String>> listCache = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .valueEncoder(new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE))
+                .valueDecoder(KryoValueDecoder.INSTANCE)
+                .zeroCopy(true)
+                .buildCache();
+        List<String> list = new ArrayList<>(Arrays.asList("V1"));
+        CacheResult r = listCache.PUT("K1", list);
+        // the value is serialized by put, not when the command is written
+        list.add("V2");
+        Assertions.assertTrue(r.isSuccess());
+        Assertions.assertEquals(Arrays.asList("V1"), listCache.get("K1"));
+    }
+
+    @Test
+    public void testValueDecoder() {
+        AtomicInteger count = new AtomicInteger();
+        KryoValueDecoder decoder = new KryoValueDecoder(true) {
+            @Override
+            public Object apply(ByteBuffer buffer) {
+                count.incrementAndGet();
+                return super.apply(buffer);
+            }
+        };
+        Cache<String, String> c = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .valueEncoder(new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE))
+                .valueDecoder(decoder)
+                .zeroCopy(true)
+                .buildCache();
+        c.put("K1", "V1");
+        Assertions.assertEquals("V1", c.get("K1"));
+        Assertions.assertEquals(1, count.get());
+        // the zero copy caches don't share a decoder
+        Assertions.assertEquals("V1", cache.get("K1"));
+        Assertions.assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testMixedFormats() {
+        // values of the old format and tracked reads are still byte arrays
+        Cache<String, String> plain = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .valueEncoder(KryoValueEncoder.INSTANCE)
+                .valueDecoder(KryoValueDecoder.INSTANCE)
+                .buildCache();
+        Cache<String, String> tracking = RedisLettuceCacheBuilder.createRedisLettuceCacheBuilder()
+                .redisClient(client)
+                .keyPrefix(PREFIX)
+                .valueEncoder(new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE))
+                .valueDecoder(KryoValueDecoder.INSTANCE)
+                .clientTrackingMode(ClientTrackingMode.DEFAULT)
+                .zeroCopy(true)
+                .buildCache();
+        plain.put("K1", "V1");
+        cache.put("K2", "V2");
+        Assertions.assertEquals("V1", cache.get("K1"));
+        Assertions.assertEquals("V2", plain.get("K2"));
+        Assertions.assertEquals("V1", tracking.get("K1"));
+        Assertions.assertEquals("V2", tracking.get("K2"));
+        Assertions.assertTrue(tracking.PUT("K3", "V3").isSuccess());
+        Assertions.assertEquals("V3", cache.get("K3"));
+    }
+}
@@ -5,8 +5,10 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -37,6 +39,31 @@ public class AbstractEncoderTest {
         }
     }
 
+    /**
+     * Encode into a stream and decode from a direct buffer which doesn't start at 0, like the buffer of netty.
+     */
+    protected void streamTest(AbstractValueEncoder streamEncoder, AbstractValueDecoder bufferDecoder) {
+        encoder = (p) -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(-1);
+            streamEncoder.encode(p, out);
+            byte[] bytes = out.toByteArray();
+            return Arrays.copyOfRange(bytes, 1, bytes.length);
+        };
+        decoder = (p) -> {
+            ByteBuffer buf = ByteBuffer.allocateDirect(p.length + 2);
+            buf.put((byte) -1).put(p).put((byte) -1);
+            buf.position(1).limit(p.length + 1);
+            Object o = bufferDecoder.apply(buf);
+            assertEquals(1, buf.position());
+            return o;
+        };
+        assertArrayEquals(streamEncoder.apply("123"), encoder.apply("123"));
+        CacheValueHolder<String> h = new CacheValueHolder<>("V", 1000);
+        assertArrayEquals(streamEncoder.apply(h), encoder.apply(h));
+        baseTest();
+    }
+
     protected void baseTest() {
         assertEquals("123", decoder.apply(encoder.apply("123")));
         assertEquals(123, decoder.apply(encoder.apply(123)));
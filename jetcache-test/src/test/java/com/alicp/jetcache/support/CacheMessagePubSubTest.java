@@ -0,0 +1,258 @@
+package com.alicp.jetcache.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class CacheMessagePubSubTest {
+
+    static class MemoryPubSub extends AbstractCacheMessagePubSub {
+        private final List<MemoryPubSub> bus;
+
+        MemoryPubSub(List<MemoryPubSub> bus) {
+            this.bus = bus;
+        }
+
+        @Override
+        protected void doPublish(byte[] message) {
+            bus.forEach(p -> p.onMessage(message));
+        }
+
+        @Override
+        protected void doSubscribe() {
+            bus.add(this);
+        }
+
+        @Override
+        protected void doClose() {
+            bus.remove(this);
+        }
+    }
+
+    private static CacheMessage message(Object... keys) {
+        CacheMessage m = new CacheMessage();
+        m.setType(CacheMessage.TYPE_REMOVE_ALL);
+        m.setKeys(keys);
+        return m;
+    }
+
+    @Test
+    public void testPublishAndSubscribe() throws Exception {
+        List<MemoryPubSub> bus = new CopyOnWriteArrayList<>();
+        MemoryPubSub node1 = new MemoryPubSub(bus);
+        MemoryPubSub node2 = new MemoryPubSub(bus);
+        LinkedBlockingQueue<CacheMessage> received1 = new LinkedBlockingQueue<>();
+        LinkedBlockingQueue<CacheMessage> received2 = new LinkedBlockingQueue<>();
+        LinkedBlockingQueue<Thread> threads = new LinkedBlockingQueue<>();
+        node1.subscribe(received1::addAll);
+        node2.subscribe(list -> {
+            threads.add(Thread.currentThread());
+            received2.addAll(list);
+        });
+
+        node1.publish("A1", "C1", message("K1", "K2"));
+        CacheMessage m = received2.poll(5, TimeUnit.SECONDS);
+        assertNotNull(m);
+        assertEquals("A1", m.getArea());
+        assertEquals("C1", m.getCacheName());
+        assertEquals(node1.getSourceId(), m.getSourceId());
+        assertArrayEquals(new Object[]{"K1", "K2"}, m.getKeys());
+        assertEquals(CacheMessage.TYPE_INVALIDATE, m.getType());
+        assertNotSame(Thread.currentThread(), threads.poll());
+
+        node2.publish("A1", "C1", message("K3"));
+        assertEquals("K3", received1.poll(5, TimeUnit.SECONDS).getKeys()[0]);
+        // messages sent by itself are skipped
+        Thread.sleep(50);
+        assertTrue(received1.isEmpty());
+        assertTrue(received2.isEmpty());
+
+        node2.close();
+        node1.publish("A1", "C1", message("K4"));
+        Thread.sleep(50);
+        assertTrue(received2.isEmpty());
+        node1.close();
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        List<MemoryPubSub> bus = new CopyOnWriteArrayList<>();
+        MemoryPubSub node1 = new MemoryPubSub(bus);
+        MemoryPubSub node2 = new MemoryPubSub(bus);
+        node1.setCoalesceWindowMillis(0);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LinkedBlockingQueue<List<CacheMessage>> batches = new LinkedBlockingQueue<>();
+        node2.subscribe(list -> {
+            batches.add(list);
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        node1.publish("A1", "C1", message("K0"));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 10; i++) {
+            node1.publish("A1", "C1", message("K" + i));
+        }
+        release.countDown();
+        assertEquals(1, batches.poll(5, TimeUnit.SECONDS).size());
+        // queued while the consumer is busy, delivered in one batch
+        assertEquals(10, batches.poll(5, TimeUnit.SECONDS).size());
+        node2.close();
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        List<MemoryPubSub> bus = new CopyOnWriteArrayList<>();
+        MemoryPubSub node1 = new MemoryPubSub(bus);
+        MemoryPubSub node2 = new MemoryPubSub(bus);
+        node1.setCoalesceWindowMillis(200);
+        node1.setMaxKeysPerFrame(3);
+        LinkedBlockingQueue<CacheMessage> received = new LinkedBlockingQueue<>();
+        node2.subscribe(received::addAll);
+
+        node1.publish("A1", "C1", message("K1", "K2"));
+        node1.publish("A1", "C2", message("K1"));
+        node1.publish("A1", "C1", message("K2", "K3"));
+        node1.publish("A1", "C1", message(new byte[]{1, 2}));
+        node1.publish("A1", "C1", message(new byte[]{1, 2}, 100L));
+
+        CacheMessage m1 = received.poll(5, TimeUnit.SECONDS);
+        CacheMessage m2 = received.poll(5, TimeUnit.SECONDS);
+        CacheMessage m3 = received.poll(5, TimeUnit.SECONDS);
+        assertEquals("C1", m1.getCacheName());
+        assertArrayEquals(new Object[]{"K1", "K2", "K3"}, m1.getKeys());
+        assertEquals("C1", m2.getCacheName());
+        assertArrayEquals(new byte[]{1, 2}, (byte[]) m2.getKeys()[0]);
+        assertEquals(100L, m2.getKeys()[1]);
+        assertEquals("C2", m3.getCacheName());
+        assertArrayEquals(new Object[]{"K1"}, m3.getKeys());
+
+        // wait the publisher thread to finish the counting
+        node1.close();
+        CacheMessagePublishStat stat = node1.getPublishStat();
+        assertEquals(5, stat.getMessageCount());
+        assertEquals(8, stat.getKeyCount());
+        assertEquals(2, stat.getCoalescedKeyCount());
+        // 6 keys, 3 keys per frame
+        assertEquals(2, stat.getFrameCount());
+        assertEquals(0, stat.getDroppedMessageCount());
+
+        node1.publish("A1", "C1", message("K4"));
+        assertEquals("K4", received.poll(5, TimeUnit.SECONDS).getKeys()[0]);
+        node2.close();
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AbstractCacheMessagePubSub pubSub = new MemoryPubSub(new CopyOnWriteArrayList<>()) {
+            @Override
+            protected void doPublish(byte[] message) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        pubSub.setCoalesceWindowMillis(1);
+        pubSub.setMaxPendingMessages(2);
+        pubSub.setPublishTimeoutMillis(1);
+        pubSub.publish("A1", "C1", message("K0"));
+        // wait the publisher thread blocked in doPublish
+        Thread.sleep(100);
+        for (int i = 1; i <= 5; i++) {
+            pubSub.publish("A1", "C1", message("K" + i));
+        }
+        CacheMessagePublishStat stat = pubSub.getPublishStat();
+        assertEquals(3, stat.getDroppedMessageCount());
+        assertEquals(2, stat.getPendingMessageCount());
+        release.countDown();
+        pubSub.close();
+        assertEquals(0, pubSub.getPublishStat().getPendingMessageCount());
+    }
+
+    @Test
+    public void testCodec() {
+        CacheMessage m = message("K1", new byte[]{1}, 2, "\u4e2d");
+        m.setArea("A1");
+        m.setCacheName("C1");
+        byte[] frame = CompactCacheMessageCodec.encode("S1", Collections.singletonList(m));
+        assertTrue(CompactCacheMessageCodec.isFrame(frame));
+        assertFalse(CompactCacheMessageCodec.isFrame(JavaValueEncoder.INSTANCE.apply(m)));
+        List<CacheMessage> list = CompactCacheMessageCodec.decode(frame);
+        assertEquals(1, list.size());
+        CacheMessage d = list.get(0);
+        assertEquals("S1", d.getSourceId());
+        assertEquals("A1", d.getArea());
+        assertEquals("C1", d.getCacheName());
+        assertEquals(CacheMessage.TYPE_REMOVE_ALL, d.getType());
+        assertEquals("K1", d.getKeys()[0]);
+        assertArrayEquals(new byte[]{1}, (byte[]) d.getKeys()[1]);
+        assertEquals(2, d.getKeys()[2]);
+        assertEquals("\u4e2d", d.getKeys()[3]);
+        assertNull(d.getValues());
+
+        CacheMessage p = put("K1", new byte[]{1, 2, 3});
+        p.setArea("A1");
+        p.setCacheName("C1");
+        d = CompactCacheMessageCodec.decode(CompactCacheMessageCodec.encode("S1", Collections.singletonList(p))).get(0);
+        assertEquals(CacheMessage.TYPE_PUT, d.getType());
+        assertEquals("K1", d.getKeys()[0]);
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) d.getValues()[0]);
+    }
+
+    @Test
+    public void testCoalesceValues() throws Exception {
+        List<MemoryPubSub> bus = new CopyOnWriteArrayList<>();
+        MemoryPubSub node1 = new MemoryPubSub(bus);
+        MemoryPubSub node2 = new MemoryPubSub(bus);
+        node1.setCoalesceWindowMillis(200);
+        LinkedBlockingQueue<CacheMessage> received = new LinkedBlockingQueue<>();
+        node2.subscribe(received::addAll);
+
+        node1.publish("A1", "C1", put("K1", new byte[]{1}));
+        node1.publish("A1", "C1", message("K1"));
+        node1.publish("A1", "C1", message("K2"));
+        node1.publish("A1", "C1", put("K2", new byte[]{2}));
+        node1.publish("A1", "C1", put("K3", new byte[]{3}));
+        node1.publish("A1", "C1", put("K3", new byte[]{4}));
+
+        CacheMessage m1 = received.poll(5, TimeUnit.SECONDS);
+        CacheMessage m2 = received.poll(5, TimeUnit.SECONDS);
+        assertEquals(CacheMessage.TYPE_INVALIDATE, m1.getType());
+        assertArrayEquals(new Object[]{"K1"}, m1.getKeys());
+        assertNull(m1.getValues());
+        assertEquals(CacheMessage.TYPE_PUT, m2.getType());
+        assertArrayEquals(new Object[]{"K2", "K3"}, m2.getKeys());
+        assertArrayEquals(new byte[]{2}, (byte[]) m2.getValues()[0]);
+        assertArrayEquals(new byte[]{4}, (byte[]) m2.getValues()[1]);
+        node1.close();
+        assertEquals(3, node1.getPublishStat().getCoalescedKeyCount());
+        node2.close();
+    }
+
+    private static CacheMessage put(Object key, byte[] value) {
+        CacheMessage m = new CacheMessage();
+        m.setType(CacheMessage.TYPE_PUT);
+        m.setKeys(new Object[]{key});
+        m.setValues(new Object[]{value});
+        return m;
+    }
+}
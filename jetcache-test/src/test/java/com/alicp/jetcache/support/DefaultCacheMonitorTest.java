@@ -131,6 +131,60 @@ public class DefaultCacheMonitorTest {
         testMonitor(cache);
     }
 
+    @Test
+    public void testAddAndRemoveMonitor() {
+        Cache cache = createCache();
+        cache.put("MONITOR_TEST_K1", "V1");
+        cache.get("MONITOR_TEST_K1");
+
+        DefaultCacheMonitor m = new DefaultCacheMonitor("Test");
+        cache.config().getMonitors().add(m);
+        cache.get("MONITOR_TEST_K1");
+        cache.put("MONITOR_TEST_K1", "V2");
+        Assert.assertEquals(1, m.getCacheStat().getGetHitCount());
+        Assert.assertEquals(1, m.getCacheStat().getPutCount());
+
+        cache.config().getMonitors().remove(m);
+        cache.get("MONITOR_TEST_K1");
+        cache.remove("MONITOR_TEST_K1");
+        Assert.assertEquals(1, m.getCacheStat().getGetCount());
+        Assert.assertEquals(0, m.getCacheStat().getRemoveCount());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        Cache cache = createCache();
+        DefaultCacheMonitor m = new DefaultCacheMonitor("Test");
+        cache.config().getMonitors().add(m);
+        cache.put("MONITOR_TEST_K1", "V1");
+        int threadCount = 8;
+        int loop = 10000;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < loop; j++) {
+                    cache.get("MONITOR_TEST_K1");
+                    cache.get("MONITOR_TEST_K2");
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        CacheStat stat = m.getCacheStat();
+        Assert.assertEquals(2L * threadCount * loop, stat.getGetCount());
+        Assert.assertEquals((long) threadCount * loop, stat.getGetHitCount());
+        Assert.assertEquals((long) threadCount * loop, stat.getGetMissCount());
+        Assert.assertTrue(stat.getP50GetTime() <= stat.getP99GetTime());
+        Assert.assertTrue(stat.getP99GetTime() <= stat.getP999GetTime());
+        Assert.assertEquals(1, stat.getPutCount());
+
+        m.resetStat();
+        Assert.assertEquals(0, m.getCacheStat().getGetCount());
+        Assert.assertEquals(0, m.getCacheStat().getP99GetTime(), 0);
+    }
+
     @Test
     public void testWithManager() throws Exception {
         Cache c1 = createCache();
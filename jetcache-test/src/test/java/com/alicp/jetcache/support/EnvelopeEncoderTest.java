@@ -0,0 +1,101 @@
+package com.alicp.jetcache.support;
+
+import com.alicp.jetcache.CacheConfigException;
+import com.alicp.jetcache.CacheValueHolder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class EnvelopeEncoderTest extends AbstractEncoderTest {
+
+    @Test
+    public void test() {
+        encoder = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+        decoder = KryoValueDecoder.INSTANCE;
+        baseTest();
+
+        encoder = new EnvelopeValueEncoder(JavaValueEncoder.INSTANCE);
+        decoder = JavaValueDecoder.INSTANCE;
+        baseTest();
+    }
+
+    @Test
+    public void streamTest() {
+        streamTest(new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE), KryoValueDecoder.INSTANCE);
+        streamTest(new EnvelopeValueEncoder(JavaValueEncoder.INSTANCE), EnvelopeValueDecoder.INSTANCE);
+    }
+
+    @Test
+    public void holderTest() {
+        EnvelopeValueEncoder envelope = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+        CacheValueHolder<String> h = new CacheValueHolder<>("V", 10000);
+        byte[] bytes = envelope.apply(h);
+        assertTrue(EnvelopeValueDecoder.isEnvelope(bytes));
+        CacheValueHolder<String> h2 = (CacheValueHolder<String>) KryoValueDecoder.INSTANCE.apply(bytes);
+        assertEquals("V", h2.getValue());
+        assertEquals(h.getExpireTime(), h2.getExpireTime());
+        assertEquals(0, h2.getSoftExpireTime());
+        // accessTime is not stored
+        assertEquals(0, h2.getAccessTime());
+
+        h.setSoftExpireTime(h.getExpireTime() - 5000);
+        bytes = envelope.apply(h);
+        h2 = (CacheValueHolder<String>) JavaValueDecoder.INSTANCE.apply(bytes);
+        assertEquals("V", h2.getValue());
+        assertEquals(h.getExpireTime(), h2.getExpireTime());
+        assertEquals(h.getSoftExpireTime(), h2.getSoftExpireTime());
+
+        // the envelope is smaller than the whole holder encoded by kryo
+        assertTrue(bytes.length < KryoValueEncoder.INSTANCE.apply(h).length);
+    }
+
+    @Test
+    public void expireTest() {
+        EnvelopeValueEncoder envelope = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+        CacheValueHolder<String> h = new CacheValueHolder<>("V", 1000);
+        byte[] bytes = envelope.apply(h);
+        assertFalse(EnvelopeValueDecoder.isExpired(bytes, h.getExpireTime() - 1));
+        assertTrue(EnvelopeValueDecoder.isExpired(bytes, h.getExpireTime()));
+
+        // old format is never reported expired by the header check
+        byte[] old = KryoValueEncoder.INSTANCE.apply(h);
+        assertFalse(EnvelopeValueDecoder.isEnvelope(old));
+        assertFalse(EnvelopeValueDecoder.isExpired(old, Long.MAX_VALUE));
+        assertFalse(EnvelopeValueDecoder.isExpired(new byte[]{1, 2}, Long.MAX_VALUE));
+        assertFalse(EnvelopeValueDecoder.isExpired(null, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void compatibleTest() {
+        // values written before the rollout are still decoded
+        CacheValueHolder<String> h = new CacheValueHolder<>("V", 1000);
+        CacheValueHolder<String> h2 = (CacheValueHolder<String>) KryoValueDecoder.INSTANCE.apply(
+                KryoValueEncoder.INSTANCE.apply(h));
+        assertEquals("V", h2.getValue());
+        assertEquals(h.getAccessTime(), h2.getAccessTime());
+    }
+
+    @Test
+    public void errorTest() {
+        assertThrows(CacheConfigException.class, () -> new EnvelopeValueEncoder(new KryoValueEncoder(false)));
+
+        byte[] bytes = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE).apply(new CacheValueHolder<>("V", 1000));
+        bytes[4] = (byte) (2 << 4);
+        assertThrows(CacheEncodeException.class, () -> KryoValueDecoder.INSTANCE.apply(bytes));
+    }
+
+    @Test
+    public void gcTest() {
+        encoder = new EnvelopeValueEncoder(KryoValueEncoder.INSTANCE);
+        decoder = KryoValueDecoder.INSTANCE;
+        super.gcTest();
+    }
+}
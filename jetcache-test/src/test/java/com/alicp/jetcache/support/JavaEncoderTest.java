@@ -21,6 +21,13 @@ public class JavaEncoderTest extends AbstractEncoderTest {
         baseTest();
     }
 
+    @Test
+    public void streamTest() {
+        streamTest(JavaValueEncoder.INSTANCE, JavaValueDecoder.INSTANCE);
+        streamTest(new JavaValueEncoder(false), new JavaValueDecoder(false));
+        streamTest(JavaValueEncoder.INSTANCE, KryoValueDecoder.INSTANCE);
+    }
+
     @Test
     public void compoundTest() {
         encoder = (p) -> JavaValueEncoder.INSTANCE.apply(JavaValueEncoder.INSTANCE.apply(p));
@@ -21,6 +21,13 @@ public class KryoEncoderTest extends AbstractEncoderTest {
         baseTest();
     }
 
+    @Test
+    public void streamTest() {
+        streamTest(KryoValueEncoder.INSTANCE, KryoValueDecoder.INSTANCE);
+        streamTest(new KryoValueEncoder(false), new KryoValueDecoder(false));
+        streamTest(KryoValueEncoder.INSTANCE, JavaValueDecoder.INSTANCE);
+    }
+
     @Test
     public void compoundTest() {
         encoder = (p) -> KryoValueEncoder.INSTANCE.apply(KryoValueEncoder.INSTANCE.apply(p));
@@ -0,0 +1,63 @@
+package com.alicp.jetcache.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucket() {
+        for (long v = 0; v < 100000; v++) {
+            int index = LatencyHistogram.bucketIndex(v);
+            long lower = LatencyHistogram.bucketLowerBound(index);
+            Assert.assertTrue(v >= lower);
+            Assert.assertTrue(v < lower + LatencyHistogram.bucketWidth(index));
+            Assert.assertTrue(LatencyHistogram.bucketWidth(index) <= Math.max(1, v / 16));
+        }
+        Assert.assertEquals(0, LatencyHistogram.bucketIndex(-1));
+        Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        double[] p = LatencyHistogram.percentiles(h.snapshot(), 0.5, 0.99);
+        Assert.assertEquals(0, p[0], 0);
+        Assert.assertEquals(0, p[1], 0);
+
+        for (int i = 1; i <= 1000; i++) {
+            h.record(i);
+        }
+        p = LatencyHistogram.percentiles(h.snapshot(), 0.5, 0.99, 0.999, 1);
+        Assert.assertEquals(500, p[0], 500 / 16.0);
+        Assert.assertEquals(990, p[1], 990 / 16.0);
+        Assert.assertEquals(999, p[2], 999 / 16.0);
+        Assert.assertEquals(1000, p[3], 1000 / 16.0);
+    }
+
+    @Test
+    public void testConcurrentRecord() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        int threadCount = 8;
+        int loop = 20000;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < loop; j++) {
+                    h.recordNanos(5000);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long[] counts = h.snapshot();
+        Assert.assertEquals((long) threadCount * loop, counts[LatencyHistogram.bucketIndex(5)]);
+    }
+}
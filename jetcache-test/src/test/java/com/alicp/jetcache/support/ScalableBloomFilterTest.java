@@ -0,0 +1,104 @@
+package com.alicp.jetcache.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Created on 2026/10/18.
+ *
+ * @author <a href="mailto:areyouok@gmail.com">huangli</a>
+ */
+public class ScalableBloomFilterTest {
+
+    private static byte[] key(String prefix, int i) {
+        return (prefix + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double falsePositiveRate(ScalableBloomFilter f, int count) {
+        int fp = 0;
+        for (int i = 0; i < count; i++) {
+            if (f.mightContain(key("absent_", i))) {
+                fp++;
+            }
+        }
+        return (double) fp / count;
+    }
+
+    @Test
+    public void testNoFalseNegative() {
+        ScalableBloomFilter f = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            f.put(key("K", i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(f.mightContain(key("K", i)));
+        }
+        assertEquals(1, f.stageCount());
+        assertTrue(falsePositiveRate(f, 10000) < 0.02);
+    }
+
+    @Test
+    public void testGrow() {
+        ScalableBloomFilter f = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 20000; i++) {
+            f.put(key("K", i));
+        }
+        assertTrue(f.stageCount() > 1);
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(f.mightContain(key("K", i)));
+        }
+        // the compound false positive probability is still bounded after growing
+        assertTrue(f.expectedFpp() < 0.01, "expectedFpp: " + f.expectedFpp());
+        assertTrue(falsePositiveRate(f, 20000) < 0.02);
+    }
+
+    @Test
+    public void testPutAndGetOffsets() {
+        ScalableBloomFilter f = new ScalableBloomFilter(100, 0.01);
+        long[] offsets = f.putAndGetOffsets(key("K", 1));
+        assertNotNull(offsets);
+        assertEquals(0, offsets[0]);
+        assertNull(f.putAndGetOffsets(key("K", 1)));
+        assertFalse(f.put(key("K", 1)));
+    }
+
+    @Test
+    public void testBytesRoundTrip() {
+        ScalableBloomFilter f = new ScalableBloomFilter(1000, 0.01);
+        for (int i = 0; i < 5000; i++) {
+            f.put(key("K", i));
+        }
+        List<byte[]> stages = new ArrayList<>();
+        for (int i = 0; i < f.stageCount(); i++) {
+            stages.add(f.toBytes(i));
+        }
+        ScalableBloomFilter copy = ScalableBloomFilter.fromBytes(1000, 0.01, stages);
+        assertEquals(f.stageCount(), copy.stageCount());
+        for (int i = 0; i < f.stageCount(); i++) {
+            assertArrayEquals(stages.get(i), copy.toBytes(i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(copy.mightContain(key("K", i)));
+        }
+        // new keys go to the last stage of the copy, which is still not full
+        copy.put(key("N", 1));
+        assertEquals(f.stageCount(), copy.stageCount());
+        assertTrue(copy.mightContain(key("N", 1)));
+    }
+
+    @Test
+    public void testRedisBitOrder() {
+        ScalableBloomFilter f = new ScalableBloomFilter(10, 0.01);
+        long[] offsets = f.putAndGetOffsets(key("K", 1));
+        byte[] bytes = f.toBytes(0);
+        for (int i = 1; i < offsets.length; i++) {
+            long bit = offsets[i];
+            assertTrue((bytes[(int) (bit / 8)] & (0x80 >>> (bit % 8))) != 0);
+        }
+    }
+}